@@ -1,6 +1,26 @@
 package com.mycompany.sewabaju;
 
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.database.SchemaMigration;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.models.User;
+import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.server.ApiServer;
+import com.mycompany.sewabaju.services.AnalitikService;
+import com.mycompany.sewabaju.services.AuthService;
+import com.mycompany.sewabaju.services.CartService;
+import com.mycompany.sewabaju.services.ChangePollingService;
+import com.mycompany.sewabaju.services.CsvExportService;
+import com.mycompany.sewabaju.services.DailyStatsService;
+import com.mycompany.sewabaju.services.DashboardService;
+import com.mycompany.sewabaju.services.DendaService;
+import com.mycompany.sewabaju.services.DeviceTokenService;
+import com.mycompany.sewabaju.services.LaporanService;
+import com.mycompany.sewabaju.services.NotifikasiDispatcher;
+import com.mycompany.sewabaju.services.PenyewaanService;
+import com.mycompany.sewabaju.utils.AuthExecutor;
 import com.mycompany.sewabaju.utils.FileUtil;
+import com.mycompany.sewabaju.utils.TaskScheduler;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -8,6 +28,11 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumSet;
 
 /**
  * JavaFX App - Main Entry Point
@@ -26,13 +51,31 @@ public class App extends Application {
             // Initialize upload directories
             FileUtil.initializeDirectories();
             
-            // Load login screen as first screen
-            scene = new Scene(loadFXML("login"), 600, 400);
+            // Prepare schema additions and rollup tables
+            initializeDatabase();
             
-            // Set stage properties
-            stage.setScene(scene);
-            stage.setTitle("SewaBaju - Sistem Penyewaan Baju");
-            stage.setResizable(false);
+            // Pick BCrypt cost for this machine without blocking startup
+            AuthExecutor.getInstance().calibrateInBackground();
+            
+            // Remembered terminal skips the login screen
+            User resumed = AuthService.getInstance().resumeFromDeviceToken();
+            
+            if (resumed != null) {
+                boolean admin = resumed.getRole() == Role.ADMIN;
+                scene = new Scene(loadFXML(admin ? "admin/admin_dashboard" : "pelanggan/pelanggan_dashboard"));
+                stage.setScene(scene);
+                stage.setTitle(admin ? "Admin Dashboard - SewaBaju" : "Dashboard - SewaBaju");
+                stage.setResizable(false);
+                stage.setMaximized(true);
+            } else {
+                // Load login screen as first screen
+                scene = new Scene(loadFXML("login"), 600, 400);
+                
+                // Set stage properties
+                stage.setScene(scene);
+                stage.setTitle("SewaBaju - Sistem Penyewaan Baju");
+                stage.setResizable(false);
+            }
             
             // Show stage
             stage.show();
@@ -53,6 +96,27 @@ public class App extends Application {
         }
     }
 
+    /**
+     * Run schema migration, backfill rollup tables and start background jobs
+     */
+    private static void initializeDatabase() {
+        try {
+            SchemaMigration.migrate();
+            // Job background dan transaksi memakai connection pool sendiri, juga di mode desktop
+            DatabaseConnection.getInstance().enablePool();
+            DailyStatsService.getInstance().ensureBackfilled();
+            DendaService.getInstance().startOverdueSweep();
+            CartService.getInstance().startHoldExpiry();
+            PenyewaanService.getInstance().startPaymentExpiry();
+            DeviceTokenService.getInstance().purgeExpired();
+            ChangePollingService.getInstance().start();
+            NotifikasiDispatcher.getInstance().start();
+            AnalitikService.getInstance().start();
+        } catch (Exception e) {
+            System.err.println("Database initialization skipped: " + e.getMessage());
+        }
+    }
+
     /**
      * Set root FXML (change screen)
      */
@@ -130,6 +194,30 @@ public class App extends Application {
         String javaVersion = System.getProperty("java.version");
         System.out.println("Java Version: " + javaVersion);
         
+        // Command line: --rebuild-daily-stats [yyyy-MM-dd yyyy-MM-dd]
+        if (args.length > 0 && "--rebuild-daily-stats".equals(args[0])) {
+            rebuildDailyStats(args);
+            return;
+        }
+        
+        // Command line: --sweep-overdue [yyyy-MM-dd]
+        if (args.length > 0 && "--sweep-overdue".equals(args[0])) {
+            sweepOverdue(args);
+            return;
+        }
+        
+        // Command line: --export-csv <dir> [yyyy-MM-dd yyyy-MM-dd] [--gzip] [--force]
+        if (args.length > 1 && "--export-csv".equals(args[0])) {
+            exportCsv(args);
+            return;
+        }
+        
+        // Command line: --server [port]
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+        
         // Check JavaFX availability
         try {
             Class.forName("javafx.application.Application");
@@ -144,16 +232,135 @@ public class App extends Application {
         launch();
     }
 
+    /**
+     * Tanpa periode, export bulan lalu. Jalankan ulang dengan parameter yang sama untuk
+     * melanjutkan export yang terputus; --force menulis ulang semua file.
+     */
+    private static void exportCsv(String[] args) {
+        try {
+            SchemaMigration.migrate();
+            
+            boolean gzip = Arrays.asList(args).contains("--gzip");
+            boolean force = Arrays.asList(args).contains("--force");
+            YearMonth lastMonth = YearMonth.now().minusMonths(1);
+            LocalDate start = lastMonth.atDay(1);
+            LocalDate end = lastMonth.atEndOfMonth();
+            if (args.length >= 4 && !args[2].startsWith("--")) {
+                start = LocalDate.parse(args[2]);
+                end = LocalDate.parse(args[3]);
+            }
+            
+            long rows = CsvExportService.getInstance().exportCsv(
+                    EnumSet.allOf(CsvExportService.Dataset.class), start, end, Paths.get(args[1]), gzip, force, null);
+            System.out.println("CSV exported: " + rows + " rows (" + start + " - " + end + ")");
+        } catch (Exception e) {
+            System.err.println("ERROR exporting CSV: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+    
+    /**
+     * Backfill daily_stats from penyewaan, pembayaran and denda
+     */
+    private static void rebuildDailyStats(String[] args) {
+        try {
+            SchemaMigration.migrate();
+            
+            int rows;
+            if (args.length >= 3) {
+                LocalDate start = LocalDate.parse(args[1]);
+                LocalDate end = LocalDate.parse(args[2]);
+                rows = DailyStatsService.getInstance().rebuild(start, end);
+            } else {
+                rows = DailyStatsService.getInstance().rebuildAll();
+            }
+            
+            System.out.println("Daily stats rebuilt: " + rows + " rows");
+        } catch (Exception e) {
+            System.err.println("ERROR rebuilding daily stats: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    /**
+     * Accrue late fees for overdue rentals once and exit
+     */
+    private static void sweepOverdue(String[] args) {
+        try {
+            SchemaMigration.migrate();
+            
+            LocalDate today = args.length >= 2 ? LocalDate.parse(args[1]) : LocalDate.now();
+            DendaService.SweepResult result = DendaService.getInstance().sweepOverdue(today);
+            
+            System.out.println("Overdue sweep finished: " + result);
+        } catch (Exception e) {
+            System.err.println("ERROR sweeping overdue penyewaan: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    /**
+     * Headless mode: expose services as JSON API, blocks until the process is terminated
+     */
+    private static void runServer(String[] args) {
+        int port = args.length >= 2 ? Integer.parseInt(args[1]) : ApiServer.DEFAULT_PORT;
+        
+        initializeDatabase();
+        AuthExecutor.getInstance().calibrateInBackground();
+        DashboardService.getInstance().start();
+        
+        ApiServer server = new ApiServer(port);
+        try {
+            server.start();
+        } catch (IOException e) {
+            System.err.println("ERROR starting API server: " + e.getMessage());
+            DatabaseConnection.getInstance().closeConnection();
+            return;
+        }
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("API server shutting down...");
+            server.stop();
+            shutdownBackgroundServices();
+            DatabaseConnection.getInstance().closeConnection();
+        }, "api-shutdown"));
+        
+        System.out.println("API server running on port " + port + " (Ctrl+C to stop)");
+        
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void stop() {
         System.out.println("Application stopping...");
         
-        // Cleanup resources here if needed
-        // For example: close database connections, save state, etc.
+        System.out.println("Auth metrics: " + AuthExecutor.getInstance().getMetricsSummary());
+        shutdownBackgroundServices();
         
         System.out.println("Application stopped");
     }
     
+    /**
+     * Stop scheduled jobs first, then close the analitik store and thread pools
+     */
+    private static void shutdownBackgroundServices() {
+        TaskScheduler.getInstance().shutdown();
+        AnalitikService.getInstance().close();
+        LaporanService.getInstance().shutdown();
+        AuthExecutor.getInstance().shutdown();
+        EventBus.getInstance().shutdown();
+    }
+    
     /**
      * Show error dialog
      */
@@ -0,0 +1,33 @@
+package com.mycompany.sewabaju.analitik;
+
+public enum Dimensi {
+    TANGGAL("Tanggal"),
+    BULAN("Bulan"),
+    KATEGORI("Kategori"),
+    BAJU("Baju"),
+    UKURAN("Ukuran"),
+    PELANGGAN("Pelanggan"),
+    STATUS("Status");
+    
+    private final String displayName;
+    
+    Dimensi(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Dimensi waktu diurutkan menurut kunci, sisanya menurut pendapatan terbesar.
+     */
+    public boolean isWaktu() {
+        return this == TANGGAL || this == BULAN;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.mycompany.sewabaju.analitik;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Filter scan fakta. Nilai 0 / null berarti tidak difilter. Batas tanggal inklusif.
+ */
+public class FactFilter {
+    private final int startDay;
+    private final int endDay;
+    private int kategoriId;
+    private int bajuId;
+    private int userId;
+    private int ukuranKode;
+    private int statusMask;
+
+    public FactFilter(LocalDate startDate, LocalDate endDate) {
+        this.startDay = startDate != null ? (int) startDate.toEpochDay() : Integer.MIN_VALUE;
+        this.endDay = endDate != null ? (int) endDate.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    public FactFilter setKategoriId(int kategoriId) {
+        this.kategoriId = kategoriId;
+        return this;
+    }
+
+    public FactFilter setBajuId(int bajuId) {
+        this.bajuId = bajuId;
+        return this;
+    }
+
+    public FactFilter setUserId(int userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    public FactFilter setUkuran(Ukuran ukuran) {
+        this.ukuranKode = SewaFactStore.encode(ukuran);
+        return this;
+    }
+
+    public FactFilter setStatus(Collection<StatusPenyewaan> statuses) {
+        int mask = 0;
+        if (statuses != null) {
+            for (StatusPenyewaan status : statuses) {
+                mask |= 1 << SewaFactStore.encode(status);
+            }
+        }
+        this.statusMask = mask;
+        return this;
+    }
+
+    boolean matches(int tgl, int kategori, int baju, int user, int ukuran, int status) {
+        return tgl >= startDay && tgl <= endDay
+                && (kategoriId == 0 || kategori == kategoriId)
+                && (bajuId == 0 || baju == bajuId)
+                && (userId == 0 || user == userId)
+                && (ukuranKode == 0 || ukuran == ukuranKode)
+                && (statusMask == 0 || (statusMask & (1 << status)) != 0);
+    }
+}
\ No newline at end of file
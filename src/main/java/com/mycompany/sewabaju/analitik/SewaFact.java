@@ -0,0 +1,76 @@
+package com.mycompany.sewabaju.analitik;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+
+import java.time.LocalDate;
+
+/**
+ * Satu baris fakta penyewaan (per detail_penyewaan) sebelum ditulis ke kolom.
+ */
+public class SewaFact {
+    private final int detailSewaId;
+    private final int sewaId;
+    private final int userId;
+    private final LocalDate tglSewa;
+    private final int kategoriId;
+    private final int bajuId;
+    private final Ukuran ukuran;
+    private final StatusPenyewaan status;
+    private final int jumlah;
+    private final double subtotal;
+
+    public SewaFact(int detailSewaId, int sewaId, int userId, LocalDate tglSewa, int kategoriId,
+                    int bajuId, Ukuran ukuran, StatusPenyewaan status, int jumlah, double subtotal) {
+        this.detailSewaId = detailSewaId;
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.tglSewa = tglSewa;
+        this.kategoriId = kategoriId;
+        this.bajuId = bajuId;
+        this.ukuran = ukuran;
+        this.status = status;
+        this.jumlah = jumlah;
+        this.subtotal = subtotal;
+    }
+
+    public int getDetailSewaId() {
+        return detailSewaId;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDate getTglSewa() {
+        return tglSewa;
+    }
+
+    public int getKategoriId() {
+        return kategoriId;
+    }
+
+    public int getBajuId() {
+        return bajuId;
+    }
+
+    public Ukuran getUkuran() {
+        return ukuran;
+    }
+
+    public StatusPenyewaan getStatus() {
+        return status;
+    }
+
+    public int getJumlah() {
+        return jumlah;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,466 @@
+package com.mycompany.sewabaju.analitik;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Penyimpanan kolom untuk fakta penyewaan, satu baris per detail_penyewaan. Setiap kolom
+ * adalah file primitif yang di-memory-map (tanggal sebagai epoch-day, nominal dalam sen,
+ * enum sebagai kode kamus). Metadata ditulis paling akhir, jadi crash di tengah refresh
+ * hanya berarti baris sejak watermark lama dibaca ulang. File kolom ada di direktori
+ * generasi (gen-N) yang ditunjuk metadata; reset membuat generasi baru, karena file yang
+ * masih di-map tidak bisa dihapus atau dipotong di Windows sampai buffer-nya di-GC.
+ */
+public class SewaFactStore implements Closeable {
+
+    private static final int VERSION = 2;
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int CHUNK_ROWS = Integer.getInteger("sewabaju.analitik.chunkRows", 65536);
+    private static final String META_FILE = "fakta.meta";
+    private static final String GENERATION_PREFIX = "gen-";
+
+    private static final class Column {
+        private final String name;
+        private final int width;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int capacity;
+
+        Column(String name, int width) {
+            this.name = name;
+            this.width = width;
+        }
+
+        void open(Path dir, int rows) throws IOException {
+            channel = FileChannel.open(dir.resolve(name + ".col"), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < (long) rows * width) {
+                throw new IOException("Kolom " + name + " lebih pendek dari jumlah baris");
+            }
+            map(Math.max(rows, INITIAL_CAPACITY));
+        }
+
+        void ensureCapacity(int rows) throws IOException {
+            if (rows > capacity) {
+                map(Math.max(rows, capacity * 2));
+            }
+        }
+
+        private void map(int rows) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) rows * width);
+            capacity = rows;
+        }
+
+        int get(int row) {
+            switch (width) {
+                case Byte.BYTES: return buffer.get(row);
+                case Integer.BYTES: return buffer.getInt(row * Integer.BYTES);
+                default: throw new IllegalStateException("Kolom " + name + " bukan int");
+            }
+        }
+
+        long getLong(int row) {
+            return buffer.getLong(row * Long.BYTES);
+        }
+
+        void put(int row, int value) {
+            if (width == Byte.BYTES) {
+                buffer.put(row, (byte) value);
+            } else {
+                buffer.putInt(row * Integer.BYTES, value);
+            }
+        }
+
+        void putLong(int row, long value) {
+            buffer.putLong(row * Long.BYTES, value);
+        }
+
+        void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                buffer = null;
+            }
+        }
+    }
+
+    private final Path dir;
+    private final Column detailSewaId = new Column("detail_sewa_id", Integer.BYTES);
+    private final Column sewaId = new Column("sewa_id", Integer.BYTES);
+    private final Column userId = new Column("user_id", Integer.BYTES);
+    private final Column tglSewa = new Column("tgl_sewa", Integer.BYTES);
+    private final Column bulan = new Column("bulan", Integer.BYTES);
+    private final Column kategoriId = new Column("kategori_id", Integer.BYTES);
+    private final Column bajuId = new Column("baju_id", Integer.BYTES);
+    private final Column ukuran = new Column("ukuran", Byte.BYTES);
+    private final Column status = new Column("status", Byte.BYTES);
+    private final Column jumlah = new Column("jumlah", Integer.BYTES);
+    private final Column subtotalSen = new Column("subtotal_sen", Long.BYTES);
+    private final List<Column> columns = Arrays.asList(detailSewaId, sewaId, userId, tglSewa, bulan,
+            kategoriId, bajuId, ukuran, status, jumlah, subtotalSen);
+
+    private final Map<Integer, Integer> rowByDetailId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int generation;
+    private int rowCount;
+    private LocalDateTime watermark;
+
+    private SewaFactStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static SewaFactStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        SewaFactStore store = new SewaFactStore(dir);
+
+        try {
+            Properties meta = readMeta(dir.resolve(META_FILE));
+            if (meta != null && isCompatible(meta)) {
+                store.rowCount = Integer.parseInt(meta.getProperty("rowCount", "0"));
+                String wm = meta.getProperty("watermark");
+                store.watermark = wm != null ? LocalDateTime.parse(wm) : null;
+                store.generation = Integer.parseInt(meta.getProperty("generation"));
+                store.openColumns();
+            } else {
+                store.startGeneration();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Metadata rusak atau file kolom tidak cocok: mulai ulang dari kosong
+            store.closeColumns();
+            store.startGeneration();
+        }
+        store.deleteStaleGenerations();
+        return store;
+    }
+
+    public static int encode(Ukuran value) {
+        return value != null ? value.ordinal() + 1 : 0;
+    }
+
+    public static int encode(StatusPenyewaan value) {
+        return value != null ? value.ordinal() + 1 : 0;
+    }
+
+    public static Ukuran decodeUkuran(int kode) {
+        return kode > 0 && kode <= Ukuran.values().length ? Ukuran.values()[kode - 1] : null;
+    }
+
+    public static StatusPenyewaan decodeStatus(int kode) {
+        return kode > 0 && kode <= StatusPenyewaan.values().length ? StatusPenyewaan.values()[kode - 1] : null;
+    }
+
+    /**
+     * Bulan dikodekan sebagai tahun * 12 + (bulan - 1).
+     */
+    public static LocalDate decodeBulan(int kode) {
+        return LocalDate.of(kode / 12, kode % 12 + 1, 1);
+    }
+
+    public LocalDateTime getWatermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getRowCount() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tulis atau timpa fakta menurut detail_sewa_id. Belum tahan crash sampai commit().
+     */
+    public void apply(List<SewaFact> facts) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(rowCount + facts.size());
+
+            for (SewaFact fact : facts) {
+                Integer row = rowByDetailId.get(fact.getDetailSewaId());
+                if (row == null) {
+                    row = rowCount++;
+                    rowByDetailId.put(fact.getDetailSewaId(), row);
+                }
+                write(row, fact);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void commit(LocalDateTime newWatermark) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Column column : columns) {
+                column.buffer.force();
+            }
+            watermark = newWatermark;
+            writeMeta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kosongkan store; refresh berikutnya membaca ulang seluruh riwayat. Kolom kosong ditulis
+     * di generasi baru dan metadata dipindah ke sana; generasi lama dihapus bila sudah bisa.
+     */
+    public void reset() throws IOException {
+        lock.writeLock().lock();
+        try {
+            closeColumns();
+            startGeneration();
+            writeMeta();
+            deleteStaleGenerations();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Group-by satu dimensi. Baris dibagi per chunk dan di-scan paralel; setiap chunk
+     * mengisi map sendiri lalu digabung. Nilai: {jumlah baris, jumlah item, subtotal sen}.
+     */
+    public Map<Integer, long[]> aggregate(FactFilter filter, Dimensi dimensi) {
+        lock.readLock().lock();
+        try {
+            int rows = rowCount;
+            int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            Column key = keyColumn(dimensi);
+
+            return IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> scan(chunk * CHUNK_ROWS, Math.min(rows, (chunk + 1) * CHUNK_ROWS),
+                            filter, key))
+                    .reduce(SewaFactStore::merge)
+                    .orElseGet(HashMap::new);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            closeColumns();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Integer, long[]> scan(int from, int to, FactFilter filter, Column key) {
+        Map<Integer, long[]> groups = new HashMap<>();
+
+        for (int row = from; row < to; row++) {
+            if (!filter.matches(tglSewa.get(row), kategoriId.get(row), bajuId.get(row),
+                    userId.get(row), ukuran.get(row), status.get(row))) {
+                continue;
+            }
+
+            long[] acc = groups.computeIfAbsent(key.get(row), k -> new long[3]);
+            acc[0]++;
+            acc[1] += jumlah.get(row);
+            acc[2] += subtotalSen.getLong(row);
+        }
+        return groups;
+    }
+
+    private static Map<Integer, long[]> merge(Map<Integer, long[]> a, Map<Integer, long[]> b) {
+        for (Map.Entry<Integer, long[]> entry : b.entrySet()) {
+            long[] acc = a.get(entry.getKey());
+            if (acc == null) {
+                a.put(entry.getKey(), entry.getValue());
+            } else {
+                for (int i = 0; i < acc.length; i++) {
+                    acc[i] += entry.getValue()[i];
+                }
+            }
+        }
+        return a;
+    }
+
+    private Column keyColumn(Dimensi dimensi) {
+        switch (dimensi) {
+            case TANGGAL: return tglSewa;
+            case BULAN: return bulan;
+            case KATEGORI: return kategoriId;
+            case BAJU: return bajuId;
+            case UKURAN: return ukuran;
+            case PELANGGAN: return userId;
+            case STATUS: return status;
+            default: throw new IllegalArgumentException("Dimensi tidak dikenal: " + dimensi);
+        }
+    }
+
+    private void write(int row, SewaFact fact) {
+        LocalDate tgl = fact.getTglSewa();
+
+        detailSewaId.put(row, fact.getDetailSewaId());
+        sewaId.put(row, fact.getSewaId());
+        userId.put(row, fact.getUserId());
+        tglSewa.put(row, tgl != null ? (int) tgl.toEpochDay() : 0);
+        bulan.put(row, tgl != null ? tgl.getYear() * 12 + tgl.getMonthValue() - 1 : 0);
+        kategoriId.put(row, fact.getKategoriId());
+        bajuId.put(row, fact.getBajuId());
+        ukuran.put(row, encode(fact.getUkuran()));
+        status.put(row, encode(fact.getStatus()));
+        jumlah.put(row, fact.getJumlah());
+        subtotalSen.putLong(row, Math.round(fact.getSubtotal() * 100));
+    }
+
+    private void ensureCapacity(int rows) throws IOException {
+        for (Column column : columns) {
+            column.ensureCapacity(rows);
+        }
+    }
+
+    private void startGeneration() throws IOException {
+        int next = generation;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, GENERATION_PREFIX + "*")) {
+            for (Path entry : entries) {
+                next = Math.max(next, parseGeneration(entry));
+            }
+        }
+
+        // Nomor generasi tidak pernah dipakai ulang, jadi tidak bertemu file yang masih di-map
+        generation = next + 1;
+        rowCount = 0;
+        watermark = null;
+        Files.createDirectories(generationDir());
+        openColumns();
+    }
+
+    /**
+     * Hapus generasi lama dan file kolom format lama. Di Windows file yang masih di-map
+     * gagal dihapus; dibiarkan dan dicoba lagi saat store dibuka berikutnya.
+     */
+    private void deleteStaleGenerations() {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(GENERATION_PREFIX) && parseGeneration(entry) != generation) {
+                    deleteDirectory(entry);
+                } else if (name.endsWith(".col")) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        } catch (IOException e) {
+            // Sisa generasi lama hanya memakan disk, store tetap benar
+        }
+    }
+
+    private static void deleteDirectory(Path generationDir) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(generationDir)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(generationDir);
+        } catch (IOException e) {
+            // Masih di-map oleh proses ini
+        }
+    }
+
+    private static int parseGeneration(Path entry) {
+        try {
+            return Integer.parseInt(entry.getFileName().toString().substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Path generationDir() {
+        return dir.resolve(GENERATION_PREFIX + generation);
+    }
+
+    private void openColumns() throws IOException {
+        Path columnDir = generationDir();
+        for (Column column : columns) {
+            column.open(columnDir, rowCount);
+        }
+
+        rowByDetailId.clear();
+        for (int row = 0; row < rowCount; row++) {
+            rowByDetailId.put(detailSewaId.get(row), row);
+        }
+    }
+
+    private void closeColumns() throws IOException {
+        for (Column column : columns) {
+            column.close();
+        }
+    }
+
+    private void writeMeta() throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("version", String.valueOf(VERSION));
+        meta.setProperty("generation", String.valueOf(generation));
+        meta.setProperty("rowCount", String.valueOf(rowCount));
+        if (watermark != null) {
+            meta.setProperty("watermark", watermark.toString());
+        }
+        meta.setProperty("dict.ukuran", names(Ukuran.values()));
+        meta.setProperty("dict.status", names(StatusPenyewaan.values()));
+
+        Path tmp = dir.resolve(META_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            meta.store(out, "SewaBaju fakta penyewaan");
+        }
+        Files.move(tmp, dir.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Properties readMeta(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            meta.load(in);
+        }
+        return meta;
+    }
+
+    /**
+     * Kode enum disimpan sebagai urutan kamus; bila enum berubah, store harus dibangun ulang.
+     */
+    private static boolean isCompatible(Properties meta) {
+        return String.valueOf(VERSION).equals(meta.getProperty("version"))
+                && names(Ukuran.values()).equals(meta.getProperty("dict.ukuran"))
+                && names(StatusPenyewaan.values()).equals(meta.getProperty("dict.status"));
+    }
+
+    private static String names(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).collect(Collectors.joining(","));
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.mycompany.sewabaju.models.User;
 import com.mycompany.sewabaju.models.enums.Role;
 import com.mycompany.sewabaju.services.AuthService;
 import com.mycompany.sewabaju.utils.AlertUtil;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -13,6 +14,7 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletionException;
 
 public class LoginController {
     
@@ -59,23 +61,27 @@ public class LoginController {
         }
 
         btnLogin.setDisable(true);
+        boolean remember = chkRememberMe != null && chkRememberMe.isSelected();
         
-        try {
-            User user = authService.login(email, password);
-
-            System.out.println("Login success: " + user.getNama() + " (" + user.getRole() + ")");
-
-            redirectToDashboard(user.getRole());
+        // Verifikasi BCrypt berjalan di AuthExecutor agar UI tidak membeku
+        authService.loginAsync(email, password, remember).whenComplete((user, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                System.out.println("Login success: " + user.getNama() + " (" + user.getRole() + ")");
+                redirectToDashboard(user.getRole());
+                return;
+            }
             
-        } catch (AuthenticationException e) {
-            showError(e.getMessage());
-            btnLogin.setDisable(false);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                error.getCause() : error;
             
-        } catch (Exception e) {
-            showError("Terjadi kesalahan: " + e.getMessage());
+            if (cause instanceof AuthenticationException) {
+                showError(cause.getMessage());
+            } else {
+                showError("Terjadi kesalahan: " + cause.getMessage());
+                cause.printStackTrace();
+            }
             btnLogin.setDisable(false);
-            e.printStackTrace();
-        }
+        }));
     }
     @FXML
     private void handleGoToRegister() {
@@ -1,14 +1,16 @@
 package com.mycompany.sewabaju.controllers.admin;
 
+import com.mycompany.sewabaju.database.DatabaseConnection;
 import com.mycompany.sewabaju.models.Admin;
+import com.mycompany.sewabaju.models.DashboardSnapshot;
+import com.mycompany.sewabaju.models.PembayaranRow;
 import com.mycompany.sewabaju.models.Penyewaan;
-import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import com.mycompany.sewabaju.services.AuthService;
-import com.mycompany.sewabaju.services.PembayaranService;
-import com.mycompany.sewabaju.services.PenyewaanService;
+import com.mycompany.sewabaju.services.DashboardService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
 import com.mycompany.sewabaju.utils.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -18,12 +20,12 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.time.LocalDate;
 import java.util.List;
 
 public class AdminDashboardController {
     @FXML private Label lblWelcome;
     @FXML private Label lblJabatan;
+    @FXML private Label lblLastUpdated;
     @FXML private Button btnLogout;
 
     @FXML private Label lblTotalPenyewaanHariIni;
@@ -41,16 +43,22 @@ public class AdminDashboardController {
     @FXML private Button btnLaporan;
     
     private AuthService authService;
-    private PenyewaanService penyewaanService;
-    private PembayaranService pembayaranService;
+    private DashboardService dashboardService;
     @FXML
     public void initialize() {
         authService = AuthService.getInstance();
-        penyewaanService = PenyewaanService.getInstance();
-        pembayaranService = PembayaranService.getInstance();
+        dashboardService = DashboardService.getInstance();
         loadAdminInfo();
-        loadStatistics();
-        loadRecentActivity();
+        
+        dashboardService.setOnUpdated(snapshot -> Platform.runLater(() -> renderSnapshot(snapshot)));
+        dashboardService.start();
+        
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+        if (snapshot != null) {
+            renderSnapshot(snapshot);
+        } else {
+            refreshInBackground(false);
+        }
         
         System.out.println("AdminDashboardController initialized");
     }
@@ -68,57 +76,80 @@ public class AdminDashboardController {
         }
     }
 
-    private void loadStatistics() {
-        try {
-            LocalDate today = LocalDate.now();
-            int totalHariIni = penyewaanService.getTotalPenyewaan(today, today);
-            lblTotalPenyewaanHariIni.setText(String.valueOf(totalHariIni));
-            LocalDate startOfMonth = DateUtil.getStartOfMonth(today);
-            LocalDate endOfMonth = DateUtil.getEndOfMonth(today);
-            double pendapatan = penyewaanService.getTotalPendapatan(startOfMonth, endOfMonth);
-            lblTotalPendapatanBulanIni.setText(String.format("Rp %.0f", pendapatan));
-            lblJumlahPelanggan.setText("-");
-            int pendingCount = pembayaranService.countPembayaranPending();
-            lblPembayaranPending.setText(String.valueOf(pendingCount));
-            if (pendingCount > 0) {
-                lblPembayaranPending.setStyle("-fx-text-fill: #FF9800; -fx-font-weight: bold;");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error loading statistics: " + e.getMessage());
-            e.printStackTrace();
+    private void refreshInBackground(boolean notify) {
+        if (lblLastUpdated != null) {
+            lblLastUpdated.setText("Memuat data...");
         }
+        
+        Thread thread = new Thread(() -> {
+            try {
+                DatabaseConnection.getInstance().withPooledConnection(() -> {
+                    dashboardService.refresh();
+                    return null;
+                });
+                if (notify) {
+                    Platform.runLater(() -> AlertUtil.showSuccess("Data berhasil direfresh"));
+                }
+            } catch (Exception e) {
+                System.err.println("Error loading dashboard: " + e.getMessage());
+                Platform.runLater(() -> {
+                    if (lblLastUpdated != null) {
+                        lblLastUpdated.setText("Gagal memuat data");
+                    }
+                    if (notify) {
+                        AlertUtil.showError("Gagal refresh data: " + e.getMessage());
+                    }
+                });
+            }
+        }, "dashboard-load");
+        thread.setDaemon(true);
+        thread.start();
     }
     
-    private void loadRecentActivity() {
-        try {
-            List<Penyewaan> recentList = penyewaanService.getRecentPenyewaan(10);
-            listRecentPenyewaan.getItems().clear();
-            
-            for (Penyewaan p : recentList) {
-                String item = String.format("#%d - %s - %s - %s",
-                    p.getSewaId(),
-                    p.getNamaPelanggan(),
-                    p.getStatus().getDisplayName(),
-                    DateUtil.formatDate(p.getTglSewa())
-                );
-                listRecentPenyewaan.getItems().add(item);
+    private void renderSnapshot(DashboardSnapshot snapshot) {
+        lblTotalPenyewaanHariIni.setText(String.valueOf(snapshot.getTotalPenyewaanHariIni()));
+        lblTotalPendapatanBulanIni.setText(String.format("Rp %.0f", snapshot.getPendapatanBulanIni()));
+        lblJumlahPelanggan.setText(String.valueOf(snapshot.getJumlahPelanggan()));
+        
+        int pendingCount = snapshot.getPembayaranPending();
+        lblPembayaranPending.setText(String.valueOf(pendingCount));
+        lblPembayaranPending.setStyle(pendingCount > 0 ?
+            "-fx-text-fill: #FF9800; -fx-font-weight: bold;" : "");
+        
+        listRecentPenyewaan.getItems().clear();
+        for (Penyewaan p : snapshot.getRecentPenyewaan()) {
+            String item = String.format("#%d - %s - %s - %s",
+                p.getSewaId(),
+                p.getNamaPelanggan(),
+                p.getStatus().getDisplayName(),
+                DateUtil.formatDate(p.getTglSewa())
+            );
+            listRecentPenyewaan.getItems().add(item);
+        }
+        
+        listPembayaranPending.getItems().clear();
+        if (pendingCount > 0) {
+            for (PembayaranRow row : snapshot.getPembayaranPendingRows()) {
+                listPembayaranPending.getItems().add(String.format("#%d - %s - %s - %s",
+                    row.getPembayaranId(),
+                    row.getNamaPelanggan(),
+                    row.getJumlahFormatted(),
+                    DateUtil.formatDateTime(row.getTanggalBayar())
+                ));
             }
-            int pendingCount = pembayaranService.countPembayaranPending();
-            listPembayaranPending.getItems().clear();
-            
-            if (pendingCount > 0) {
+            if (pendingCount > snapshot.getPembayaranPendingRows().size()) {
                 listPembayaranPending.getItems().add(
-                    "Ada " + pendingCount + " pembayaran menunggu verifikasi"
+                    "... dan " + (pendingCount - snapshot.getPembayaranPendingRows().size()) + " lainnya"
                 );
-                listPembayaranPending.getItems().add("Klik 'Verifikasi Pembayaran' untuk melihat");
-            } else {
-                listPembayaranPending.getItems().add("Tidak ada pembayaran pending");
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error loading recent activity: " + e.getMessage());
-            e.printStackTrace();
+            listPembayaranPending.getItems().add("Klik 'Verifikasi Pembayaran' untuk melihat");
+        } else {
+            listPembayaranPending.getItems().add("Tidak ada pembayaran pending");
+        }
+        
+        if (lblLastUpdated != null) {
+            lblLastUpdated.setText("Terakhir diperbarui: " +
+                DateUtil.formatDateTime(snapshot.getLastUpdated()));
         }
     }
     @FXML
@@ -158,13 +189,13 @@ public class AdminDashboardController {
     }
     @FXML
     private void handleRefresh() {
-        loadStatistics();
-        loadRecentActivity();
-        AlertUtil.showSuccess("Data berhasil direfresh");
+        refreshInBackground(true);
     }
     @FXML
     private void handleLogout() {
         if (AlertUtil.showLogoutConfirmation()) {
+            dashboardService.setOnUpdated(null);
+            dashboardService.stop();
             authService.logout();
             try {
                 FXMLLoader loader = new FXMLLoader(
@@ -188,6 +219,7 @@ public class AdminDashboardController {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
             Parent root = loader.load();
+            dashboardService.setOnUpdated(null);
             
             Stage stage = (Stage) lblWelcome.getScene().getWindow();
             Scene scene = new Scene(root);
@@ -1,55 +1,94 @@
 package com.mycompany.sewabaju.controllers.admin;
 
+import com.mycompany.sewabaju.analitik.Dimensi;
+import com.mycompany.sewabaju.analitik.FactFilter;
+import com.mycompany.sewabaju.database.DatabaseConnection;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
-import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.PenyewaanRow;
+import com.mycompany.sewabaju.models.PivotRow;
+import com.mycompany.sewabaju.services.AnalitikService;
+import com.mycompany.sewabaju.services.CsvExportService;
+import com.mycompany.sewabaju.services.ExportService;
+import com.mycompany.sewabaju.services.LaporanService;
 import com.mycompany.sewabaju.services.PenyewaanService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 public class LaporanController {
 
+    private static final String ANALITIK_PREFIX = "Analitik per ";
+    private static final int TOP_BAJU = 10;
+
     @FXML private DatePicker dateStart;
     @FXML private DatePicker dateEnd;
     @FXML private ComboBox<String> comboJenisLaporan;
     @FXML private Button btnGenerate;
     @FXML private Button btnExport;
+    @FXML private Button btnExportPdf;
+    @FXML private Button btnExportCsv;
     @FXML private Button btnBack;
+    @FXML private ProgressBar progressExport;
+    @FXML private Label lblExportStatus;
 
     @FXML private Label lblTotalPenyewaan;
     @FXML private Label lblTotalPendapatan;
     @FXML private Label lblRataRataPenyewaan;
 
-    @FXML private TableView<Penyewaan> tableData;
-    @FXML private TableColumn<Penyewaan, Integer> colId;
-    @FXML private TableColumn<Penyewaan, String> colPelanggan;
-    @FXML private TableColumn<Penyewaan, String> colTglSewa;
-    @FXML private TableColumn<Penyewaan, String> colTglKembali;
-    @FXML private TableColumn<Penyewaan, Double> colTotal;
-    @FXML private TableColumn<Penyewaan, String> colStatus;
+    @FXML private TableView<PenyewaanRow> tableData;
+    @FXML private TableColumn<PenyewaanRow, Integer> colId;
+    @FXML private TableColumn<PenyewaanRow, String> colPelanggan;
+    @FXML private TableColumn<PenyewaanRow, String> colTglSewa;
+    @FXML private TableColumn<PenyewaanRow, String> colTglKembali;
+    @FXML private TableColumn<PenyewaanRow, Double> colTotal;
+    @FXML private TableColumn<PenyewaanRow, String> colStatus;
+    
+    @FXML private TableView<PivotRow> tablePivot;
+    @FXML private TableColumn<PivotRow, String> colPivotLabel;
+    @FXML private TableColumn<PivotRow, Long> colPivotItem;
+    @FXML private TableColumn<PivotRow, Double> colPivotTotal;
     
     private PenyewaanService penyewaanService;
+    private ExportService exportService;
+    private AnalitikService analitikService;
+    private Task<String> exportTask;
+    private LaporanService laporanService;
+    private Task<?> reportTask;
     @FXML
     public void initialize() {
         penyewaanService = PenyewaanService.getInstance();
+        exportService = ExportService.getInstance();
+        analitikService = AnalitikService.getInstance();
+        laporanService = LaporanService.getInstance();
 
         setupTable();
+        setupPivotTable();
 
         comboJenisLaporan.setItems(FXCollections.observableArrayList(
             "Laporan Penyewaan",
             "Laporan Pendapatan",
             "Laporan Baju Populer"
         ));
+        for (Dimensi dimensi : Dimensi.values()) {
+            comboJenisLaporan.getItems().add(ANALITIK_PREFIX + dimensi.getDisplayName());
+        }
         comboJenisLaporan.setValue("Laporan Penyewaan");
 
         LocalDate today = LocalDate.now();
@@ -57,6 +96,10 @@ public class LaporanController {
         dateEnd.setValue(DateUtil.getEndOfMonth(today));
 
         btnExport.setDisable(true);
+        if (btnExportPdf != null) {
+            btnExportPdf.setDisable(true);
+        }
+        showExportProgress(false);
         
         System.out.println("LaporanController initialized");
     }
@@ -86,10 +129,10 @@ public class LaporanController {
         
         colStatus.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getStatus().getDisplayName()
+                cellData.getValue().getStatusDisplay()
             )
         );
-        colTotal.setCellFactory(col -> new TableCell<Penyewaan, Double>() {
+        colTotal.setCellFactory(col -> new TableCell<PenyewaanRow, Double>() {
             @Override
             protected void updateItem(Double price, boolean empty) {
                 super.updateItem(price, empty);
@@ -101,6 +144,30 @@ public class LaporanController {
             }
         });
     }
+    private void setupPivotTable() {
+        if (tablePivot == null) {
+            return;
+        }
+        tablePivot.setVisible(false);
+        
+        if (colPivotLabel != null) {
+            colPivotLabel.setCellValueFactory(new PropertyValueFactory<>("label"));
+        }
+        if (colPivotItem != null) {
+            colPivotItem.setCellValueFactory(new PropertyValueFactory<>("jumlahItem"));
+        }
+        if (colPivotTotal != null) {
+            colPivotTotal.setCellValueFactory(new PropertyValueFactory<>("totalPendapatan"));
+            colPivotTotal.setCellFactory(col -> new TableCell<PivotRow, Double>() {
+                @Override
+                protected void updateItem(Double total, boolean empty) {
+                    super.updateItem(total, empty);
+                    setText(empty || total == null ? null : String.format("Rp %.0f", total));
+                }
+            });
+        }
+    }
+    
     @FXML
     private void handleGenerate() {
         LocalDate start = dateStart.getValue();
@@ -118,16 +185,29 @@ public class LaporanController {
         
         try {
             String jenisLaporan = comboJenisLaporan.getValue();
+            boolean analitik = jenisLaporan != null && jenisLaporan.startsWith(ANALITIK_PREFIX);
+            showPivot(!"Laporan Penyewaan".equals(jenisLaporan));
+            
+            if (analitik) {
+                generateAnalitik(start, end, jenisLaporan.substring(ANALITIK_PREFIX.length()));
+                return;
+            }
             
             if ("Laporan Penyewaan".equals(jenisLaporan)) {
                 generateLaporanPenyewaan(start, end);
             } else if ("Laporan Pendapatan".equals(jenisLaporan)) {
                 generateLaporanPendapatan(start, end);
+            } else if ("Laporan Baju Populer".equals(jenisLaporan)) {
+                generateLaporanBajuPopuler(start, end);
+                return;
             } else {
                 AlertUtil.showNotImplemented();
             }
 
             btnExport.setDisable(false);
+            if (btnExportPdf != null) {
+                btnExportPdf.setDisable(false);
+            }
             
         } catch (DatabaseException e) {
             AlertUtil.showDatabaseError("generate laporan");
@@ -136,16 +216,13 @@ public class LaporanController {
     }
 
     private void generateLaporanPenyewaan(LocalDate start, LocalDate end) throws DatabaseException {
-        List<Penyewaan> penyewaanList = penyewaanService.getPenyewaanByUserId(0);
-        List<Penyewaan> filtered = penyewaanList.stream()
-            .filter(p -> !p.getTglSewa().isBefore(start) && !p.getTglSewa().isAfter(end))
-            .toList();
+        List<PenyewaanRow> rows = penyewaanService.getPenyewaanRows(start, end);
 
-        tableData.setItems(FXCollections.observableArrayList(filtered));
+        tableData.setItems(FXCollections.observableArrayList(rows));
 
-        int total = filtered.size();
-        double totalPendapatan = filtered.stream()
-            .mapToDouble(Penyewaan::getTotalHarga)
+        int total = rows.size();
+        double totalPendapatan = rows.stream()
+            .mapToDouble(PenyewaanRow::getTotalHarga)
             .sum();
         
         long days = java.time.temporal.ChronoUnit.DAYS.between(start, end) + 1;
@@ -156,29 +233,280 @@ public class LaporanController {
         lblRataRataPenyewaan.setText(String.format("%.1f/hari", rataRata));
     }
 
-    private void generateLaporanPendapatan(LocalDate start, LocalDate end) throws DatabaseException {
-
-        double totalPendapatan = penyewaanService.getTotalPendapatan(start, end);
-        int totalPenyewaan = penyewaanService.getTotalPenyewaan(start, end);
-
-        lblTotalPenyewaan.setText(String.valueOf(totalPenyewaan));
-        lblTotalPendapatan.setText(String.format("Rp %.0f", totalPendapatan));
+    /**
+     * Rentang panjang dihitung paralel per partisi tanggal; tabel menampilkan baju teratas
+     * alih-alih semua baris penyewaan.
+     */
+    private void generateLaporanPendapatan(LocalDate start, LocalDate end) {
+        runReport("laporan-pendapatan", () -> laporanService.generate(start, end, TOP_BAJU), ringkasan -> {
+            long totalPenyewaan = ringkasan.getJumlahPenyewaan();
+            double totalPendapatan = ringkasan.getPendapatan();
+            
+            lblTotalPenyewaan.setText(String.valueOf(totalPenyewaan));
+            lblTotalPendapatan.setText(String.format("Rp %.0f", totalPendapatan));
+            
+            double rataRata = totalPenyewaan > 0 ? totalPendapatan / totalPenyewaan : 0;
+            lblRataRataPenyewaan.setText(String.format("Rp %.0f/transaksi", rataRata));
+            
+            if (tablePivot != null) {
+                tablePivot.setItems(FXCollections.observableArrayList(ringkasan.getTopBaju()));
+            }
+        });
+    }
+    
+    private void generateLaporanBajuPopuler(LocalDate start, LocalDate end) {
+        runReport("laporan-baju-populer", () -> laporanService.generate(start, end, TOP_BAJU), ringkasan -> {
+            lblTotalPenyewaan.setText(ringkasan.getJumlahItem() + " item");
+            lblTotalPendapatan.setText(String.format("Rp %.0f", ringkasan.getTotalNilai()));
+            lblRataRataPenyewaan.setText("~" + ringkasan.getPerkiraanPelanggan() + " pelanggan");
+            
+            if (tablePivot != null) {
+                tablePivot.setItems(FXCollections.observableArrayList(ringkasan.getTopBaju()));
+            }
+        });
+    }
+    /**
+     * Pivot dibaca dari store analitik lokal di background; refresh inkremental
+     * dari database hanya bila ada penyewaan yang berubah.
+     */
+    private void generateAnalitik(LocalDate start, LocalDate end, String namaDimensi) {
+        Dimensi dimensi = null;
+        for (Dimensi d : Dimensi.values()) {
+            if (d.getDisplayName().equals(namaDimensi)) {
+                dimensi = d;
+            }
+        }
+        if (dimensi == null) {
+            AlertUtil.showNotImplemented();
+            return;
+        }
         
-        double rataRata = totalPenyewaan > 0 ? totalPendapatan / totalPenyewaan : 0;
-        lblRataRataPenyewaan.setText(String.format("Rp %.0f/transaksi", rataRata));
-
-        generateLaporanPenyewaan(start, end);
+        Dimensi selected = dimensi;
+        FactFilter filter = new FactFilter(start, end);
+        runReport("laporan-analitik", () -> analitikService.pivot(filter, selected), this::showPivotResult);
+    }
+    
+    private <T> void runReport(String threadName, Callable<T> job, Consumer<T> onResult) {
+        if (reportTask != null && reportTask.isRunning()) {
+            return;
+        }
+        
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return DatabaseConnection.getInstance().withPooledConnection(job::call);
+            }
+        };
+        
+        task.setOnSucceeded(event -> onResult.accept(task.getValue()));
+        task.setOnFailed(event -> {
+            AlertUtil.showDatabaseError("generate laporan");
+            task.getException().printStackTrace();
+        });
+        
+        btnGenerate.setDisable(true);
+        task.runningProperty().addListener((obs, was, running) -> btnGenerate.setDisable(running));
+        reportTask = task;
+        
+        Thread thread = new Thread(task, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void showPivotResult(List<PivotRow> rows) {
+        if (tablePivot != null) {
+            tablePivot.setItems(FXCollections.observableArrayList(rows));
+        }
+        
+        long totalBaris = 0;
+        long totalItem = 0;
+        double totalPendapatan = 0;
+        for (PivotRow row : rows) {
+            totalBaris += row.getJumlahBaris();
+            totalItem += row.getJumlahItem();
+            totalPendapatan += row.getTotalPendapatan();
+        }
+        
+        lblTotalPenyewaan.setText(totalItem + " item / " + totalBaris + " baris");
+        lblTotalPendapatan.setText(String.format("Rp %.0f", totalPendapatan));
+        double rataRata = rows.isEmpty() ? 0 : totalPendapatan / rows.size();
+        lblRataRataPenyewaan.setText(String.format("Rp %.0f/kelompok", rataRata));
+    }
+    
+    private void showPivot(boolean pivot) {
+        if (tablePivot != null) {
+            tablePivot.setVisible(pivot);
+            tableData.setVisible(!pivot);
+        }
     }
+    
     @FXML
     private void handleExport() {
-
-        AlertUtil.showInfo(
-            "Export Feature",
-            "Export ke Excel/PDF akan diimplementasikan dengan:\n" +
-            "- Apache POI untuk Excel\n" +
-            "- iText untuk PDF\n\n" +
-            "Untuk saat ini, gunakan Print Screen atau copy data dari tabel."
+        startExport("Excel Workbook", "xlsx", (start, end, target, listener) -> {
+            long rows = exportService.exportLaporanExcel(start, end, target, listener);
+            return rows + " baris diekspor ke:\n" + target.getAbsolutePath();
+        });
+    }
+    
+    @FXML
+    private void handleExportPdf() {
+        startExport("PDF Document", "pdf", (start, end, target, listener) -> {
+            exportService.exportLaporanPdf(start, end, target, listener);
+            return "Laporan PDF disimpan ke:\n" + target.getAbsolutePath();
+        });
+    }
+    
+    @FXML
+    private void handleExportCsv() {
+        if (exportTask != null && exportTask.isRunning()) {
+            return;
+        }
+        
+        LocalDate start = dateStart.getValue();
+        LocalDate end = dateEnd.getValue();
+        
+        if (start == null || end == null || end.isBefore(start)) {
+            AlertUtil.showWarning("Pilih periode laporan yang valid");
+            return;
+        }
+        
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Pilih Folder Export CSV");
+        
+        File dir = directoryChooser.showDialog(btnExport.getScene().getWindow());
+        if (dir == null) {
+            return;
+        }
+        
+        boolean gzip = AlertUtil.showConfirmation("Kompres file CSV dengan gzip (.csv.gz)?");
+        
+        CsvExportService csvExportService = CsvExportService.getInstance();
+        EnumSet<CsvExportService.Dataset> datasets = EnumSet.allOf(CsvExportService.Dataset.class);
+        boolean force;
+        try {
+            force = csvExportService.hasUnfinishedExport(datasets, start, end, dir.toPath(), gzip)
+                    && !AlertUtil.showConfirmation("Export CSV", 
+                            "Folder ini berisi export periode yang sama yang terputus.\n" +
+                            "Lanjutkan export tersebut? Pilih Batal untuk menulis ulang semua file.");
+        } catch (IOException e) {
+            AlertUtil.showError("Gagal membaca manifest export: " + e.getMessage());
+            return;
+        }
+        
+        runExport(start, end, dir, "file", (from, to, target, listener) -> {
+            long rows = csvExportService.exportCsv(datasets, from, to, target.toPath(), gzip, force, listener);
+            return rows + " baris diekspor ke:\n" + target.getAbsolutePath();
+        });
+    }
+    
+    private void startExport(String formatName, String extension, ExportJob job) {
+        if (exportTask != null && exportTask.isRunning()) {
+            if (AlertUtil.showConfirmation("Export sedang berjalan. Batalkan export?")) {
+                exportTask.cancel();
+            }
+            return;
+        }
+        
+        LocalDate start = dateStart.getValue();
+        LocalDate end = dateEnd.getValue();
+        
+        if (start == null || end == null || end.isBefore(start)) {
+            AlertUtil.showWarning("Pilih periode laporan yang valid");
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Simpan Laporan");
+        fileChooser.setInitialFileName("laporan_" + start + "_" + end + "." + extension);
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter(formatName, "*." + extension)
         );
+        
+        File target = fileChooser.showSaveDialog(btnExport.getScene().getWindow());
+        if (target == null) {
+            return;
+        }
+        
+        runExport(start, end, target, "baris", job);
+    }
+    
+    private void runExport(LocalDate start, LocalDate end, File target, String satuan, ExportJob job) {
+        exportTask = new Task<>() {
+            @Override
+            protected String call() throws Exception {
+                updateMessage("Menyiapkan export...");
+                Task<String> task = this;
+                ExportService.ProgressListener listener = new ExportService.ProgressListener() {
+                    @Override
+                    public void onProgress(long done, long total) {
+                        updateProgress(done, total);
+                        updateMessage("Mengekspor " + done + " / " + total + " " + satuan);
+                    }
+                    
+                    @Override
+                    public boolean isCancelled() {
+                        return task.isCancelled();
+                    }
+                };
+                return DatabaseConnection.getInstance().withPooledConnection(
+                        () -> job.run(start, end, target, listener));
+            }
+        };
+        
+        exportTask.setOnSucceeded(event -> {
+            showExportProgress(false);
+            AlertUtil.showSuccess("Export Berhasil", exportTask.getValue());
+        });
+        
+        exportTask.setOnCancelled(event -> {
+            showExportProgress(false);
+            AlertUtil.showInfo("Export dibatalkan");
+        });
+        
+        exportTask.setOnFailed(event -> {
+            showExportProgress(false);
+            AlertUtil.showError("Gagal export laporan: " + exportTask.getException().getMessage());
+            exportTask.getException().printStackTrace();
+        });
+        
+        showExportProgress(true);
+        
+        Thread thread = new Thread(exportTask, "laporan-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void showExportProgress(boolean running) {
+        if (progressExport != null) {
+            progressExport.progressProperty().unbind();
+            if (running) {
+                progressExport.progressProperty().bind(exportTask.progressProperty());
+            }
+            progressExport.setVisible(running);
+        }
+        
+        if (lblExportStatus != null) {
+            lblExportStatus.textProperty().unbind();
+            if (running) {
+                lblExportStatus.textProperty().bind(exportTask.messageProperty());
+            } else {
+                lblExportStatus.setText("");
+            }
+        }
+        
+        btnExport.setText(running ? "Batalkan Export" : "Export");
+        if (btnExportPdf != null) {
+            btnExportPdf.setDisable(running || btnExport.isDisabled());
+        }
+        if (btnExportCsv != null) {
+            btnExportCsv.setDisable(running);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ExportJob {
+        String run(LocalDate start, LocalDate end, File target, 
+                   ExportService.ProgressListener listener) throws Exception;
     }
     
     @FXML
@@ -1,17 +1,25 @@
 package com.mycompany.sewabaju.controllers.admin;
 
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PembayaranChanged;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
-import com.mycompany.sewabaju.models.Pembayaran;
+import com.mycompany.sewabaju.models.PembayaranRow;
+import com.mycompany.sewabaju.models.VerifikasiResult;
 import com.mycompany.sewabaju.models.Penyewaan;
 import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.services.DendaService;
 import com.mycompany.sewabaju.services.PembayaranService;
 import com.mycompany.sewabaju.services.PenyewaanService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
 import com.mycompany.sewabaju.utils.FileUtil;
+import com.mycompany.sewabaju.utils.LookAheadLoader;
 import com.mycompany.sewabaju.utils.Session;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -27,17 +35,19 @@ import javafx.stage.Stage;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class VerifikasiPembayaranController {
-    @FXML private TableView<Pembayaran> tablePembayaran;
-    @FXML private TableColumn<Pembayaran, Integer> colId;
-    @FXML private TableColumn<Pembayaran, Integer> colSewaId;
-    @FXML private TableColumn<Pembayaran, String> colPelanggan;
-    @FXML private TableColumn<Pembayaran, String> colMetode;
-    @FXML private TableColumn<Pembayaran, Double> colJumlah;
-    @FXML private TableColumn<Pembayaran, String> colTanggal;
-    @FXML private TableColumn<Pembayaran, String> colStatus;
+    @FXML private TableView<PembayaranRow> tablePembayaran;
+    @FXML private TableColumn<PembayaranRow, Integer> colId;
+    @FXML private TableColumn<PembayaranRow, Integer> colSewaId;
+    @FXML private TableColumn<PembayaranRow, String> colPelanggan;
+    @FXML private TableColumn<PembayaranRow, String> colMetode;
+    @FXML private TableColumn<PembayaranRow, Double> colJumlah;
+    @FXML private TableColumn<PembayaranRow, String> colTanggal;
+    @FXML private TableColumn<PembayaranRow, String> colStatus;
     
     @FXML private Label lblDetailId;
     @FXML private Label lblDetailSewaId;
@@ -57,24 +67,45 @@ public class VerifikasiPembayaranController {
 
     @FXML private ComboBox<StatusPembayaran> filterStatus;
     
+    private static final int PREFETCH_DEPTH = 5;
+    private static final double BUKTI_PREVIEW_WIDTH = 480;
+    
     private PembayaranService pembayaranService;
     private PenyewaanService penyewaanService;
-    private Pembayaran selectedPembayaran;
+    private DendaService dendaService;
+    private PembayaranRow selectedPembayaran;
+    private EventBus.Subscription pembayaranSubscription;
+    private LookAheadLoader<PembayaranRow, VerifikasiDetail> prefetcher;
+    private double buktiPreviewWidth;
+    private int adminId;
+    private long lastClaimMillis;
 
     @FXML
     public void initialize() {
         pembayaranService = PembayaranService.getInstance();
         penyewaanService = PenyewaanService.getInstance();
+        dendaService = DendaService.getInstance();
+        adminId = Session.getInstance().getCurrentAdmin().getAdminId();
+        buktiPreviewWidth = imgBukti.getFitWidth() > 0 ? imgBukti.getFitWidth() : BUKTI_PREVIEW_WIDTH;
+        prefetcher = new LookAheadLoader<>("verifikasi-prefetch", 2, this::loadDetail);
         setupTable();
 
         filterStatus.setItems(FXCollections.observableArrayList(StatusPembayaran.values()));
         filterStatus.setValue(StatusPembayaran.MENUNGGU_VERIFIKASI);
 
         loadPembayaran();
+        subscribeEvents();
 
+        // Multi-select untuk approve/reject massal
+        tablePembayaran.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        tablePembayaran.getSelectionModel().getSelectedItems().addListener(
+            (ListChangeListener<PembayaranRow>) change -> updateButtonStates()
+        );
+        
         tablePembayaran.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
                 selectedPembayaran = newSelection;
+                renewClaimsIfNeeded();
                 loadDetailPembayaran();
                 updateButtonStates();
             }
@@ -88,18 +119,11 @@ public class VerifikasiPembayaranController {
     private void setupTable() {
         colId.setCellValueFactory(new PropertyValueFactory<>("pembayaranId"));
         colSewaId.setCellValueFactory(new PropertyValueFactory<>("sewaId"));
-        colPelanggan.setCellValueFactory(cellData -> {
-            try {
-                Penyewaan penyewaan = penyewaanService.getPenyewaanById(
-                    cellData.getValue().getSewaId()
-                );
-                return new javafx.beans.property.SimpleStringProperty(
-                    penyewaan != null ? penyewaan.getNamaPelanggan() : "-"
-                );
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("-");
-            }
-        });
+        colPelanggan.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getNamaPelanggan()
+            )
+        );
         
         colMetode.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(
@@ -121,7 +145,7 @@ public class VerifikasiPembayaranController {
             )
         );
         
-        colJumlah.setCellFactory(col -> new TableCell<Pembayaran, Double>() {
+        colJumlah.setCellFactory(col -> new TableCell<PembayaranRow, Double>() {
             @Override
             protected void updateItem(Double price, boolean empty) {
                 super.updateItem(price, empty);
@@ -133,7 +157,7 @@ public class VerifikasiPembayaranController {
             }
         });
 
-        colStatus.setCellFactory(col -> new TableCell<Pembayaran, String>() {
+        colStatus.setCellFactory(col -> new TableCell<PembayaranRow, String>() {
             @Override
             protected void updateItem(String status, boolean empty) {
                 super.updateItem(status, empty);
@@ -156,91 +180,269 @@ public class VerifikasiPembayaranController {
 
     private void loadPembayaran() {
         try {
-            StatusPembayaran status = filterStatus.getValue();
-            
-            List<Pembayaran> pembayaranList;
-            
-            if (status != null) {
-                pembayaranList = pembayaranService.getPembayaranByStatus(status);
+            List<PembayaranRow> pembayaranList;
+            if (isQueueMode()) {
+                // Antrian pending dibagi antar admin lewat klaim ber-lease
+                pembayaranList = pembayaranService.claimPembayaran(adminId);
+                lastClaimMillis = System.currentTimeMillis();
             } else {
-
-                pembayaranList = pembayaranService.getPembayaranPending();
+                pembayaranList = pembayaranService.getPembayaranRows(filterStatus.getValue());
             }
             
             tablePembayaran.setItems(FXCollections.observableArrayList(pembayaranList));
+            
+            // Baris pertama sudah siap saat admin mulai memilih
+            prefetcher.retainOnly(List.of());
+            prefetcher.prefetch(pembayaranList.subList(0, Math.min(pembayaranList.size(), PREFETCH_DEPTH)));
 
             int count = pembayaranList.size();
             // TODO: Update count label if exists            
+        } catch (ValidationException e) {
+            AlertUtil.showValidationError("Validasi", e.getMessage());
         } catch (DatabaseException e) {
             AlertUtil.showDatabaseError("memuat pembayaran");
             e.printStackTrace();
         }
     }
 
-    private void loadDetailPembayaran() {
-        if (selectedPembayaran == null) {
-            clearDetail();
+    private boolean isQueueMode() {
+        return filterStatus.getValue() == null || filterStatus.getValue() == StatusPembayaran.MENUNGGU_VERIFIKASI;
+    }
+
+    private void renewClaimsIfNeeded() {
+        long leaseMillis = pembayaranService.getClaimLeaseSeconds() * 1000L;
+        if (!isQueueMode() || System.currentTimeMillis() - lastClaimMillis < leaseMillis / 2) {
             return;
         }
         
         try {
-            lblDetailId.setText("#" + selectedPembayaran.getPembayaranId());
-            lblDetailSewaId.setText("#" + selectedPembayaran.getSewaId());
-            lblDetailMetode.setText(selectedPembayaran.getMetodePembayaranDisplay());
-            lblDetailJumlah.setText(selectedPembayaran.getJumlahFormatted());
-            lblDetailTanggal.setText(DateUtil.formatDateTime(selectedPembayaran.getTanggalBayar()));
-            lblDetailStatus.setText(selectedPembayaran.getStatusDisplay());
-            Penyewaan penyewaan = penyewaanService.getPenyewaanById(selectedPembayaran.getSewaId());
+            pembayaranService.renewClaims(adminId);
+            lastClaimMillis = System.currentTimeMillis();
+        } catch (DatabaseException e) {
+            // Approve/reject tetap aman karena compare-and-set di database
+        }
+    }
+
+    private void subscribeEvents() {
+        // Antrian penuh berarti terlalu banyak perubahan, muat ulang sekali saja
+        pembayaranSubscription = EventBus.getInstance().subscribe(
+            PembayaranChanged.class, this::onPembayaranChanged, Platform::runLater, 256, this::loadPembayaran
+        );
+        
+        // Berhenti mendengarkan saat scene ini diganti dengan layar lain
+        tablePembayaran.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) {
+                newScene.windowProperty().addListener((o, oldWindow, newWindow) -> {
+                    if (newWindow == null) {
+                        dispose();
+                    }
+                });
+            }
+        });
+    }
+
+    private void dispose() {
+        if (pembayaranSubscription != null) {
+            pembayaranSubscription.unsubscribe();
+            pembayaranSubscription = null;
+        }
+        prefetcher.shutdown();
+        pembayaranService.releaseClaims(adminId);
+    }
+
+    private void onPembayaranChanged(PembayaranChanged event) {
+        List<PembayaranRow> items = tablePembayaran.getItems();
+        StatusPembayaran status = filterStatus.getValue() != null
+            ? filterStatus.getValue() : StatusPembayaran.MENUNGGU_VERIFIKASI;
+        
+        int index = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getPembayaranId() == event.getPembayaranId()) {
+                index = i;
+                break;
+            }
+        }
+        
+        if (index >= 0) {
+            prefetcher.invalidate(items.get(index));
+        }
+        
+        if (event.getStatus() != status) {
+            if (index >= 0) {
+                removeRow(index);
+            }
+            return;
+        }
+        
+        // Baris pending baru masuk lewat klaim batch berikutnya, bukan dari event
+        if (isQueueMode() && index < 0) {
+            return;
+        }
+        
+        try {
+            PembayaranRow pembayaran = isQueueMode()
+                ? pembayaranService.getClaimedRowById(event.getPembayaranId(), adminId)
+                : pembayaranService.getPembayaranRowById(event.getPembayaranId());
             
-            if (penyewaan != null) {
-                lblDetailPelanggan.setText(penyewaan.getNamaPelanggan());
-                StringBuilder sb = new StringBuilder();
-                sb.append("Detail Penyewaan:\n\n");
-                sb.append("Tanggal Sewa: ").append(DateUtil.formatDate(penyewaan.getTglSewa())).append("\n");
-                sb.append("Tanggal Kembali: ").append(DateUtil.formatDate(penyewaan.getTglKembali())).append("\n");
-                sb.append("Lama Sewa: ").append(penyewaan.hitungLamaHari()).append(" hari\n");
-                sb.append("Jumlah Item: ").append(penyewaan.getJumlahItem()).append("\n");
-                sb.append("Total Harga: Rp ").append(String.format("%.0f", penyewaan.getTotalHarga())).append("\n\n");
-                
-                sb.append("Items:\n");
-                for (var detail : penyewaan.getDetailPenyewaanList()) {
-                    sb.append("- ").append(detail.getItemDisplay()).append("\n");
+            if (pembayaran == null || pembayaran.getStatus() != status) {
+                if (index >= 0) {
+                    removeRow(index);
                 }
-                
-                detailPenyewaanArea.setText(sb.toString());
-            }
-            if (selectedPembayaran.getBuktiPembayaran() != null) {
-                loadBuktiImage(selectedPembayaran.getBuktiPembayaran());
-                btnZoomBukti.setDisable(false);
+            } else if (index >= 0) {
+                items.set(index, pembayaran);
             } else {
-                imgBukti.setImage(null);
-                btnZoomBukti.setDisable(true);
+                items.add(pembayaran);
             }
-            
         } catch (DatabaseException e) {
-            AlertUtil.showDatabaseError("memuat detail pembayaran");
-            e.printStackTrace();
+            loadPembayaran();
         }
     }
 
-    private void loadBuktiImage(String filename) {
-        try {
-            String path = FileUtil.getBuktiPembayaranPath(filename);
+    private void removeRow(int index) {
+        List<PembayaranRow> items = tablePembayaran.getItems();
+        boolean wasSelected = tablePembayaran.getSelectionModel().getSelectedIndex() == index;
+        items.remove(index);
+        
+        // Lanjut ke baris berikutnya (sudah di-prefetch) setelah approve/reject
+        if (wasSelected && !items.isEmpty()) {
+            tablePembayaran.getSelectionModel().clearAndSelect(Math.min(index, items.size() - 1));
+        }
+        
+        if (items.isEmpty() && isQueueMode()) {
+            loadPembayaran();
+        }
+    }
+
+    private void loadDetailPembayaran() {
+        if (selectedPembayaran == null) {
+            clearDetail();
+            return;
+        }
+        
+        PembayaranRow row = selectedPembayaran;
+        lblDetailId.setText("#" + row.getPembayaranId());
+        lblDetailSewaId.setText("#" + row.getSewaId());
+        lblDetailMetode.setText(row.getMetodePembayaranDisplay());
+        lblDetailJumlah.setText(row.getJumlahFormatted());
+        lblDetailTanggal.setText(DateUtil.formatDateTime(row.getTanggalBayar()));
+        lblDetailStatus.setText(row.getStatusDisplay());
+        lblDetailPelanggan.setText(row.getNamaPelanggan());
+        
+        prefetchAround(row);
+        
+        CompletableFuture<VerifikasiDetail> future = prefetcher.get(row);
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            renderDetail(future.join());
+            return;
+        }
+        
+        detailPenyewaanArea.setText("Memuat detail...");
+        imgBukti.setImage(null);
+        btnZoomBukti.setDisable(true);
+        
+        future.whenComplete((detail, error) -> Platform.runLater(() -> {
+            if (selectedPembayaran != row) {
+                return;
+            }
+            if (error != null) {
+                AlertUtil.showDatabaseError("memuat detail pembayaran");
+                error.printStackTrace();
+                return;
+            }
+            renderDetail(detail);
+        }));
+    }
+
+    /**
+     * Siapkan baris berikutnya selagi admin memeriksa baris ini; baris yang sudah
+     * dilewati dibuang dari cache.
+     */
+    private void prefetchAround(PembayaranRow row) {
+        List<PembayaranRow> items = tablePembayaran.getItems();
+        int index = items.indexOf(row);
+        if (index < 0) {
+            return;
+        }
+        
+        List<PembayaranRow> window = new ArrayList<>(
+            items.subList(index, Math.min(items.size(), index + PREFETCH_DEPTH + 1))
+        );
+        prefetcher.retainOnly(window);
+        prefetcher.prefetch(window.subList(1, window.size()));
+    }
+
+    // Dijalankan di thread prefetch, bukan FX thread
+    private VerifikasiDetail loadDetail(PembayaranRow row) throws Exception {
+        return DatabaseConnection.getInstance().withPooledConnection(() -> {
+            Penyewaan penyewaan = penyewaanService.getPenyewaanById(row.getSewaId());
+            double dendaBelumDibayar = dendaService.getTotalUnpaidDendaByUser(row.getUserId());
             
-            if (FileUtil.fileExists(path)) {
-                byte[] imageData = FileUtil.readFileAsBytes(path);
-                Image image = new Image(new ByteArrayInputStream(imageData));
-                imgBukti.setImage(image);
-            } else {
-                imgBukti.setImage(null);
-                Alert alert = new Alert(Alert.AlertType.WARNING);
-                alert.setTitle("File Tidak Ditemukan");
-                alert.setContentText("File bukti pembayaran tidak ditemukan");
-                alert.showAndWait();
+            Image bukti = null;
+            boolean buktiHilang = false;
+            if (row.getBuktiPembayaran() != null) {
+                String path = FileUtil.getBuktiPembayaranPath(row.getBuktiPembayaran());
+                if (FileUtil.fileExists(path)) {
+                    // Decode langsung ke ukuran preview, bukan resolusi penuh
+                    byte[] imageData = FileUtil.readFileAsBytes(path);
+                    bukti = new Image(new ByteArrayInputStream(imageData), buktiPreviewWidth, 0, true, true);
+                } else {
+                    buktiHilang = true;
+                }
             }
-        } catch (Exception e) {
-            AlertUtil.showError("Gagal memuat bukti pembayaran: " + e.getMessage());
-            e.printStackTrace();
+            
+            return new VerifikasiDetail(penyewaan, bukti, buktiHilang, dendaBelumDibayar);
+        });
+    }
+
+    private void renderDetail(VerifikasiDetail detail) {
+        Penyewaan penyewaan = detail.penyewaan;
+        
+        if (penyewaan != null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Detail Penyewaan:\n\n");
+            sb.append("Tanggal Sewa: ").append(DateUtil.formatDate(penyewaan.getTglSewa())).append("\n");
+            sb.append("Tanggal Kembali: ").append(DateUtil.formatDate(penyewaan.getTglKembali())).append("\n");
+            sb.append("Lama Sewa: ").append(penyewaan.hitungLamaHari()).append(" hari\n");
+            sb.append("Jumlah Item: ").append(penyewaan.getJumlahItem()).append("\n");
+            sb.append("Total Harga: Rp ").append(String.format("%.0f", penyewaan.getTotalHarga())).append("\n");
+            if (detail.dendaBelumDibayar > 0) {
+                sb.append("Denda Belum Dibayar (pelanggan): Rp ")
+                  .append(String.format("%.0f", detail.dendaBelumDibayar)).append("\n");
+            }
+            sb.append("\n");
+            
+            sb.append("Items:\n");
+            for (var item : penyewaan.getDetailPenyewaanList()) {
+                sb.append("- ").append(item.getItemDisplay()).append("\n");
+            }
+            
+            detailPenyewaanArea.setText(sb.toString());
+        } else {
+            detailPenyewaanArea.clear();
+        }
+        
+        imgBukti.setImage(detail.bukti);
+        btnZoomBukti.setDisable(detail.bukti == null);
+        
+        if (detail.buktiHilang) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("File Tidak Ditemukan");
+            alert.setContentText("File bukti pembayaran tidak ditemukan");
+            alert.showAndWait();
+        }
+    }
+
+    private static final class VerifikasiDetail {
+        private final Penyewaan penyewaan;
+        private final Image bukti;
+        private final boolean buktiHilang;
+        private final double dendaBelumDibayar;
+
+        VerifikasiDetail(Penyewaan penyewaan, Image bukti, boolean buktiHilang, double dendaBelumDibayar) {
+            this.penyewaan = penyewaan;
+            this.bukti = bukti;
+            this.buktiHilang = buktiHilang;
+            this.dendaBelumDibayar = dendaBelumDibayar;
         }
     }
 
@@ -281,6 +483,12 @@ public class VerifikasiPembayaranController {
 
     @FXML
     private void handleApprove() {
+        List<PembayaranRow> selected = getSelectedPending();
+        if (selected.size() > 1) {
+            handleBulk(selected, true);
+            return;
+        }
+        
         if (selectedPembayaran == null) {
             AlertUtil.showWarning("Pilih pembayaran yang akan diapprove");
             return;
@@ -298,8 +506,6 @@ public class VerifikasiPembayaranController {
             "Jumlah: " + selectedPembayaran.getJumlahFormatted()
         )) {
             try {
-                int adminId = Session.getInstance().getCurrentAdmin().getAdminId();
-                
                 boolean approved = pembayaranService.approvePembayaran(
                     selectedPembayaran.getPembayaranId(), 
                     adminId
@@ -307,7 +513,6 @@ public class VerifikasiPembayaranController {
                 
                 if (approved) {
                     AlertUtil.showSuccess("Pembayaran berhasil diapprove!\nStatus penyewaan telah diupdate.");
-                    loadPembayaran();
                     clearDetail();
                 } else {
                     AlertUtil.showError("Gagal approve pembayaran");
@@ -315,6 +520,8 @@ public class VerifikasiPembayaranController {
                 
             } catch (ValidationException e) {
                 AlertUtil.showValidationError("Validasi", e.getMessage());
+                // Bisa jadi lease sudah habis dan diambil admin lain
+                loadPembayaran();
             } catch (DatabaseException e) {
                 AlertUtil.showDatabaseError("approve pembayaran");
                 e.printStackTrace();
@@ -324,6 +531,12 @@ public class VerifikasiPembayaranController {
 
     @FXML
     private void handleReject() {
+        List<PembayaranRow> selected = getSelectedPending();
+        if (selected.size() > 1) {
+            handleBulk(selected, false);
+            return;
+        }
+        
         if (selectedPembayaran == null) {
             AlertUtil.showWarning("Pilih pembayaran yang akan direject");
             return;
@@ -341,8 +554,6 @@ public class VerifikasiPembayaranController {
             "Pelanggan harus upload ulang bukti pembayaran."
         )) {
             try {
-                int adminId = Session.getInstance().getCurrentAdmin().getAdminId();
-                
                 boolean rejected = pembayaranService.rejectPembayaran(
                     selectedPembayaran.getPembayaranId(), 
                     adminId
@@ -350,7 +561,6 @@ public class VerifikasiPembayaranController {
                 
                 if (rejected) {
                     AlertUtil.showSuccess("Pembayaran ditolak.\nPelanggan dapat upload ulang bukti pembayaran.");
-                    loadPembayaran();
                     clearDetail();
                 } else {
                     AlertUtil.showError("Gagal reject pembayaran");
@@ -358,6 +568,7 @@ public class VerifikasiPembayaranController {
                 
             } catch (ValidationException e) {
                 AlertUtil.showValidationError("Validasi", e.getMessage());
+                loadPembayaran();
             } catch (DatabaseException e) {
                 AlertUtil.showDatabaseError("reject pembayaran");
                 e.printStackTrace();
@@ -365,6 +576,67 @@ public class VerifikasiPembayaranController {
         }
     }
 
+    private List<PembayaranRow> getSelectedPending() {
+        List<PembayaranRow> pending = new ArrayList<>();
+        for (PembayaranRow row : tablePembayaran.getSelectionModel().getSelectedItems()) {
+            if (row != null && row.getStatus() == StatusPembayaran.MENUNGGU_VERIFIKASI) {
+                pending.add(row);
+            }
+        }
+        return pending;
+    }
+
+    private void handleBulk(List<PembayaranRow> selected, boolean approve) {
+        double total = 0;
+        List<Integer> ids = new ArrayList<>();
+        for (PembayaranRow row : selected) {
+            ids.add(row.getPembayaranId());
+            total += row.getJumlah();
+        }
+        
+        if (!AlertUtil.showConfirmation(
+            approve ? "Konfirmasi Approve Massal" : "Konfirmasi Reject Massal",
+            "Apakah Anda yakin ingin " + (approve ? "menyetujui " : "menolak ") + 
+            ids.size() + " pembayaran?\n" +
+            "Total: Rp " + String.format("%.0f", total)
+        )) {
+            return;
+        }
+        
+        try {
+            List<VerifikasiResult> results = approve
+                ? pembayaranService.approvePembayaranBulk(ids, adminId)
+                : pembayaranService.rejectPembayaranBulk(ids, adminId);
+            
+            int berhasil = 0;
+            StringBuilder gagal = new StringBuilder();
+            for (VerifikasiResult result : results) {
+                if (result.isBerhasil()) {
+                    berhasil++;
+                } else {
+                    gagal.append("#").append(result.getPembayaranId())
+                         .append(": ").append(result.getPesan()).append("\n");
+                }
+            }
+            
+            String message = berhasil + " dari " + results.size() + " pembayaran berhasil " + 
+                             (approve ? "diapprove." : "ditolak.");
+            if (gagal.length() > 0) {
+                AlertUtil.showWarning("Verifikasi Massal", message + "\n\nGagal:\n" + gagal);
+                loadPembayaran();
+            } else {
+                AlertUtil.showSuccess(message);
+            }
+            clearDetail();
+            
+        } catch (ValidationException e) {
+            AlertUtil.showValidationError("Validasi", e.getMessage());
+        } catch (DatabaseException e) {
+            AlertUtil.showDatabaseError(approve ? "approve pembayaran" : "reject pembayaran");
+            e.printStackTrace();
+        }
+    }
+
     @FXML
     private void handleFilterChange() {
         loadPembayaran();
@@ -378,6 +650,7 @@ public class VerifikasiPembayaranController {
 
     @FXML
     private void handleBack() {
+        dispose();
         try {
             FXMLLoader loader = new FXMLLoader(
                 getClass().getResource("/com/mycompany/sewabaju/fxml/admin/admin_dashboard.fxml")
@@ -409,9 +682,7 @@ public class VerifikasiPembayaranController {
     }
 
     private void updateButtonStates() {
-        boolean hasSelection = selectedPembayaran != null;
-        boolean isPending = hasSelection && 
-                           selectedPembayaran.getStatus() == StatusPembayaran.MENUNGGU_VERIFIKASI;
+        boolean isPending = !getSelectedPending().isEmpty();
         
         btnApprove.setDisable(!isPending);
         btnReject.setDisable(!isPending);
@@ -1,13 +1,17 @@
 package com.mycompany.sewabaju.controllers.pelanggan;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.exceptions.StokTidakCukupException;
+import com.mycompany.sewabaju.exceptions.ValidationException;
 import com.mycompany.sewabaju.models.Baju;
 import com.mycompany.sewabaju.models.DetailBaju;
 import com.mycompany.sewabaju.models.Kategori;
 import com.mycompany.sewabaju.models.enums.Ukuran;
 import com.mycompany.sewabaju.services.BajuService;
+import com.mycompany.sewabaju.services.CartService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.FileUtil;
+import com.mycompany.sewabaju.utils.Session;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -25,9 +29,7 @@ import javafx.stage.Stage;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
     public class CatalogBajuController {
@@ -50,13 +52,13 @@ import java.util.stream.Collectors;
     @FXML private Label lblCartCount;
     
     private BajuService bajuService;
+    private CartService cartService;
     private List<Baju> currentBajuList;
-
-    private static Map<Integer, CartItemTemp> cartItems = new HashMap<>();
     
     @FXML
     public void initialize() {
         bajuService = BajuService.getInstance();
+        cartService = CartService.getInstance();
 
         setupFilters();
  
@@ -346,10 +348,12 @@ import java.util.stream.Collectors;
                     return;
                 }
                 
-                addToCart(selected, jumlah);
-                AlertUtil.showSuccess("Berhasil ditambahkan ke keranjang!");
-                updateCartCount();
-                dialog.close();
+                if (addToCart(selected, jumlah)) {
+                    AlertUtil.showSuccess("Berhasil ditambahkan ke keranjang!\n\n" +
+                        "Stok ditahan selama " + cartService.getHoldMinutes() + " menit.");
+                    updateCartCount();
+                    dialog.close();
+                }
             });
             
             Button btnClose = new Button("Tutup");
@@ -470,43 +474,34 @@ import java.util.stream.Collectors;
         }
     }
     
-    private void addToCart(DetailBaju detailBaju, int jumlah) {
-        int key = detailBaju.getDetailBajuId();
-        
-        if (cartItems.containsKey(key)) {
-            CartItemTemp existing = cartItems.get(key);
-            existing.jumlah += jumlah;
-        } else {
-            cartItems.put(key, new CartItemTemp(detailBaju, jumlah));
+    private boolean addToCart(DetailBaju detailBaju, int jumlah) {
+        try {
+            cartService.addItem(Session.getInstance().getCurrentUserId(), 
+                                detailBaju.getDetailBajuId(), jumlah);
+            return true;
+        } catch (ValidationException e) {
+            AlertUtil.showValidationError("Validasi", e.getMessage());
+        } catch (StokTidakCukupException e) {
+            AlertUtil.showStokTidakCukupError(e.getNamaBaju(), e.getStokTersedia());
+        } catch (DatabaseException e) {
+            AlertUtil.showDatabaseError("tambah ke keranjang");
+            e.printStackTrace();
         }
+        return false;
     }
     
     private void updateCartCount() {
-        int totalItems = cartItems.values().stream()
-            .mapToInt(c -> c.jumlah)
-            .sum();
+        int totalItems;
+        try {
+            totalItems = cartService.countItems(Session.getInstance().getCurrentUserId());
+        } catch (DatabaseException e) {
+            System.err.println("Failed to count keranjang: " + e.getMessage());
+            return;
+        }
         
         if (lblCartCount != null) {
             lblCartCount.setText(String.valueOf(totalItems));
             lblCartCount.setVisible(totalItems > 0);
         }
     }
-    
-    public static Map<Integer, CartItemTemp> getCartItems() {
-        return cartItems;
-    }
-    
-    public static void clearCart() {
-        cartItems.clear();
-    }
-    
-    public static class CartItemTemp {
-        public DetailBaju detailBaju;
-        public int jumlah;
-        
-        public CartItemTemp(DetailBaju detailBaju, int jumlah) {
-            this.detailBaju = detailBaju;
-            this.jumlah = jumlah;
-        }
-    }
 }
\ No newline at end of file
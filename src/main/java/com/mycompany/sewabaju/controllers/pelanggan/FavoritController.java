@@ -1,5 +1,6 @@
 package com.mycompany.sewabaju.controllers.pelanggan;
 
+import com.mycompany.sewabaju.database.DatabaseConnection;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.models.Baju;
 import com.mycompany.sewabaju.models.DetailBaju;
@@ -123,7 +124,8 @@ public class FavoritController {
         
         new Thread(() -> {
             try {
-                allFavoritList = favoritService.getFavoritBajuList(currentPelanggan.getPelangganId());
+                allFavoritList = DatabaseConnection.getInstance().withPooledConnection(
+                        () -> favoritService.getFavoritBajuList(currentPelanggan.getPelangganId()));
                 displayedFavoritList = allFavoritList;
                 
                 Platform.runLater(() -> {
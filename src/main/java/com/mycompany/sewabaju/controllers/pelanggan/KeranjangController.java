@@ -1,14 +1,14 @@
 package com.mycompany.sewabaju.controllers.pelanggan;
 
-import com.mycompany.sewabaju.controllers.pelanggan.CatalogBajuController.CartItemTemp;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.StokTidakCukupException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
+import com.mycompany.sewabaju.models.KeranjangItem;
 import com.mycompany.sewabaju.models.Pembayaran;
 import com.mycompany.sewabaju.models.Penyewaan;
 import com.mycompany.sewabaju.models.enums.MetodePembayaran;
+import com.mycompany.sewabaju.services.CartService;
 import com.mycompany.sewabaju.services.PembayaranService;
-import com.mycompany.sewabaju.services.PenyewaanService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
 import com.mycompany.sewabaju.utils.Session;
@@ -26,7 +26,6 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class KeranjangController {
     @FXML private TableView<CartItemDisplay> tableCart;
@@ -48,14 +47,14 @@ public class KeranjangController {
     @FXML private Button btnContinueShopping;
     @FXML private Button btnClearCart;
     
-    private PenyewaanService penyewaanService;
     private PembayaranService pembayaranService;
+    private CartService cartService;
     private CartItemDisplay selectedCartItem;
     
     @FXML
     public void initialize() {
-        penyewaanService = PenyewaanService.getInstance();
         pembayaranService = PembayaranService.getInstance();
+        cartService = CartService.getInstance();
         
         setupTable();
         
@@ -121,24 +120,26 @@ public class KeranjangController {
     }
     
     private void loadCartItems() {
-        Map<Integer, CartItemTemp> cartItems = CatalogBajuController.getCartItems();
-        
-        if (cartItems.isEmpty()) {
-            lblTotalHarga.setText("Rp 0");
+        List<KeranjangItem> cartItems;
+        try {
+            cartItems = cartService.getCart(Session.getInstance().getCurrentUserId());
+        } catch (DatabaseException e) {
+            AlertUtil.showDatabaseError("memuat keranjang");
+            e.printStackTrace();
             return;
         }
         
         List<CartItemDisplay> displayItems = new ArrayList<>();
         
-        for (CartItemTemp item : cartItems.values()) {
+        for (KeranjangItem item : cartItems) {
             CartItemDisplay display = new CartItemDisplay();
-            display.setDetailBajuId(item.detailBaju.getDetailBajuId());
-            display.setNamaBaju(item.detailBaju.getNamaBaju());
-            display.setUkuran(item.detailBaju.getUkuranDisplay());
-            display.setHarga(item.detailBaju.getHargaSewa());
-            display.setJumlah(item.jumlah);
-            display.setSubtotal(item.detailBaju.getHargaSewa() * item.jumlah);
-            display.setCartItemTemp(item);
+            display.setKeranjangId(item.getKeranjangId());
+            display.setDetailBajuId(item.getDetailBajuId());
+            display.setNamaBaju(item.getNamaBaju());
+            display.setUkuran(item.getUkuran());
+            display.setHarga(item.getHargaSewa());
+            display.setJumlah(item.getJumlah());
+            display.setSubtotal(item.getSubtotal());
             
             displayItems.add(display);
         }
@@ -195,13 +196,21 @@ public class KeranjangController {
                     return;
                 }
                 
-                selectedCartItem.getCartItemTemp().jumlah = newJumlah;
+                cartService.updateJumlah(Session.getInstance().getCurrentUserId(),
+                                         selectedCartItem.getKeranjangId(), newJumlah);
                 loadCartItems();
                 
                 AlertUtil.showSuccess("Jumlah berhasil diupdate");
                 
             } catch (NumberFormatException e) {
                 AlertUtil.showError("Jumlah tidak valid");
+            } catch (ValidationException e) {
+                AlertUtil.showValidationError("Validasi", e.getMessage());
+            } catch (StokTidakCukupException e) {
+                AlertUtil.showStokTidakCukupError(e.getNamaBaju(), e.getStokTersedia());
+            } catch (DatabaseException e) {
+                AlertUtil.showDatabaseError("update keranjang");
+                e.printStackTrace();
             }
         });
     }
@@ -214,11 +223,18 @@ public class KeranjangController {
         }
         
         if (AlertUtil.showConfirmation("Hapus item dari keranjang?")) {
-            Map<Integer, CartItemTemp> cartItems = CatalogBajuController.getCartItems();
-            cartItems.remove(selectedCartItem.getDetailBajuId());
-            
-            loadCartItems();
-            AlertUtil.showSuccess("Item berhasil dihapus");
+            try {
+                cartService.removeItem(Session.getInstance().getCurrentUserId(),
+                                       selectedCartItem.getKeranjangId());
+                
+                loadCartItems();
+                AlertUtil.showSuccess("Item berhasil dihapus");
+            } catch (ValidationException e) {
+                AlertUtil.showValidationError("Validasi", e.getMessage());
+            } catch (DatabaseException e) {
+                AlertUtil.showDatabaseError("hapus item keranjang");
+                e.printStackTrace();
+            }
         }
     }
     
@@ -230,9 +246,14 @@ public class KeranjangController {
         }
         
         if (AlertUtil.showConfirmation("Hapus semua item dari keranjang?")) {
-            CatalogBajuController.clearCart();
-            loadCartItems();
-            AlertUtil.showSuccess("Keranjang berhasil dikosongkan");
+            try {
+                cartService.clearCart(Session.getInstance().getCurrentUserId());
+                loadCartItems();
+                AlertUtil.showSuccess("Keranjang berhasil dikosongkan");
+            } catch (DatabaseException e) {
+                AlertUtil.showDatabaseError("kosongkan keranjang");
+                e.printStackTrace();
+            }
         }
     }
     
@@ -293,20 +314,8 @@ public class KeranjangController {
         try {
             int userId = Session.getInstance().getCurrentUserId();
             
-            List<PenyewaanService.CartItem> cartItems = new ArrayList<>();
-            for (CartItemDisplay display : tableCart.getItems()) {
-                cartItems.add(new PenyewaanService.CartItem(
-                    display.getCartItemTemp().detailBaju,
-                    display.getJumlah()
-                ));
-            }
-            
-            Penyewaan penyewaan = penyewaanService.createPenyewaan(
-                userId, 
-                cartItems, 
-                tglSewa, 
-                tglKembali
-            );
+            // Stok sudah ditahan keranjang, checkout memakai hold tersebut
+            Penyewaan penyewaan = cartService.checkout(userId, tglSewa, tglKembali);
             
             if (penyewaan == null) {
                 AlertUtil.showError("Gagal membuat penyewaan");
@@ -341,8 +350,6 @@ public class KeranjangController {
                     "Silakan ambil baju sesuai jadwal sewa."
                 );
                 
-                CatalogBajuController.clearCart();
-                
                 navigateToPage(
                     "/com/mycompany/sewabaju/fxml/pelanggan/riwayat_sewa.fxml",
                     "Riwayat Sewa - SewaBaju"
@@ -411,13 +418,16 @@ public class KeranjangController {
     }
     
     public static class CartItemDisplay {
+        private int keranjangId;
         private int detailBajuId;
         private String namaBaju;
         private String ukuran;
         private double harga;
         private int jumlah;
         private double subtotal;
-        private CartItemTemp cartItemTemp;
+        
+        public int getKeranjangId() { return keranjangId; }
+        public void setKeranjangId(int keranjangId) { this.keranjangId = keranjangId; }
         
         public int getDetailBajuId() { return detailBajuId; }
         public void setDetailBajuId(int detailBajuId) { this.detailBajuId = detailBajuId; }
@@ -436,8 +446,5 @@ public class KeranjangController {
         
         public double getSubtotal() { return subtotal; }
         public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
-        
-        public CartItemTemp getCartItemTemp() { return cartItemTemp; }
-        public void setCartItemTemp(CartItemTemp cartItemTemp) { this.cartItemTemp = cartItemTemp; }
     }
 }
\ No newline at end of file
@@ -2,10 +2,11 @@ package com.mycompany.sewabaju.controllers.pelanggan;
 
 import com.mycompany.sewabaju.models.Baju;
 import com.mycompany.sewabaju.models.Pelanggan;
-import com.mycompany.sewabaju.models.Penyewaan;
-import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.PelangganSummary;
+import com.mycompany.sewabaju.models.PenyewaanRow;
 import com.mycompany.sewabaju.services.AuthService;
 import com.mycompany.sewabaju.services.BajuService;
+import com.mycompany.sewabaju.services.PelangganStatsService;
 import com.mycompany.sewabaju.services.PenyewaanService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
@@ -50,12 +51,14 @@ public class PelangganDashboardController {
     private AuthService authService;
     private BajuService bajuService;
     private PenyewaanService penyewaanService;
+    private PelangganStatsService pelangganStatsService;
     
     @FXML
     public void initialize() {
         authService = AuthService.getInstance();
         bajuService = BajuService.getInstance();
         penyewaanService = PenyewaanService.getInstance();
+        pelangganStatsService = PelangganStatsService.getInstance();
         
         loadPelangganInfo();
         loadStatistics();
@@ -71,7 +74,6 @@ public class PelangganDashboardController {
             
             if (pelanggan != null) {
                 lblWelcome.setText("Selamat datang, " + pelanggan.getNama());
-                lblPoinLoyalitas.setText(pelanggan.getPoinLoyalitas() + " Poin");
             }
         } catch (Exception e) {
             System.err.println("Error loading pelanggan info: " + e.getMessage());
@@ -81,14 +83,11 @@ public class PelangganDashboardController {
     private void loadStatistics() {
         try {
             int userId = Session.getInstance().getCurrentUserId();
-            List<Penyewaan> allPenyewaan = penyewaanService.getPenyewaanByUserId(userId);
-            lblTotalPenyewaan.setText(String.valueOf(allPenyewaan.size()));
+            PelangganSummary summary = pelangganStatsService.getSummary(userId);
             
-            long aktifCount = allPenyewaan.stream()
-                .filter(p -> p.getStatus() == StatusPenyewaan.SEDANG_DISEWA ||
-                             p.getStatus() == StatusPenyewaan.DIKONFIRMASI)
-                .count();
-            lblPenyewaanAktif.setText(String.valueOf(aktifCount));
+            lblTotalPenyewaan.setText(String.valueOf(summary.getTotalPenyewaan()));
+            lblPenyewaanAktif.setText(String.valueOf(summary.getPenyewaanAktif()));
+            lblPoinLoyalitas.setText(summary.getPoinLoyalitas() + " Poin");
             
         } catch (Exception e) {
             System.err.println("Error loading statistics: " + e.getMessage());
@@ -190,28 +189,20 @@ public class PelangganDashboardController {
     private void loadPenyewaanAktif() {
         try {
             int userId = Session.getInstance().getCurrentUserId();
-            List<Penyewaan> allPenyewaan = penyewaanService.getPenyewaanByUserId(userId);
+            List<PenyewaanRow> aktif = penyewaanService.getPenyewaanAktifRows(userId);
             
             listPenyewaanAktif.getItems().clear();
             
-            boolean hasActive = false;
-            
-            for (Penyewaan p : allPenyewaan) {
-                if (p.getStatus() == StatusPenyewaan.SEDANG_DISEWA ||
-                    p.getStatus() == StatusPenyewaan.DIKONFIRMASI ||
-                    p.getStatus() == StatusPenyewaan.MENUNGGU_PEMBAYARAN) {
-                    
-                    String item = String.format("#%d - %s - %s",
-                        p.getSewaId(),
-                        p.getStatus().getDisplayName(),
-                        DateUtil.formatDate(p.getTglSewa())
-                    );
-                    listPenyewaanAktif.getItems().add(item);
-                    hasActive = true;
-                }
+            for (PenyewaanRow p : aktif) {
+                String item = String.format("#%d - %s - %s",
+                    p.getSewaId(),
+                    p.getStatus().getDisplayName(),
+                    DateUtil.formatDate(p.getTglSewa())
+                );
+                listPenyewaanAktif.getItems().add(item);
             }
             
-            if (!hasActive) {
+            if (aktif.isEmpty()) {
                 listPenyewaanAktif.getItems().add("Tidak ada penyewaan aktif");
             }
             
@@ -121,7 +121,6 @@ public class PembayaranController {
                     "Silakan tunggu verifikasi dari admin."
                 );
                 
-                CatalogBajuController.clearCart();
                 navigateToRiwayatSewa();
                 
             } else {
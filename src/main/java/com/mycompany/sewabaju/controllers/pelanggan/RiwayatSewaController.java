@@ -3,16 +3,19 @@ package com.mycompany.sewabaju.controllers.pelanggan;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.models.DetailPenyewaan;
 import com.mycompany.sewabaju.models.Pembayaran;
-import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.PenyewaanRow;
 import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import com.mycompany.sewabaju.services.PembayaranService;
 import com.mycompany.sewabaju.services.PenyewaanService;
 import com.mycompany.sewabaju.utils.AlertUtil;
 import com.mycompany.sewabaju.utils.DateUtil;
 import com.mycompany.sewabaju.utils.Session;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -20,16 +23,19 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RiwayatSewaController {
-    @FXML private TableView<Penyewaan> tablePenyewaan;
-    @FXML private TableColumn<Penyewaan, Integer> colId;
-    @FXML private TableColumn<Penyewaan, String> colTglSewa;
-    @FXML private TableColumn<Penyewaan, String> colTglKembali;
-    @FXML private TableColumn<Penyewaan, Integer> colJumlahItem;
-    @FXML private TableColumn<Penyewaan, Double> colTotal;
-    @FXML private TableColumn<Penyewaan, String> colStatus;
+    @FXML private TableView<PenyewaanRow> tablePenyewaan;
+    @FXML private TableColumn<PenyewaanRow, Integer> colId;
+    @FXML private TableColumn<PenyewaanRow, String> colTglSewa;
+    @FXML private TableColumn<PenyewaanRow, String> colTglKembali;
+    @FXML private TableColumn<PenyewaanRow, Integer> colJumlahItem;
+    @FXML private TableColumn<PenyewaanRow, Double> colTotal;
+    @FXML private TableColumn<PenyewaanRow, String> colStatus;
     
     @FXML private ComboBox<StatusPenyewaan> filterStatus;
     
@@ -48,7 +54,15 @@ public class RiwayatSewaController {
     
     private PenyewaanService penyewaanService;
     private PembayaranService pembayaranService;
-    private Penyewaan selectedPenyewaan;
+    private PenyewaanRow selectedPenyewaan;
+    
+    private static final int PAGE_SIZE = 30;
+    
+    private final Map<Integer, RiwayatDetail> detailCache = new HashMap<>();
+    private int lastSewaId;
+    private boolean hasMore;
+    private boolean loadingPage;
+    private ScrollBar verticalBar;
     
     @FXML
     public void initialize() {
@@ -56,6 +70,7 @@ public class RiwayatSewaController {
         pembayaranService = PembayaranService.getInstance();
         
         setupTable();
+        setupInfiniteScroll();
         
         filterStatus.setItems(FXCollections.observableArrayList(StatusPenyewaan.values()));
         filterStatus.setPromptText("Semua Status");
@@ -104,7 +119,7 @@ public class RiwayatSewaController {
             )
         );
         
-        colTotal.setCellFactory(col -> new TableCell<Penyewaan, Double>() {
+        colTotal.setCellFactory(col -> new TableCell<PenyewaanRow, Double>() {
             @Override
             protected void updateItem(Double price, boolean empty) {
                 super.updateItem(price, empty);
@@ -116,7 +131,7 @@ public class RiwayatSewaController {
             }
         });
         
-        colStatus.setCellFactory(col -> new TableCell<Penyewaan, String>() {
+        colStatus.setCellFactory(col -> new TableCell<PenyewaanRow, String>() {
             @Override
             protected void updateItem(String status, boolean empty) {
                 super.updateItem(status, empty);
@@ -140,24 +155,88 @@ public class RiwayatSewaController {
         });
     }
     
+    // Halaman berikutnya dimuat saat tabel di-scroll sampai bawah, atau selama tabel belum
+    // penuh karena tanpa scroll bar tidak ada event scroll yang memicu halaman berikutnya
+    private void setupInfiniteScroll() {
+        tablePenyewaan.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : tablePenyewaan.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    verticalBar = bar;
+                    bar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax()) {
+                            loadNextPage();
+                        }
+                    });
+                }
+            }
+            Platform.runLater(this::fillViewport);
+        });
+        
+        tablePenyewaan.heightProperty().addListener((obs, oldHeight, newHeight) -> 
+            Platform.runLater(this::fillViewport));
+    }
+    
+    private void fillViewport() {
+        if (!hasMore || loadingPage || verticalBar == null) {
+            return;
+        }
+        
+        tablePenyewaan.applyCss();
+        tablePenyewaan.layout();
+        if (!verticalBar.isVisible()) {
+            loadNextPage();
+        }
+    }
+    
     private void loadRiwayatSewa() {
+        detailCache.clear();
+        lastSewaId = 0;
+        hasMore = true;
+        tablePenyewaan.setItems(FXCollections.observableArrayList());
+        loadNextPage();
+    }
+    
+    private void loadNextPage() {
+        if (!hasMore || loadingPage) {
+            return;
+        }
+        
+        loadingPage = true;
         try {
             int userId = Session.getInstance().getCurrentUserId();
-            List<Penyewaan> penyewaanList = penyewaanService.getPenyewaanByUserId(userId);
+            List<PenyewaanRow> page = penyewaanService.getRiwayatPage(
+                userId, filterStatus.getValue(), lastSewaId, PAGE_SIZE
+            );
             
-            StatusPenyewaan filterStatusValue = filterStatus.getValue();
-            if (filterStatusValue != null) {
-                penyewaanList = penyewaanList.stream()
-                    .filter(p -> p.getStatus() == filterStatusValue)
-                    .toList();
+            if (!page.isEmpty()) {
+                lastSewaId = page.get(page.size() - 1).getSewaId();
+                tablePenyewaan.getItems().addAll(page);
             }
-            
-            tablePenyewaan.setItems(FXCollections.observableArrayList(penyewaanList));
+            hasMore = page.size() == PAGE_SIZE;
             
         } catch (DatabaseException e) {
+            hasMore = false;
             AlertUtil.showDatabaseError("memuat riwayat sewa");
             e.printStackTrace();
+        } finally {
+            loadingPage = false;
+            updateButtonStates();
         }
+        
+        Platform.runLater(this::fillViewport);
+    }
+    
+    // Item dan status pembayaran baru dimuat saat baris dipilih, lalu disimpan
+    private RiwayatDetail getDetail(PenyewaanRow row) throws DatabaseException {
+        RiwayatDetail detail = detailCache.get(row.getSewaId());
+        if (detail == null) {
+            detail = new RiwayatDetail(
+                penyewaanService.getItemsBySewaId(row.getSewaId()),
+                pembayaranService.getPembayaranBySewaId(row.getSewaId())
+            );
+            detailCache.put(row.getSewaId(), detail);
+        }
+        return detail;
     }
     
     private void loadDetailPenyewaan() {
@@ -170,7 +249,10 @@ public class RiwayatSewaController {
             lblDetailId.setText("#" + selectedPenyewaan.getSewaId());
             lblDetailTglSewa.setText(DateUtil.formatDate(selectedPenyewaan.getTglSewa()));
             lblDetailTglKembali.setText(DateUtil.formatDate(selectedPenyewaan.getTglKembali()));
-            lblDetailLamaSewa.setText(selectedPenyewaan.hitungLamaHari() + " hari");
+            long lamaHari = selectedPenyewaan.getTglSewa() != null && selectedPenyewaan.getTglKembali() != null
+                ? ChronoUnit.DAYS.between(selectedPenyewaan.getTglSewa(), selectedPenyewaan.getTglKembali())
+                : 0;
+            lblDetailLamaSewa.setText(lamaHari + " hari");
             lblDetailTotal.setText(String.format("Rp %.0f", selectedPenyewaan.getTotalHarga()));
             lblDetailStatus.setText(selectedPenyewaan.getStatus().getDisplayName());
             
@@ -185,7 +267,9 @@ public class RiwayatSewaController {
                 lblDetailStatus.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
             }
             
-            Pembayaran pembayaran = pembayaranService.getPembayaranBySewaId(selectedPenyewaan.getSewaId());
+            RiwayatDetail detailSewa = getDetail(selectedPenyewaan);
+            
+            Pembayaran pembayaran = detailSewa.pembayaran;
             if (pembayaran != null) {
                 lblDetailStatusPembayaran.setText(pembayaran.getStatusDisplay());
                 
@@ -205,7 +289,7 @@ public class RiwayatSewaController {
             StringBuilder sb = new StringBuilder();
             sb.append("Items yang disewa:\n\n");
             
-            for (DetailPenyewaan detail : selectedPenyewaan.getDetailPenyewaanList()) {
+            for (DetailPenyewaan detail : detailSewa.items) {
                 sb.append("• ").append(detail.getItemDisplay()).append("\n");
                 sb.append("  Harga: Rp ").append(String.format("%.0f", detail.getHargaPerItem())).append("\n");
                 sb.append("  Subtotal: Rp ").append(String.format("%.0f", detail.getSubtotal())).append("\n\n");
@@ -276,4 +360,14 @@ public class RiwayatSewaController {
         boolean hasSelection = selectedPenyewaan != null;
         btnViewDetail.setDisable(!hasSelection);
     }
+    
+    private static final class RiwayatDetail {
+        private final List<DetailPenyewaan> items;
+        private final Pembayaran pembayaran;
+        
+        RiwayatDetail(List<DetailPenyewaan> items, Pembayaran pembayaran) {
+            this.items = items;
+            this.pembayaran = pembayaran;
+        }
+    }
 }
\ No newline at end of file
@@ -2,19 +2,28 @@ package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.database.DatabaseConnection;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public abstract class BaseDAO<T> {
     
     protected Connection connection;
     public BaseDAO() {
-        try {
-            this.connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to get database connection", e);
-        }
+        this.connection = DatabaseConnection.getInstance().getRoutingConnection();
+    }
+
+    @FunctionalInterface
+    protected interface RowMapper<R> {
+        R map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
     }
 
     protected abstract T mapResultSetToEntity(ResultSet rs) throws SQLException;
@@ -118,6 +127,179 @@ public abstract class BaseDAO<T> {
         return results;
     }
     
+    protected <R> List<R> queryRows(String sql, RowMapper<R> mapper, Object... params)
+            throws DatabaseException {
+        List<R> results = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                setParameter(stmt, i + 1, params[i]);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing query: " + sql, e);
+        }
+        
+        return results;
+    }
+    
+    protected <R> int forEachPaged(String sql, String keyColumn, int chunkSize,
+                                   RowMapper<R> mapper, Consumer<R> consumer,
+                                   Object... params) throws DatabaseException {
+        // Keyset paging: only one chunk is held in memory at a time
+        String pagedSql = sql + " AND " + keyColumn + " > ? ORDER BY " + keyColumn + " LIMIT ?";
+        String keyLabel = keyColumn.substring(keyColumn.lastIndexOf('.') + 1);
+        int lastKey = 0;
+        int total = 0;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(pagedSql)) {
+            while (true) {
+                for (int i = 0; i < params.length; i++) {
+                    setParameter(stmt, i + 1, params[i]);
+                }
+                stmt.setInt(params.length + 1, lastKey);
+                stmt.setInt(params.length + 2, chunkSize);
+                
+                int rowsInChunk = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastKey = rs.getInt(keyLabel);
+                        consumer.accept(mapper.map(rs));
+                        rowsInChunk++;
+                    }
+                }
+                
+                total += rowsInChunk;
+                if (rowsInChunk < chunkSize) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing paged query: " + sql, e);
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Cursor streaming: driver MySQL mengirim baris satu per satu (fetch size MIN_VALUE),
+     * tanpa menampung hasil di memori atau membuat entity per baris. Selama cursor terbuka
+     * connection ini tidak bisa dipakai query lain.
+     */
+    protected int streamRows(String sql, RowHandler handler, Object... params) throws DatabaseException {
+        int rows = 0;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql, 
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            setParameters(stmt, params);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error streaming query: " + sql, e);
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Baris yang berubah setelah posisi (updatedAt, id), urut menurut updated_at lalu primary key.
+     * Posisi awal diberi id 0 untuk membaca semua baris dengan updated_at >= afterTime.
+     */
+    protected List<ChangedRow> findChangedAfter(String parentColumn, String statusColumn,
+                                                LocalDateTime afterTime, int afterId, int limit)
+            throws DatabaseException {
+        String pk = getPrimaryKeyColumn();
+        String sql = "SELECT " + pk + " AS row_id, " + parentColumn + " AS parent_id, " +
+                     (statusColumn != null ? statusColumn : "NULL") + " AS row_status, updated_at " +
+                     "FROM " + getTableName() + " " +
+                     "WHERE updated_at >= ? AND (updated_at > ? OR " + pk + " > ?) " +
+                     "ORDER BY updated_at, " + pk + " LIMIT ?";
+        List<ChangedRow> rows = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            Timestamp after = Timestamp.valueOf(afterTime);
+            stmt.setTimestamp(1, after);
+            stmt.setTimestamp(2, after);
+            stmt.setInt(3, afterId);
+            stmt.setInt(4, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new ChangedRow(
+                        rs.getInt("row_id"),
+                        rs.getInt("parent_id"),
+                        rs.getString("row_status"),
+                        rs.getTimestamp("updated_at").toLocalDateTime()
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding changed " + getTableName(), e);
+        }
+        
+        return rows;
+    }
+    
+    public LocalDateTime getDatabaseTime() throws DatabaseException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP(3)")) {
+            
+            if (rs.next()) {
+                return rs.getTimestamp(1).toLocalDateTime();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error reading database time", e);
+        }
+        
+        return LocalDateTime.now();
+    }
+    
+    protected int executeCount(String sql, Object... params) throws DatabaseException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                setParameter(stmt, i + 1, params[i]);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing count: " + sql, e);
+        }
+        
+        return 0;
+    }
+    
+    protected LocalDateTime executeMaxTimestamp(String sql, Object... params) throws DatabaseException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            setParameters(stmt, params);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp value = rs.getTimestamp(1);
+                    return value != null ? value.toLocalDateTime() : null;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing query: " + sql, e);
+        }
+        
+        return null;
+    }
+    
     protected int executeUpdate(String sql, Object... params) throws DatabaseException {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             for (int i = 0; i < params.length; i++) {
@@ -152,6 +334,27 @@ public abstract class BaseDAO<T> {
         return -1;
     }
     
+    /**
+     * Jalankan work dalam DatabaseConnection.inTransaction: rollback pada exception apa pun,
+     * dan ikut transaksi pemanggil bila sudah ada. SQLException dibungkus dengan pesan ini.
+     */
+    protected <R> R inTransaction(String errorMessage, DatabaseConnection.PooledWork<R> work) 
+            throws DatabaseException {
+        try {
+            return DatabaseConnection.getInstance().inTransaction(work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException(errorMessage, e);
+        }
+    }
+    
+    protected void setParameters(PreparedStatement stmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            setParameter(stmt, i + 1, params[i]);
+        }
+    }
+    
     private void setParameter(PreparedStatement stmt, int index, Object value) throws SQLException {
         if (value == null) {
             stmt.setNull(index, Types.NULL);
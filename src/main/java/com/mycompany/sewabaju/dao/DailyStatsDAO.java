@@ -0,0 +1,207 @@
+package com.mycompany.sewabaju.dao;
+
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DailyStats;
+import com.mycompany.sewabaju.models.DashboardSnapshot;
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+public class DailyStatsDAO extends BaseDAO<DailyStats> {
+
+    @Override
+    protected String getTableName() {
+        return "daily_stats";
+    }
+
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "stat_date";
+    }
+
+    @Override
+    protected DailyStats mapResultSetToEntity(ResultSet rs) throws SQLException {
+        DailyStats stats = new DailyStats();
+
+        Date statDate = rs.getDate("stat_date");
+        if (statDate != null) stats.setStatDate(statDate.toLocalDate());
+
+        stats.setJumlahPenyewaan(rs.getInt("jumlah_penyewaan"));
+        stats.setJumlahDibatalkan(rs.getInt("jumlah_dibatalkan"));
+        stats.setPendapatan(rs.getDouble("pendapatan"));
+        stats.setPembayaranMasuk(rs.getDouble("pembayaran_masuk"));
+        stats.setTotalDenda(rs.getDouble("total_denda"));
+
+        return stats;
+    }
+
+    public boolean addDelta(LocalDate statDate, int jumlahPenyewaan, int jumlahDibatalkan,
+                            double pendapatan, double pembayaranMasuk, double totalDenda)
+            throws DatabaseException {
+        String sql = "INSERT INTO daily_stats (stat_date, jumlah_penyewaan, jumlah_dibatalkan, " +
+                     "pendapatan, pembayaran_masuk, total_denda) VALUES (?, ?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " +
+                     "jumlah_penyewaan = jumlah_penyewaan + ?, " +
+                     "jumlah_dibatalkan = jumlah_dibatalkan + ?, " +
+                     "pendapatan = pendapatan + ?, " +
+                     "pembayaran_masuk = pembayaran_masuk + ?, " +
+                     "total_denda = total_denda + ?";
+
+        int rowsAffected = executeUpdate(sql,
+                statDate,
+                jumlahPenyewaan,
+                jumlahDibatalkan,
+                pendapatan,
+                pembayaranMasuk,
+                totalDenda,
+                jumlahPenyewaan,
+                jumlahDibatalkan,
+                pendapatan,
+                pembayaranMasuk,
+                totalDenda
+        );
+
+        return rowsAffected > 0;
+    }
+
+    public List<DailyStats> findByDateRange(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT * FROM daily_stats WHERE stat_date BETWEEN ? AND ? ORDER BY stat_date";
+        return executeQuery(sql, startDate, endDate);
+    }
+
+    public DailyStats sumByDateRange(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT ? AS stat_date, " +
+                     "COALESCE(SUM(jumlah_penyewaan), 0) AS jumlah_penyewaan, " +
+                     "COALESCE(SUM(jumlah_dibatalkan), 0) AS jumlah_dibatalkan, " +
+                     "COALESCE(SUM(pendapatan), 0) AS pendapatan, " +
+                     "COALESCE(SUM(pembayaran_masuk), 0) AS pembayaran_masuk, " +
+                     "COALESCE(SUM(total_denda), 0) AS total_denda " +
+                     "FROM daily_stats WHERE stat_date BETWEEN ? AND ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(startDate));
+            stmt.setDate(2, Date.valueOf(startDate));
+            stmt.setDate(3, Date.valueOf(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToEntity(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing daily stats", e);
+        }
+
+        return new DailyStats(startDate);
+    }
+
+    public DashboardSnapshot loadDashboardCounters(LocalDate today, LocalDate monthStart,
+                                                   LocalDate monthEnd) throws DatabaseException {
+        String sql = "SELECT " +
+                     "(SELECT COALESCE(SUM(jumlah_penyewaan), 0) FROM daily_stats WHERE stat_date = ?) AS penyewaan_hari_ini, " +
+                     "(SELECT COALESCE(SUM(pendapatan), 0) FROM daily_stats WHERE stat_date BETWEEN ? AND ?) AS pendapatan_bulan_ini, " +
+                     "(SELECT COUNT(*) FROM pelanggan) AS jumlah_pelanggan, " +
+                     "(SELECT COUNT(*) FROM pembayaran WHERE status = ?) AS pembayaran_pending";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(today));
+            stmt.setDate(2, Date.valueOf(monthStart));
+            stmt.setDate(3, Date.valueOf(monthEnd));
+            stmt.setString(4, StatusPembayaran.MENUNGGU_VERIFIKASI.name());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new DashboardSnapshot(
+                            rs.getInt("penyewaan_hari_ini"),
+                            rs.getDouble("pendapatan_bulan_ini"),
+                            rs.getInt("jumlah_pelanggan"),
+                            rs.getInt("pembayaran_pending"),
+                            Collections.emptyList(),
+                            LocalDateTime.now()
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading dashboard counters", e);
+        }
+
+        return new DashboardSnapshot(0, 0, 0, 0, Collections.emptyList(), LocalDateTime.now());
+    }
+
+    public int rebuild(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        boolean ranged = startDate != null && endDate != null;
+
+        String deleteSql = "DELETE FROM daily_stats" + (ranged ? " WHERE stat_date BETWEEN ? AND ?" : "");
+
+        String penyewaanSql = "INSERT INTO daily_stats (stat_date, jumlah_penyewaan, " +
+                     "jumlah_dibatalkan, pendapatan) " +
+                     "SELECT tgl_sewa, COUNT(*), " +
+                     "SUM(CASE WHEN status = ? THEN 1 ELSE 0 END), " +
+                     "SUM(CASE WHEN status = ? THEN total_harga ELSE 0 END) " +
+                     "FROM penyewaan " +
+                     (ranged ? "WHERE tgl_sewa BETWEEN ? AND ? " : "") +
+                     "GROUP BY tgl_sewa";
+
+        String pembayaranSql = "INSERT INTO daily_stats (stat_date, pembayaran_masuk) " +
+                     "SELECT * FROM (" +
+                     "  SELECT DATE(COALESCE(verified_at, tanggal_bayar)) AS tgl, SUM(jumlah) AS total " +
+                     "  FROM pembayaran WHERE status = ? " +
+                     "  GROUP BY DATE(COALESCE(verified_at, tanggal_bayar))" +
+                     ") AS src " +
+                     "WHERE src.tgl IS NOT NULL" + (ranged ? " AND src.tgl BETWEEN ? AND ?" : "") +
+                     " ON DUPLICATE KEY UPDATE pembayaran_masuk = src.total";
+
+        String dendaSql = "INSERT INTO daily_stats (stat_date, total_denda) " +
+                     "SELECT * FROM (" +
+                     "  SELECT DATE(created_at) AS tgl, SUM(jumlah) AS total FROM denda " +
+                     (ranged ? "  WHERE created_at >= ? AND created_at < ? " : "") +
+                     "  GROUP BY DATE(created_at)" +
+                     ") AS src " +
+                     "WHERE src.tgl IS NOT NULL" +
+                     " ON DUPLICATE KEY UPDATE total_denda = src.total";
+
+        return inTransaction("Error rebuilding daily stats", () -> {
+            try (PreparedStatement stmt = connection.prepareStatement(deleteSql)) {
+                if (ranged) {
+                    stmt.setDate(1, Date.valueOf(startDate));
+                    stmt.setDate(2, Date.valueOf(endDate));
+                }
+                stmt.executeUpdate();
+            }
+
+            int rows;
+            try (PreparedStatement stmt = connection.prepareStatement(penyewaanSql)) {
+                stmt.setString(1, StatusPenyewaan.DIBATALKAN.name());
+                stmt.setString(2, StatusPenyewaan.DIKEMBALIKAN.name());
+                if (ranged) {
+                    stmt.setDate(3, Date.valueOf(startDate));
+                    stmt.setDate(4, Date.valueOf(endDate));
+                }
+                rows = stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = connection.prepareStatement(pembayaranSql)) {
+                stmt.setString(1, StatusPembayaran.BERHASIL.name());
+                if (ranged) {
+                    stmt.setDate(2, Date.valueOf(startDate));
+                    stmt.setDate(3, Date.valueOf(endDate));
+                }
+                rows += stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = connection.prepareStatement(dendaSql)) {
+                if (ranged) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+                    stmt.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+                }
+                rows += stmt.executeUpdate();
+            }
+
+            return rows;
+        });
+    }
+}
\ No newline at end of file
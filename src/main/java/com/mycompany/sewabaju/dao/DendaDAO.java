@@ -1,11 +1,22 @@
 package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
 import com.mycompany.sewabaju.models.Denda;
+import com.mycompany.sewabaju.models.DendaSummary;
+import com.mycompany.sewabaju.models.Penyewaan;
 import com.mycompany.sewabaju.models.enums.JenisDenda;
 import com.mycompany.sewabaju.models.enums.StatusBayarDenda;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class DendaDAO extends BaseDAO<Denda> {
     
@@ -25,6 +36,9 @@ public class DendaDAO extends BaseDAO<Denda> {
         denda.setDendaId(rs.getInt("denda_id"));
         denda.setSewaId(rs.getInt("sewa_id"));
         
+        int detailSewaId = rs.getInt("detail_sewa_id");
+        denda.setDetailSewaId(rs.wasNull() ? null : detailSewaId);
+        
         String jenisStr = rs.getString("jenis_denda");
         denda.setJenisDenda(JenisDenda.fromString(jenisStr));
         
@@ -41,11 +55,12 @@ public class DendaDAO extends BaseDAO<Denda> {
     }
     
     public int save(Denda denda) throws DatabaseException {
-        String sql = "INSERT INTO denda (sewa_id, jenis_denda, jumlah, keterangan, " +
-                     "status_bayar, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO denda (sewa_id, detail_sewa_id, jenis_denda, jumlah, keterangan, " +
+                     "status_bayar, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
         return executeInsertWithGeneratedKey(sql,
                 denda.getSewaId(),
+                denda.getDetailSewaId(),
                 denda.getJenisDenda().name(),
                 denda.getJumlah(),
                 denda.getKeterangan(),
@@ -75,6 +90,100 @@ public class DendaDAO extends BaseDAO<Denda> {
         return executeQuery(sql, sewaId);
     }
     
+    public Denda findByDetail(int sewaId, JenisDenda jenis, int detailSewaId) throws DatabaseException {
+        String sql = "SELECT * FROM denda WHERE sewa_id = ? AND jenis_denda = ? AND detail_sewa_id = ?";
+        List<Denda> results = executeQuery(sql, sewaId, jenis.name(), detailSewaId);
+        return results.isEmpty() ? null : results.get(0);
+    }
+    
+    /**
+     * Simpan denda yang belum ada menurut unique key (sewa_id, jenis_denda, detail_sewa_id).
+     * Satu INSERT IGNORE multi-row; baris baru lalu dikenali dengan satu SELECT pada unique key,
+     * yaitu yang denda_id-nya tidak lebih kecil dari id pertama yang dibuat statement ini.
+     *
+     * @return denda yang benar-benar tersimpan, dengan dendaId terisi
+     */
+    public List<Denda> insertAllIgnoringDuplicates(List<Denda> dendaList) throws DatabaseException {
+        List<Denda> inserted = new ArrayList<>();
+        if (dendaList.isEmpty()) {
+            return inserted;
+        }
+        
+        StringBuilder insertSql = new StringBuilder("INSERT IGNORE INTO denda (sewa_id, detail_sewa_id, " +
+                "jenis_denda, jumlah, keterangan, status_bayar, created_at) VALUES ");
+        StringBuilder selectSql = new StringBuilder("SELECT denda_id, sewa_id, jenis_denda, detail_sewa_id " +
+                "FROM denda WHERE denda_id >= ? AND (sewa_id, jenis_denda, detail_sewa_id) IN (");
+        List<Object> insertParams = new ArrayList<>();
+        List<Object> selectParams = new ArrayList<>();
+        
+        for (int i = 0; i < dendaList.size(); i++) {
+            Denda denda = dendaList.get(i);
+            insertSql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?)");
+            selectSql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            insertParams.add(denda.getSewaId());
+            insertParams.add(denda.getDetailSewaId());
+            insertParams.add(denda.getJenisDenda().name());
+            insertParams.add(denda.getJumlah());
+            insertParams.add(denda.getKeterangan());
+            insertParams.add(denda.getStatusBayar().name());
+            insertParams.add(denda.getCreatedAt());
+            selectParams.add(denda.getSewaId());
+            selectParams.add(denda.getJenisDenda().name());
+            selectParams.add(denda.getDetailSewaId());
+        }
+        selectSql.append(")");
+        
+        Map<String, Denda> byKey = new HashMap<>();
+        for (Denda denda : dendaList) {
+            byKey.put(uniqueKey(denda.getSewaId(), denda.getJenisDenda().name(), denda.getDetailSewaId()), denda);
+        }
+        
+        return inTransaction("Error saving denda batch", () -> {
+            int firstId;
+            try (PreparedStatement stmt = connection.prepareStatement(insertSql.toString(),
+                                                                      Statement.RETURN_GENERATED_KEYS)) {
+                setParameters(stmt, insertParams.toArray());
+                if (stmt.executeUpdate() == 0) {
+                    return inserted;
+                }
+                
+                // LAST_INSERT_ID() koneksi ini: id pertama yang dibuat INSERT di atas
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        return inserted;
+                    }
+                    firstId = keys.getInt(1);
+                }
+            }
+            
+            selectParams.add(0, firstId);
+            try (PreparedStatement stmt = connection.prepareStatement(selectSql.toString())) {
+                setParameters(stmt, selectParams.toArray());
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Denda denda = byKey.get(uniqueKey(rs.getInt("sewa_id"), rs.getString("jenis_denda"),
+                                                          rs.getInt("detail_sewa_id")));
+                        if (denda != null) {
+                            denda.setDendaId(rs.getInt("denda_id"));
+                        }
+                    }
+                }
+            }
+            
+            for (Denda denda : dendaList) {
+                if (denda.getDendaId() > 0) {
+                    inserted.add(denda);
+                }
+            }
+            return inserted;
+        });
+    }
+    
+    private static String uniqueKey(int sewaId, String jenisDenda, int detailSewaId) {
+        return sewaId + ":" + jenisDenda + ":" + detailSewaId;
+    }
+    
     public List<Denda> findUnpaid() throws DatabaseException {
         String sql = "SELECT * FROM denda WHERE status_bayar = ? ORDER BY created_at";
         return executeQuery(sql, StatusBayarDenda.BELUM_DIBAYAR.name());
@@ -85,6 +194,185 @@ public class DendaDAO extends BaseDAO<Denda> {
         return executeQuery(sql, jenis.name());
     }
     
+    public int countByDateRange(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT COUNT(*) FROM denda WHERE created_at >= ? AND created_at < ?";
+        return executeCount(sql, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public LocalDateTime findLastUpdatedByDateRange(LocalDate startDate, LocalDate endDate)
+            throws DatabaseException {
+        String sql = "SELECT MAX(updated_at) FROM denda WHERE created_at >= ? AND created_at < ?";
+        return executeMaxTimestamp(sql, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public int streamByDateRange(LocalDate startDate, LocalDate endDate, RowHandler handler)
+            throws DatabaseException {
+        String sql = "SELECT denda_id, sewa_id, jenis_denda, jumlah, keterangan, status_bayar, created_at " +
+                     "FROM denda WHERE created_at >= ? AND created_at < ? ORDER BY denda_id";
+        return streamRows(sql, handler, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public int forEachByDateRange(LocalDate startDate, LocalDate endDate, int chunkSize,
+                                  Consumer<Denda> consumer) throws DatabaseException {
+        String sql = "SELECT * FROM denda WHERE created_at >= ? AND created_at < ?";
+        
+        return forEachPaged(sql, "denda_id", chunkSize, this::mapResultSetToEntity, consumer,
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public List<Denda> findOverdueKeterlambatan(LocalDate today) throws DatabaseException {
+        String sql = "SELECT p.sewa_id, p.user_id, p.tgl_sewa, p.tgl_kembali, p.total_harga, p.status, " +
+                     "d.denda_id, d.jumlah, d.keterangan, d.status_bayar, d.created_at " +
+                     "FROM penyewaan p " +
+                     "LEFT JOIN denda d ON d.sewa_id = p.sewa_id AND d.jenis_denda = ? " +
+                     "AND d.detail_sewa_id = " + Denda.SELURUH_PENYEWAAN + " " +
+                     "WHERE p.status = ? AND p.tgl_kembali < ? " +
+                     "ORDER BY p.sewa_id, d.denda_id";
+        List<Denda> results = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, JenisDenda.KETERLAMBATAN.name());
+            stmt.setString(2, StatusPenyewaan.SEDANG_DISEWA.name());
+            stmt.setDate(3, Date.valueOf(today));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Penyewaan penyewaan = new Penyewaan();
+                    penyewaan.setSewaId(rs.getInt("sewa_id"));
+                    penyewaan.setUserId(rs.getInt("user_id"));
+                    penyewaan.setTglSewa(rs.getDate("tgl_sewa").toLocalDate());
+                    penyewaan.setTglKembali(rs.getDate("tgl_kembali").toLocalDate());
+                    penyewaan.setTotalHarga(rs.getDouble("total_harga"));
+                    penyewaan.setStatus(StatusPenyewaan.fromString(rs.getString("status")));
+                    
+                    Denda denda = new Denda();
+                    denda.setJenisDenda(JenisDenda.KETERLAMBATAN);
+                    denda.setPenyewaan(penyewaan);
+                    
+                    // denda_id = 0 berarti belum ada denda keterlambatan untuk sewa ini
+                    denda.setDendaId(rs.getInt("denda_id"));
+                    if (denda.getDendaId() > 0) {
+                        denda.setJumlah(rs.getDouble("jumlah"));
+                        denda.setKeterangan(rs.getString("keterangan"));
+                        denda.setStatusBayar(StatusBayarDenda.fromString(rs.getString("status_bayar")));
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        if (createdAt != null) denda.setCreatedAt(createdAt.toLocalDateTime());
+                    }
+                    
+                    results.add(denda);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding overdue keterlambatan", e);
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Simpan denda keterlambatan hasil sweep. Baris yang sudah ada dikunci lebih dulu sehingga
+     * selisih per tanggal dihitung dari jumlah yang benar-benar tersimpan, bukan dari data sweep
+     * yang mungkin sudah basi (dibuat terminal lain atau sudah dibayar sejak dibaca).
+     */
+    public KeterlambatanUpsert upsertKeterlambatanBatch(List<Denda> accrued) throws DatabaseException {
+        String insertSql = "INSERT INTO denda (sewa_id, detail_sewa_id, jenis_denda, jumlah, keterangan, " +
+                           "status_bayar, created_at) VALUES (?, ?, ?, ?, ?, ?, ?) AS new " +
+                           "ON DUPLICATE KEY UPDATE " +
+                           "jumlah = IF(denda.status_bayar = ?, new.jumlah, denda.jumlah), " +
+                           "keterangan = IF(denda.status_bayar = ?, new.keterangan, denda.keterangan)";
+        String updateSql = "UPDATE denda SET jumlah = ?, keterangan = ? " +
+                           "WHERE denda_id = ? AND status_bayar = ?";
+        
+        return inTransaction("Error upserting denda keterlambatan", () -> {
+            KeterlambatanUpsert result = new KeterlambatanUpsert();
+            Map<Integer, Denda> existing = lockExistingKeterlambatan(accrued);
+            
+            try (PreparedStatement insertStmt = connection.prepareStatement(insertSql);
+                 PreparedStatement updateStmt = connection.prepareStatement(updateSql)) {
+                for (Denda denda : accrued) {
+                    Denda current = existing.get(denda.getSewaId());
+                    
+                    if (current == null) {
+                        insertStmt.setInt(1, denda.getSewaId());
+                        insertStmt.setInt(2, Denda.SELURUH_PENYEWAAN);
+                        insertStmt.setString(3, denda.getJenisDenda().name());
+                        insertStmt.setDouble(4, denda.getJumlah());
+                        insertStmt.setString(5, denda.getKeterangan());
+                        insertStmt.setString(6, denda.getStatusBayar().name());
+                        insertStmt.setTimestamp(7, Timestamp.valueOf(denda.getCreatedAt()));
+                        insertStmt.setString(8, StatusBayarDenda.BELUM_DIBAYAR.name());
+                        insertStmt.setString(9, StatusBayarDenda.BELUM_DIBAYAR.name());
+                        insertStmt.addBatch();
+                        result.inserted++;
+                        result.addDelta(denda.getCreatedAt().toLocalDate(), denda.getJumlah());
+                    } else if (!current.isPaid() && current.getJumlah() != denda.getJumlah()) {
+                        updateStmt.setDouble(1, denda.getJumlah());
+                        updateStmt.setString(2, denda.getKeterangan());
+                        updateStmt.setInt(3, current.getDendaId());
+                        updateStmt.setString(4, StatusBayarDenda.BELUM_DIBAYAR.name());
+                        updateStmt.addBatch();
+                        result.updated++;
+                        LocalDate tgl = current.getCreatedAt() != null
+                                ? current.getCreatedAt().toLocalDate()
+                                : denda.getCreatedAt().toLocalDate();
+                        result.addDelta(tgl, denda.getJumlah() - current.getJumlah());
+                    }
+                }
+                
+                if (result.inserted > 0) {
+                    insertStmt.executeBatch();
+                }
+                if (result.updated > 0) {
+                    updateStmt.executeBatch();
+                }
+            }
+            
+            return result;
+        });
+    }
+    
+    /**
+     * Kunci denda keterlambatan yang sudah ada untuk sewa-sewa ini. FOR UPDATE juga mengunci celah
+     * unique key, jadi sewa yang belum punya denda tidak bisa diisi terminal lain sampai commit.
+     */
+    private Map<Integer, Denda> lockExistingKeterlambatan(List<Denda> accrued) throws SQLException {
+        Map<Integer, Denda> existing = new HashMap<>();
+        if (accrued.isEmpty()) {
+            return existing;
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT denda_id, sewa_id, jumlah, status_bayar, created_at " +
+                                              "FROM denda WHERE jenis_denda = ? " +
+                                              "AND detail_sewa_id = ? AND sewa_id IN (");
+        for (int i = 0; i < accrued.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") FOR UPDATE");
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+            stmt.setString(1, JenisDenda.KETERLAMBATAN.name());
+            stmt.setInt(2, Denda.SELURUH_PENYEWAAN);
+            for (int i = 0; i < accrued.size(); i++) {
+                stmt.setInt(i + 3, accrued.get(i).getSewaId());
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Denda denda = new Denda();
+                    denda.setDendaId(rs.getInt("denda_id"));
+                    denda.setSewaId(rs.getInt("sewa_id"));
+                    denda.setJumlah(rs.getDouble("jumlah"));
+                    denda.setStatusBayar(StatusBayarDenda.fromString(rs.getString("status_bayar")));
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    if (createdAt != null) denda.setCreatedAt(createdAt.toLocalDateTime());
+                    existing.put(denda.getSewaId(), denda);
+                }
+            }
+        }
+        
+        return existing;
+    }
+    
     public boolean markAsPaid(int dendaId) throws DatabaseException {
         String sql = "UPDATE denda SET status_bayar = ? WHERE denda_id = ?";
         
@@ -136,6 +424,106 @@ public class DendaDAO extends BaseDAO<Denda> {
         return 0;
     }
     
+    public DendaSummary getSummaryBySewaId(int sewaId) throws DatabaseException {
+        String sql = "SELECT COUNT(*) AS jumlah_denda, COALESCE(SUM(jumlah), 0) AS total, " +
+                     "COALESCE(SUM(CASE WHEN status_bayar = ? THEN jumlah ELSE 0 END), 0) AS total_belum_dibayar " +
+                     "FROM denda WHERE sewa_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, StatusBayarDenda.BELUM_DIBAYAR.name());
+            stmt.setInt(2, sewaId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new DendaSummary(rs.getInt("jumlah_denda"), 
+                                            rs.getDouble("total"), 
+                                            rs.getDouble("total_belum_dibayar"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error getting denda summary by sewa_id", e);
+        }
+        
+        return new DendaSummary();
+    }
+    
+    public Map<StatusBayarDenda, Double> sumGroupByStatus() throws DatabaseException {
+        String sql = "SELECT status_bayar, SUM(jumlah) FROM denda GROUP BY status_bayar";
+        Map<StatusBayarDenda, Double> results = new EnumMap<>(StatusBayarDenda.class);
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                results.put(StatusBayarDenda.fromString(rs.getString(1)), rs.getDouble(2));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing denda by status", e);
+        }
+        
+        return results;
+    }
+    
+    public Map<JenisDenda, Double> sumGroupByJenis(StatusBayarDenda status) throws DatabaseException {
+        String sql = "SELECT jenis_denda, SUM(jumlah) FROM denda WHERE status_bayar = ? GROUP BY jenis_denda";
+        Map<JenisDenda, Double> results = new EnumMap<>(JenisDenda.class);
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, status.name());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.put(JenisDenda.fromString(rs.getString(1)), rs.getDouble(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing denda by jenis", e);
+        }
+        
+        return results;
+    }
+    
+    public double sumUnpaidByUser(int userId) throws DatabaseException {
+        String sql = "SELECT COALESCE(SUM(d.jumlah), 0) FROM denda d " +
+                     "JOIN penyewaan p ON d.sewa_id = p.sewa_id " +
+                     "WHERE p.user_id = ? AND d.status_bayar = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, StatusBayarDenda.BELUM_DIBAYAR.name());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing unpaid denda for user: " + userId, e);
+        }
+        
+        return 0;
+    }
+    
+    public Map<Integer, Double> sumUnpaidGroupByUser() throws DatabaseException {
+        String sql = "SELECT p.user_id, SUM(d.jumlah) FROM denda d " +
+                     "JOIN penyewaan p ON d.sewa_id = p.sewa_id " +
+                     "WHERE d.status_bayar = ? GROUP BY p.user_id";
+        Map<Integer, Double> results = new HashMap<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, StatusBayarDenda.BELUM_DIBAYAR.name());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.put(rs.getInt(1), rs.getDouble(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing unpaid denda by user", e);
+        }
+        
+        return results;
+    }
+    
     public int countByStatus(StatusBayarDenda status) throws DatabaseException {
         String sql = "SELECT COUNT(*) FROM denda WHERE status_bayar = ?";
         
@@ -165,4 +553,31 @@ public class DendaDAO extends BaseDAO<Denda> {
             throw new DatabaseException("Error deleting denda by sewa_id", e);
         }
     }
-}
\ No newline at end of file
+    
+    public List<ChangedRow> findChangedAfter(LocalDateTime afterTime, int afterId, int limit)
+            throws DatabaseException {
+        return findChangedAfter("sewa_id", "status_bayar", afterTime, afterId, limit);
+    }
+    
+    public static class KeterlambatanUpsert {
+        private int inserted;
+        private int updated;
+        private final Map<LocalDate, Double> deltaPerTanggal = new HashMap<>();
+        
+        private void addDelta(LocalDate tanggal, double delta) {
+            deltaPerTanggal.merge(tanggal, delta, Double::sum);
+        }
+        
+        public int getInserted() {
+            return inserted;
+        }
+        
+        public int getUpdated() {
+            return updated;
+        }
+        
+        public Map<LocalDate, Double> getDeltaPerTanggal() {
+            return deltaPerTanggal;
+        }
+    }
+}
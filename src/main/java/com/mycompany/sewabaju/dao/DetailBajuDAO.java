@@ -1,10 +1,12 @@
 package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
 import com.mycompany.sewabaju.models.DetailBaju;
 import com.mycompany.sewabaju.models.enums.Kondisi;
 import com.mycompany.sewabaju.models.enums.Ukuran;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class DetailBajuDAO extends BaseDAO<DetailBaju> {
@@ -177,4 +179,9 @@ public class DetailBajuDAO extends BaseDAO<DetailBaju> {
             throw new DatabaseException("Error deleting detail baju by baju_id", e);
         }
     }
+    
+    public List<ChangedRow> findChangedAfter(LocalDateTime afterTime, int afterId, int limit)
+            throws DatabaseException {
+        return findChangedAfter("baju_id", null, afterTime, afterId, limit);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.mycompany.sewabaju.dao;
 
+import com.mycompany.sewabaju.analitik.SewaFact;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.Baju;
+import com.mycompany.sewabaju.models.DetailBaju;
 import com.mycompany.sewabaju.models.DetailPenyewaan;
+import com.mycompany.sewabaju.models.PivotRow;
 import com.mycompany.sewabaju.models.enums.Kondisi;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class DetailPenyewaanDAO extends BaseDAO<DetailPenyewaan> {
     
@@ -78,6 +87,88 @@ public class DetailPenyewaanDAO extends BaseDAO<DetailPenyewaan> {
         return executeQuery(sql, sewaId);
     }
     
+    // Item beserta ukuran dan nama baju dalam satu join, untuk tampilan detail
+    public List<DetailPenyewaan> findItemsBySewaId(int sewaId) throws DatabaseException {
+        String sql = "SELECT dp.*, db.baju_id, db.ukuran, db.harga_sewa, db.stok, db.kondisi, b.nama_baju " +
+                     "FROM detail_penyewaan dp " +
+                     "JOIN detail_baju db ON db.detail_baju_id = dp.detail_baju_id " +
+                     "JOIN baju b ON b.baju_id = db.baju_id " +
+                     "WHERE dp.sewa_id = ? ORDER BY dp.detail_sewa_id";
+        
+        return queryRows(sql, rs -> {
+            DetailPenyewaan detail = mapResultSetToEntity(rs);
+            
+            Baju baju = new Baju();
+            baju.setBajuId(rs.getInt("baju_id"));
+            baju.setNamaBaju(rs.getString("nama_baju"));
+            
+            DetailBaju detailBaju = new DetailBaju();
+            detailBaju.setDetailBajuId(detail.getDetailBajuId());
+            detailBaju.setBajuId(baju.getBajuId());
+            detailBaju.setUkuran(Ukuran.fromString(rs.getString("ukuran")));
+            detailBaju.setHargaSewa(rs.getDouble("harga_sewa"));
+            detailBaju.setStok(rs.getInt("stok"));
+            detailBaju.setKondisi(Kondisi.fromString(rs.getString("kondisi")));
+            detailBaju.setBaju(baju);
+            
+            detail.setDetailBaju(detailBaju);
+            return detail;
+        }, sewaId);
+    }
+    
+    /**
+     * Fakta baris penyewaan yang penyewaannya berubah sejak waktu tertentu, per chunk
+     * menurut detail_sewa_id, untuk refresh inkremental store analitik.
+     */
+    public int forEachFactSince(LocalDateTime since, int chunkSize, Consumer<SewaFact> consumer)
+            throws DatabaseException {
+        String sql = "SELECT dp.detail_sewa_id, dp.sewa_id, p.user_id, p.tgl_sewa, p.status, " +
+                     "dp.jumlah, dp.subtotal, db.ukuran, b.baju_id, b.kategori_id " +
+                     "FROM detail_penyewaan dp " +
+                     "JOIN penyewaan p ON p.sewa_id = dp.sewa_id " +
+                     "JOIN detail_baju db ON db.detail_baju_id = dp.detail_baju_id " +
+                     "JOIN baju b ON b.baju_id = db.baju_id " +
+                     "WHERE p.updated_at >= ?";
+        
+        return forEachPaged(sql, "dp.detail_sewa_id", chunkSize, rs -> {
+            Date tglSewa = rs.getDate("tgl_sewa");
+            return new SewaFact(
+                    rs.getInt("detail_sewa_id"),
+                    rs.getInt("sewa_id"),
+                    rs.getInt("user_id"),
+                    tglSewa != null ? tglSewa.toLocalDate() : null,
+                    rs.getInt("kategori_id"),
+                    rs.getInt("baju_id"),
+                    Ukuran.fromString(rs.getString("ukuran")),
+                    StatusPenyewaan.fromString(rs.getString("status")),
+                    rs.getInt("jumlah"),
+                    rs.getDouble("subtotal")
+            );
+        }, consumer, since);
+    }
+    
+    /**
+     * Jumlah item dan subtotal per baju untuk satu rentang tgl_sewa, penyewaan batal tidak dihitung.
+     */
+    public List<PivotRow> summarizeByBaju(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT b.baju_id, b.nama_baju, COUNT(DISTINCT dp.sewa_id) AS jumlah_sewa, " +
+                     "SUM(dp.jumlah) AS jumlah_item, COALESCE(SUM(dp.subtotal), 0) AS total " +
+                     "FROM detail_penyewaan dp " +
+                     "JOIN penyewaan p ON p.sewa_id = dp.sewa_id " +
+                     "JOIN detail_baju db ON db.detail_baju_id = dp.detail_baju_id " +
+                     "JOIN baju b ON b.baju_id = db.baju_id " +
+                     "WHERE p.tgl_sewa BETWEEN ? AND ? AND p.status <> ? " +
+                     "GROUP BY b.baju_id, b.nama_baju";
+        
+        return queryRows(sql, rs -> new PivotRow(
+                rs.getInt("baju_id"),
+                rs.getString("nama_baju"),
+                rs.getLong("jumlah_sewa"),
+                rs.getLong("jumlah_item"),
+                rs.getDouble("total")
+        ), startDate, endDate, StatusPenyewaan.DIBATALKAN);
+    }
+    
     public boolean updateKondisiKembali(int detailSewaId, Kondisi kondisi, String keterangan) 
             throws DatabaseException {
         String sql = "UPDATE detail_penyewaan SET kondisi_saat_kembali = ?, " +
@@ -0,0 +1,130 @@
+package com.mycompany.sewabaju.dao;
+
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DeviceToken;
+import com.mycompany.sewabaju.models.Admin;
+import com.mycompany.sewabaju.models.Pelanggan;
+import com.mycompany.sewabaju.models.User;
+import com.mycompany.sewabaju.models.enums.Role;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeviceTokenDAO extends BaseDAO<DeviceToken> {
+    
+    @Override
+    protected String getTableName() {
+        return "device_token";
+    }
+    
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "token_id";
+    }
+    
+    @Override
+    protected DeviceToken mapResultSetToEntity(ResultSet rs) throws SQLException {
+        DeviceToken token = new DeviceToken();
+        token.setTokenId(rs.getInt("token_id"));
+        token.setUserId(rs.getInt("user_id"));
+        token.setSelector(rs.getString("selector"));
+        token.setValidatorHash(rs.getString("validator_hash"));
+        token.setTerminal(rs.getString("terminal"));
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp lastUsedAt = rs.getTimestamp("last_used_at");
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        Timestamp revokedAt = rs.getTimestamp("revoked_at");
+        
+        if (createdAt != null) token.setCreatedAt(createdAt.toLocalDateTime());
+        if (lastUsedAt != null) token.setLastUsedAt(lastUsedAt.toLocalDateTime());
+        if (expiresAt != null) token.setExpiresAt(expiresAt.toLocalDateTime());
+        if (revokedAt != null) token.setRevokedAt(revokedAt.toLocalDateTime());
+        
+        return token;
+    }
+    
+    public int save(DeviceToken token) throws DatabaseException {
+        String sql = "INSERT INTO device_token (user_id, selector, validator_hash, terminal, " +
+                     "created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+        
+        return executeInsertWithGeneratedKey(sql,
+                token.getUserId(),
+                token.getSelector(),
+                token.getValidatorHash(),
+                token.getTerminal(),
+                token.getCreatedAt(),
+                token.getExpiresAt()
+        );
+    }
+    
+    public DeviceToken findActiveBySelector(String selector) throws DatabaseException {
+        String sql = "SELECT * FROM device_token " +
+                     "WHERE selector = ? AND revoked_at IS NULL AND expires_at > ?";
+        
+        List<DeviceToken> results = executeQuery(sql, selector, LocalDateTime.now());
+        return results.isEmpty() ? null : results.get(0);
+    }
+    
+    public List<DeviceToken> findAllActive() throws DatabaseException {
+        String sql = "SELECT t.*, u.nama, u.email, u.role FROM device_token t " +
+                     "JOIN user u ON t.user_id = u.user_id " +
+                     "WHERE t.revoked_at IS NULL AND t.expires_at > ? " +
+                     "ORDER BY t.last_used_at DESC";
+        List<DeviceToken> results = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    DeviceToken token = mapResultSetToEntity(rs);
+                    Role role = Role.fromString(rs.getString("role"));
+                    User user = role == Role.ADMIN ? new Admin() : new Pelanggan();
+                    user.setRole(role);
+                    user.setUserId(token.getUserId());
+                    user.setNama(rs.getString("nama"));
+                    user.setEmail(rs.getString("email"));
+                    token.setUser(user);
+                    results.add(token);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding active device tokens", e);
+        }
+        
+        return results;
+    }
+    
+    public boolean touch(int tokenId) throws DatabaseException {
+        String sql = "UPDATE device_token SET last_used_at = ? WHERE token_id = ?";
+        
+        int rowsAffected = executeUpdate(sql, LocalDateTime.now(), tokenId);
+        return rowsAffected > 0;
+    }
+    
+    public boolean revoke(int tokenId) throws DatabaseException {
+        String sql = "UPDATE device_token SET revoked_at = ? WHERE token_id = ? AND revoked_at IS NULL";
+        
+        int rowsAffected = executeUpdate(sql, LocalDateTime.now(), tokenId);
+        return rowsAffected > 0;
+    }
+    
+    public boolean revokeBySelector(String selector) throws DatabaseException {
+        String sql = "UPDATE device_token SET revoked_at = ? WHERE selector = ? AND revoked_at IS NULL";
+        
+        int rowsAffected = executeUpdate(sql, LocalDateTime.now(), selector);
+        return rowsAffected > 0;
+    }
+    
+    public int revokeByUserId(int userId) throws DatabaseException {
+        String sql = "UPDATE device_token SET revoked_at = ? WHERE user_id = ? AND revoked_at IS NULL";
+        return executeUpdate(sql, LocalDateTime.now(), userId);
+    }
+    
+    public int deleteExpired(LocalDateTime before) throws DatabaseException {
+        String sql = "DELETE FROM device_token WHERE expires_at < ? OR revoked_at < ?";
+        return executeUpdate(sql, before, before);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.mycompany.sewabaju.dao;
+
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.Baju;
+import com.mycompany.sewabaju.models.DetailBaju;
+import com.mycompany.sewabaju.models.KeranjangItem;
+import com.mycompany.sewabaju.models.enums.Kondisi;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class KeranjangDAO extends BaseDAO<KeranjangItem> {
+    
+    @Override
+    protected String getTableName() {
+        return "keranjang";
+    }
+    
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "keranjang_id";
+    }
+    
+    @Override
+    protected KeranjangItem mapResultSetToEntity(ResultSet rs) throws SQLException {
+        KeranjangItem item = new KeranjangItem();
+        item.setKeranjangId(rs.getInt("keranjang_id"));
+        item.setUserId(rs.getInt("user_id"));
+        item.setDetailBajuId(rs.getInt("detail_baju_id"));
+        item.setJumlah(rs.getInt("jumlah"));
+        item.setJumlahDitahan(rs.getInt("jumlah_ditahan"));
+        
+        Timestamp holdExpiresAt = rs.getTimestamp("hold_expires_at");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        
+        item.setHoldExpiresAt(holdExpiresAt != null ? holdExpiresAt.toLocalDateTime() : null);
+        if (createdAt != null) item.setCreatedAt(createdAt.toLocalDateTime());
+        
+        return item;
+    }
+    
+    public List<KeranjangItem> findByUserId(int userId) throws DatabaseException {
+        String sql = "SELECT k.*, d.baju_id, d.ukuran, d.harga_sewa, d.stok, d.kondisi, b.nama_baju " +
+                     "FROM keranjang k " +
+                     "JOIN detail_baju d ON k.detail_baju_id = d.detail_baju_id " +
+                     "JOIN baju b ON d.baju_id = b.baju_id " +
+                     "WHERE k.user_id = ? ORDER BY k.created_at, k.keranjang_id";
+        List<KeranjangItem> results = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    KeranjangItem item = mapResultSetToEntity(rs);
+                    
+                    Baju baju = new Baju();
+                    baju.setBajuId(rs.getInt("baju_id"));
+                    baju.setNamaBaju(rs.getString("nama_baju"));
+                    
+                    DetailBaju detail = new DetailBaju();
+                    detail.setDetailBajuId(item.getDetailBajuId());
+                    detail.setUkuran(Ukuran.fromString(rs.getString("ukuran")));
+                    detail.setHargaSewa(rs.getDouble("harga_sewa"));
+                    detail.setStok(rs.getInt("stok"));
+                    detail.setKondisi(Kondisi.fromString(rs.getString("kondisi")));
+                    detail.setBaju(baju);
+                    
+                    item.setDetailBaju(detail);
+                    results.add(item);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding keranjang by user", e);
+        }
+        
+        return results;
+    }
+    
+    public KeranjangItem findByUserAndDetail(int userId, int detailBajuId) throws DatabaseException {
+        String sql = "SELECT * FROM keranjang WHERE user_id = ? AND detail_baju_id = ?";
+        List<KeranjangItem> results = executeQuery(sql, userId, detailBajuId);
+        return results.isEmpty() ? null : results.get(0);
+    }
+    
+    public int sumJumlahByUserId(int userId) throws DatabaseException {
+        String sql = "SELECT COALESCE(SUM(jumlah), 0) FROM keranjang WHERE user_id = ?";
+        return executeCount(sql, userId);
+    }
+    
+    /**
+     * Tambah jumlah ke keranjang. Stok sejumlah itu harus sudah dikurangi pemanggil,
+     * sehingga jumlah_ditahan ikut naik dan hold diperpanjang.
+     */
+    public boolean addHeld(int userId, int detailBajuId, int jumlah, LocalDateTime holdExpiresAt) 
+            throws DatabaseException {
+        String sql = "INSERT INTO keranjang (user_id, detail_baju_id, jumlah, jumlah_ditahan, " +
+                     "hold_expires_at, created_at) VALUES (?, ?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " +
+                     "jumlah = jumlah + ?, " +
+                     "jumlah_ditahan = jumlah_ditahan + ?, " +
+                     "hold_expires_at = ?";
+        
+        int rowsAffected = executeUpdate(sql,
+                userId,
+                detailBajuId,
+                jumlah,
+                jumlah,
+                holdExpiresAt,
+                LocalDateTime.now(),
+                jumlah,
+                jumlah,
+                holdExpiresAt
+        );
+        
+        return rowsAffected > 0;
+    }
+    
+    /**
+     * Compare-and-set hold: hanya berhasil jika jumlah_ditahan belum diubah
+     * oleh proses lain (expiry, checkout, tab lain) sejak dibaca.
+     */
+    public boolean casHold(int keranjangId, int expectedDitahan, int jumlah, int jumlahDitahan,
+                           LocalDateTime holdExpiresAt) throws DatabaseException {
+        String sql = "UPDATE keranjang SET jumlah = ?, jumlah_ditahan = ?, hold_expires_at = ? " +
+                     "WHERE keranjang_id = ? AND jumlah_ditahan = ?";
+        
+        int rowsAffected = executeUpdate(sql, jumlah, jumlahDitahan, holdExpiresAt, 
+                                         keranjangId, expectedDitahan);
+        return rowsAffected > 0;
+    }
+    
+    public boolean casDelete(int keranjangId, int expectedDitahan) throws DatabaseException {
+        String sql = "DELETE FROM keranjang WHERE keranjang_id = ? AND jumlah_ditahan = ?";
+        
+        int rowsAffected = executeUpdate(sql, keranjangId, expectedDitahan);
+        return rowsAffected > 0;
+    }
+    
+    /**
+     * Hapus item keranjang hanya jika hold-nya masih penuh sesuai yang dibaca pemanggil.
+     * Baris yang sudah dilepas, dihapus, atau jumlahnya berubah tidak ikut terhapus.
+     */
+    public int deleteHeld(int userId, List<KeranjangItem> items) throws DatabaseException {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        
+        StringBuilder sql = new StringBuilder("DELETE FROM keranjang WHERE user_id = ? AND (");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        for (int i = 0; i < items.size(); i++) {
+            KeranjangItem item = items.get(i);
+            sql.append(i > 0 ? " OR " : "").append("(keranjang_id = ? AND jumlah = ? AND jumlah_ditahan = jumlah)");
+            params.add(item.getKeranjangId());
+            params.add(item.getJumlah());
+        }
+        sql.append(")");
+        return executeUpdate(sql.toString(), params.toArray());
+    }
+    
+    /**
+     * Lepas hold yang sudah kedaluwarsa dalam satu transaksi: baris dikunci dulu,
+     * stok dikembalikan per detail_baju secara set-based, lalu hold di-nol-kan.
+     * keranjangIds null berarti semua hold yang kedaluwarsa.
+     *
+     * @return jumlah baris keranjang yang hold-nya dilepas
+     */
+    public int releaseExpiredHolds(List<Integer> keranjangIds, LocalDateTime now) throws DatabaseException {
+        if (keranjangIds != null && keranjangIds.isEmpty()) {
+            return 0;
+        }
+        
+        String idFilter = keranjangIds != null 
+            ? " AND keranjang_id IN (" + placeholders(keranjangIds.size()) + ")" 
+            : "";
+        String lockSql = "SELECT keranjang_id FROM keranjang " +
+                         "WHERE jumlah_ditahan > 0 AND hold_expires_at <= ?" + idFilter + " FOR UPDATE";
+        
+        List<Object> lockParams = new ArrayList<>();
+        lockParams.add(now);
+        if (keranjangIds != null) {
+            lockParams.addAll(keranjangIds);
+        }
+        
+        return inTransaction("Error releasing keranjang holds", () -> {
+            List<Integer> locked = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(lockSql)) {
+                setParameters(stmt, lockParams.toArray());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        locked.add(rs.getInt(1));
+                    }
+                }
+            }
+            
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            
+            String in = placeholders(locked.size());
+            String stokSql = "UPDATE detail_baju d JOIN (" +
+                             "  SELECT detail_baju_id, SUM(jumlah_ditahan) AS ditahan FROM keranjang " +
+                             "  WHERE keranjang_id IN (" + in + ") GROUP BY detail_baju_id" +
+                             ") k ON d.detail_baju_id = k.detail_baju_id " +
+                             "SET d.stok = d.stok + k.ditahan";
+            String releaseSql = "UPDATE keranjang SET jumlah_ditahan = 0, hold_expires_at = NULL " +
+                                "WHERE keranjang_id IN (" + in + ")";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(stokSql)) {
+                setParameters(stmt, locked.toArray());
+                stmt.executeUpdate();
+            }
+            
+            try (PreparedStatement stmt = connection.prepareStatement(releaseSql)) {
+                setParameters(stmt, locked.toArray());
+                stmt.executeUpdate();
+            }
+            
+            return locked.size();
+        });
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
\ No newline at end of file
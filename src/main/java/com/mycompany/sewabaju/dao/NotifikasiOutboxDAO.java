@@ -0,0 +1,143 @@
+package com.mycompany.sewabaju.dao;
+
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.Notifikasi;
+import com.mycompany.sewabaju.models.enums.StatusNotifikasi;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class NotifikasiOutboxDAO extends BaseDAO<Notifikasi> {
+    
+    private static final String INSERT_SQL = 
+            "INSERT IGNORE INTO notifikasi_outbox (idempotency_key, user_id, jenis, pesan, status, " +
+            "next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
+    
+    @Override
+    protected String getTableName() {
+        return "notifikasi_outbox";
+    }
+    
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "outbox_id";
+    }
+    
+    @Override
+    protected Notifikasi mapResultSetToEntity(ResultSet rs) throws SQLException {
+        Notifikasi notifikasi = new Notifikasi();
+        notifikasi.setOutboxId(rs.getInt("outbox_id"));
+        notifikasi.setIdempotencyKey(rs.getString("idempotency_key"));
+        
+        int userId = rs.getInt("user_id");
+        if (!rs.wasNull()) notifikasi.setUserId(userId);
+        
+        notifikasi.setJenis(rs.getString("jenis"));
+        notifikasi.setPesan(rs.getString("pesan"));
+        notifikasi.setStatus(StatusNotifikasi.fromString(rs.getString("status")));
+        notifikasi.setAttempts(rs.getInt("attempts"));
+        notifikasi.setLastError(rs.getString("last_error"));
+        
+        Timestamp nextAttemptAt = rs.getTimestamp("next_attempt_at");
+        if (nextAttemptAt != null) notifikasi.setNextAttemptAt(nextAttemptAt.toLocalDateTime());
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) notifikasi.setCreatedAt(createdAt.toLocalDateTime());
+        
+        Timestamp sentAt = rs.getTimestamp("sent_at");
+        if (sentAt != null) notifikasi.setSentAt(sentAt.toLocalDateTime());
+        
+        return notifikasi;
+    }
+    
+    /**
+     * Tulis ke outbox memakai connection thread ini, sehingga ikut transaksi yang sedang berjalan.
+     * Key yang sudah ada diabaikan (false), jadi enqueue ulang aman.
+     */
+    public boolean enqueue(Notifikasi notifikasi) throws DatabaseException {
+        int rowsAffected = executeUpdate(INSERT_SQL,
+                notifikasi.getIdempotencyKey(),
+                notifikasi.getUserId(),
+                notifikasi.getJenis(),
+                notifikasi.getPesan(),
+                StatusNotifikasi.MENUNGGU.name()
+        );
+        
+        return rowsAffected > 0;
+    }
+    
+    public void enqueueAll(List<Notifikasi> list) throws DatabaseException {
+        if (list.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
+            for (Notifikasi notifikasi : list) {
+                setParameters(stmt,
+                        notifikasi.getIdempotencyKey(),
+                        notifikasi.getUserId(),
+                        notifikasi.getJenis(),
+                        notifikasi.getPesan(),
+                        StatusNotifikasi.MENUNGGU.name()
+                );
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error enqueueing notifikasi", e);
+        }
+    }
+    
+    /**
+     * Kunci sampai limit notifikasi yang jatuh tempo untuk worker ini. Kunci yang habis
+     * (worker mati di tengah kirim) bisa diambil worker lain.
+     */
+    public List<Notifikasi> claimDue(String worker, int limit, int lockSeconds) throws DatabaseException {
+        String claimSql = "UPDATE notifikasi_outbox SET locked_by = ?, " +
+                          "locked_until = NOW() + INTERVAL ? SECOND " +
+                          "WHERE status = ? AND next_attempt_at <= NOW() " +
+                          "AND (locked_until IS NULL OR locked_until < NOW()) " +
+                          "ORDER BY next_attempt_at, outbox_id LIMIT ?";
+        
+        int claimed = executeUpdate(claimSql, worker, lockSeconds, StatusNotifikasi.MENUNGGU.name(), limit);
+        if (claimed == 0) {
+            return List.of();
+        }
+        
+        String sql = "SELECT * FROM notifikasi_outbox WHERE locked_by = ? AND status = ? " +
+                     "AND locked_until > NOW() ORDER BY outbox_id";
+        return executeQuery(sql, worker, StatusNotifikasi.MENUNGGU.name());
+    }
+    
+    public boolean markSent(int outboxId) throws DatabaseException {
+        String sql = "UPDATE notifikasi_outbox SET status = ?, sent_at = NOW(), attempts = attempts + 1, " +
+                     "last_error = NULL, locked_by = NULL, locked_until = NULL WHERE outbox_id = ?";
+        
+        return executeUpdate(sql, StatusNotifikasi.TERKIRIM.name(), outboxId) > 0;
+    }
+    
+    public boolean markFailed(int outboxId, String error, long retryDelaySeconds, boolean menyerah) 
+            throws DatabaseException {
+        String sql = "UPDATE notifikasi_outbox SET status = ?, attempts = attempts + 1, last_error = ?, " +
+                     "next_attempt_at = NOW() + INTERVAL ? SECOND, locked_by = NULL, locked_until = NULL " +
+                     "WHERE outbox_id = ?";
+        
+        int rowsAffected = executeUpdate(sql,
+                (menyerah ? StatusNotifikasi.GAGAL : StatusNotifikasi.MENUNGGU).name(),
+                error != null && error.length() > 500 ? error.substring(0, 500) : error,
+                retryDelaySeconds,
+                outboxId
+        );
+        
+        return rowsAffected > 0;
+    }
+    
+    public int countByStatus(StatusNotifikasi status) throws DatabaseException {
+        return executeCount("SELECT COUNT(*) FROM notifikasi_outbox WHERE status = ?", status.name());
+    }
+    
+    public int deleteSentBefore(LocalDateTime batas) throws DatabaseException {
+        return executeUpdate("DELETE FROM notifikasi_outbox WHERE status = ? AND sent_at < ?", 
+                StatusNotifikasi.TERKIRIM.name(), batas);
+    }
+}
\ No newline at end of file
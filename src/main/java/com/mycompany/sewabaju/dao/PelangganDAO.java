@@ -2,8 +2,12 @@ package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.models.Pelanggan;
+import com.mycompany.sewabaju.models.PelangganSummary;
 import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.models.enums.StatusBayarDenda;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import java.sql.*;
+import java.time.LocalDateTime;
 
 public class PelangganDAO extends BaseDAO<Pelanggan> {
     
@@ -50,6 +54,55 @@ public class PelangganDAO extends BaseDAO<Pelanggan> {
         return rowsAffected > 0;
     }
     
+    /**
+     * Jumlah penyewaan, penyewaan aktif, total belanja (penyewaan yang sudah dibayar),
+     * denda belum dibayar dan poin dalam satu query. Denda dijumlah di subquery agar
+     * tidak terhitung ganda oleh join penyewaan.
+     */
+    public PelangganSummary loadSummary(int userId) throws DatabaseException {
+        String sql = "SELECT pl.poin_loyalitas, " +
+                     "COUNT(p.sewa_id) AS total_penyewaan, " +
+                     "COALESCE(SUM(CASE WHEN p.status IN (?, ?) THEN 1 ELSE 0 END), 0) AS penyewaan_aktif, " +
+                     "COALESCE(SUM(CASE WHEN p.status IN (?, ?, ?) THEN p.total_harga ELSE 0 END), 0) AS total_belanja, " +
+                     "(SELECT COALESCE(SUM(d.jumlah), 0) FROM denda d " +
+                     " JOIN penyewaan dp ON dp.sewa_id = d.sewa_id " +
+                     " WHERE dp.user_id = pl.user_id AND d.status_bayar = ?) AS denda_belum_dibayar " +
+                     "FROM pelanggan pl " +
+                     "LEFT JOIN penyewaan p ON p.user_id = pl.user_id " +
+                     "WHERE pl.user_id = ? " +
+                     "GROUP BY pl.user_id, pl.poin_loyalitas";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            setParameters(stmt,
+                    StatusPenyewaan.DIKONFIRMASI.name(),
+                    StatusPenyewaan.SEDANG_DISEWA.name(),
+                    StatusPenyewaan.DIKONFIRMASI.name(),
+                    StatusPenyewaan.SEDANG_DISEWA.name(),
+                    StatusPenyewaan.DIKEMBALIKAN.name(),
+                    StatusBayarDenda.BELUM_DIBAYAR.name(),
+                    userId
+            );
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PelangganSummary(
+                            userId,
+                            rs.getInt("total_penyewaan"),
+                            rs.getInt("penyewaan_aktif"),
+                            rs.getDouble("total_belanja"),
+                            rs.getDouble("denda_belum_dibayar"),
+                            rs.getInt("poin_loyalitas"),
+                            LocalDateTime.now()
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading pelanggan summary", e);
+        }
+        
+        return new PelangganSummary(userId, 0, 0, 0, 0, 0, LocalDateTime.now());
+    }
+    
     public Pelanggan findByUserId(int userId) throws DatabaseException {
         String sql = "SELECT * FROM pelanggan WHERE user_id = ?";
         
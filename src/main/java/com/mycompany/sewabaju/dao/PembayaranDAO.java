@@ -1,15 +1,44 @@
 package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
+import com.mycompany.sewabaju.models.Notifikasi;
 import com.mycompany.sewabaju.models.Pembayaran;
+import com.mycompany.sewabaju.models.PembayaranRow;
+import com.mycompany.sewabaju.models.VerifikasiResult;
 import com.mycompany.sewabaju.models.enums.MetodePembayaran;
 import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class PembayaranDAO extends BaseDAO<Pembayaran> {
     
+    // Satu query untuk satu baris tabel; jumlah item lewat subquery per sewa_id (pakai index)
+    private static final String ROW_SELECT = 
+            "SELECT b.pembayaran_id, b.sewa_id, b.metode_pembayaran, b.jumlah, b.tanggal_bayar, " +
+            "b.status, b.bukti_pembayaran, p.user_id, p.tgl_sewa, p.tgl_kembali, p.total_harga, " +
+            "p.status AS status_penyewaan, u.nama AS nama_pelanggan, " +
+            "(SELECT COALESCE(SUM(d.jumlah), 0) FROM detail_penyewaan d " +
+            " WHERE d.sewa_id = b.sewa_id) AS jumlah_item " +
+            "FROM pembayaran b " +
+            "JOIN penyewaan p ON p.sewa_id = b.sewa_id " +
+            "JOIN user u ON u.user_id = p.user_id ";
+    
+    // Bisa diambil admin ini: belum diklaim, klaim sendiri, atau lease admin lain sudah habis
+    private static final String CLAIMABLE = 
+            "status = ? AND (claimed_by IS NULL OR claimed_by = ? OR claim_expires_at < NOW())";
+    
+    private final NotifikasiOutboxDAO outboxDAO = new NotifikasiOutboxDAO();
+    
     @Override
     protected String getTableName() {
         return "pembayaran";
@@ -109,32 +138,251 @@ public class PembayaranDAO extends BaseDAO<Pembayaran> {
         return findByStatus(StatusPembayaran.MENUNGGU_VERIFIKASI);
     }
     
+    public List<PembayaranRow> findRowsByStatus(StatusPembayaran status, int limit) throws DatabaseException {
+        String sql = ROW_SELECT + "WHERE b.status = ? ORDER BY b.tanggal_bayar DESC" + 
+                     (limit > 0 ? " LIMIT " + limit : "");
+        return queryRows(sql, PembayaranDAO::mapRow, status.name());
+    }
+    
+    public PembayaranRow findRowById(int pembayaranId) throws DatabaseException {
+        List<PembayaranRow> rows = queryRows(ROW_SELECT + "WHERE b.pembayaran_id = ?", 
+                                             PembayaranDAO::mapRow, pembayaranId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
+    private static PembayaranRow mapRow(ResultSet rs) throws SQLException {
+        Timestamp tanggalBayar = rs.getTimestamp("tanggal_bayar");
+        Date tglSewa = rs.getDate("tgl_sewa");
+        Date tglKembali = rs.getDate("tgl_kembali");
+        
+        return new PembayaranRow(
+                rs.getInt("pembayaran_id"),
+                rs.getInt("sewa_id"),
+                rs.getInt("user_id"),
+                rs.getString("nama_pelanggan"),
+                MetodePembayaran.fromString(rs.getString("metode_pembayaran")),
+                rs.getDouble("jumlah"),
+                tanggalBayar != null ? tanggalBayar.toLocalDateTime() : null,
+                StatusPembayaran.fromString(rs.getString("status")),
+                rs.getString("bukti_pembayaran"),
+                tglSewa != null ? tglSewa.toLocalDate() : null,
+                tglKembali != null ? tglKembali.toLocalDate() : null,
+                rs.getDouble("total_harga"),
+                StatusPenyewaan.fromString(rs.getString("status_penyewaan")),
+                rs.getInt("jumlah_item")
+        );
+    }
+    
+    public int countByDateRange(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT COUNT(*) FROM pembayaran WHERE tanggal_bayar >= ? AND tanggal_bayar < ?";
+        return executeCount(sql, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public LocalDateTime findLastUpdatedByDateRange(LocalDate startDate, LocalDate endDate)
+            throws DatabaseException {
+        String sql = "SELECT MAX(updated_at) FROM pembayaran WHERE tanggal_bayar >= ? AND tanggal_bayar < ?";
+        return executeMaxTimestamp(sql, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public int streamByDateRange(LocalDate startDate, LocalDate endDate, RowHandler handler)
+            throws DatabaseException {
+        String sql = "SELECT pembayaran_id, sewa_id, metode_pembayaran, jumlah, status, tanggal_bayar, " +
+                     "verified_at FROM pembayaran WHERE tanggal_bayar >= ? AND tanggal_bayar < ? " +
+                     "ORDER BY pembayaran_id";
+        return streamRows(sql, handler, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
+    public int forEachByDateRange(LocalDate startDate, LocalDate endDate, int chunkSize,
+                                  Consumer<Pembayaran> consumer) throws DatabaseException {
+        String sql = "SELECT * FROM pembayaran WHERE tanggal_bayar >= ? AND tanggal_bayar < ?";
+        
+        return forEachPaged(sql, "pembayaran_id", chunkSize, this::mapResultSetToEntity, consumer,
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+    
     public boolean approve(int pembayaranId, int adminId) throws DatabaseException {
-        String sql = "UPDATE pembayaran SET status = ?, verified_by = ?, verified_at = ? " +
-                     "WHERE pembayaran_id = ?";
+        return verify(pembayaranId, adminId, StatusPembayaran.BERHASIL);
+    }
+    
+    public boolean reject(int pembayaranId, int adminId) throws DatabaseException {
+        return verify(pembayaranId, adminId, StatusPembayaran.DITOLAK);
+    }
+    
+    /**
+     * Compare-and-set dari MENUNGGU_VERIFIKASI. Gagal (false) jika pembayaran sudah diproses
+     * atau masih dalam lease admin lain.
+     */
+    private boolean verify(int pembayaranId, int adminId, StatusPembayaran newStatus) 
+            throws DatabaseException {
+        String sql = "UPDATE pembayaran SET status = ?, verified_by = ?, verified_at = ?, " +
+                     "claimed_by = NULL, claim_expires_at = NULL " +
+                     "WHERE pembayaran_id = ? AND " + CLAIMABLE;
         
         int rowsAffected = executeUpdate(sql,
-                StatusPembayaran.BERHASIL.name(),
+                newStatus.name(),
                 adminId,
                 LocalDateTime.now(),
-                pembayaranId
+                pembayaranId,
+                StatusPembayaran.MENUNGGU_VERIFIKASI.name(),
+                adminId
         );
         
         return rowsAffected > 0;
     }
     
-    public boolean reject(int pembayaranId, int adminId) throws DatabaseException {
-        String sql = "UPDATE pembayaran SET status = ?, verified_by = ?, verified_at = ? " +
-                     "WHERE pembayaran_id = ?";
+    /**
+     * Verifikasi banyak pembayaran dalam satu transaksi. Semua baris dikunci dan divalidasi
+     * dengan satu query, lalu pembayaran (dan penyewaan, untuk approve) diubah set-based.
+     * Baris yang tidak valid dilewati dan dilaporkan di hasil, tidak menggagalkan yang lain.
+     * Notifikasi untuk baris yang berhasil masuk outbox di transaksi yang sama.
+     */
+    public List<VerifikasiResult> verifyBulk(List<Integer> pembayaranIds, int adminId, 
+                                             StatusPembayaran newStatus,
+                                             Function<VerifikasiResult, Notifikasi> notifikasi) 
+            throws DatabaseException {
+        if (pembayaranIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         
-        int rowsAffected = executeUpdate(sql,
-                StatusPembayaran.DITOLAK.name(),
+        boolean approve = newStatus == StatusPembayaran.BERHASIL;
+        String in = String.join(", ", Collections.nCopies(pembayaranIds.size(), "?"));
+        
+        String lockSql = "SELECT b.pembayaran_id, b.sewa_id, b.jumlah, b.status, b.bukti_pembayaran, p.user_id, " +
+                         "p.status AS status_penyewaan, " +
+                         "(b.claimed_by IS NULL OR b.claimed_by = ? OR b.claim_expires_at < NOW()) AS claimable " +
+                         "FROM pembayaran b JOIN penyewaan p ON p.sewa_id = b.sewa_id " +
+                         "WHERE b.pembayaran_id IN (" + in + ") FOR UPDATE";
+        
+        return inTransaction("Error verifying pembayaran in bulk", () -> {
+            Map<Integer, VerifikasiResult> results = new LinkedHashMap<>();
+            List<Object> validIds = new ArrayList<>();
+            List<Object> validSewaIds = new ArrayList<>();
+            List<Notifikasi> outbox = new ArrayList<>();
+            
+            List<Object> lockParams = new ArrayList<>();
+            lockParams.add(adminId);
+            lockParams.addAll(pembayaranIds);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(lockSql)) {
+                setParameters(stmt, lockParams.toArray());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int pembayaranId = rs.getInt("pembayaran_id");
+                        int sewaId = rs.getInt("sewa_id");
+                        StatusPembayaran status = StatusPembayaran.fromString(rs.getString("status"));
+                        StatusPenyewaan statusPenyewaan = StatusPenyewaan.fromString(rs.getString("status_penyewaan"));
+                        
+                        String pesan = null;
+                        if (status != StatusPembayaran.MENUNGGU_VERIFIKASI) {
+                            pesan = "Pembayaran sudah diproses";
+                        } else if (!rs.getBoolean("claimable")) {
+                            pesan = "Sedang diverifikasi admin lain";
+                        } else if (approve && !statusPenyewaan.canTransitionTo(StatusPenyewaan.DIKONFIRMASI)) {
+                            pesan = "Penyewaan berstatus " + statusPenyewaan.getDisplayName();
+                        }
+                        
+                        VerifikasiResult result = new VerifikasiResult(pembayaranId, sewaId, 
+                                rs.getInt("user_id"), rs.getDouble("jumlah"), rs.getString("bukti_pembayaran"),
+                                pesan == null, pesan);
+                        results.put(pembayaranId, result);
+                        if (pesan == null) {
+                            validIds.add(pembayaranId);
+                            validSewaIds.add(sewaId);
+                            outbox.add(notifikasi.apply(result));
+                        }
+                    }
+                }
+            }
+            
+            if (!validIds.isEmpty()) {
+                String validIn = String.join(", ", Collections.nCopies(validIds.size(), "?"));
+                
+                List<Object> params = new ArrayList<>();
+                params.add(newStatus.name());
+                params.add(adminId);
+                params.add(LocalDateTime.now());
+                params.addAll(validIds);
+                
+                String pembayaranSql = "UPDATE pembayaran SET status = ?, verified_by = ?, verified_at = ?, " +
+                                       "claimed_by = NULL, claim_expires_at = NULL " +
+                                       "WHERE pembayaran_id IN (" + validIn + ")";
+                try (PreparedStatement stmt = connection.prepareStatement(pembayaranSql)) {
+                    setParameters(stmt, params.toArray());
+                    stmt.executeUpdate();
+                }
+                
+                if (approve) {
+                    params = new ArrayList<>();
+                    params.add(StatusPenyewaan.DIKONFIRMASI.name());
+                    params.addAll(validSewaIds);
+                    
+                    String penyewaanSql = "UPDATE penyewaan SET status = ? WHERE sewa_id IN (" + validIn + ")";
+                    try (PreparedStatement stmt = connection.prepareStatement(penyewaanSql)) {
+                        setParameters(stmt, params.toArray());
+                        stmt.executeUpdate();
+                    }
+                }
+                
+                outboxDAO.enqueueAll(outbox);
+            }
+            
+            List<VerifikasiResult> ordered = new ArrayList<>();
+            for (int pembayaranId : pembayaranIds) {
+                VerifikasiResult result = results.get(pembayaranId);
+                ordered.add(result != null ? result 
+                        : new VerifikasiResult(pembayaranId, 0, 0, 0, null, false, "Pembayaran tidak ditemukan"));
+            }
+            return ordered;
+        });
+    }
+    
+    /**
+     * Klaim sampai batchSize pembayaran pending untuk admin ini dalam satu UPDATE atomik.
+     * Klaim milik sendiri didahulukan sehingga ikut diperpanjang. Waktu lease memakai jam database
+     * agar konsisten antar terminal.
+     */
+    public int claimPending(int adminId, int batchSize, int leaseSeconds) throws DatabaseException {
+        String sql = "UPDATE pembayaran SET claimed_by = ?, " +
+                     "claim_expires_at = NOW() + INTERVAL ? SECOND " +
+                     "WHERE " + CLAIMABLE + " " +
+                     "ORDER BY claimed_by <=> ? DESC, tanggal_bayar LIMIT ?";
+        
+        return executeUpdate(sql,
                 adminId,
-                LocalDateTime.now(),
-                pembayaranId
+                leaseSeconds,
+                StatusPembayaran.MENUNGGU_VERIFIKASI.name(),
+                adminId,
+                adminId,
+                batchSize
         );
+    }
+    
+    public int renewClaims(int adminId, int leaseSeconds) throws DatabaseException {
+        String sql = "UPDATE pembayaran SET claim_expires_at = NOW() + INTERVAL ? SECOND " +
+                     "WHERE claimed_by = ? AND status = ? AND claim_expires_at > NOW()";
         
-        return rowsAffected > 0;
+        return executeUpdate(sql, leaseSeconds, adminId, StatusPembayaran.MENUNGGU_VERIFIKASI.name());
+    }
+    
+    public int releaseClaims(int adminId) throws DatabaseException {
+        String sql = "UPDATE pembayaran SET claimed_by = NULL, claim_expires_at = NULL " +
+                     "WHERE claimed_by = ? AND status = ?";
+        
+        return executeUpdate(sql, adminId, StatusPembayaran.MENUNGGU_VERIFIKASI.name());
+    }
+    
+    public List<PembayaranRow> findClaimedRows(int adminId) throws DatabaseException {
+        String sql = ROW_SELECT + "WHERE b.status = ? AND b.claimed_by = ? AND b.claim_expires_at > NOW() " +
+                     "ORDER BY b.tanggal_bayar";
+        return queryRows(sql, PembayaranDAO::mapRow, StatusPembayaran.MENUNGGU_VERIFIKASI.name(), adminId);
+    }
+    
+    public PembayaranRow findClaimedRowById(int pembayaranId, int adminId) throws DatabaseException {
+        String sql = ROW_SELECT + "WHERE b.pembayaran_id = ? AND b.status = ? AND b.claimed_by = ? " +
+                     "AND b.claim_expires_at > NOW()";
+        List<PembayaranRow> rows = queryRows(sql, PembayaranDAO::mapRow, 
+                pembayaranId, StatusPembayaran.MENUNGGU_VERIFIKASI.name(), adminId);
+        return rows.isEmpty() ? null : rows.get(0);
     }
     
     public boolean updateStatus(int pembayaranId, StatusPembayaran status) throws DatabaseException {
@@ -145,7 +393,8 @@ public class PembayaranDAO extends BaseDAO<Pembayaran> {
     }
     
     public boolean updateBuktiPembayaran(int pembayaranId, String buktiBaru) throws DatabaseException {
-        String sql = "UPDATE pembayaran SET bukti_pembayaran = ?, status = ? WHERE pembayaran_id = ?";
+        String sql = "UPDATE pembayaran SET bukti_pembayaran = ?, status = ?, " +
+                     "claimed_by = NULL, claim_expires_at = NULL WHERE pembayaran_id = ?";
         
         int rowsAffected = executeUpdate(sql,
                 buktiBaru,
@@ -185,4 +434,9 @@ public class PembayaranDAO extends BaseDAO<Pembayaran> {
             throw new DatabaseException("Error deleting pembayaran by sewa_id", e);
         }
     }
+    
+    public List<ChangedRow> findChangedAfter(LocalDateTime afterTime, int afterId, int limit)
+            throws DatabaseException {
+        return findChangedAfter("sewa_id", "status", afterTime, afterId, limit);
+    }
 }
\ No newline at end of file
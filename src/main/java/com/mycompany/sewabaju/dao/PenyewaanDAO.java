@@ -1,12 +1,20 @@
 package com.mycompany.sewabaju.dao;
 
 import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
+import com.mycompany.sewabaju.models.Pelanggan;
 import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.PenyewaanRow;
+import com.mycompany.sewabaju.models.PivotRow;
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
 import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class PenyewaanDAO extends BaseDAO<Penyewaan> {
     
@@ -99,6 +107,57 @@ public class PenyewaanDAO extends BaseDAO<Penyewaan> {
         return executeQuery(sql, startDate, endDate);
     }
     
+    public int streamByDateRange(LocalDate startDate, LocalDate endDate, RowHandler handler)
+            throws DatabaseException {
+        String sql = "SELECT p.sewa_id, p.user_id, u.nama, p.tgl_sewa, p.tgl_kembali, " +
+                     "p.tgl_kembali_aktual, p.total_harga, p.status " +
+                     "FROM penyewaan p JOIN user u ON u.user_id = p.user_id " +
+                     "WHERE p.tgl_sewa BETWEEN ? AND ? ORDER BY p.sewa_id";
+        return streamRows(sql, handler, startDate, endDate);
+    }
+    
+    /**
+     * Mutasi poin loyalitas: poin diberikan saat penyewaan dikembalikan, sebesar
+     * total harga / RUPIAH_PER_POIN. Tidak ada tabel riwayat poin, jadi diturunkan dari penyewaan.
+     */
+    public int streamPoinByDateRange(LocalDate startDate, LocalDate endDate, RowHandler handler)
+            throws DatabaseException {
+        String sql = "SELECT p.sewa_id, p.user_id, u.nama, p.tgl_kembali_aktual, p.total_harga, " +
+                     "FLOOR(p.total_harga / ?) AS poin " +
+                     "FROM penyewaan p JOIN user u ON u.user_id = p.user_id " +
+                     "WHERE p.status = ? AND p.tgl_kembali_aktual BETWEEN ? AND ? " +
+                     "ORDER BY p.tgl_kembali_aktual, p.sewa_id";
+        return streamRows(sql, handler, Pelanggan.RUPIAH_PER_POIN, StatusPenyewaan.DIKEMBALIKAN,
+                startDate, endDate);
+    }
+    
+    public int countByDateRange(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT COUNT(*) FROM penyewaan WHERE tgl_sewa BETWEEN ? AND ?";
+        return executeCount(sql, startDate, endDate);
+    }
+    
+    public LocalDateTime findLastUpdatedByDateRange(LocalDate startDate, LocalDate endDate)
+            throws DatabaseException {
+        String sql = "SELECT MAX(updated_at) FROM penyewaan WHERE tgl_sewa BETWEEN ? AND ?";
+        return executeMaxTimestamp(sql, startDate, endDate);
+    }
+    
+    public int forEachByDateRange(LocalDate startDate, LocalDate endDate, int chunkSize,
+                                  Consumer<Penyewaan> consumer) throws DatabaseException {
+        String sql = "SELECT p.*, u.nama FROM penyewaan p " +
+                     "JOIN user u ON p.user_id = u.user_id " +
+                     "WHERE p.tgl_sewa BETWEEN ? AND ?";
+        
+        return forEachPaged(sql, "p.sewa_id", chunkSize, rs -> {
+            Penyewaan penyewaan = mapResultSetToEntity(rs);
+            Pelanggan pelanggan = new Pelanggan();
+            pelanggan.setUserId(penyewaan.getUserId());
+            pelanggan.setNama(rs.getString("nama"));
+            penyewaan.setUser(pelanggan);
+            return penyewaan;
+        }, consumer, startDate, endDate);
+    }
+    
     public boolean updateStatus(int sewaId, StatusPenyewaan newStatus) throws DatabaseException {
         String sql = "UPDATE penyewaan SET status = ? WHERE sewa_id = ?";
         
@@ -106,6 +165,88 @@ public class PenyewaanDAO extends BaseDAO<Penyewaan> {
         return rowsAffected > 0;
     }
     
+    /**
+     * Batalkan penyewaan MENUNGGU_PEMBAYARAN yang dibuat sebelum batas waktu dan belum
+     * punya pembayaran aktif (pending/berhasil). Memakai index (status, created_at).
+     *
+     * @return penyewaan yang benar-benar dibatalkan pada batch ini
+     */
+    public List<Penyewaan> expireUnpaid(LocalDateTime createdBefore, int limit) throws DatabaseException {
+        String lockSql = "SELECT p.* FROM penyewaan p " +
+                         "WHERE p.status = ? AND p.created_at < ? " +
+                         "AND NOT EXISTS (SELECT 1 FROM pembayaran b " +
+                         "  WHERE b.sewa_id = p.sewa_id AND b.status <> ?) " +
+                         "ORDER BY p.created_at LIMIT ? FOR UPDATE";
+        
+        return cancelWithStockRelease(lockSql,
+                StatusPenyewaan.MENUNGGU_PEMBAYARAN.name(),
+                createdBefore,
+                StatusPembayaran.DITOLAK.name(),
+                limit
+        );
+    }
+    
+    public Penyewaan cancelUnpaid(int sewaId) throws DatabaseException {
+        String lockSql = "SELECT * FROM penyewaan WHERE sewa_id = ? AND status = ? FOR UPDATE";
+        
+        List<Penyewaan> cancelled = cancelWithStockRelease(lockSql, 
+                sewaId, StatusPenyewaan.MENUNGGU_PEMBAYARAN.name());
+        return cancelled.isEmpty() ? null : cancelled.get(0);
+    }
+    
+    /**
+     * Satu transaksi: kunci penyewaan yang cocok, kembalikan stok semua item secara
+     * set-based (dijumlah per detail_baju), lalu ubah status ke DIBATALKAN.
+     */
+    private List<Penyewaan> cancelWithStockRelease(String lockSql, Object... params) throws DatabaseException {
+        return inTransaction("Error cancelling penyewaan", () -> {
+            List<Penyewaan> locked = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(lockSql)) {
+                setParameters(stmt, params);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        locked.add(mapResultSetToEntity(rs));
+                    }
+                }
+            }
+            
+            if (locked.isEmpty()) {
+                return locked;
+            }
+            
+            List<Object> ids = new ArrayList<>();
+            for (Penyewaan penyewaan : locked) {
+                ids.add(penyewaan.getSewaId());
+            }
+            String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            
+            String stokSql = "UPDATE detail_baju d JOIN (" +
+                             "  SELECT detail_baju_id, SUM(jumlah) AS jumlah FROM detail_penyewaan " +
+                             "  WHERE sewa_id IN (" + in + ") GROUP BY detail_baju_id" +
+                             ") x ON d.detail_baju_id = x.detail_baju_id " +
+                             "SET d.stok = d.stok + x.jumlah";
+            String statusSql = "UPDATE penyewaan SET status = ? WHERE sewa_id IN (" + in + ")";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(stokSql)) {
+                setParameters(stmt, ids.toArray());
+                stmt.executeUpdate();
+            }
+            
+            List<Object> statusParams = new ArrayList<>();
+            statusParams.add(StatusPenyewaan.DIBATALKAN.name());
+            statusParams.addAll(ids);
+            try (PreparedStatement stmt = connection.prepareStatement(statusSql)) {
+                setParameters(stmt, statusParams.toArray());
+                stmt.executeUpdate();
+            }
+            
+            for (Penyewaan penyewaan : locked) {
+                penyewaan.setStatus(StatusPenyewaan.DIBATALKAN);
+            }
+            return locked;
+        });
+    }
+    
     public boolean updateTglKembaliAktual(int sewaId, LocalDate tglKembaliAktual) throws DatabaseException {
         String sql = "UPDATE penyewaan SET tgl_kembali_aktual = ?, status = ? WHERE sewa_id = ?";
         
@@ -159,4 +300,135 @@ public class PenyewaanDAO extends BaseDAO<Penyewaan> {
         String sql = "SELECT * FROM penyewaan ORDER BY created_at DESC LIMIT ?";
         return executeQuery(sql, limit);
     }
+    
+    public List<Penyewaan> findRecentWithPelanggan(int limit) throws DatabaseException {
+        String sql = "SELECT p.*, u.nama FROM penyewaan p " +
+                     "JOIN user u ON p.user_id = u.user_id " +
+                     "ORDER BY p.created_at DESC LIMIT ?";
+        List<Penyewaan> results = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Penyewaan penyewaan = mapResultSetToEntity(rs);
+                    Pelanggan pelanggan = new Pelanggan();
+                    pelanggan.setUserId(penyewaan.getUserId());
+                    pelanggan.setNama(rs.getString("nama"));
+                    penyewaan.setUser(pelanggan);
+                    results.add(penyewaan);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding recent penyewaan", e);
+        }
+        
+        return results;
+    }
+    
+    public List<PenyewaanRow> findRowsByTglSewa(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT p.sewa_id, p.user_id, p.tgl_sewa, p.tgl_kembali, p.total_harga, p.status, " +
+                     "u.nama AS nama_pelanggan, " +
+                     "(SELECT COALESCE(SUM(d.jumlah), 0) FROM detail_penyewaan d " +
+                     " WHERE d.sewa_id = p.sewa_id) AS jumlah_item " +
+                     "FROM penyewaan p " +
+                     "JOIN user u ON u.user_id = p.user_id " +
+                     "WHERE p.tgl_sewa BETWEEN ? AND ? " +
+                     "ORDER BY p.tgl_sewa, p.sewa_id";
+        
+        return queryRows(sql, PenyewaanDAO::mapRow, startDate, endDate);
+    }
+    
+    /**
+     * Satu halaman riwayat pelanggan, terbaru dulu. Keyset paging: beforeSewaId = sewa_id
+     * terakhir dari halaman sebelumnya (0 untuk halaman pertama).
+     */
+    public List<PenyewaanRow> findRowsByUserId(int userId, StatusPenyewaan status, int beforeSewaId, 
+                                               int limit) throws DatabaseException {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.sewa_id, p.user_id, p.tgl_sewa, p.tgl_kembali, p.total_harga, p.status, " +
+                "NULL AS nama_pelanggan, " +
+                "(SELECT COALESCE(SUM(d.jumlah), 0) FROM detail_penyewaan d " +
+                " WHERE d.sewa_id = p.sewa_id) AS jumlah_item " +
+                "FROM penyewaan p WHERE p.user_id = ?");
+        
+        if (status != null) {
+            sql.append(" AND p.status = ?");
+            params.add(status.name());
+        }
+        if (beforeSewaId > 0) {
+            sql.append(" AND p.sewa_id < ?");
+            params.add(beforeSewaId);
+        }
+        sql.append(" ORDER BY p.sewa_id DESC LIMIT ?");
+        params.add(limit);
+        
+        return queryRows(sql.toString(), PenyewaanDAO::mapRow, params.toArray());
+    }
+    
+    public List<PenyewaanRow> findRowsByUserIdAndStatuses(int userId, StatusPenyewaan... statuses) 
+            throws DatabaseException {
+        if (statuses.length == 0) {
+            return new ArrayList<>();
+        }
+        
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        for (StatusPenyewaan status : statuses) {
+            params.add(status.name());
+        }
+        
+        String sql = "SELECT p.sewa_id, p.user_id, p.tgl_sewa, p.tgl_kembali, p.total_harga, p.status, " +
+                     "NULL AS nama_pelanggan, " +
+                     "(SELECT COALESCE(SUM(d.jumlah), 0) FROM detail_penyewaan d " +
+                     " WHERE d.sewa_id = p.sewa_id) AS jumlah_item " +
+                     "FROM penyewaan p WHERE p.user_id = ? " +
+                     "AND p.status IN (" + String.join(", ", Collections.nCopies(statuses.length, "?")) + ") " +
+                     "ORDER BY p.sewa_id DESC";
+        
+        return queryRows(sql, PenyewaanDAO::mapRow, params.toArray());
+    }
+    
+    /**
+     * Jumlah dan total harga per status untuk satu rentang tgl_sewa. Kunci = ordinal status.
+     */
+    public List<PivotRow> summarizeByStatus(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT status, COUNT(*) AS jumlah, COALESCE(SUM(total_harga), 0) AS total " +
+                     "FROM penyewaan WHERE tgl_sewa BETWEEN ? AND ? GROUP BY status";
+        
+        return queryRows(sql, rs -> {
+            StatusPenyewaan status = StatusPenyewaan.fromString(rs.getString("status"));
+            return new PivotRow(status.ordinal(), status.name(), rs.getLong("jumlah"), 0, rs.getDouble("total"));
+        }, startDate, endDate);
+    }
+    
+    public List<Integer> findDistinctUserIds(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        String sql = "SELECT DISTINCT user_id FROM penyewaan WHERE tgl_sewa BETWEEN ? AND ?";
+        return queryRows(sql, rs -> rs.getInt("user_id"), startDate, endDate);
+    }
+    
+    private static PenyewaanRow mapRow(ResultSet rs) throws SQLException {
+        Date tglSewa = rs.getDate("tgl_sewa");
+        Date tglKembali = rs.getDate("tgl_kembali");
+        
+        return new PenyewaanRow(
+                rs.getInt("sewa_id"),
+                rs.getInt("user_id"),
+                rs.getString("nama_pelanggan"),
+                tglSewa != null ? tglSewa.toLocalDate() : null,
+                tglKembali != null ? tglKembali.toLocalDate() : null,
+                rs.getDouble("total_harga"),
+                StatusPenyewaan.fromString(rs.getString("status")),
+                rs.getInt("jumlah_item")
+        );
+    }
+    
+    public List<ChangedRow> findChangedAfter(LocalDateTime afterTime, int afterId, int limit)
+            throws DatabaseException {
+        return findChangedAfter("user_id", "status", afterTime, afterId, limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.mycompany.sewabaju.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool {
+
+    // Koneksi yang menganggur lebih lama dari ini divalidasi ulang sebelum dipakai
+    private static final long VALIDATE_AFTER_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxActive;
+    private final long borrowTimeoutMillis;
+
+    private final BlockingQueue<IdleConnection> idle;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String username, String password,
+                          int initialSize, int maxActive, int maxIdle, long borrowTimeoutMillis) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxActive = Math.max(1, maxActive);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, Math.min(maxIdle, this.maxActive)));
+        this.permits = new Semaphore(this.maxActive, true);
+
+        for (int i = 0; i < Math.min(initialSize, maxIdle); i++) {
+            try {
+                idle.offer(new IdleConnection(newConnection(), System.currentTimeMillis()));
+            } catch (SQLException e) {
+                System.err.println("Error pre-filling connection pool: " + e.getMessage());
+                break;
+            }
+        }
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool sudah ditutup");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Semua koneksi database sedang dipakai (" + maxActive + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Menunggu koneksi database terputus", e);
+        }
+        waitNanos.add(System.nanoTime() - start);
+
+        try {
+            Connection connection = takeIdle();
+            if (connection == null) {
+                connection = newConnection();
+            }
+            active.incrementAndGet();
+            borrowed.increment();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        active.decrementAndGet();
+        try {
+            if (closed || connection.isClosed()) {
+                closeQuietly(connection);
+                return;
+            }
+
+            // Jangan kembalikan transaksi yang menggantung ke peminjam berikutnya
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            if (!idle.offer(new IdleConnection(connection, System.currentTimeMillis()))) {
+                closeQuietly(connection);
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        IdleConnection entry;
+        while ((entry = idle.poll()) != null) {
+            closeQuietly(entry.connection);
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getMaxActive() {
+        return maxActive;
+    }
+
+    public long getBorrowedCount() {
+        return borrowed.sum();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long count = borrowed.sum();
+        return count > 0 ? waitNanos.sum() / 1_000_000.0 / count : 0;
+    }
+
+    private Connection takeIdle() {
+        IdleConnection entry;
+        while ((entry = idle.poll()) != null) {
+            try {
+                boolean stale = System.currentTimeMillis() - entry.releasedAt > VALIDATE_AFTER_MILLIS;
+                if (!stale || entry.connection.isValid(2)) {
+                    return entry.connection;
+                }
+            } catch (SQLException e) {
+                // Koneksi rusak, buang dan coba berikutnya
+            }
+            closeQuietly(entry.connection);
+        }
+        return null;
+    }
+
+    private Connection newConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        created.increment();
+        return connection;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // sudah tertutup
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection connection;
+        final long releasedAt;
+
+        IdleConnection(Connection connection, long releasedAt) {
+            this.connection = connection;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.mycompany.sewabaju.database;
 
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 public class DatabaseConnection {
@@ -14,6 +19,12 @@ public class DatabaseConnection {
     private String url;
     private String username;
     private String password;
+    private Properties props;
+    
+    // Koneksi dari pool yang sedang dipakai thread ini (request server, job background, transaksi)
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private volatile ConnectionPool pool;
+    private Connection routingConnection;
     
     private DatabaseConnection() {
         try {
@@ -26,7 +37,7 @@ public class DatabaseConnection {
     }
     
     private void loadConfiguration() throws IOException {
-        Properties props = new Properties();
+        props = new Properties();
         try (InputStream input = getClass().getClassLoader()
                 .getResourceAsStream("com/mycompany/sewabaju/config/database.properties")) {
             
@@ -70,10 +81,163 @@ public class DatabaseConnection {
     }
     
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connect();
+        Connection bound = boundConnection.get();
+        if (bound != null) {
+            return bound;
+        }
+        
+        synchronized (this) {
+            if (connection == null || connection.isClosed()) {
+                connect();
+            }
+            return connection;
+        }
+    }
+    
+    /**
+     * Connection untuk DAO. Setiap pemanggilan diteruskan ke getConnection(),
+     * sehingga DAO singleton otomatis memakai koneksi pool milik request yang aktif.
+     */
+    public synchronized Connection getRoutingConnection() {
+        if (routingConnection == null) {
+            routingConnection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "RoutingConnection[" + getConnection() + "]";
+                        default:
+                            try {
+                                return method.invoke(getConnection(), args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+        }
+        return routingConnection;
+    }
+    
+    public synchronized void enablePool() {
+        if (pool != null) {
+            return;
+        }
+        
+        int initialSize = Integer.parseInt(props.getProperty("db.pool.initialSize", "5"));
+        int maxActive = Integer.parseInt(props.getProperty("db.pool.maxActive", "20"));
+        int maxIdle = Integer.parseInt(props.getProperty("db.pool.maxIdle", "10"));
+        long timeoutMillis = Long.parseLong(props.getProperty("db.connection.timeout", "30")) * 1000;
+        
+        pool = new ConnectionPool(url, username, password, initialSize, maxActive, maxIdle, timeoutMillis);
+        System.out.println("Connection pool enabled (max " + maxActive + " connections)");
+    }
+    
+    public ConnectionPool getPool() {
+        return pool;
+    }
+    
+    public <T> T withPooledConnection(PooledWork<T> work) throws Exception {
+        ConnectionPool currentPool = pool;
+        if (currentPool == null || boundConnection.get() != null) {
+            return work.run();
+        }
+        
+        Connection pooled = currentPool.borrow();
+        boundConnection.set(pooled);
+        try {
+            return work.run();
+        } finally {
+            boundConnection.remove();
+            currentPool.release(pooled);
         }
-        return connection;
+    }
+    
+    @FunctionalInterface
+    public interface PooledWork<T> {
+        T run() throws Exception;
+    }
+    
+    /**
+     * Jalankan task background di connection pool milik thread ini, supaya commit/rollback
+     * job tidak bercampur dengan transaksi yang sedang berjalan di connection FX thread.
+     */
+    public void runPooled(Runnable task) {
+        try {
+            withPooledConnection(() -> {
+                task.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal mengambil koneksi database: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Jalankan work dalam satu transaksi di connection milik thread ini (dipinjam dari pool
+     * bila belum ada). DAO yang dipanggil di dalamnya ikut transaksi yang sama karena memakai
+     * routing connection; inTransaction bersarang ikut transaksi terluar.
+     */
+    public <T> T inTransaction(PooledWork<T> work) throws Exception {
+        return withPooledConnection(() -> {
+            Connection conn = getConnection();
+            if (!conn.getAutoCommit()) {
+                return work.run();
+            }
+            
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run();
+                conn.commit();
+                return result;
+            } catch (Exception e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Error rolling back: " + ex.getMessage());
+                }
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error restoring auto-commit: " + e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Jalankan work di connection pool sendiri dalam transaksi read-only dengan consistent
+     * snapshot, jadi beberapa query berturut-turut melihat data pada titik waktu yang sama
+     * tanpa mengunci tabel dan tanpa memakai connection UI.
+     */
+    public <T> T inSnapshot(PooledWork<T> work) throws Exception {
+        enablePool();
+        return withPooledConnection(() -> {
+            Connection conn = getConnection();
+            int isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                return work.run();
+            } finally {
+                try {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                    conn.setTransactionIsolation(isolation);
+                } catch (SQLException e) {
+                    System.err.println("Error ending snapshot: " + e.getMessage());
+                }
+            }
+        });
     }
     
     public boolean testConnection() {
@@ -85,6 +249,9 @@ public class DatabaseConnection {
     }
     
     public void closeConnection() {
+        if (pool != null) {
+            pool.close();
+        }
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
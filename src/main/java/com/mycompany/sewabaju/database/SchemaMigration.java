@@ -0,0 +1,196 @@
+package com.mycompany.sewabaju.database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class SchemaMigration {
+
+    private static final String[] CREATE_TABLES = {
+        "CREATE TABLE IF NOT EXISTS daily_stats (" +
+        "  stat_date DATE NOT NULL PRIMARY KEY," +
+        "  jumlah_penyewaan INT NOT NULL DEFAULT 0," +
+        "  jumlah_dibatalkan INT NOT NULL DEFAULT 0," +
+        "  pendapatan DECIMAL(15,2) NOT NULL DEFAULT 0," +
+        "  pembayaran_masuk DECIMAL(15,2) NOT NULL DEFAULT 0," +
+        "  total_denda DECIMAL(15,2) NOT NULL DEFAULT 0," +
+        "  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+        ")",
+
+        "CREATE TABLE IF NOT EXISTS device_token (" +
+        "  token_id INT AUTO_INCREMENT PRIMARY KEY," +
+        "  user_id INT NOT NULL," +
+        "  selector VARCHAR(32) NOT NULL," +
+        "  validator_hash CHAR(64) NOT NULL," +
+        "  terminal VARCHAR(100)," +
+        "  created_at DATETIME NOT NULL," +
+        "  last_used_at DATETIME NULL," +
+        "  expires_at DATETIME NOT NULL," +
+        "  revoked_at DATETIME NULL," +
+        "  UNIQUE KEY uk_device_token_selector (selector)," +
+        "  KEY idx_device_token_user (user_id)," +
+        "  CONSTRAINT fk_device_token_user FOREIGN KEY (user_id) REFERENCES user (user_id) ON DELETE CASCADE" +
+        ")",
+
+        "CREATE TABLE IF NOT EXISTS keranjang (" +
+        "  keranjang_id INT AUTO_INCREMENT PRIMARY KEY," +
+        "  user_id INT NOT NULL," +
+        "  detail_baju_id INT NOT NULL," +
+        "  jumlah INT NOT NULL," +
+        "  jumlah_ditahan INT NOT NULL DEFAULT 0," +
+        "  hold_expires_at DATETIME NULL," +
+        "  created_at DATETIME NOT NULL," +
+        "  UNIQUE KEY uk_keranjang_user_detail (user_id, detail_baju_id)," +
+        "  KEY idx_keranjang_hold (hold_expires_at)," +
+        "  CONSTRAINT fk_keranjang_user FOREIGN KEY (user_id) REFERENCES user (user_id) ON DELETE CASCADE," +
+        "  CONSTRAINT fk_keranjang_detail_baju FOREIGN KEY (detail_baju_id) " +
+        "    REFERENCES detail_baju (detail_baju_id) ON DELETE CASCADE" +
+        ")",
+
+        "CREATE TABLE IF NOT EXISTS notifikasi_outbox (" +
+        "  outbox_id INT AUTO_INCREMENT PRIMARY KEY," +
+        "  idempotency_key VARCHAR(150) NOT NULL," +
+        "  user_id INT NULL," +
+        "  jenis VARCHAR(50) NOT NULL," +
+        "  pesan TEXT NOT NULL," +
+        "  status VARCHAR(20) NOT NULL," +
+        "  attempts INT NOT NULL DEFAULT 0," +
+        "  next_attempt_at DATETIME NOT NULL," +
+        "  last_error VARCHAR(500) NULL," +
+        "  locked_by VARCHAR(64) NULL," +
+        "  locked_until DATETIME NULL," +
+        "  created_at DATETIME NOT NULL," +
+        "  sent_at DATETIME NULL," +
+        "  UNIQUE KEY uk_notifikasi_outbox_key (idempotency_key)," +
+        "  KEY idx_notifikasi_outbox_due (status, next_attempt_at)," +
+        "  KEY idx_notifikasi_outbox_locked (locked_by)" +
+        ")"
+    };
+
+    private static final String[] CHANGE_TRACKED_TABLES = {
+        "penyewaan", "pembayaran", "detail_baju", "denda"
+    };
+
+    private SchemaMigration() {
+    }
+
+    public static void migrate() {
+        try {
+            Connection conn = DatabaseConnection.getInstance().getConnection();
+
+            try (Statement stmt = conn.createStatement()) {
+                for (String ddl : CREATE_TABLES) {
+                    stmt.execute(ddl);
+                }
+            }
+
+            addIndexIfMissing(conn, "penyewaan", "idx_penyewaan_tgl_sewa", "tgl_sewa");
+            addIndexIfMissing(conn, "denda", "idx_denda_created_at", "created_at");
+            addIndexIfMissing(conn, "penyewaan", "idx_penyewaan_status_tgl_kembali", "status, tgl_kembali");
+            addIndexIfMissing(conn, "penyewaan", "idx_penyewaan_status_created", "status, created_at");
+            addIndexIfMissing(conn, "penyewaan", "idx_penyewaan_user_status", "user_id, status, sewa_id");
+            addIndexIfMissing(conn, "penyewaan", "idx_penyewaan_user_sewa", "user_id, sewa_id");
+            addIndexIfMissing(conn, "denda", "idx_denda_sewa_jenis", "sewa_id, jenis_denda");
+            addIndexIfMissing(conn, "denda", "idx_denda_status_sewa", "status_bayar, sewa_id, jumlah");
+            
+            if (addColumnIfMissing(conn, "denda", "detail_sewa_id", "INT NULL AFTER sewa_id")) {
+                backfillDendaDetail(conn);
+            }
+            addIndexIfMissing(conn, "denda", "uk_denda_sewa_jenis_detail", 
+                              "sewa_id, jenis_denda, detail_sewa_id", true);
+            
+            // Lease klaim verifikasi pembayaran antar admin
+            addColumnIfMissing(conn, "pembayaran", "claimed_by", "INT NULL");
+            addColumnIfMissing(conn, "pembayaran", "claim_expires_at", "DATETIME NULL");
+            addIndexIfMissing(conn, "pembayaran", "idx_pembayaran_status_tanggal", "status, tanggal_bayar");
+            addIndexIfMissing(conn, "pembayaran", "idx_pembayaran_claimed_by", "claimed_by, status");
+            
+            // Watermark untuk change polling antar terminal
+            for (String table : CHANGE_TRACKED_TABLES) {
+                addColumnIfMissing(conn, table, "updated_at", 
+                        "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+                addIndexIfMissing(conn, table, "idx_" + table + "_updated_at", "updated_at");
+            }
+
+            System.out.println("Schema migration completed");
+        } catch (SQLException e) {
+            System.err.println("Error running schema migration: " + e.getMessage());
+        }
+    }
+
+    static boolean addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return false;
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            System.out.println("Added column " + table + "." + column);
+        }
+        return true;
+    }
+
+    /**
+     * Isi denda.detail_sewa_id untuk data lama. Keterlambatan mendapat 0 (seluruh penyewaan),
+     * denda kerusakan otomatis diambil dari penanda "DETAIL#id" di keterangan.
+     * Duplikat lama dibiarkan NULL agar unique index tetap bisa dibuat.
+     */
+    private static void backfillDendaDetail(Connection conn) throws SQLException {
+        String keterlambatanSql = "UPDATE denda d JOIN (" +
+                "  SELECT MIN(denda_id) AS denda_id FROM denda " +
+                "  WHERE jenis_denda = 'KETERLAMBATAN' GROUP BY sewa_id" +
+                ") src ON d.denda_id = src.denda_id " +
+                "SET d.detail_sewa_id = 0";
+
+        String kerusakanSql = "UPDATE denda d JOIN (" +
+                "  SELECT MIN(denda_id) AS denda_id, " +
+                "    CAST(SUBSTRING_INDEX(SUBSTRING(keterangan, 8), ' ', 1) AS UNSIGNED) AS detail_sewa_id " +
+                "  FROM denda WHERE jenis_denda = 'KERUSAKAN' AND keterangan LIKE 'DETAIL#%' " +
+                "  GROUP BY sewa_id, detail_sewa_id" +
+                ") src ON d.denda_id = src.denda_id " +
+                "SET d.detail_sewa_id = src.detail_sewa_id " +
+                "WHERE src.detail_sewa_id > 0";
+
+        try (Statement stmt = conn.createStatement()) {
+            int keterlambatan = stmt.executeUpdate(keterlambatanSql);
+            int kerusakan = stmt.executeUpdate(kerusakanSql);
+            System.out.println("Backfilled denda.detail_sewa_id: " + keterlambatan +
+                               " keterlambatan, " + kerusakan + " kerusakan");
+        }
+    }
+
+    static void addIndexIfMissing(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        addIndexIfMissing(conn, table, index, columns, false);
+    }
+
+    static void addIndexIfMissing(Connection conn, String table, String index, String columns,
+                                  boolean unique) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.statistics " +
+                     "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, index);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + index +
+                         " ON " + table + " (" + columns + ")");
+            System.out.println("Created index " + index + " on " + table);
+        }
+    }
+}
\ No newline at end of file
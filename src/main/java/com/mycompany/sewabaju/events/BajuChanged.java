@@ -0,0 +1,29 @@
+package com.mycompany.sewabaju.events;
+
+public class BajuChanged extends DomainEvent {
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final int bajuId;
+    private final Action action;
+
+    public BajuChanged(int bajuId, Action action) {
+        this.bajuId = bajuId;
+        this.action = action;
+    }
+
+    public int getBajuId() {
+        return bajuId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return "BajuChanged{bajuId=" + bajuId + ", action=" + action + '}';
+    }
+}
\ No newline at end of file
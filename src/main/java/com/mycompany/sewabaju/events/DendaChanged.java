@@ -0,0 +1,35 @@
+package com.mycompany.sewabaju.events;
+
+public class DendaChanged extends DomainEvent {
+
+    public enum Action {
+        CREATED, UPDATED, PAID, DELETED
+    }
+
+    private final int dendaId;
+    private final int sewaId;
+    private final Action action;
+
+    public DendaChanged(int dendaId, int sewaId, Action action) {
+        this.dendaId = dendaId;
+        this.sewaId = sewaId;
+        this.action = action;
+    }
+
+    public int getDendaId() {
+        return dendaId;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return "DendaChanged{dendaId=" + dendaId + ", sewaId=" + sewaId + ", action=" + action + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.mycompany.sewabaju.events;
+
+import java.time.LocalDateTime;
+
+public abstract class DomainEvent {
+    private final LocalDateTime occurredAt;
+
+    protected DomainEvent() {
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
\ No newline at end of file
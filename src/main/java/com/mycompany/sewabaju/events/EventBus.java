@@ -0,0 +1,206 @@
+package com.mycompany.sewabaju.events;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Event bus in-process. Setiap subscriber punya antrian sendiri yang dibatasi;
+ * publish tidak pernah menunggu subscriber yang lambat. Jika antrian penuh,
+ * event yang tertunda dibuang dan subscriber diminta resync lewat onOverflow.
+ */
+public class EventBus {
+
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+
+    private static final int POOL_SIZE = 2;
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("sewabaju.events.capacity", 1024);
+    private static final int BATCH_SIZE = 64;
+
+    private static EventBus instance;
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private EventBus() {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "sewabaju-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static EventBus getInstance() {
+        if (instance == null) {
+            synchronized (EventBus.class) {
+                if (instance == null) {
+                    instance = new EventBus();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(type, handler, executor, DEFAULT_CAPACITY, null);
+    }
+
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler,
+                                                          Executor handlerExecutor) {
+        return subscribe(type, handler, handlerExecutor, DEFAULT_CAPACITY, null);
+    }
+
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler,
+                                                          Executor handlerExecutor, int capacity,
+                                                          Runnable onOverflow) {
+        if (type == null || handler == null || handlerExecutor == null) {
+            throw new IllegalArgumentException("Type, handler, dan executor tidak boleh null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity harus lebih dari 0");
+        }
+
+        Subscriber<E> subscriber = new Subscriber<>(type, handler, handlerExecutor, capacity, onOverflow);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public void publish(DomainEvent event) {
+        if (event == null) {
+            return;
+        }
+        published.incrementAndGet();
+
+        for (Subscriber<?> subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void shutdown() {
+        subscribers.clear();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Subscriber<E extends DomainEvent> implements Subscription {
+        private final Class<E> type;
+        private final Consumer<? super E> handler;
+        private final Executor handlerExecutor;
+        private final Runnable onOverflow;
+        private final BlockingQueue<E> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final AtomicBoolean overflowed = new AtomicBoolean(false);
+        private volatile boolean active = true;
+
+        Subscriber(Class<E> type, Consumer<? super E> handler, Executor handlerExecutor,
+                   int capacity, Runnable onOverflow) {
+            this.type = type;
+            this.handler = handler;
+            this.handlerExecutor = handlerExecutor;
+            this.onOverflow = onOverflow;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(DomainEvent event) {
+            if (!active || !type.isInstance(event)) {
+                return;
+            }
+
+            if (!queue.offer(type.cast(event))) {
+                // Subscriber tertinggal; sisa antrian tidak berguna lagi, cukup satu sinyal resync
+                int lost = queue.size() + 1;
+                queue.clear();
+                dropped.addAndGet(lost);
+                overflowed.set(true);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    handlerExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed.getAndSet(false)) {
+                    if (onOverflow != null) {
+                        run(onOverflow);
+                    } else {
+                        LOGGER.warning("Event subscriber for " + type.getSimpleName() +
+                                       " fell behind, pending events dropped");
+                    }
+                }
+
+                // Batasi per giliran agar thread bersama (atau FX thread) tidak dimonopoli
+                for (int i = 0; i < BATCH_SIZE && active; i++) {
+                    E event = queue.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    run(() -> handler.accept(event));
+                }
+            } finally {
+                scheduled.set(false);
+                if (active && (!queue.isEmpty() || overflowed.get())) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void run(Runnable action) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Event handler for " + type.getSimpleName() + " failed", e);
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            queue.clear();
+            subscribers.remove(this);
+        }
+    }
+}
\ No newline at end of file
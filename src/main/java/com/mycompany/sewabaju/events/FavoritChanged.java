@@ -0,0 +1,30 @@
+package com.mycompany.sewabaju.events;
+
+public class FavoritChanged extends DomainEvent {
+    private final int pelangganId;
+    private final int bajuId;
+    private final boolean added;
+
+    public FavoritChanged(int pelangganId, int bajuId, boolean added) {
+        this.pelangganId = pelangganId;
+        this.bajuId = bajuId;
+        this.added = added;
+    }
+
+    public int getPelangganId() {
+        return pelangganId;
+    }
+
+    public int getBajuId() {
+        return bajuId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+
+    @Override
+    public String toString() {
+        return "FavoritChanged{pelangganId=" + pelangganId + ", bajuId=" + bajuId + ", added=" + added + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.mycompany.sewabaju.events;
+
+public class PelangganRegistered extends DomainEvent {
+    private final int userId;
+
+    public PelangganRegistered(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "PelangganRegistered{userId=" + userId + '}';
+    }
+}
\ No newline at end of file
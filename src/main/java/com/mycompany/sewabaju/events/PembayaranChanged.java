@@ -0,0 +1,32 @@
+package com.mycompany.sewabaju.events;
+
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+
+public class PembayaranChanged extends DomainEvent {
+    private final int pembayaranId;
+    private final int sewaId;
+    private final StatusPembayaran status;
+
+    public PembayaranChanged(int pembayaranId, int sewaId, StatusPembayaran status) {
+        this.pembayaranId = pembayaranId;
+        this.sewaId = sewaId;
+        this.status = status;
+    }
+
+    public int getPembayaranId() {
+        return pembayaranId;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public StatusPembayaran getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "PembayaranChanged{pembayaranId=" + pembayaranId + ", sewaId=" + sewaId + ", status=" + status + '}';
+    }
+}
\ No newline at end of file
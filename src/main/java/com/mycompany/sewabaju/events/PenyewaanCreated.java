@@ -0,0 +1,30 @@
+package com.mycompany.sewabaju.events;
+
+public class PenyewaanCreated extends DomainEvent {
+    private final int sewaId;
+    private final int userId;
+    private final double totalHarga;
+
+    public PenyewaanCreated(int sewaId, int userId, double totalHarga) {
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.totalHarga = totalHarga;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public double getTotalHarga() {
+        return totalHarga;
+    }
+
+    @Override
+    public String toString() {
+        return "PenyewaanCreated{sewaId=" + sewaId + ", userId=" + userId + ", totalHarga=" + totalHarga + '}';
+    }
+}
\ No newline at end of file
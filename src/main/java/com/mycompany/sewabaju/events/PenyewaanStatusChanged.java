@@ -0,0 +1,42 @@
+package com.mycompany.sewabaju.events;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+
+/**
+ * oldStatus null jika status sebelumnya tidak diketahui, mis. perubahan dari terminal lain
+ * yang terbaca oleh ChangePollingService.
+ */
+public class PenyewaanStatusChanged extends DomainEvent {
+    private final int sewaId;
+    private final int userId;
+    private final StatusPenyewaan oldStatus;
+    private final StatusPenyewaan newStatus;
+
+    public PenyewaanStatusChanged(int sewaId, int userId, StatusPenyewaan oldStatus, StatusPenyewaan newStatus) {
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public StatusPenyewaan getOldStatus() {
+        return oldStatus;
+    }
+
+    public StatusPenyewaan getNewStatus() {
+        return newStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "PenyewaanStatusChanged{sewaId=" + sewaId + ", " + oldStatus + " -> " + newStatus + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.mycompany.sewabaju.events;
+
+import java.util.Collections;
+import java.util.List;
+
+public class StokChanged extends DomainEvent {
+    private final List<Integer> detailBajuIds;
+
+    public StokChanged(List<Integer> detailBajuIds) {
+        this.detailBajuIds = detailBajuIds != null
+                ? Collections.unmodifiableList(detailBajuIds) : Collections.emptyList();
+    }
+
+    public StokChanged(int detailBajuId) {
+        this(List.of(detailBajuId));
+    }
+
+    // Perubahan massal (mis. batch expiry) yang tidak membawa daftar detail
+    public static StokChanged semua() {
+        return new StokChanged(Collections.emptyList());
+    }
+
+    public List<Integer> getDetailBajuIds() {
+        return detailBajuIds;
+    }
+
+    public boolean isSemua() {
+        return detailBajuIds.isEmpty();
+    }
+
+    public boolean affects(int detailBajuId) {
+        return isSemua() || detailBajuIds.contains(detailBajuId);
+    }
+
+    @Override
+    public String toString() {
+        return "StokChanged{" + (isSemua() ? "semua" : detailBajuIds) + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDateTime;
+
+public class ChangedRow {
+    private final int id;
+    private final int parentId;
+    private final String status;
+    private final LocalDateTime updatedAt;
+
+    public ChangedRow(int id, int parentId, String status, LocalDateTime updatedAt) {
+        this.id = id;
+        this.parentId = parentId;
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getParentId() {
+        return parentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangedRow{id=" + id + ", parentId=" + parentId + 
+               ", status=" + status + ", updatedAt=" + updatedAt + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class DailyStats {
+    private LocalDate statDate;
+    private int jumlahPenyewaan;
+    private int jumlahDibatalkan;
+    private double pendapatan;
+    private double pembayaranMasuk;
+    private double totalDenda;
+
+    public DailyStats() {
+    }
+
+    public DailyStats(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public int getJumlahPenyewaan() {
+        return jumlahPenyewaan;
+    }
+
+    public void setJumlahPenyewaan(int jumlahPenyewaan) {
+        this.jumlahPenyewaan = jumlahPenyewaan;
+    }
+
+    public int getJumlahDibatalkan() {
+        return jumlahDibatalkan;
+    }
+
+    public void setJumlahDibatalkan(int jumlahDibatalkan) {
+        this.jumlahDibatalkan = jumlahDibatalkan;
+    }
+
+    public double getPendapatan() {
+        return pendapatan;
+    }
+
+    public void setPendapatan(double pendapatan) {
+        this.pendapatan = pendapatan;
+    }
+
+    public double getPembayaranMasuk() {
+        return pembayaranMasuk;
+    }
+
+    public void setPembayaranMasuk(double pembayaranMasuk) {
+        this.pembayaranMasuk = pembayaranMasuk;
+    }
+
+    public double getTotalDenda() {
+        return totalDenda;
+    }
+
+    public void setTotalDenda(double totalDenda) {
+        this.totalDenda = totalDenda;
+    }
+
+    public void add(DailyStats other) {
+        this.jumlahPenyewaan += other.jumlahPenyewaan;
+        this.jumlahDibatalkan += other.jumlahDibatalkan;
+        this.pendapatan += other.pendapatan;
+        this.pembayaranMasuk += other.pembayaranMasuk;
+        this.totalDenda += other.totalDenda;
+    }
+
+    public double getRataRataPendapatan() {
+        return jumlahPenyewaan > 0 ? pendapatan / jumlahPenyewaan : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyStats{" +
+                "statDate=" + statDate +
+                ", jumlahPenyewaan=" + jumlahPenyewaan +
+                ", jumlahDibatalkan=" + jumlahDibatalkan +
+                ", pendapatan=" + pendapatan +
+                ", pembayaranMasuk=" + pembayaranMasuk +
+                ", totalDenda=" + totalDenda +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyStats that = (DailyStats) o;
+        return Objects.equals(statDate, that.statDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statDate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+public class DashboardSnapshot {
+    private final int totalPenyewaanHariIni;
+    private final double pendapatanBulanIni;
+    private final int jumlahPelanggan;
+    private final int pembayaranPending;
+    private final List<Penyewaan> recentPenyewaan;
+    private final List<PembayaranRow> pembayaranPendingRows;
+    private final LocalDateTime lastUpdated;
+
+    public DashboardSnapshot(int totalPenyewaanHariIni, double pendapatanBulanIni,
+                             int jumlahPelanggan, int pembayaranPending,
+                             List<Penyewaan> recentPenyewaan, LocalDateTime lastUpdated) {
+        this(totalPenyewaanHariIni, pendapatanBulanIni, jumlahPelanggan, pembayaranPending,
+             recentPenyewaan, Collections.emptyList(), lastUpdated);
+    }
+
+    public DashboardSnapshot(int totalPenyewaanHariIni, double pendapatanBulanIni,
+                             int jumlahPelanggan, int pembayaranPending,
+                             List<Penyewaan> recentPenyewaan, List<PembayaranRow> pembayaranPendingRows,
+                             LocalDateTime lastUpdated) {
+        this.totalPenyewaanHariIni = totalPenyewaanHariIni;
+        this.pendapatanBulanIni = pendapatanBulanIni;
+        this.jumlahPelanggan = jumlahPelanggan;
+        this.pembayaranPending = pembayaranPending;
+        this.recentPenyewaan = recentPenyewaan != null ?
+                Collections.unmodifiableList(recentPenyewaan) : Collections.emptyList();
+        this.pembayaranPendingRows = pembayaranPendingRows != null ?
+                Collections.unmodifiableList(pembayaranPendingRows) : Collections.emptyList();
+        this.lastUpdated = lastUpdated;
+    }
+
+    public DashboardSnapshot withRecentPenyewaan(List<Penyewaan> recentPenyewaan) {
+        return new DashboardSnapshot(totalPenyewaanHariIni, pendapatanBulanIni, jumlahPelanggan,
+                pembayaranPending, recentPenyewaan, pembayaranPendingRows, lastUpdated);
+    }
+
+    public DashboardSnapshot withPembayaranPendingRows(List<PembayaranRow> pembayaranPendingRows) {
+        return new DashboardSnapshot(totalPenyewaanHariIni, pendapatanBulanIni, jumlahPelanggan,
+                pembayaranPending, recentPenyewaan, pembayaranPendingRows, lastUpdated);
+    }
+
+    public int getTotalPenyewaanHariIni() {
+        return totalPenyewaanHariIni;
+    }
+
+    public double getPendapatanBulanIni() {
+        return pendapatanBulanIni;
+    }
+
+    public int getJumlahPelanggan() {
+        return jumlahPelanggan;
+    }
+
+    public int getPembayaranPending() {
+        return pembayaranPending;
+    }
+
+    public List<Penyewaan> getRecentPenyewaan() {
+        return recentPenyewaan;
+    }
+
+    public List<PembayaranRow> getPembayaranPendingRows() {
+        return pembayaranPendingRows;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardSnapshot{" +
+                "totalPenyewaanHariIni=" + totalPenyewaanHariIni +
+                ", pendapatanBulanIni=" + pendapatanBulanIni +
+                ", jumlahPelanggan=" + jumlahPelanggan +
+                ", pembayaranPending=" + pembayaranPending +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
\ No newline at end of file
@@ -6,8 +6,12 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 public class Denda {
+    // detail_sewa_id untuk denda yang berlaku ke seluruh penyewaan (keterlambatan)
+    public static final int SELURUH_PENYEWAAN = 0;
+    
     private int dendaId;
     private int sewaId;
+    private Integer detailSewaId;
     private JenisDenda jenisDenda;
     private double jumlah;
     private String keterangan;
@@ -51,6 +55,14 @@ public class Denda {
         this.sewaId = sewaId;
     }
     
+    public Integer getDetailSewaId() {
+        return detailSewaId;
+    }
+    
+    public void setDetailSewaId(Integer detailSewaId) {
+        this.detailSewaId = detailSewaId;
+    }
+    
     public JenisDenda getJenisDenda() {
         return jenisDenda;
     }
@@ -133,13 +145,21 @@ public class Denda {
     public static Denda createDendaKeterlambatan(int sewaId, int hariTerlambat) {
         double jumlah = JenisDenda.KETERLAMBATAN.hitungDenda(hariTerlambat);
         String keterangan = "Keterlambatan " + hariTerlambat + " hari";
-        return new Denda(sewaId, JenisDenda.KETERLAMBATAN, jumlah, keterangan);
+        Denda denda = new Denda(sewaId, JenisDenda.KETERLAMBATAN, jumlah, keterangan);
+        denda.setDetailSewaId(SELURUH_PENYEWAAN);
+        return denda;
     }
     
     public static Denda createDendaKerusakan(int sewaId, double jumlah, String keterangan) {
         return new Denda(sewaId, JenisDenda.KERUSAKAN, jumlah, keterangan);
     }
     
+    public static Denda createDendaKerusakan(int sewaId, int detailSewaId, double jumlah, String keterangan) {
+        Denda denda = new Denda(sewaId, JenisDenda.KERUSAKAN, jumlah, keterangan);
+        denda.setDetailSewaId(detailSewaId);
+        return denda;
+    }
+    
     public static Denda createDendaKehilangan(int sewaId, double jumlah, String keterangan) {
         return new Denda(sewaId, JenisDenda.KEHILANGAN, jumlah, keterangan);
     }
@@ -161,6 +181,7 @@ public class Denda {
         return "Denda{" +
                 "dendaId=" + dendaId +
                 ", sewaId=" + sewaId +
+                ", detailSewaId=" + detailSewaId +
                 ", jenis=" + jenisDenda +
                 ", jumlah=" + jumlah +
                 ", keterangan='" + keterangan + '\'' +
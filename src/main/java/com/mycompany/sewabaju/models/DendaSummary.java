@@ -0,0 +1,57 @@
+package com.mycompany.sewabaju.models;
+
+public class DendaSummary {
+    private int jumlahDenda;
+    private double total;
+    private double totalBelumDibayar;
+
+    public DendaSummary() {
+    }
+
+    public DendaSummary(int jumlahDenda, double total, double totalBelumDibayar) {
+        this.jumlahDenda = jumlahDenda;
+        this.total = total;
+        this.totalBelumDibayar = totalBelumDibayar;
+    }
+
+    public int getJumlahDenda() {
+        return jumlahDenda;
+    }
+
+    public void setJumlahDenda(int jumlahDenda) {
+        this.jumlahDenda = jumlahDenda;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public double getTotalBelumDibayar() {
+        return totalBelumDibayar;
+    }
+
+    public void setTotalBelumDibayar(double totalBelumDibayar) {
+        this.totalBelumDibayar = totalBelumDibayar;
+    }
+
+    public double getTotalSudahDibayar() {
+        return total - totalBelumDibayar;
+    }
+
+    public boolean hasUnpaid() {
+        return totalBelumDibayar > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DendaSummary{" +
+                "jumlahDenda=" + jumlahDenda +
+                ", total=" + total +
+                ", totalBelumDibayar=" + totalBelumDibayar +
+                '}';
+    }
+}
\ No newline at end of file
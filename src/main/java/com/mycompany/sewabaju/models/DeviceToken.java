@@ -0,0 +1,154 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class DeviceToken {
+    private int tokenId;
+    private int userId;
+    private String selector;
+    private String validatorHash;
+    private String terminal;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastUsedAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime revokedAt;
+    private User user;
+    
+    public DeviceToken() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public DeviceToken(int userId, String selector, String validatorHash, 
+                       String terminal, LocalDateTime expiresAt) {
+        this();
+        this.userId = userId;
+        this.selector = selector;
+        this.validatorHash = validatorHash;
+        this.terminal = terminal;
+        this.expiresAt = expiresAt;
+    }
+    
+    public int getTokenId() {
+        return tokenId;
+    }
+    
+    public void setTokenId(int tokenId) {
+        this.tokenId = tokenId;
+    }
+    
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public String getSelector() {
+        return selector;
+    }
+    
+    public void setSelector(String selector) {
+        this.selector = selector;
+    }
+    
+    public String getValidatorHash() {
+        return validatorHash;
+    }
+    
+    public void setValidatorHash(String validatorHash) {
+        this.validatorHash = validatorHash;
+    }
+    
+    public String getTerminal() {
+        return terminal;
+    }
+    
+    public void setTerminal(String terminal) {
+        this.terminal = terminal;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+    
+    public void setLastUsedAt(LocalDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+    
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+        if (user != null) {
+            this.userId = user.getUserId();
+        }
+    }
+    
+    public String getNamaUser() {
+        return user != null ? user.getNama() : "";
+    }
+    
+    public boolean isRevoked() {
+        return revokedAt != null;
+    }
+    
+    public boolean isExpired() {
+        return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+    }
+    
+    public boolean isActive() {
+        return !isRevoked() && !isExpired();
+    }
+    
+    @Override
+    public String toString() {
+        return "DeviceToken{" +
+                "tokenId=" + tokenId +
+                ", userId=" + userId +
+                ", terminal='" + terminal + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", revoked=" + isRevoked() +
+                '}';
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DeviceToken that = (DeviceToken) o;
+        return tokenId == that.tokenId;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(tokenId);
+    }
+}
\ No newline at end of file
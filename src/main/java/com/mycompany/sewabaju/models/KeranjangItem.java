@@ -0,0 +1,132 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class KeranjangItem {
+    private int keranjangId;
+    private int userId;
+    private int detailBajuId;
+    private int jumlah;
+    private int jumlahDitahan;
+    private LocalDateTime holdExpiresAt;
+    private LocalDateTime createdAt;
+    private DetailBaju detailBaju;
+    
+    public KeranjangItem() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public int getKeranjangId() {
+        return keranjangId;
+    }
+    
+    public void setKeranjangId(int keranjangId) {
+        this.keranjangId = keranjangId;
+    }
+    
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public int getDetailBajuId() {
+        return detailBajuId;
+    }
+    
+    public void setDetailBajuId(int detailBajuId) {
+        this.detailBajuId = detailBajuId;
+    }
+    
+    public int getJumlah() {
+        return jumlah;
+    }
+    
+    public void setJumlah(int jumlah) {
+        this.jumlah = jumlah;
+    }
+    
+    public int getJumlahDitahan() {
+        return jumlahDitahan;
+    }
+    
+    public void setJumlahDitahan(int jumlahDitahan) {
+        this.jumlahDitahan = jumlahDitahan;
+    }
+    
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public DetailBaju getDetailBaju() {
+        return detailBaju;
+    }
+    
+    public void setDetailBaju(DetailBaju detailBaju) {
+        this.detailBaju = detailBaju;
+        if (detailBaju != null) {
+            this.detailBajuId = detailBaju.getDetailBajuId();
+        }
+    }
+    
+    public boolean isFullyHeld() {
+        return jumlahDitahan >= jumlah && holdExpiresAt != null 
+               && holdExpiresAt.isAfter(LocalDateTime.now());
+    }
+    
+    public String getNamaBaju() {
+        return detailBaju != null ? detailBaju.getNamaBaju() : "";
+    }
+    
+    public String getUkuran() {
+        return detailBaju != null ? detailBaju.getUkuranDisplay() : "";
+    }
+    
+    public double getHargaSewa() {
+        return detailBaju != null ? detailBaju.getHargaSewa() : 0;
+    }
+    
+    public double getSubtotal() {
+        return getHargaSewa() * jumlah;
+    }
+    
+    @Override
+    public String toString() {
+        return "KeranjangItem{" +
+                "keranjangId=" + keranjangId +
+                ", userId=" + userId +
+                ", detailBajuId=" + detailBajuId +
+                ", jumlah=" + jumlah +
+                ", jumlahDitahan=" + jumlahDitahan +
+                ", holdExpiresAt=" + holdExpiresAt +
+                '}';
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeranjangItem that = (KeranjangItem) o;
+        return keranjangId == that.keranjangId;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(keranjangId);
+    }
+}
\ No newline at end of file
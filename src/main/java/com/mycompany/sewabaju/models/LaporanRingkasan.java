@@ -0,0 +1,90 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hasil laporan periode yang digabung dari beberapa partisi tanggal.
+ * Jumlah pelanggan adalah perkiraan (sketch), bukan hitungan pasti.
+ */
+public class LaporanRingkasan {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long jumlahPenyewaan;
+    private final long jumlahDibatalkan;
+    private final double totalNilai;
+    private final double pendapatan;
+    private final long jumlahItem;
+    private final long perkiraanPelanggan;
+    private final List<PivotRow> topBaju;
+    private final int jumlahPartisi;
+    private final long durasiMillis;
+
+    public LaporanRingkasan(LocalDate startDate, LocalDate endDate, long jumlahPenyewaan,
+                            long jumlahDibatalkan, double totalNilai, double pendapatan,
+                            long jumlahItem, long perkiraanPelanggan, List<PivotRow> topBaju,
+                            int jumlahPartisi, long durasiMillis) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.jumlahPenyewaan = jumlahPenyewaan;
+        this.jumlahDibatalkan = jumlahDibatalkan;
+        this.totalNilai = totalNilai;
+        this.pendapatan = pendapatan;
+        this.jumlahItem = jumlahItem;
+        this.perkiraanPelanggan = perkiraanPelanggan;
+        this.topBaju = topBaju != null ? topBaju : Collections.emptyList();
+        this.jumlahPartisi = jumlahPartisi;
+        this.durasiMillis = durasiMillis;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public long getJumlahPenyewaan() {
+        return jumlahPenyewaan;
+    }
+
+    public long getJumlahDibatalkan() {
+        return jumlahDibatalkan;
+    }
+
+    public double getTotalNilai() {
+        return totalNilai;
+    }
+
+    public double getPendapatan() {
+        return pendapatan;
+    }
+
+    public long getJumlahItem() {
+        return jumlahItem;
+    }
+
+    public long getPerkiraanPelanggan() {
+        return perkiraanPelanggan;
+    }
+
+    public List<PivotRow> getTopBaju() {
+        return topBaju;
+    }
+
+    public int getJumlahPartisi() {
+        return jumlahPartisi;
+    }
+
+    public long getDurasiMillis() {
+        return durasiMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "LaporanRingkasan{" + startDate + " - " + endDate + ", jumlahPenyewaan=" + jumlahPenyewaan +
+               ", pendapatan=" + pendapatan + ", partisi=" + jumlahPartisi + ", " + durasiMillis + " ms}";
+    }
+}
\ No newline at end of file
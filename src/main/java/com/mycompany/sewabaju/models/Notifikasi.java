@@ -0,0 +1,151 @@
+package com.mycompany.sewabaju.models;
+
+import com.mycompany.sewabaju.models.enums.StatusNotifikasi;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Satu baris outbox notifikasi. userId null berarti ditujukan ke admin.
+ */
+public class Notifikasi {
+    private int outboxId;
+    private String idempotencyKey;
+    private Integer userId;
+    private String jenis;
+    private String pesan;
+    private StatusNotifikasi status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    public Notifikasi() {
+        this.status = StatusNotifikasi.MENUNGGU;
+    }
+
+    public Notifikasi(String idempotencyKey, Integer userId, String jenis, String pesan) {
+        this();
+        this.idempotencyKey = idempotencyKey;
+        this.userId = userId;
+        this.jenis = jenis;
+        this.pesan = pesan;
+    }
+
+    public int getOutboxId() {
+        return outboxId;
+    }
+
+    public void setOutboxId(int outboxId) {
+        this.outboxId = outboxId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public boolean isUntukAdmin() {
+        return userId == null;
+    }
+
+    public String getJenis() {
+        return jenis;
+    }
+
+    public void setJenis(String jenis) {
+        this.jenis = jenis;
+    }
+
+    public String getPesan() {
+        return pesan;
+    }
+
+    public void setPesan(String pesan) {
+        this.pesan = pesan;
+    }
+
+    public StatusNotifikasi getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusNotifikasi status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Notifikasi{" +
+                "outboxId=" + outboxId +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
+                ", userId=" + userId +
+                ", jenis='" + jenis + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Notifikasi that = (Notifikasi) o;
+        return Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idempotencyKey);
+    }
+}
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.mycompany.sewabaju.models;
 import com.mycompany.sewabaju.models.enums.Role;
 
 public class Pelanggan extends User {
+    public static final int RUPIAH_PER_POIN = 10000;
+    
     private int pelangganId;
     private String alamat;
     private int poinLoyalitas;
@@ -62,7 +64,7 @@ public class Pelanggan extends User {
     }
     
     public static int hitungPoinFromBelanja(double totalBelanja) {
-        return (int) (totalBelanja / 10000);
+        return (int) (totalBelanja / RUPIAH_PER_POIN);
     }
     
     @Override
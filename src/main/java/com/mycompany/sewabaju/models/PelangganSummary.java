@@ -0,0 +1,62 @@
+package com.mycompany.sewabaju.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ringkasan statistik satu pelanggan untuk halaman beranda, dari satu query agregat.
+ */
+public class PelangganSummary {
+    private final int userId;
+    private final int totalPenyewaan;
+    private final int penyewaanAktif;
+    private final double totalBelanja;
+    private final double dendaBelumDibayar;
+    private final int poinLoyalitas;
+    private final LocalDateTime loadedAt;
+
+    public PelangganSummary(int userId, int totalPenyewaan, int penyewaanAktif, double totalBelanja,
+                            double dendaBelumDibayar, int poinLoyalitas, LocalDateTime loadedAt) {
+        this.userId = userId;
+        this.totalPenyewaan = totalPenyewaan;
+        this.penyewaanAktif = penyewaanAktif;
+        this.totalBelanja = totalBelanja;
+        this.dendaBelumDibayar = dendaBelumDibayar;
+        this.poinLoyalitas = poinLoyalitas;
+        this.loadedAt = loadedAt;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getTotalPenyewaan() {
+        return totalPenyewaan;
+    }
+
+    public int getPenyewaanAktif() {
+        return penyewaanAktif;
+    }
+
+    public double getTotalBelanja() {
+        return totalBelanja;
+    }
+
+    public double getDendaBelumDibayar() {
+        return dendaBelumDibayar;
+    }
+
+    public int getPoinLoyalitas() {
+        return poinLoyalitas;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PelangganSummary{userId=" + userId + ", totalPenyewaan=" + totalPenyewaan +
+               ", penyewaanAktif=" + penyewaanAktif + ", totalBelanja=" + totalBelanja +
+               ", dendaBelumDibayar=" + dendaBelumDibayar + ", poinLoyalitas=" + poinLoyalitas + '}';
+    }
+}
\ No newline at end of file
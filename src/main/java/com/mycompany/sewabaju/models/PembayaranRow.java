@@ -0,0 +1,137 @@
+package com.mycompany.sewabaju.models;
+
+import com.mycompany.sewabaju.models.enums.MetodePembayaran;
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Baris baca (read model) untuk tabel pembayaran: pembayaran, penyewaan dan nama pelanggan
+ * dari satu query join. Immutable, aman dirender tanpa akses database.
+ */
+public class PembayaranRow {
+    private final int pembayaranId;
+    private final int sewaId;
+    private final int userId;
+    private final String namaPelanggan;
+    private final MetodePembayaran metodePembayaran;
+    private final double jumlah;
+    private final LocalDateTime tanggalBayar;
+    private final StatusPembayaran status;
+    private final String buktiPembayaran;
+    private final LocalDate tglSewa;
+    private final LocalDate tglKembali;
+    private final double totalHarga;
+    private final StatusPenyewaan statusPenyewaan;
+    private final int jumlahItem;
+
+    public PembayaranRow(int pembayaranId, int sewaId, int userId, String namaPelanggan,
+                         MetodePembayaran metodePembayaran, double jumlah, LocalDateTime tanggalBayar,
+                         StatusPembayaran status, String buktiPembayaran, LocalDate tglSewa,
+                         LocalDate tglKembali, double totalHarga, StatusPenyewaan statusPenyewaan,
+                         int jumlahItem) {
+        this.pembayaranId = pembayaranId;
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.namaPelanggan = namaPelanggan;
+        this.metodePembayaran = metodePembayaran;
+        this.jumlah = jumlah;
+        this.tanggalBayar = tanggalBayar;
+        this.status = status;
+        this.buktiPembayaran = buktiPembayaran;
+        this.tglSewa = tglSewa;
+        this.tglKembali = tglKembali;
+        this.totalHarga = totalHarga;
+        this.statusPenyewaan = statusPenyewaan;
+        this.jumlahItem = jumlahItem;
+    }
+
+    public int getPembayaranId() {
+        return pembayaranId;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getNamaPelanggan() {
+        return namaPelanggan != null ? namaPelanggan : "";
+    }
+
+    public MetodePembayaran getMetodePembayaran() {
+        return metodePembayaran;
+    }
+
+    public double getJumlah() {
+        return jumlah;
+    }
+
+    public LocalDateTime getTanggalBayar() {
+        return tanggalBayar;
+    }
+
+    public StatusPembayaran getStatus() {
+        return status;
+    }
+
+    public String getBuktiPembayaran() {
+        return buktiPembayaran;
+    }
+
+    public LocalDate getTglSewa() {
+        return tglSewa;
+    }
+
+    public LocalDate getTglKembali() {
+        return tglKembali;
+    }
+
+    public double getTotalHarga() {
+        return totalHarga;
+    }
+
+    public StatusPenyewaan getStatusPenyewaan() {
+        return statusPenyewaan;
+    }
+
+    public int getJumlahItem() {
+        return jumlahItem;
+    }
+
+    public String getMetodePembayaranDisplay() {
+        return metodePembayaran != null ? metodePembayaran.getDisplayName() : "";
+    }
+
+    public String getStatusDisplay() {
+        return status != null ? status.getDisplayName() : "";
+    }
+
+    public String getJumlahFormatted() {
+        return String.format("Rp %.0f", jumlah);
+    }
+
+    @Override
+    public String toString() {
+        return "Pembayaran #" + pembayaranId + " - " + getNamaPelanggan() + 
+               " - " + getJumlahFormatted() + " (" + getStatusDisplay() + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PembayaranRow that = (PembayaranRow) o;
+        return pembayaranId == that.pembayaranId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pembayaranId);
+    }
+}
\ No newline at end of file
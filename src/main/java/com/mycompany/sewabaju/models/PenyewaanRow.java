@@ -0,0 +1,87 @@
+package com.mycompany.sewabaju.models;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Baris baca (read model) untuk tabel laporan penyewaan, termasuk nama pelanggan
+ * dan jumlah item, dari satu query join.
+ */
+public class PenyewaanRow {
+    private final int sewaId;
+    private final int userId;
+    private final String namaPelanggan;
+    private final LocalDate tglSewa;
+    private final LocalDate tglKembali;
+    private final double totalHarga;
+    private final StatusPenyewaan status;
+    private final int jumlahItem;
+
+    public PenyewaanRow(int sewaId, int userId, String namaPelanggan, LocalDate tglSewa,
+                        LocalDate tglKembali, double totalHarga, StatusPenyewaan status,
+                        int jumlahItem) {
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.namaPelanggan = namaPelanggan;
+        this.tglSewa = tglSewa;
+        this.tglKembali = tglKembali;
+        this.totalHarga = totalHarga;
+        this.status = status;
+        this.jumlahItem = jumlahItem;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getNamaPelanggan() {
+        return namaPelanggan != null ? namaPelanggan : "";
+    }
+
+    public LocalDate getTglSewa() {
+        return tglSewa;
+    }
+
+    public LocalDate getTglKembali() {
+        return tglKembali;
+    }
+
+    public double getTotalHarga() {
+        return totalHarga;
+    }
+
+    public StatusPenyewaan getStatus() {
+        return status;
+    }
+
+    public int getJumlahItem() {
+        return jumlahItem;
+    }
+
+    public String getStatusDisplay() {
+        return status != null ? status.getDisplayName() : "";
+    }
+
+    @Override
+    public String toString() {
+        return "Penyewaan #" + sewaId + " - " + getNamaPelanggan() + " (" + getStatusDisplay() + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PenyewaanRow that = (PenyewaanRow) o;
+        return sewaId == that.sewaId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sewaId);
+    }
+}
\ No newline at end of file
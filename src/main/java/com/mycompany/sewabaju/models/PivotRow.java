@@ -0,0 +1,46 @@
+package com.mycompany.sewabaju.models;
+
+/**
+ * Satu kelompok hasil pivot analitik penyewaan (per tanggal, kategori, ukuran, dll).
+ */
+public class PivotRow {
+    private final int kunci;
+    private final String label;
+    private final long jumlahBaris;
+    private final long jumlahItem;
+    private final double totalPendapatan;
+
+    public PivotRow(int kunci, String label, long jumlahBaris, long jumlahItem, double totalPendapatan) {
+        this.kunci = kunci;
+        this.label = label;
+        this.jumlahBaris = jumlahBaris;
+        this.jumlahItem = jumlahItem;
+        this.totalPendapatan = totalPendapatan;
+    }
+
+    public int getKunci() {
+        return kunci;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getJumlahBaris() {
+        return jumlahBaris;
+    }
+
+    public long getJumlahItem() {
+        return jumlahItem;
+    }
+
+    public double getTotalPendapatan() {
+        return totalPendapatan;
+    }
+
+    @Override
+    public String toString() {
+        return "PivotRow{label=" + label + ", jumlahItem=" + jumlahItem +
+               ", totalPendapatan=" + totalPendapatan + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.mycompany.sewabaju.models;
+
+public class VerifikasiResult {
+    private final int pembayaranId;
+    private final int sewaId;
+    private final int userId;
+    private final double jumlah;
+    private final String buktiPembayaran;
+    private final boolean berhasil;
+    private final String pesan;
+
+    public VerifikasiResult(int pembayaranId, int sewaId, int userId, double jumlah,
+                            String buktiPembayaran, boolean berhasil, String pesan) {
+        this.pembayaranId = pembayaranId;
+        this.sewaId = sewaId;
+        this.userId = userId;
+        this.jumlah = jumlah;
+        this.buktiPembayaran = buktiPembayaran;
+        this.berhasil = berhasil;
+        this.pesan = pesan;
+    }
+
+    public int getPembayaranId() {
+        return pembayaranId;
+    }
+
+    public int getSewaId() {
+        return sewaId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public double getJumlah() {
+        return jumlah;
+    }
+
+    public String getBuktiPembayaran() {
+        return buktiPembayaran;
+    }
+
+    public boolean isBerhasil() {
+        return berhasil;
+    }
+
+    public String getPesan() {
+        return pesan;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifikasiResult{pembayaranId=" + pembayaranId + ", sewaId=" + sewaId +
+               ", berhasil=" + berhasil + ", pesan=" + pesan + '}';
+    }
+}
\ No newline at end of file
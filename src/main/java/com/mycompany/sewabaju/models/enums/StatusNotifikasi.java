@@ -0,0 +1,34 @@
+package com.mycompany.sewabaju.models.enums;
+
+public enum StatusNotifikasi {
+    MENUNGGU("Menunggu"),
+    TERKIRIM("Terkirim"),
+    GAGAL("Gagal");
+    
+    private final String displayName;
+    
+    StatusNotifikasi(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+    
+    public static StatusNotifikasi fromString(String text) {
+        if (text == null) return null;
+        
+        for (StatusNotifikasi status : StatusNotifikasi.values()) {
+            if (status.name().equalsIgnoreCase(text) || 
+                status.displayName.equalsIgnoreCase(text)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
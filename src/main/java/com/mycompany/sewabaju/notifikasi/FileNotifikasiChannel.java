@@ -0,0 +1,74 @@
+package com.mycompany.sewabaju.notifikasi;
+
+import com.mycompany.sewabaju.models.Notifikasi;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pengganti SMTP untuk pengujian: setiap notifikasi ditulis satu baris ke file
+ * (key, tujuan, jenis, pesan, dipisah tab). Key yang sudah pernah ditulis dilewati.
+ */
+public class FileNotifikasiChannel implements NotifikasiChannel {
+
+    private final Path file;
+    private Set<String> terkirim;
+
+    public FileNotifikasiChannel() {
+        this(Paths.get(System.getProperty("sewabaju.notifikasi.file", "notifikasi/outbox.log")));
+    }
+
+    public FileNotifikasiChannel(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void send(Notifikasi notifikasi) throws IOException {
+        if (terkirim == null) {
+            terkirim = loadKeys();
+        }
+        if (terkirim.contains(notifikasi.getIdempotencyKey())) {
+            return;
+        }
+
+        String tujuan = notifikasi.isUntukAdmin() ? "admin" : "user:" + notifikasi.getUserId();
+        String line = notifikasi.getIdempotencyKey() + "\t" + tujuan + "\t" + notifikasi.getJenis() + "\t" +
+                      LocalDateTime.now() + "\t" + notifikasi.getPesan().replace('\n', ' ') + System.lineSeparator();
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, line, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        terkirim.add(notifikasi.getIdempotencyKey());
+    }
+
+    private Set<String> loadKeys() throws IOException {
+        Set<String> keys = new HashSet<>();
+        if (!Files.exists(file)) {
+            return keys;
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                keys.add(line.substring(0, tab));
+            }
+        }
+        return keys;
+    }
+}
\ No newline at end of file
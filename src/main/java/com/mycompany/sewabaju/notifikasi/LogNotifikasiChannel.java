@@ -0,0 +1,20 @@
+package com.mycompany.sewabaju.notifikasi;
+
+import com.mycompany.sewabaju.models.Notifikasi;
+import java.util.logging.Logger;
+
+public class LogNotifikasiChannel implements NotifikasiChannel {
+
+    private static final Logger LOGGER = Logger.getLogger(LogNotifikasiChannel.class.getName());
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void send(Notifikasi notifikasi) {
+        String tujuan = notifikasi.isUntukAdmin() ? "Admin" : "User #" + notifikasi.getUserId();
+        LOGGER.info("NOTIFICATION: To " + tujuan + " - " + notifikasi.getPesan());
+    }
+}
\ No newline at end of file
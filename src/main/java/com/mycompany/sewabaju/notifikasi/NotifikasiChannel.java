@@ -0,0 +1,15 @@
+package com.mycompany.sewabaju.notifikasi;
+
+import com.mycompany.sewabaju.models.Notifikasi;
+
+/**
+ * Tujuan pengiriman notifikasi dari outbox. Pengiriman bersifat at-least-once: notifikasi yang
+ * sama bisa terkirim ulang jika terminal mati sebelum status TERKIRIM tersimpan, jadi channel
+ * sebaiknya memakai idempotency key untuk membuang duplikat.
+ */
+public interface NotifikasiChannel {
+
+    String getName();
+
+    void send(Notifikasi notifikasi) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.mycompany.sewabaju.server;
+
+import com.mycompany.sewabaju.models.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ApiRequest {
+    
+    private final String method;
+    private final String path;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final Map<String, Object> body;
+    private final String remoteAddress;
+    private final String token;
+    private final User user;
+    
+    public ApiRequest(String method, String path, Map<String, String> pathParams,
+                      Map<String, String> queryParams, Map<String, Object> body,
+                      String remoteAddress, String token, User user) {
+        this.method = method;
+        this.path = path;
+        this.pathParams = pathParams;
+        this.queryParams = queryParams;
+        this.body = body != null ? body : Collections.emptyMap();
+        this.remoteAddress = remoteAddress;
+        this.token = token;
+        this.user = user;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public int getIntParam(String name) {
+        String value = pathParams.get(name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Parameter '" + name + "' harus berupa angka");
+        }
+    }
+    
+    public String getQuery(String name) {
+        return queryParams.get(name);
+    }
+    
+    public String getBodyString(String name) {
+        Object value = body.get(name);
+        return value != null ? value.toString() : null;
+    }
+    
+    public List<Integer> getBodyIntList(String name) {
+        if (!(body.get(name) instanceof List<?> values)) {
+            throw ApiException.badRequest("Field '" + name + "' harus berupa array angka");
+        }
+        
+        List<Integer> result = new ArrayList<>();
+        for (Object value : values) {
+            if (!(value instanceof Long number)) {
+                throw ApiException.badRequest("Field '" + name + "' harus berupa array angka");
+            }
+            result.add(number.intValue());
+        }
+        return result;
+    }
+}
\ No newline at end of file
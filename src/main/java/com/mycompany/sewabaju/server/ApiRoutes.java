@@ -0,0 +1,461 @@
+package com.mycompany.sewabaju.server;
+
+import com.mycompany.sewabaju.database.ConnectionPool;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.exceptions.AuthenticationException;
+import com.mycompany.sewabaju.models.Admin;
+import com.mycompany.sewabaju.models.Baju;
+import com.mycompany.sewabaju.models.DashboardSnapshot;
+import com.mycompany.sewabaju.models.Denda;
+import com.mycompany.sewabaju.models.DendaSummary;
+import com.mycompany.sewabaju.models.DetailBaju;
+import com.mycompany.sewabaju.models.DetailPenyewaan;
+import com.mycompany.sewabaju.models.DeviceToken;
+import com.mycompany.sewabaju.models.Kategori;
+import com.mycompany.sewabaju.models.Pelanggan;
+import com.mycompany.sewabaju.models.PelangganSummary;
+import com.mycompany.sewabaju.models.Pembayaran;
+import com.mycompany.sewabaju.models.PembayaranRow;
+import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.User;
+import com.mycompany.sewabaju.models.VerifikasiResult;
+import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.models.enums.StatusBayarDenda;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.server.ApiServer.Access;
+import com.mycompany.sewabaju.services.AuthService;
+import com.mycompany.sewabaju.services.BajuService;
+import com.mycompany.sewabaju.services.DashboardService;
+import com.mycompany.sewabaju.services.DendaLedgerService;
+import com.mycompany.sewabaju.services.DendaService;
+import com.mycompany.sewabaju.services.DeviceTokenService;
+import com.mycompany.sewabaju.services.PelangganStatsService;
+import com.mycompany.sewabaju.services.PembayaranService;
+import com.mycompany.sewabaju.services.PenyewaanService;
+import com.mycompany.sewabaju.utils.AuthExecutor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Tabel endpoint API dan konversi model ke struktur JSON.
+ */
+final class ApiRoutes {
+    
+    // Snapshot dashboard lebih tua dari ini di-refresh saat diminta
+    private static final long DASHBOARD_MAX_AGE_SECONDS = 60;
+    
+    private ApiRoutes() {
+    }
+    
+    static void register(ApiServer server) {
+        registerSystem(server);
+        registerAuth(server);
+        registerBaju(server);
+        registerPenyewaan(server);
+        registerPembayaran(server);
+        registerDenda(server);
+        registerDeviceTokens(server);
+    }
+    
+    private static void registerSystem(ApiServer server) {
+        server.route("GET", "/health", Access.PUBLIC, req -> {
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("status", "UP");
+            health.put("time", LocalDateTime.now());
+            return health;
+        });
+        
+        server.route("GET", "/metrics", Access.ADMIN, req -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", server.getMetrics().snapshot());
+            result.put("sessions", server.getActiveSessionCount());
+            
+            ConnectionPool pool = DatabaseConnection.getInstance().getPool();
+            if (pool != null) {
+                Map<String, Object> poolStats = new LinkedHashMap<>();
+                poolStats.put("active", pool.getActiveCount());
+                poolStats.put("idle", pool.getIdleCount());
+                poolStats.put("maxActive", pool.getMaxActive());
+                poolStats.put("borrowed", pool.getBorrowedCount());
+                poolStats.put("created", pool.getCreatedCount());
+                poolStats.put("timeouts", pool.getTimeoutCount());
+                poolStats.put("avgWaitMs", pool.getAverageWaitMillis());
+                result.put("pool", poolStats);
+            }
+            
+            result.put("auth", AuthExecutor.getInstance().getMetricsSummary());
+            return result;
+        });
+        
+        server.route("GET", "/dashboard", Access.ADMIN, req -> {
+            DashboardService dashboardService = DashboardService.getInstance();
+            DashboardSnapshot snapshot = dashboardService.getSnapshot();
+            if (snapshot == null || snapshot.getLastUpdated()
+                    .isBefore(LocalDateTime.now().minusSeconds(DASHBOARD_MAX_AGE_SECONDS))) {
+                snapshot = dashboardService.refresh();
+            }
+            
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("totalPenyewaanHariIni", snapshot.getTotalPenyewaanHariIni());
+            map.put("pendapatanBulanIni", snapshot.getPendapatanBulanIni());
+            map.put("jumlahPelanggan", snapshot.getJumlahPelanggan());
+            map.put("pembayaranPending", snapshot.getPembayaranPending());
+            map.put("recentPenyewaan", mapAll(snapshot.getRecentPenyewaan(), ApiRoutes::penyewaanSummary));
+            map.put("lastUpdated", snapshot.getLastUpdated());
+            return map;
+        });
+    }
+    
+    private static void registerAuth(ApiServer server) {
+        server.route("POST", "/login", Access.PUBLIC, req -> {
+            String email = req.getBodyString("email");
+            String password = req.getBodyString("password");
+            
+            // Throttle per alamat client, bukan per hostname server
+            User user = loginBounded(email, password, req.getRemoteAddress());
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("token", server.openSession(user));
+            result.put("user", user(user));
+            return result;
+        });
+        
+        server.route("POST", "/logout", Access.USER, req -> {
+            server.closeSession(req.getToken());
+            return true;
+        });
+        
+        server.route("GET", "/me", Access.USER, req -> user(req.getUser()));
+        
+        server.route("GET", "/me/summary", Access.USER, req ->
+            pelangganSummary(PelangganStatsService.getInstance().getSummary(req.getUser().getUserId())));
+    }
+    
+    private static void registerBaju(ApiServer server) {
+        BajuService bajuService = BajuService.getInstance();
+        
+        server.route("GET", "/baju", Access.PUBLIC, req -> {
+            String keyword = req.getQuery("q");
+            List<Baju> list = keyword != null && !keyword.isBlank()
+                ? bajuService.searchBaju(keyword)
+                : bajuService.getAllBaju();
+            return mapAll(list, ApiRoutes::baju);
+        });
+        
+        server.route("GET", "/baju/{id}", Access.PUBLIC, req -> {
+            Baju baju = bajuService.getBajuById(req.getIntParam("id"));
+            if (baju == null) {
+                throw ApiException.notFound("Baju tidak ditemukan");
+            }
+            return baju(baju);
+        });
+        
+        server.route("GET", "/kategori", Access.PUBLIC, req ->
+            mapAll(bajuService.getAllKategori(), ApiRoutes::kategori));
+    }
+    
+    private static void registerPenyewaan(ApiServer server) {
+        PenyewaanService penyewaanService = PenyewaanService.getInstance();
+        
+        server.route("GET", "/penyewaan", Access.USER, req -> {
+            List<Penyewaan> list;
+            if (req.getUser().getRole() == Role.ADMIN) {
+                String status = req.getQuery("status");
+                list = status != null
+                    ? penyewaanService.getPenyewaanByStatus(parseStatus(status))
+                    : penyewaanService.getAllPenyewaan();
+            } else {
+                list = penyewaanService.getPenyewaanByUserId(req.getUser().getUserId());
+            }
+            return mapAll(list, ApiRoutes::penyewaanSummary);
+        });
+        
+        server.route("GET", "/penyewaan/{id}", Access.USER, req -> {
+            Penyewaan penyewaan = findOwnedPenyewaan(req);
+            
+            Map<String, Object> map = penyewaanSummary(penyewaan);
+            map.put("items", mapAll(penyewaan.getDetailPenyewaanList(), ApiRoutes::detailPenyewaan));
+            
+            Pembayaran pembayaran = PembayaranService.getInstance().getPembayaranBySewaId(penyewaan.getSewaId());
+            map.put("pembayaran", pembayaran != null ? pembayaran(pembayaran) : null);
+            
+            DendaSummary denda = DendaService.getInstance().getDendaSummary(penyewaan.getSewaId());
+            Map<String, Object> dendaMap = new LinkedHashMap<>();
+            dendaMap.put("jumlahDenda", denda.getJumlahDenda());
+            dendaMap.put("total", denda.getTotal());
+            dendaMap.put("totalBelumDibayar", denda.getTotalBelumDibayar());
+            map.put("denda", dendaMap);
+            return map;
+        });
+        
+        server.route("POST", "/penyewaan/{id}/cancel", Access.USER, req -> {
+            Penyewaan penyewaan = findOwnedPenyewaan(req);
+            return penyewaanService.cancelPenyewaan(penyewaan.getSewaId());
+        });
+    }
+    
+    private static void registerPembayaran(ApiServer server) {
+        PembayaranService pembayaranService = PembayaranService.getInstance();
+        
+        server.route("GET", "/pembayaran/pending", Access.ADMIN, req ->
+            mapAll(pembayaranService.getPembayaranPending(), ApiRoutes::pembayaran));
+        
+        server.route("POST", "/pembayaran/claim", Access.ADMIN, req ->
+            mapAll(pembayaranService.claimPembayaran(adminId(req)), ApiRoutes::pembayaranRow));
+        
+        server.route("POST", "/pembayaran/release", Access.ADMIN, req -> {
+            pembayaranService.releaseClaims(adminId(req));
+            return true;
+        });
+        
+        server.route("POST", "/pembayaran/approve", Access.ADMIN, req ->
+            mapAll(pembayaranService.approvePembayaranBulk(req.getBodyIntList("ids"), adminId(req)),
+                   ApiRoutes::verifikasiResult));
+        
+        server.route("POST", "/pembayaran/reject", Access.ADMIN, req ->
+            mapAll(pembayaranService.rejectPembayaranBulk(req.getBodyIntList("ids"), adminId(req)),
+                   ApiRoutes::verifikasiResult));
+        
+        server.route("POST", "/pembayaran/{id}/approve", Access.ADMIN, req ->
+            pembayaranService.approvePembayaran(req.getIntParam("id"), adminId(req)));
+        
+        server.route("POST", "/pembayaran/{id}/reject", Access.ADMIN, req ->
+            pembayaranService.rejectPembayaran(req.getIntParam("id"), adminId(req)));
+    }
+    
+    private static void registerDenda(ApiServer server) {
+        server.route("GET", "/denda/unpaid", Access.ADMIN, req ->
+            mapAll(DendaService.getInstance().getUnpaidDenda(), ApiRoutes::denda));
+        
+        server.route("GET", "/denda/summary", Access.ADMIN, req -> {
+            DendaLedgerService ledger = DendaLedgerService.getInstance();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("outstanding", ledger.getOutstandingTotal());
+            map.put("byStatus", ledger.getTotalByStatus());
+            map.put("belumDibayarByJenis", ledger.getTotalByJenis(StatusBayarDenda.BELUM_DIBAYAR));
+            return map;
+        });
+    }
+    
+    private static void registerDeviceTokens(ApiServer server) {
+        DeviceTokenService deviceTokenService = DeviceTokenService.getInstance();
+        
+        server.route("GET", "/device-tokens", Access.ADMIN, req ->
+            mapAll(deviceTokenService.getActiveTokens(), ApiRoutes::deviceToken));
+        
+        // Terminal hilang atau dipakai bersama: token dicabut, login berikutnya minta password
+        server.route("POST", "/device-tokens/{id}/revoke", Access.ADMIN, req -> {
+            if (!deviceTokenService.revokeToken(req.getIntParam("id"))) {
+                throw ApiException.notFound("Token terminal tidak ditemukan");
+            }
+            return true;
+        });
+    }
+    
+    /**
+     * BCrypt dijalankan di AuthExecutor yang dibatasi, bukan di thread request, supaya lonjakan
+     * login tidak memakan semua core. Antrian penuh dijawab 503.
+     */
+    private static User loginBounded(String email, String password, String source) throws Exception {
+        try {
+            return AuthService.getInstance().loginAsync(email, password, source).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AuthenticationException 
+                    && cause.getCause() instanceof RejectedExecutionException) {
+                throw new ApiException(503, cause.getMessage());
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static Penyewaan findOwnedPenyewaan(ApiRequest req) {
+        Penyewaan penyewaan = PenyewaanService.getInstance().getPenyewaanById(req.getIntParam("id"));
+        
+        // Pelanggan lain mendapat 404 agar id penyewaan tidak bisa ditebak
+        if (penyewaan == null || (req.getUser().getRole() != Role.ADMIN
+                && penyewaan.getUserId() != req.getUser().getUserId())) {
+            throw ApiException.notFound("Penyewaan tidak ditemukan");
+        }
+        return penyewaan;
+    }
+    
+    // verified_by dan klaim merujuk admin_id, bukan user_id
+    private static int adminId(ApiRequest req) {
+        return ((Admin) req.getUser()).getAdminId();
+    }
+    
+    private static StatusPenyewaan parseStatus(String status) {
+        try {
+            return StatusPenyewaan.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Status penyewaan tidak dikenal: " + status);
+        }
+    }
+    
+    private static <T> List<Map<String, Object>> mapAll(List<T> list, Function<T, Map<String, Object>> mapper) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (list != null) {
+            for (T item : list) {
+                result.add(mapper.apply(item));
+            }
+        }
+        return result;
+    }
+    
+    private static Map<String, Object> user(User user) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("userId", user.getUserId());
+        map.put("nama", user.getNama());
+        map.put("email", user.getEmail());
+        map.put("role", user.getRole());
+        map.put("noHp", user.getNoHp());
+        if (user instanceof Pelanggan) {
+            Pelanggan pelanggan = (Pelanggan) user;
+            map.put("alamat", pelanggan.getAlamat());
+            map.put("poinLoyalitas", pelanggan.getPoinLoyalitas());
+        }
+        return map;
+    }
+    
+    private static Map<String, Object> pelangganSummary(PelangganSummary summary) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("userId", summary.getUserId());
+        map.put("totalPenyewaan", summary.getTotalPenyewaan());
+        map.put("penyewaanAktif", summary.getPenyewaanAktif());
+        map.put("totalBelanja", summary.getTotalBelanja());
+        map.put("dendaBelumDibayar", summary.getDendaBelumDibayar());
+        map.put("poinLoyalitas", summary.getPoinLoyalitas());
+        map.put("loadedAt", summary.getLoadedAt());
+        return map;
+    }
+    
+    private static Map<String, Object> kategori(Kategori kategori) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("kategoriId", kategori.getKategoriId());
+        map.put("namaKategori", kategori.getNamaKategori());
+        map.put("deskripsi", kategori.getDeskripsi());
+        return map;
+    }
+    
+    private static Map<String, Object> baju(Baju baju) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("bajuId", baju.getBajuId());
+        map.put("namaBaju", baju.getNamaBaju());
+        map.put("kategoriId", baju.getKategoriId());
+        map.put("namaKategori", baju.getNamaKategori());
+        map.put("deskripsi", baju.getDeskripsi());
+        map.put("foto", baju.getFoto());
+        map.put("totalStok", baju.getTotalStok());
+        map.put("rangeHarga", baju.getRangeHarga());
+        map.put("ukuran", mapAll(baju.getDetailBajuList(), ApiRoutes::detailBaju));
+        return map;
+    }
+    
+    private static Map<String, Object> detailBaju(DetailBaju detail) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("detailBajuId", detail.getDetailBajuId());
+        map.put("ukuran", detail.getUkuran());
+        map.put("hargaSewa", detail.getHargaSewa());
+        map.put("stok", detail.getStok());
+        map.put("kondisi", detail.getKondisi());
+        return map;
+    }
+    
+    private static Map<String, Object> penyewaanSummary(Penyewaan penyewaan) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sewaId", penyewaan.getSewaId());
+        map.put("userId", penyewaan.getUserId());
+        map.put("namaPelanggan", penyewaan.getNamaPelanggan());
+        map.put("tglSewa", penyewaan.getTglSewa());
+        map.put("tglKembali", penyewaan.getTglKembali());
+        map.put("tglKembaliAktual", penyewaan.getTglKembaliAktual());
+        map.put("totalHarga", penyewaan.getTotalHarga());
+        map.put("status", penyewaan.getStatus());
+        map.put("createdAt", penyewaan.getCreatedAt());
+        return map;
+    }
+    
+    private static Map<String, Object> detailPenyewaan(DetailPenyewaan detail) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("detailSewaId", detail.getDetailSewaId());
+        map.put("detailBajuId", detail.getDetailBajuId());
+        map.put("namaBaju", detail.getNamaBaju());
+        map.put("ukuran", detail.getUkuran());
+        map.put("jumlah", detail.getJumlah());
+        map.put("hargaPerItem", detail.getHargaPerItem());
+        map.put("subtotal", detail.getSubtotal());
+        map.put("kondisiSaatKembali", detail.getKondisiSaatKembali());
+        return map;
+    }
+    
+    private static Map<String, Object> pembayaran(Pembayaran pembayaran) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("pembayaranId", pembayaran.getPembayaranId());
+        map.put("sewaId", pembayaran.getSewaId());
+        map.put("metodePembayaran", pembayaran.getMetodePembayaran());
+        map.put("jumlah", pembayaran.getJumlah());
+        map.put("buktiPembayaran", pembayaran.getBuktiPembayaran());
+        map.put("status", pembayaran.getStatus());
+        map.put("tanggalBayar", pembayaran.getTanggalBayar());
+        map.put("verifiedBy", pembayaran.getVerifiedBy());
+        map.put("verifiedAt", pembayaran.getVerifiedAt());
+        return map;
+    }
+    
+    private static Map<String, Object> pembayaranRow(PembayaranRow row) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("pembayaranId", row.getPembayaranId());
+        map.put("sewaId", row.getSewaId());
+        map.put("namaPelanggan", row.getNamaPelanggan());
+        map.put("metodePembayaran", row.getMetodePembayaran());
+        map.put("jumlah", row.getJumlah());
+        map.put("buktiPembayaran", row.getBuktiPembayaran());
+        map.put("status", row.getStatus());
+        map.put("tanggalBayar", row.getTanggalBayar());
+        return map;
+    }
+    
+    private static Map<String, Object> verifikasiResult(VerifikasiResult result) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("pembayaranId", result.getPembayaranId());
+        map.put("berhasil", result.isBerhasil());
+        map.put("pesan", result.getPesan());
+        return map;
+    }
+    
+    private static Map<String, Object> deviceToken(DeviceToken token) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("tokenId", token.getTokenId());
+        map.put("userId", token.getUserId());
+        map.put("namaUser", token.getNamaUser());
+        map.put("terminal", token.getTerminal());
+        map.put("createdAt", token.getCreatedAt());
+        map.put("lastUsedAt", token.getLastUsedAt());
+        map.put("expiresAt", token.getExpiresAt());
+        return map;
+    }
+    
+    private static Map<String, Object> denda(Denda denda) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("dendaId", denda.getDendaId());
+        map.put("sewaId", denda.getSewaId());
+        map.put("detailSewaId", denda.getDetailSewaId());
+        map.put("jenisDenda", denda.getJenisDenda());
+        map.put("jumlah", denda.getJumlah());
+        map.put("keterangan", denda.getKeterangan());
+        map.put("statusBayar", denda.getStatusBayar());
+        map.put("createdAt", denda.getCreatedAt());
+        return map;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,372 @@
+package com.mycompany.sewabaju.server;
+
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.exceptions.AuthenticationException;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.exceptions.PembayaranException;
+import com.mycompany.sewabaju.exceptions.StokTidakCukupException;
+import com.mycompany.sewabaju.exceptions.ValidationException;
+import com.mycompany.sewabaju.models.User;
+import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.utils.Session;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mode server headless: service layer diekspos sebagai JSON di atas HttpServer JDK.
+ * Setiap request berjalan di virtual thread sendiri dengan koneksi pool dan Session
+ * per request, sehingga beberapa kasir dan front end web bisa memakai satu backend.
+ */
+public class ApiServer {
+    
+    private static final Logger LOGGER = Logger.getLogger(ApiServer.class.getName());
+    
+    public static final int DEFAULT_PORT = 8080;
+    private static final String CONTEXT = "/api";
+    private static final long SESSION_TTL_MILLIS = TimeUnit.HOURS.toMillis(8);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    
+    public enum Access {
+        PUBLIC, USER, ADMIN
+    }
+    
+    @FunctionalInterface
+    public interface Handler {
+        Object handle(ApiRequest request) throws Exception;
+    }
+    
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, ApiSession> sessions = new ConcurrentHashMap<>();
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final SecureRandom random = new SecureRandom();
+    private final int port;
+    
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private ScheduledFuture<?> sessionCleanup;
+    
+    public ApiServer(int port) {
+        this.port = port;
+        ApiRoutes.register(this);
+    }
+    
+    public void route(String method, String pattern, Access access, Handler handler) {
+        routes.add(new Route(method, pattern, access, handler));
+    }
+    
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            return;
+        }
+        
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext(CONTEXT + "/", this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        
+        sessionCleanup = TaskScheduler.getInstance().scheduleWithFixedDelay(
+            "api-session-cleanup", this::expireSessions, 10, 10, TimeUnit.MINUTES);
+        
+        LOGGER.info("API server listening on port " + port + " (" + routes.size() + " routes)");
+    }
+    
+    public synchronized void stop() {
+        if (httpServer == null) {
+            return;
+        }
+        
+        if (sessionCleanup != null) {
+            sessionCleanup.cancel(false);
+        }
+        httpServer.stop(2);
+        executor.shutdown();
+        httpServer = null;
+        sessions.clear();
+        
+        LOGGER.info("API server stopped");
+    }
+    
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+    
+    String openSession(User user) {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new ApiSession(user));
+        return token;
+    }
+    
+    void closeSession(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+    
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        metrics.requestStarted();
+        
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+        String routeName = method + " (unmatched)";
+        int status;
+        Object payload;
+        
+        try {
+            Map<String, String> pathParams = new HashMap<>();
+            Route route = match(method, path, pathParams);
+            if (route == null) {
+                throw ApiException.notFound("Endpoint tidak ditemukan: " + method + " " + path);
+            }
+            routeName = method + " " + route.pattern;
+            
+            String token = bearerToken(exchange);
+            User user = authorize(route, token);
+            
+            ApiRequest request = new ApiRequest(method, path, pathParams,
+                parseQuery(exchange.getRequestURI().getRawQuery()), readBody(exchange),
+                exchange.getRemoteAddress().getAddress().getHostAddress(), token, user);
+            
+            Object data = DatabaseConnection.getInstance().withPooledConnection(() -> {
+                Session.openScoped(user);
+                try {
+                    return route.handler.handle(request);
+                } finally {
+                    Session.closeScoped();
+                }
+            });
+            
+            status = 200;
+            payload = Collections.singletonMap("data", data);
+            
+        } catch (ApiException e) {
+            status = e.getStatus();
+            payload = error(e.getMessage());
+        } catch (ValidationException | StokTidakCukupException | PembayaranException e) {
+            status = 400;
+            payload = error(e.getMessage());
+        } catch (AuthenticationException e) {
+            status = 401;
+            payload = error(e.getMessage());
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.WARNING, "Database error on " + routeName, e);
+            status = 500;
+            payload = error(e.getMessage());
+        } catch (SQLException e) {
+            // Pool habis atau database tidak bisa dihubungi
+            LOGGER.warning("Database unavailable on " + routeName + ": " + e.getMessage());
+            status = 503;
+            payload = error("Database tidak tersedia, coba lagi nanti");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Unexpected error on " + routeName, e);
+            status = 500;
+            payload = error("Terjadi kesalahan pada server");
+        }
+        
+        try {
+            send(exchange, status, payload);
+        } catch (IOException e) {
+            LOGGER.fine("Client disconnected before response: " + e.getMessage());
+        } finally {
+            exchange.close();
+            metrics.record(routeName, status, System.nanoTime() - start);
+        }
+    }
+    
+    private Route match(String method, String path, Map<String, String> pathParams) {
+        String[] segments = split(path);
+        boolean pathMatched = false;
+        
+        for (Route route : routes) {
+            if (!route.matches(segments, pathParams)) {
+                continue;
+            }
+            if (route.method.equals(method)) {
+                return route;
+            }
+            pathMatched = true;
+            pathParams.clear();
+        }
+        
+        if (pathMatched) {
+            throw new ApiException(405, "Method " + method + " tidak didukung untuk " + path);
+        }
+        return null;
+    }
+    
+    private User authorize(Route route, String token) {
+        if (route.access == Access.PUBLIC && token == null) {
+            return null;
+        }
+        
+        ApiSession session = token != null ? sessions.get(token) : null;
+        long now = System.currentTimeMillis();
+        
+        if (session == null || now - session.lastSeen > SESSION_TTL_MILLIS) {
+            if (session != null) {
+                sessions.remove(token);
+            }
+            if (route.access == Access.PUBLIC) {
+                return null;
+            }
+            throw new AuthenticationException("Silakan login terlebih dahulu");
+        }
+        
+        session.lastSeen = now;
+        
+        if (route.access == Access.ADMIN && session.user.getRole() != Role.ADMIN) {
+            throw ApiException.forbidden("Hanya admin yang dapat mengakses endpoint ini");
+        }
+        return session.user;
+    }
+    
+    private void expireSessions() {
+        long cutoff = System.currentTimeMillis() - SESSION_TTL_MILLIS;
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.lastSeen < cutoff);
+        int removed = before - sessions.size();
+        if (removed > 0) {
+            LOGGER.fine("Expired " + removed + " API sessions");
+        }
+    }
+    
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            String token = header.substring(7).trim();
+            return token.isEmpty() ? null : token;
+        }
+        return null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body terlalu besar");
+            }
+            if (bytes.length == 0) {
+                return null;
+            }
+            
+            Object parsed = Json.parse(new String(bytes, StandardCharsets.UTF_8));
+            if (parsed != null && !(parsed instanceof Map)) {
+                throw ApiException.badRequest("Request body harus berupa objek JSON");
+            }
+            return (Map<String, Object>) parsed;
+        }
+    }
+    
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                       URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+    
+    private static void send(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = Json.write(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("error", message);
+        return map;
+    }
+    
+    private static String[] split(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        if (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+    
+    private static final class Route {
+        final String method;
+        final String pattern;
+        final String[] segments;
+        final Access access;
+        final Handler handler;
+        
+        Route(String method, String pattern, Access access, Handler handler) {
+            this.method = method;
+            this.pattern = pattern;
+            this.segments = split(pattern);
+            this.access = access;
+            this.handler = handler;
+        }
+        
+        boolean matches(String[] path, Map<String, String> params) {
+            if (path.length != segments.length) {
+                return false;
+            }
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    params.put(segment.substring(1, segment.length() - 1), path[i]);
+                } else if (!segment.equals(path[i])) {
+                    params.clear();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    private static final class ApiSession {
+        final User user;
+        volatile long lastSeen;
+        
+        ApiSession(User user) {
+            this.user = user;
+            this.lastSeen = System.currentTimeMillis();
+        }
+    }
+}
\ No newline at end of file
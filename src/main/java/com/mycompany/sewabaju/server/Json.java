@@ -0,0 +1,241 @@
+package com.mycompany.sewabaju.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON writer/parser minimal untuk API server, cukup untuk map, list, string, angka dan boolean.
+ */
+public final class Json {
+    
+    private Json() {
+    }
+    
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder(256);
+        writeValue(sb, value);
+        return sb.toString();
+    }
+    
+    private static void writeValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            writeString(sb, (String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                sb.append("null");
+            } else if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+                sb.append((long) d);
+            } else {
+                sb.append(d);
+            }
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                writeString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                writeValue(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) sb.append(',');
+                first = false;
+                writeValue(sb, item);
+            }
+            sb.append(']');
+        } else if (value instanceof Enum) {
+            writeString(sb, ((Enum<?>) value).name());
+        } else {
+            // LocalDate, LocalDateTime, dll. ditulis dengan format ISO dari toString()
+            writeString(sb, value.toString());
+        }
+    }
+    
+    private static void writeString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+    
+    public static Object parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        Parser parser = new Parser(json);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos < json.length()) {
+            throw ApiException.badRequest("JSON tidak valid: karakter berlebih di posisi " + parser.pos);
+        }
+        return value;
+    }
+    
+    private static final class Parser {
+        private final String s;
+        private int pos;
+        
+        Parser(String s) {
+            this.s = s;
+        }
+        
+        Object readValue() {
+            skipWhitespace();
+            if (pos >= s.length()) {
+                throw error("nilai tidak lengkap");
+            }
+            char c = s.charAt(pos);
+            switch (c) {
+                case '{': return readObject();
+                case '[': return readArray();
+                case '"': return readString();
+                case 't': expect("true"); return Boolean.TRUE;
+                case 'f': expect("false"); return Boolean.FALSE;
+                case 'n': expect("null"); return null;
+                default: return readNumber();
+            }
+        }
+        
+        private Map<String, Object> readObject() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("nama field harus string");
+                }
+                String key = readString();
+                skipWhitespace();
+                if (peek() != ':') {
+                    throw error("':' diharapkan");
+                }
+                pos++;
+                map.put(key, readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == '}') return map;
+                if (c != ',') throw error("',' atau '}' diharapkan");
+            }
+        }
+        
+        private List<Object> readArray() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == ']') return list;
+                if (c != ',') throw error("',' atau ']' diharapkan");
+            }
+        }
+        
+        private String readString() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    char e = s.charAt(pos++);
+                    switch (e) {
+                        case 'n': sb.append('\n'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'b': sb.append('\b'); break;
+                        case 'f': sb.append('\f'); break;
+                        case 'u':
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                            pos += 4;
+                            break;
+                        default: sb.append(e);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error("string tidak ditutup");
+        }
+        
+        private Number readNumber() {
+            int start = pos;
+            while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String number = s.substring(start, pos);
+            try {
+                if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                    return Double.parseDouble(number);
+                }
+                return Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw error("angka tidak valid '" + number + "'");
+            }
+        }
+        
+        private void expect(String literal) {
+            if (!s.startsWith(literal, pos)) {
+                throw error("'" + literal + "' diharapkan");
+            }
+            pos += literal.length();
+        }
+        
+        private char peek() {
+            if (pos >= s.length()) {
+                throw error("JSON tidak lengkap");
+            }
+            return s.charAt(pos);
+        }
+        
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+        }
+        
+        private ApiException error(String message) {
+            return ApiException.badRequest("JSON tidak valid: " + message + " di posisi " + pos);
+        }
+    }
+}
\ No newline at end of file
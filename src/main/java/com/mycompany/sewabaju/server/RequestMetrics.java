@@ -0,0 +1,100 @@
+package com.mycompany.sewabaju.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency per route. Histogram memakai bucket log2 mikrodetik sehingga pencatatan
+ * hanya beberapa operasi atomik tanpa lock; persentil adalah batas atas bucket.
+ */
+public class RequestMetrics {
+    
+    private static final int BUCKETS = 40;
+    
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+    
+    public void requestStarted() {
+        inFlight.increment();
+    }
+    
+    public void record(String route, int status, long elapsedNanos) {
+        inFlight.decrement();
+        routes.computeIfAbsent(route, k -> new RouteStats()).record(status, elapsedNanos);
+    }
+    
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", inFlight.sum());
+        
+        Map<String, Object> perRoute = new TreeMap<>();
+        routes.forEach((route, stats) -> perRoute.put(route, stats.toMap()));
+        result.put("routes", perRoute);
+        return result;
+    }
+    
+    private static final class RouteStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        
+        void record(int status, long elapsedNanos) {
+            count.increment();
+            if (status >= 500) {
+                errors.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            
+            long micros = Math.max(1, elapsedNanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+            histogram.incrementAndGet(bucket);
+        }
+        
+        double percentileMillis(double p) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return (1L << (i + 1)) / 1000.0;
+                }
+            }
+            return maxNanos.get() / 1_000_000.0;
+        }
+        
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", n);
+            map.put("errors", errors.sum());
+            map.put("avgMs", n > 0 ? round(totalNanos.sum() / 1_000_000.0 / n) : 0);
+            map.put("maxMs", round(maxNanos.get() / 1_000_000.0));
+            map.put("p50Ms", round(percentileMillis(0.50)));
+            map.put("p95Ms", round(percentileMillis(0.95)));
+            map.put("p99Ms", round(percentileMillis(0.99)));
+            return map;
+        }
+        
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
\ No newline at end of file
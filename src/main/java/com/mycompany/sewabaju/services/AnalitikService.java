@@ -0,0 +1,263 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.analitik.Dimensi;
+import com.mycompany.sewabaju.analitik.FactFilter;
+import com.mycompany.sewabaju.analitik.SewaFact;
+import com.mycompany.sewabaju.analitik.SewaFactStore;
+import com.mycompany.sewabaju.dao.BajuDAO;
+import com.mycompany.sewabaju.dao.DetailPenyewaanDAO;
+import com.mycompany.sewabaju.dao.KategoriDAO;
+import com.mycompany.sewabaju.dao.UserDAO;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PenyewaanCreated;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.Baju;
+import com.mycompany.sewabaju.models.Kategori;
+import com.mycompany.sewabaju.models.PivotRow;
+import com.mycompany.sewabaju.models.User;
+import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+import com.mycompany.sewabaju.utils.DateUtil;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Analitik penyewaan dari store kolom lokal. Store di-refresh inkremental dari watermark
+ * penyewaan.updated_at; pivot hanya membaca file ter-map dan tidak membebani MySQL.
+ * Kategori baju dibekukan saat baris terakhir di-refresh; gunakan rebuild() bila baju
+ * dipindah kategori atau penyewaan dihapus.
+ */
+public class AnalitikService {
+
+    private static final Logger LOGGER = Logger.getLogger(AnalitikService.class.getName());
+
+    private static final Path STORE_DIR = Paths.get(System.getProperty("sewabaju.analitik.dir", "reports/analitik"));
+    private static final int FETCH_SIZE = 5000;
+    // Sama dengan change polling: updated_at diisi saat statement, bukan saat commit
+    private static final long OVERLAP_MILLIS = Long.getLong("sewabaju.analitik.overlapMillis", 60_000);
+    // Transaksi yang commit lebih lambat dari overlap tertangkap rekonsiliasi berikutnya
+    private static final long RECONCILE_MILLIS = Long.getLong("sewabaju.analitik.reconcileMillis", 3_600_000);
+    private static final LocalDateTime AWAL = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter BULAN_FORMAT = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    private final DetailPenyewaanDAO detailPenyewaanDAO;
+    private final KategoriDAO kategoriDAO;
+    private final BajuDAO bajuDAO;
+    private final UserDAO userDAO;
+    private volatile SewaFactStore store;
+    private volatile boolean dirty = true;
+    // Watermark saat rekonsiliasi terakhir; null berarti belum ada sejak aplikasi dibuka
+    private LocalDateTime reconciledFrom;
+    private volatile long lastReconcileMillis;
+
+    private static AnalitikService instance;
+
+    private AnalitikService() {
+        this.detailPenyewaanDAO = new DetailPenyewaanDAO();
+        this.kategoriDAO = new KategoriDAO();
+        this.bajuDAO = new BajuDAO();
+        this.userDAO = new UserDAO();
+
+        EventBus bus = EventBus.getInstance();
+        bus.subscribe(PenyewaanCreated.class, event -> dirty = true);
+        bus.subscribe(PenyewaanStatusChanged.class, event -> dirty = true);
+    }
+
+    public static AnalitikService getInstance() {
+        if (instance == null) {
+            synchronized (AnalitikService.class) {
+                if (instance == null) {
+                    instance = new AnalitikService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void start() {
+        // Build awal bisa lama untuk riwayat bertahun-tahun, jangan tahan startup
+        TaskScheduler.getInstance().schedule("analitik-refresh", this::refreshQuietly, 0, TimeUnit.SECONDS);
+    }
+
+    public synchronized int refresh() throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            SewaFactStore factStore = openStore();
+
+            LocalDateTime now = detailPenyewaanDAO.getDatabaseTime();
+            LocalDateTime watermark = factStore.getWatermark();
+            boolean reconcile = watermark != null && start - lastReconcileMillis >= RECONCILE_MILLIS;
+            LocalDateTime since = AWAL;
+            if (reconcile) {
+                since = (reconciledFrom != null ? reconciledFrom : watermark.minus(RECONCILE_MILLIS, ChronoUnit.MILLIS))
+                        .minus(OVERLAP_MILLIS, ChronoUnit.MILLIS);
+            } else if (watermark != null) {
+                since = watermark.minus(OVERLAP_MILLIS, ChronoUnit.MILLIS);
+            }
+            // Event selama refresh menandai dirty lagi untuk pivot berikutnya
+            dirty = false;
+
+            List<SewaFact> batch = new ArrayList<>(FETCH_SIZE);
+            int rows = detailPenyewaanDAO.forEachFactSince(since, FETCH_SIZE, fact -> {
+                batch.add(fact);
+                if (batch.size() >= FETCH_SIZE) {
+                    applyBatch(factStore, batch);
+                }
+            });
+            applyBatch(factStore, batch);
+            factStore.commit(now);
+            if (reconcile || watermark == null) {
+                reconciledFrom = now;
+                lastReconcileMillis = start;
+            }
+
+            if (rows > 0) {
+                LOGGER.info("Analitik refreshed" + (watermark == null ? " (full)" : reconcile ? " (reconcile)" : "") +
+                           " | Rows: " + rows + " | Total: " + factStore.getRowCount() +
+                           " | " + (System.currentTimeMillis() - start) + " ms");
+            }
+            return rows;
+        } catch (IOException | UncheckedIOException e) {
+            dirty = true;
+            LOGGER.log(Level.SEVERE, "Error writing analitik store", e);
+            throw new DatabaseException("Gagal refresh analitik: " + e.getMessage(), e);
+        } catch (DatabaseException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    public synchronized int rebuild() throws DatabaseException {
+        try {
+            openStore().reset();
+        } catch (IOException e) {
+            throw new DatabaseException("Gagal rebuild analitik: " + e.getMessage(), e);
+        }
+        return refresh();
+    }
+
+    public List<PivotRow> pivot(FactFilter filter, Dimensi dimensi) throws DatabaseException {
+        if (dirty || store == null || System.currentTimeMillis() - lastReconcileMillis >= RECONCILE_MILLIS) {
+            refresh();
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Integer, long[]> groups = store.aggregate(filter, dimensi);
+        Map<Integer, String> labels = loadLabels(dimensi);
+
+        List<PivotRow> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<Integer, long[]> entry : groups.entrySet()) {
+            int kunci = entry.getKey();
+            long[] acc = entry.getValue();
+            rows.add(new PivotRow(kunci, label(dimensi, kunci, labels), acc[0], acc[1], acc[2] / 100.0));
+        }
+
+        if (dimensi.isWaktu()) {
+            rows.sort(Comparator.comparingInt(PivotRow::getKunci));
+        } else {
+            rows.sort(Comparator.comparingDouble(PivotRow::getTotalPendapatan).reversed());
+        }
+
+        LOGGER.fine("Pivot " + dimensi + " | Groups: " + rows.size() +
+                    " | " + (System.currentTimeMillis() - start) + " ms");
+        return rows;
+    }
+
+    public synchronized void close() {
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close analitik store", e);
+            }
+            store = null;
+        }
+    }
+
+    private SewaFactStore openStore() throws IOException {
+        if (store == null) {
+            store = SewaFactStore.open(STORE_DIR);
+        }
+        return store;
+    }
+
+    private static void applyBatch(SewaFactStore factStore, List<SewaFact> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            factStore.apply(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+    }
+
+    private Map<Integer, String> loadLabels(Dimensi dimensi) throws DatabaseException {
+        Map<Integer, String> labels = new HashMap<>();
+
+        switch (dimensi) {
+            case KATEGORI:
+                for (Kategori kategori : kategoriDAO.findAll()) {
+                    labels.put(kategori.getKategoriId(), kategori.getNamaKategori());
+                }
+                break;
+            case BAJU:
+                for (Baju baju : bajuDAO.findAll()) {
+                    labels.put(baju.getBajuId(), baju.getNamaBaju());
+                }
+                break;
+            case PELANGGAN:
+                for (User user : userDAO.findByRole(Role.PELANGGAN)) {
+                    labels.put(user.getUserId(), user.getNama());
+                }
+                break;
+            default:
+                break;
+        }
+        return labels;
+    }
+
+    private static String label(Dimensi dimensi, int kunci, Map<Integer, String> labels) {
+        switch (dimensi) {
+            case TANGGAL:
+                return DateUtil.formatDate(LocalDate.ofEpochDay(kunci));
+            case BULAN:
+                return SewaFactStore.decodeBulan(kunci).format(BULAN_FORMAT);
+            case UKURAN:
+                Ukuran ukuran = SewaFactStore.decodeUkuran(kunci);
+                return ukuran != null ? ukuran.getCode() : "-";
+            case STATUS:
+                StatusPenyewaan status = SewaFactStore.decodeStatus(kunci);
+                return status != null ? status.getDisplayName() : "-";
+            default:
+                return labels.getOrDefault(kunci, "#" + kunci);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.WARNING, "Analitik refresh failed", e);
+        }
+    }
+}
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.mycompany.sewabaju.services;
 import com.mycompany.sewabaju.dao.AdminDAO;
 import com.mycompany.sewabaju.dao.PelangganDAO;
 import com.mycompany.sewabaju.dao.UserDAO;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PelangganRegistered;
 import com.mycompany.sewabaju.exceptions.AuthenticationException;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
@@ -10,12 +12,16 @@ import com.mycompany.sewabaju.models.Admin;
 import com.mycompany.sewabaju.models.Pelanggan;
 import com.mycompany.sewabaju.models.User;
 import com.mycompany.sewabaju.models.enums.Role;
+import com.mycompany.sewabaju.utils.AuthExecutor;
+import com.mycompany.sewabaju.utils.LoginThrottle;
 import com.mycompany.sewabaju.utils.PasswordUtil;
 import com.mycompany.sewabaju.utils.Session;
 import com.mycompany.sewabaju.utils.ValidationUtil;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import com.mycompany.sewabaju.database.DatabaseConnection;
 
 public class AuthService {
@@ -23,12 +29,14 @@ public class AuthService {
     private final UserDAO userDAO;
     private final AdminDAO adminDAO;
     private final PelangganDAO pelangganDAO;
+    private final LoginThrottle loginThrottle;
     private static AuthService instance;
     
     private AuthService() {
         this.userDAO = new UserDAO();
         this.adminDAO = new AdminDAO();
         this.pelangganDAO = new PelangganDAO();
+        this.loginThrottle = LoginThrottle.getInstance();
     }
     
     public static AuthService getInstance() {
@@ -43,25 +51,51 @@ public class AuthService {
     }
     
     public User login(String email, String password) throws AuthenticationException {
+        return login(email, password, LoginThrottle.LOCAL_SOURCE);
+    }
+    
+    public User login(String email, String password, String source) throws AuthenticationException {
+        validateLoginInput(email, password);
+        acquireLoginToken(email, source);
+        return authenticate(email, password, source);
+    }
+    
+    private void validateLoginInput(String email, String password) throws ValidationException {
+        if (!ValidationUtil.isValidEmail(email)) {
+            throw new ValidationException("Format email tidak valid");
+        }
+        
+        if (ValidationUtil.isEmpty(password)) {
+            throw new ValidationException("Password tidak boleh kosong");
+        }
+    }
+    
+    private void acquireLoginToken(String email, String source) throws AuthenticationException {
+        // Ditolak sebelum lookup database maupun hash BCrypt
+        long waitSeconds = loginThrottle.tryAcquire(email, source);
+        if (waitSeconds > 0) {
+            throw new AuthenticationException(
+                "Terlalu banyak percobaan login. Coba lagi dalam " + waitSeconds + " detik");
+        }
+    }
+    
+    private User authenticate(String email, String password, String source) throws AuthenticationException {
         try {
-            if (!ValidationUtil.isValidEmail(email)) {
-                throw new ValidationException("Format email tidak valid");
-            }
-            
-            if (ValidationUtil.isEmpty(password)) {
-                throw new ValidationException("Password tidak boleh kosong");
-            }
-            
             User user = userDAO.findByEmail(email);
             
             if (user == null) {
+                loginThrottle.recordFailure(email, source);
                 throw new AuthenticationException("Email tidak terdaftar");
             }
             
             if (!PasswordUtil.verifyPassword(password, user.getPassword())) {
+                loginThrottle.recordFailure(email, source);
                 throw new AuthenticationException("Password salah");
             }
             
+            loginThrottle.recordSuccess(email, source);
+            rehashIfNeeded(user, password);
+            
             User completeUser = loadCompleteUserData(user);
             
             if (completeUser == null) {
@@ -118,6 +152,7 @@ public class AuthService {
             pelanggan.setPelangganId(pelangganId);
             
             conn.commit();
+            EventBus.getInstance().publish(new PelangganRegistered(userId));
             
             System.out.println("Register successful: " + pelanggan.getNama());
             
@@ -221,11 +256,112 @@ public class AuthService {
         }
     }
     
+    public CompletableFuture<User> loginAsync(String email, String password) {
+        return loginAsync(email, password, LoginThrottle.LOCAL_SOURCE);
+    }
+    
+    public CompletableFuture<User> loginAsync(String email, String password, String source) {
+        return loginAsync(email, password, source, false);
+    }
+    
+    /**
+     * @param rememberTerminal simpan token terminal di task auth yang sama, selagi connection
+     *                         pool masih dipegang thread auth
+     */
+    public CompletableFuture<User> loginAsync(String email, String password, boolean rememberTerminal) {
+        return loginAsync(email, password, LoginThrottle.LOCAL_SOURCE, rememberTerminal);
+    }
+    
+    private CompletableFuture<User> loginAsync(String email, String password, String source, 
+                                               boolean rememberTerminal) {
+        try {
+            validateLoginInput(email, password);
+            acquireLoginToken(email, source);
+        } catch (ValidationException | AuthenticationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return AuthExecutor.getInstance().submit(() -> {
+                User user = authenticate(email, password, source);
+                if (rememberTerminal) {
+                    rememberTerminal(user);
+                }
+                return user;
+            })
+            .exceptionallyCompose(t -> {
+                if (t instanceof RejectedExecutionException) {
+                    return CompletableFuture.failedFuture(
+                        new AuthenticationException("Server sedang sibuk, coba lagi sebentar", t));
+                }
+                return CompletableFuture.failedFuture(t);
+            });
+    }
+    
+    private void rememberTerminal(User user) {
+        try {
+            DeviceTokenService.getInstance().rememberThisTerminal(user.getUserId());
+        } catch (Exception e) {
+            // Login tetap berhasil, hanya terminal tidak diingat
+            System.err.println("Error remembering terminal: " + e.getMessage());
+        }
+    }
+    
+    private void rehashIfNeeded(User user, String password) {
+        if (!PasswordUtil.needsRehash(user.getPassword())) {
+            return;
+        }
+        
+        try {
+            String rehashed = PasswordUtil.hashPassword(password);
+            if (userDAO.updatePassword(user.getUserId(), rehashed)) {
+                user.setPassword(rehashed);
+                System.out.println("Password rehashed for user " + user.getUserId() + 
+                                 " (cost " + PasswordUtil.getBcryptRounds() + ")");
+            }
+        } catch (Exception e) {
+            // Login tetap berhasil, rehash dicoba lagi pada login berikutnya
+            System.err.println("Error rehashing password: " + e.getMessage());
+        }
+    }
+    
+    public User resumeFromDeviceToken() {
+        try {
+            int userId = DeviceTokenService.getInstance().validateThisTerminal();
+            if (userId <= 0) {
+                return null;
+            }
+            
+            User user = userDAO.findById(userId);
+            if (user == null) {
+                DeviceTokenService.getInstance().forgetThisTerminal();
+                return null;
+            }
+            
+            User completeUser = loadCompleteUserData(user);
+            if (completeUser == null) {
+                return null;
+            }
+            
+            Session.getInstance().setCurrentUser(completeUser);
+            
+            System.out.println("Session resumed: " + completeUser.getNama() + 
+                             " (" + completeUser.getRole() + ")");
+            
+            return completeUser;
+            
+        } catch (Exception e) {
+            System.err.println("Error resuming session: " + e.getMessage());
+            return null;
+        }
+    }
+    
     public void logout() {
         User currentUser = Session.getInstance().getCurrentUser();
         if (currentUser != null) {
             System.out.println("Logout: " + currentUser.getNama());
         }
+        // Logout eksplisit berarti terminal tidak lagi diingat
+        DeviceTokenService.getInstance().forgetThisTerminal();
         Session.getInstance().logout();
     }
     
@@ -262,6 +398,8 @@ public class AuthService {
                 throw new DatabaseException("Gagal mengubah password");
             }
             
+            DeviceTokenService.getInstance().revokeAllForUser(userId);
+            
             System.out.println("Password changed for user: " + userId);
             
         } catch (ValidationException | AuthenticationException | DatabaseException e) {
@@ -5,6 +5,9 @@ import com.mycompany.sewabaju.dao.DetailBajuDAO;
 import com.mycompany.sewabaju.dao.DetailPenyewaanDAO;
 import com.mycompany.sewabaju.dao.KategoriDAO;
 import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.events.BajuChanged;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.StokChanged;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
 import com.mycompany.sewabaju.models.Baju;
@@ -217,6 +220,7 @@ public class BajuService {
             
             baju.setDetailBajuList(savedDetails);
             conn.commit();
+            EventBus.getInstance().publish(new BajuChanged(bajuId, BajuChanged.Action.CREATED));
             System.out.println("Baju created: " + baju.getNamaBaju() + 
                              " with " + savedDetails.size() + " sizes");
             
@@ -300,6 +304,7 @@ public class BajuService {
                 FileUtil.deleteBajuPhoto(oldFoto);
             }
             
+            EventBus.getInstance().publish(new BajuChanged(baju.getBajuId(), BajuChanged.Action.UPDATED));
             System.out.println("Baju updated: " + baju.getNamaBaju());
             
             return true;
@@ -349,6 +354,7 @@ public class BajuService {
                 throw new DatabaseException("Gagal delete baju");
             }
             
+            EventBus.getInstance().publish(new BajuChanged(bajuId, BajuChanged.Action.DELETED));
             System.out.println("Baju deleted: " + bajuId);
             
             return true;
@@ -410,6 +416,7 @@ public class BajuService {
             }
             
             detail.setDetailBajuId(detailId);
+            EventBus.getInstance().publish(new StokChanged(detailId));
             
             System.out.println("Size added: " + ukuran + " for baju " + bajuId);
             
@@ -440,6 +447,8 @@ public class BajuService {
                 throw new DatabaseException("Gagal update detail baju");
             }
             
+            EventBus.getInstance().publish(new StokChanged(detail.getDetailBajuId()));
+            
             return true;
             
         } catch (ValidationException | DatabaseException e) {
@@ -463,6 +472,7 @@ public class BajuService {
                 throw new DatabaseException("Gagal update stok");
             }
             
+            EventBus.getInstance().publish(new StokChanged(detailBajuId));
             System.out.println("Stok updated: detail " + detailBajuId + " = " + newStok);
             
             return true;
@@ -498,6 +508,8 @@ public class BajuService {
                 throw new DatabaseException("Gagal delete detail baju");
             }
             
+            EventBus.getInstance().publish(new StokChanged(detailBajuId));
+            
             return true;
             
         } catch (ValidationException | DatabaseException e) {
@@ -0,0 +1,319 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.BajuDAO;
+import com.mycompany.sewabaju.dao.DetailBajuDAO;
+import com.mycompany.sewabaju.dao.KeranjangDAO;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.StokChanged;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.exceptions.StokTidakCukupException;
+import com.mycompany.sewabaju.exceptions.ValidationException;
+import com.mycompany.sewabaju.models.Baju;
+import com.mycompany.sewabaju.models.DetailBaju;
+import com.mycompany.sewabaju.models.KeranjangItem;
+import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keranjang per user yang tersimpan di database. Menambah item langsung menahan stok
+ * (stok detail_baju dikurangi) selama HOLD_MINUTES; hold yang ditinggalkan dilepas
+ * oleh sweep berkala atas index hold_expires_at, sehingga pelanggan tahu stok habis saat
+ * menambah, bukan saat checkout. Sweep membaca database, jadi hold milik instance lain
+ * atau yang dibuat sebelum restart ikut dilepas.
+ */
+public class CartService {
+    
+    private static final Logger LOGGER = Logger.getLogger(CartService.class.getName());
+    
+    private static final int HOLD_MINUTES = Integer.getInteger("sewabaju.cart.holdMinutes", 15);
+    private static final long TICK_MILLIS = 5_000;
+    private static final int MAX_CAS_RETRIES = 3;
+    
+    private final KeranjangDAO keranjangDAO;
+    private final DetailBajuDAO detailBajuDAO;
+    private final BajuDAO bajuDAO;
+    private ScheduledFuture<?> expiryTask;
+    
+    private static CartService instance;
+    
+    private CartService() {
+        this.keranjangDAO = new KeranjangDAO();
+        this.detailBajuDAO = new DetailBajuDAO();
+        this.bajuDAO = new BajuDAO();
+    }
+    
+    public static CartService getInstance() {
+        if (instance == null) {
+            synchronized (CartService.class) {
+                if (instance == null) {
+                    instance = new CartService();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    public synchronized void startHoldExpiry() {
+        if (expiryTask != null) {
+            return;
+        }
+        
+        // Tick pertama langsung melepas hold yang kedaluwarsa saat aplikasi mati
+        expiryTask = TaskScheduler.getInstance().scheduleWithFixedDelay(
+            "keranjang-hold-expiry", this::releaseExpiredHolds, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stopHoldExpiry() {
+        if (expiryTask != null) {
+            expiryTask.cancel(false);
+            expiryTask = null;
+        }
+    }
+    
+    public int getHoldMinutes() {
+        return HOLD_MINUTES;
+    }
+    
+    public List<KeranjangItem> getCart(int userId) throws DatabaseException {
+        try {
+            return keranjangDAO.findByUserId(userId);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal get keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    public int countItems(int userId) throws DatabaseException {
+        try {
+            return keranjangDAO.sumJumlahByUserId(userId);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal hitung keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    public void addItem(int userId, int detailBajuId, int jumlah) 
+            throws ValidationException, StokTidakCukupException, DatabaseException {
+        
+        try {
+            validateJumlah(jumlah);
+            
+            if (!detailBajuDAO.kurangiStok(detailBajuId, jumlah)) {
+                throw stokTidakCukup(detailBajuId, jumlah);
+            }
+            
+            LocalDateTime expiresAt = newHoldExpiry();
+            try {
+                keranjangDAO.addHeld(userId, detailBajuId, jumlah, expiresAt);
+            } catch (DatabaseException e) {
+                detailBajuDAO.tambahStok(detailBajuId, jumlah);
+                throw e;
+            }
+            
+            EventBus.getInstance().publish(new StokChanged(detailBajuId));
+            
+            LOGGER.fine("Keranjang user " + userId + ": +" + jumlah + " detail_baju #" + detailBajuId);
+            
+        } catch (ValidationException | StokTidakCukupException | DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal tambah ke keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    public void updateJumlah(int userId, int keranjangId, int jumlah) 
+            throws ValidationException, StokTidakCukupException, DatabaseException {
+        
+        try {
+            validateJumlah(jumlah);
+            hold(findOwned(userId, keranjangId), jumlah, newHoldExpiry());
+            
+        } catch (ValidationException | StokTidakCukupException | DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal update keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    public void removeItem(int userId, int keranjangId) throws ValidationException, DatabaseException {
+        try {
+            KeranjangItem item = findOwned(userId, keranjangId);
+            
+            for (int attempt = 0; attempt < MAX_CAS_RETRIES; attempt++) {
+                KeranjangItem current = item;
+                // Hapus baris dan kembalikan stok yang ditahan bersama, jangan sampai stok hilang
+                boolean deleted = DatabaseConnection.getInstance().inTransaction(() -> {
+                    if (!keranjangDAO.casDelete(current.getKeranjangId(), current.getJumlahDitahan())) {
+                        return false;
+                    }
+                    if (current.getJumlahDitahan() > 0) {
+                        detailBajuDAO.tambahStok(current.getDetailBajuId(), current.getJumlahDitahan());
+                    }
+                    return true;
+                });
+                
+                if (deleted) {
+                    if (current.getJumlahDitahan() > 0) {
+                        EventBus.getInstance().publish(new StokChanged(current.getDetailBajuId()));
+                    }
+                    return;
+                }
+                
+                item = keranjangDAO.findById(keranjangId);
+                if (item == null) {
+                    return;
+                }
+            }
+            
+            throw new DatabaseException("Keranjang sedang diproses, coba lagi");
+            
+        } catch (ValidationException | DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal hapus item keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    public void clearCart(int userId) throws DatabaseException {
+        for (KeranjangItem item : getCart(userId)) {
+            removeItem(userId, item.getKeranjangId());
+        }
+    }
+    
+    /**
+     * Ubah keranjang menjadi penyewaan. Semua item ditahan ulang penuh (dan hold diperpanjang)
+     * lebih dulu, lalu stok yang ditahan langsung dipakai penyewaan tanpa dikurangi lagi.
+     * Penyewaan dan penghapusan keranjang satu transaksi: jika hold berubah di tengah jalan
+     * (dilepas sweep atau diubah dari tab lain), penyewaan ikut di-rollback.
+     */
+    public Penyewaan checkout(int userId, LocalDate tglSewa, LocalDate tglKembali) 
+            throws ValidationException, StokTidakCukupException, DatabaseException {
+        
+        try {
+            List<KeranjangItem> items = getCart(userId);
+            if (items.isEmpty()) {
+                throw new ValidationException("Keranjang kosong");
+            }
+            
+            LocalDateTime expiresAt = newHoldExpiry();
+            for (KeranjangItem item : items) {
+                hold(item, item.getJumlah(), expiresAt);
+            }
+            
+            List<KeranjangItem> held = getCart(userId);
+            List<PenyewaanService.CartItem> cartItems = new ArrayList<>();
+            for (KeranjangItem item : held) {
+                cartItems.add(new PenyewaanService.CartItem(item.getDetailBaju(), item.getJumlah()));
+            }
+            
+            return DatabaseConnection.getInstance().inTransaction(() -> {
+                Penyewaan penyewaan = PenyewaanService.getInstance()
+                    .createPenyewaanFromHold(userId, cartItems, tglSewa, tglKembali);
+                
+                // Stok yang ditahan sekarang milik penyewaan
+                if (keranjangDAO.deleteHeld(userId, held) != held.size()) {
+                    throw new ValidationException("Keranjang berubah saat checkout, silakan coba lagi");
+                }
+                return penyewaan;
+            });
+            
+        } catch (ValidationException | StokTidakCukupException | DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal checkout keranjang: " + e.getMessage(), e);
+        }
+    }
+    
+    private void hold(KeranjangItem item, int jumlah, LocalDateTime expiresAt) 
+            throws StokTidakCukupException, DatabaseException {
+        
+        for (int attempt = 0; attempt < MAX_CAS_RETRIES; attempt++) {
+            int delta = jumlah - item.getJumlahDitahan();
+            
+            if (delta > 0 && !detailBajuDAO.kurangiStok(item.getDetailBajuId(), delta)) {
+                throw stokTidakCukup(item.getDetailBajuId(), jumlah);
+            }
+            
+            if (keranjangDAO.casHold(item.getKeranjangId(), item.getJumlahDitahan(), 
+                                     jumlah, jumlah, expiresAt)) {
+                if (delta < 0) {
+                    detailBajuDAO.tambahStok(item.getDetailBajuId(), -delta);
+                }
+                if (delta != 0) {
+                    EventBus.getInstance().publish(new StokChanged(item.getDetailBajuId()));
+                }
+                return;
+            }
+            
+            // Hold berubah di tengah jalan (expiry atau tab lain), kembalikan dan baca ulang
+            if (delta > 0) {
+                detailBajuDAO.tambahStok(item.getDetailBajuId(), delta);
+            }
+            
+            item = keranjangDAO.findById(item.getKeranjangId());
+            if (item == null) {
+                throw new ValidationException("Item keranjang sudah tidak ada");
+            }
+        }
+        
+        throw new DatabaseException("Keranjang sedang diproses, coba lagi");
+    }
+    
+    private void releaseExpiredHolds() {
+        try {
+            // Range scan idx_keranjang_hold; hold yang sudah diperpanjang tidak ikut terkunci
+            int released = keranjangDAO.releaseExpiredHolds(null, LocalDateTime.now());
+            if (released > 0) {
+                LOGGER.info("Released " + released + " expired keranjang holds");
+                EventBus.getInstance().publish(StokChanged.semua());
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to release keranjang holds, retrying next tick", e);
+        }
+    }
+    
+    private LocalDateTime newHoldExpiry() {
+        // Presisi detik agar sama dengan kolom DATETIME
+        return LocalDateTime.now().plusMinutes(HOLD_MINUTES).withNano(0);
+    }
+    
+    private KeranjangItem findOwned(int userId, int keranjangId) throws ValidationException, DatabaseException {
+        KeranjangItem item = keranjangDAO.findById(keranjangId);
+        if (item == null || item.getUserId() != userId) {
+            throw new ValidationException("Item keranjang tidak ditemukan");
+        }
+        return item;
+    }
+    
+    private void validateJumlah(int jumlah) throws ValidationException {
+        if (jumlah <= 0) {
+            throw new ValidationException("Jumlah harus lebih dari 0");
+        }
+    }
+    
+    private StokTidakCukupException stokTidakCukup(int detailBajuId, int jumlah) throws DatabaseException {
+        DetailBaju detail = detailBajuDAO.findById(detailBajuId);
+        if (detail == null) {
+            return new StokTidakCukupException("Detail baju tidak ditemukan");
+        }
+        
+        Baju baju = bajuDAO.findById(detail.getBajuId());
+        String namaBaju = baju != null ? baju.getNamaBaju() : "";
+        
+        return new StokTidakCukupException(
+            "Stok tidak cukup untuk " + namaBaju,
+            detail.getBajuId(),
+            namaBaju,
+            detail.getStok(),
+            jumlah
+        );
+    }
+}
\ No newline at end of file
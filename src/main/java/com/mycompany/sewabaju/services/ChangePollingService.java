@@ -0,0 +1,248 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DendaDAO;
+import com.mycompany.sewabaju.dao.DetailBajuDAO;
+import com.mycompany.sewabaju.dao.PembayaranDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.events.DendaChanged;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PembayaranChanged;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
+import com.mycompany.sewabaju.events.StokChanged;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.ChangedRow;
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ambil baris yang berubah sejak watermark updated_at terakhir dan teruskan ke EventBus,
+ * supaya perubahan dari terminal lain sampai ke layar yang terbuka tanpa reload penuh.
+ * Perubahan dari terminal ini sendiri ikut terbaca lagi; subscriber harus idempotent.
+ * updated_at diisi saat statement jalan, bukan saat commit, jadi tiap poll membaca mundur
+ * OVERLAP_MILLIS dan secara berkala merekonsiliasi sejak rekonsiliasi sebelumnya untuk
+ * menangkap transaksi yang commit jauh setelah updated_at-nya.
+ */
+public class ChangePollingService {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangePollingService.class.getName());
+
+    private static final long POLL_INTERVAL_SECONDS = Long.getLong("sewabaju.poll.intervalSeconds", 5);
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_PAGES_PER_POLL = 20;
+    private static final long OVERLAP_MILLIS = Long.getLong("sewabaju.poll.overlapMillis", 60_000);
+    private static final long RECONCILE_MILLIS = Long.getLong("sewabaju.poll.reconcileMillis", 300_000);
+
+    @FunctionalInterface
+    private interface ChangeQuery {
+        List<ChangedRow> find(LocalDateTime afterTime, int afterId, int limit) throws DatabaseException;
+    }
+
+    private static final class Feed {
+        private final String table;
+        private final ChangeQuery query;
+        private final Consumer<List<ChangedRow>> sink;
+        private final Map<Integer, LocalDateTime> recent = new HashMap<>();
+        private LocalDateTime watermark;
+        // Watermark saat rekonsiliasi terakhir; baris yang sudah dikirim sejak itu tetap diingat
+        private LocalDateTime reconciledFrom;
+
+        Feed(String table, ChangeQuery query, Consumer<List<ChangedRow>> sink) {
+            this.table = table;
+            this.query = query;
+            this.sink = sink;
+        }
+    }
+
+    private final PenyewaanDAO penyewaanDAO;
+    private final List<Feed> feeds = new ArrayList<>();
+    private ScheduledFuture<?> pollTask;
+    private long lastReconcileMillis = System.currentTimeMillis();
+
+    private static ChangePollingService instance;
+
+    private ChangePollingService() {
+        this.penyewaanDAO = new PenyewaanDAO();
+        PembayaranDAO pembayaranDAO = new PembayaranDAO();
+        DetailBajuDAO detailBajuDAO = new DetailBajuDAO();
+        DendaDAO dendaDAO = new DendaDAO();
+
+        feeds.add(new Feed("penyewaan", penyewaanDAO::findChangedAfter, this::publishPenyewaan));
+        feeds.add(new Feed("pembayaran", pembayaranDAO::findChangedAfter, this::publishPembayaran));
+        feeds.add(new Feed("detail_baju", detailBajuDAO::findChangedAfter, this::publishStok));
+        feeds.add(new Feed("denda", dendaDAO::findChangedAfter, this::publishDenda));
+    }
+
+    public static ChangePollingService getInstance() {
+        if (instance == null) {
+            synchronized (ChangePollingService.class) {
+                if (instance == null) {
+                    instance = new ChangePollingService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (pollTask != null) {
+            return;
+        }
+
+        try {
+            initWatermarks();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.WARNING, "Failed to read database time, watermarks set on first poll", e);
+        }
+
+        pollTask = TaskScheduler.getInstance().scheduleWithFixedDelay("change-poll", this::pollQuietly,
+                POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+            pollTask = null;
+        }
+    }
+
+    public long getPollIntervalSeconds() {
+        return POLL_INTERVAL_SECONDS;
+    }
+
+    public synchronized int poll() throws DatabaseException {
+        long start = System.currentTimeMillis();
+        initWatermarks();
+        boolean reconcile = start - lastReconcileMillis >= RECONCILE_MILLIS;
+
+        int total = 0;
+        for (Feed feed : feeds) {
+            total += poll(feed, reconcile);
+        }
+        if (reconcile) {
+            lastReconcileMillis = start;
+        }
+
+        if (total > 0) {
+            LOGGER.fine("Change poll" + (reconcile ? " (reconcile)" : "") + ": " + total + " rows | " +
+                        (System.currentTimeMillis() - start) + " ms");
+        }
+        return total;
+    }
+
+    private int poll(Feed feed, boolean reconcile) throws DatabaseException {
+        LocalDateTime from = reconcile ? feed.reconciledFrom : feed.watermark;
+        LocalDateTime afterTime = from.minus(OVERLAP_MILLIS, ChronoUnit.MILLIS);
+        int afterId = 0;
+        LocalDateTime watermark = feed.watermark;
+        List<ChangedRow> changed = new ArrayList<>();
+        Map<Integer, LocalDateTime> seen = new HashMap<>();
+
+        // Rekonsiliasi harus sampai habis; kalau terpotong, baris sebelum watermark terlewat
+        for (int page = 0; reconcile || page < MAX_PAGES_PER_POLL; page++) {
+            List<ChangedRow> rows = feed.query.find(afterTime, afterId, PAGE_SIZE);
+
+            for (ChangedRow row : rows) {
+                // Baris di jendela overlap yang sudah pernah dikirim dilewati
+                if (!row.getUpdatedAt().equals(feed.recent.get(row.getId()))) {
+                    changed.add(row);
+                }
+                seen.put(row.getId(), row.getUpdatedAt());
+                if (row.getUpdatedAt().isAfter(watermark)) {
+                    watermark = row.getUpdatedAt();
+                }
+            }
+
+            if (rows.size() < PAGE_SIZE) {
+                break;
+            }
+            ChangedRow last = rows.get(rows.size() - 1);
+            afterTime = last.getUpdatedAt();
+            afterId = last.getId();
+        }
+
+        if (!changed.isEmpty()) {
+            LOGGER.fine("Changed " + feed.table + ": " + changed.size() + " rows");
+            feed.sink.accept(changed);
+        }
+
+        // Watermark baru dimajukan setelah sink berhasil; kalau gagal, poll berikutnya mengambil ulang
+        feed.recent.putAll(seen);
+        feed.watermark = watermark;
+        if (reconcile) {
+            feed.reconciledFrom = watermark;
+        }
+        // Baris yang sudah dikirim tidak dikirim ulang oleh rekonsiliasi berikutnya
+        LocalDateTime horizon = feed.reconciledFrom.minus(OVERLAP_MILLIS, ChronoUnit.MILLIS);
+        feed.recent.values().removeIf(updatedAt -> updatedAt.isBefore(horizon));
+        return changed.size();
+    }
+
+    private void initWatermarks() throws DatabaseException {
+        LocalDateTime now = null;
+        for (Feed feed : feeds) {
+            if (feed.watermark == null) {
+                // Data sebelum ini sudah dimuat penuh oleh layar yang terbuka
+                if (now == null) {
+                    now = penyewaanDAO.getDatabaseTime();
+                }
+                feed.watermark = now;
+                feed.reconciledFrom = now;
+            }
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.WARNING, "Change poll failed", e);
+        }
+    }
+
+    private void publishPenyewaan(List<ChangedRow> rows) {
+        EventBus eventBus = EventBus.getInstance();
+        for (ChangedRow row : rows) {
+            eventBus.publish(new PenyewaanStatusChanged(row.getId(), row.getParentId(),
+                    null, StatusPenyewaan.fromString(row.getStatus())));
+        }
+    }
+
+    private void publishPembayaran(List<ChangedRow> rows) {
+        EventBus eventBus = EventBus.getInstance();
+        for (ChangedRow row : rows) {
+            eventBus.publish(new PembayaranChanged(row.getId(), row.getParentId(),
+                    StatusPembayaran.fromString(row.getStatus())));
+        }
+    }
+
+    private void publishStok(List<ChangedRow> rows) {
+        List<Integer> detailBajuIds = new ArrayList<>(rows.size());
+        for (ChangedRow row : rows) {
+            detailBajuIds.add(row.getId());
+        }
+        EventBus.getInstance().publish(new StokChanged(detailBajuIds));
+    }
+
+    private void publishDenda(List<ChangedRow> rows) {
+        // Saldo tertunggak bisa berubah dari terminal lain; dimuat ulang saat dibaca berikutnya
+        DendaLedgerService.getInstance().invalidate();
+        
+        EventBus eventBus = EventBus.getInstance();
+        for (ChangedRow row : rows) {
+            eventBus.publish(new DendaChanged(row.getId(), row.getParentId(), DendaChanged.Action.UPDATED));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,390 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.BaseDAO.RowHandler;
+import com.mycompany.sewabaju.dao.DendaDAO;
+import com.mycompany.sewabaju.dao.PembayaranDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.utils.CsvWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Export CSV untuk akuntansi: satu file per dataset per bulan, dibaca langsung dari cursor
+ * streaming MySQL ke CsvWriter. Semua file satu run dibaca dari snapshot transaksi yang sama.
+ * Selama run berjalan, manifest di folder tujuan mencatat waktu mulai, periode, dataset dan
+ * file yang sudah selesai. Export yang terputus dan diulang dengan parameter sama hanya
+ * melewati file yang tercatat di manifest itu; file lain selalu ditulis ulang. Manifest
+ * dihapus saat run selesai, dan force mengabaikannya.
+ */
+public class CsvExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(CsvExportService.class.getName());
+
+    private static final int CANCEL_CHECK_ROWS = 1024;
+    private static final String PART_SUFFIX = ".part";
+    private static final String MANIFEST_FILE = ".export-manifest";
+
+    public enum Dataset {
+        PENYEWAAN("penyewaan", "sewa_id", "user_id", "nama_pelanggan", "tgl_sewa", "tgl_kembali",
+                  "tgl_kembali_aktual", "total_harga", "status"),
+        PEMBAYARAN("pembayaran", "pembayaran_id", "sewa_id", "metode_pembayaran", "jumlah", "status",
+                   "tanggal_bayar", "verified_at"),
+        DENDA("denda", "denda_id", "sewa_id", "jenis_denda", "jumlah", "keterangan", "status_bayar",
+              "created_at"),
+        POIN("poin", "sewa_id", "user_id", "nama_pelanggan", "tanggal", "total_harga", "poin");
+
+        private final String prefix;
+        private final String[] header;
+
+        Dataset(String prefix, String... header) {
+            this.prefix = prefix;
+            this.header = header;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private static final class Chunk {
+        private final Dataset dataset;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final Path target;
+
+        Chunk(Dataset dataset, LocalDate start, LocalDate end, Path target) {
+            this.dataset = dataset;
+            this.start = start;
+            this.end = end;
+            this.target = target;
+        }
+
+        String fileName() {
+            return target.getFileName().toString();
+        }
+    }
+
+    private final PenyewaanDAO penyewaanDAO;
+    private final PembayaranDAO pembayaranDAO;
+    private final DendaDAO dendaDAO;
+
+    private static CsvExportService instance;
+
+    private CsvExportService() {
+        this.penyewaanDAO = new PenyewaanDAO();
+        this.pembayaranDAO = new PembayaranDAO();
+        this.dendaDAO = new DendaDAO();
+    }
+
+    public static CsvExportService getInstance() {
+        if (instance == null) {
+            synchronized (CsvExportService.class) {
+                if (instance == null) {
+                    instance = new CsvExportService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Apakah folder berisi export terputus dengan parameter yang sama, yang akan dilanjutkan
+     * oleh exportCsv tanpa force.
+     */
+    public boolean hasUnfinishedExport(Collection<Dataset> datasets, LocalDate startDate, LocalDate endDate,
+                                       Path dir, boolean gzip) throws IOException {
+        Properties manifest = readManifest(dir.resolve(MANIFEST_FILE));
+        return manifest != null && matches(manifest, datasets, startDate, endDate, gzip);
+    }
+
+    /**
+     * Progress dilaporkan per file selesai (done/total file).
+     *
+     * @param force tulis ulang semua file meskipun ada export terputus yang cocok
+     * @return jumlah baris yang ditulis pada run ini
+     */
+    public long exportCsv(Collection<Dataset> datasets, LocalDate startDate, LocalDate endDate, Path dir,
+                          boolean gzip, boolean force, ExportService.ProgressListener listener)
+            throws DatabaseException, IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(dir);
+        List<Chunk> chunks = plan(datasets, startDate, endDate, dir, gzip);
+
+        Path manifestFile = dir.resolve(MANIFEST_FILE);
+        Properties existing = force ? null : readManifest(manifestFile);
+        Properties manifest;
+        if (existing != null && matches(existing, datasets, startDate, endDate, gzip)) {
+            manifest = existing;
+            LOGGER.info("Resuming CSV export started at " + manifest.getProperty("snapshotAt") + ": " + dir);
+        } else {
+            manifest = newManifest(datasets, startDate, endDate, gzip);
+        }
+        writeManifest(manifestFile, manifest);
+
+        try {
+            long rows = DatabaseConnection.getInstance().inSnapshot(
+                    () -> writeAll(chunks, manifest, manifestFile, listener));
+            Files.deleteIfExists(manifestFile);
+            LOGGER.info("CSV export completed: " + dir +
+                       " | Files: " + chunks.size() +
+                       " | Rows: " + rows +
+                       " | " + (System.currentTimeMillis() - start) + " ms");
+            return rows;
+        } catch (CancellationException e) {
+            LOGGER.info("CSV export cancelled: " + dir);
+            throw e;
+        } catch (UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing CSV export", e);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error exporting CSV", e);
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error exporting CSV", e);
+            throw new DatabaseException("Gagal export CSV: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Chunk> plan(Collection<Dataset> datasets, LocalDate startDate, LocalDate endDate,
+                                    Path dir, boolean gzip) {
+        List<Chunk> chunks = new ArrayList<>();
+        String extension = gzip ? ".csv.gz" : ".csv";
+
+        for (YearMonth month = YearMonth.from(startDate); !month.atDay(1).isAfter(endDate);
+                month = month.plusMonths(1)) {
+            LocalDate from = startDate.isAfter(month.atDay(1)) ? startDate : month.atDay(1);
+            LocalDate to = endDate.isBefore(month.atEndOfMonth()) ? endDate : month.atEndOfMonth();
+            boolean fullMonth = from.equals(month.atDay(1)) && to.equals(month.atEndOfMonth());
+            String suffix = fullMonth ? month.toString() : from + "_" + to;
+
+            for (Dataset dataset : Dataset.values()) {
+                if (datasets.contains(dataset)) {
+                    Path target = dir.resolve(dataset.prefix + "_" + suffix + extension);
+                    chunks.add(new Chunk(dataset, from, to, target));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private long writeAll(List<Chunk> chunks, Properties manifest, Path manifestFile,
+                          ExportService.ProgressListener listener) throws DatabaseException, IOException {
+        Set<String> finished = new LinkedHashSet<>(split(manifest.getProperty("done", "")));
+        long rows = 0;
+        int done = 0;
+        int skipped = 0;
+
+        for (Chunk chunk : chunks) {
+            if (finished.contains(chunk.fileName()) && Files.exists(chunk.target)) {
+                skipped++;
+            } else {
+                rows += writeChunk(chunk, listener);
+                finished.add(chunk.fileName());
+                manifest.setProperty("done", String.join(",", finished));
+                writeManifest(manifestFile, manifest);
+            }
+
+            done++;
+            if (listener != null) {
+                listener.onProgress(done, chunks.size());
+            }
+        }
+
+        if (skipped > 0) {
+            LOGGER.info("CSV export skipped " + skipped + " file(s) finished by the interrupted run");
+        }
+        return rows;
+    }
+
+    /**
+     * Tulis ke file .part lalu rename atomik, jadi file dengan nama final selalu lengkap.
+     * File .part dibuang pada kegagalan apa pun: IO, DatabaseException dari cursor,
+     * maupun pembatalan.
+     */
+    private long writeChunk(Chunk chunk, ExportService.ProgressListener listener)
+            throws DatabaseException, IOException {
+        Path part = chunk.target.resolveSibling(chunk.fileName() + PART_SUFFIX);
+
+        long rows;
+        boolean written = false;
+        try {
+            try (CsvWriter csv = CsvWriter.open(part, chunk.target.toString().endsWith(".gz"))) {
+                csv.header(chunk.dataset.header);
+                stream(chunk, csv, listener);
+                rows = csv.getRows();
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                deletePart(part);
+            }
+        }
+
+        Files.move(part, chunk.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    private static void deletePart(Path part) {
+        try {
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            // Jangan tutupi error aslinya; .part ditimpa run berikutnya
+            LOGGER.log(Level.WARNING, "Failed to delete " + part, e);
+        }
+    }
+
+    private static Properties newManifest(Collection<Dataset> datasets, LocalDate startDate, LocalDate endDate,
+                                          boolean gzip) {
+        Properties manifest = new Properties();
+        manifest.setProperty("snapshotAt", LocalDateTime.now().withNano(0).toString());
+        manifest.setProperty("start", startDate.toString());
+        manifest.setProperty("end", endDate.toString());
+        manifest.setProperty("datasets", datasetNames(datasets));
+        manifest.setProperty("gzip", String.valueOf(gzip));
+        manifest.setProperty("done", "");
+        return manifest;
+    }
+
+    private static boolean matches(Properties manifest, Collection<Dataset> datasets, LocalDate startDate,
+                                   LocalDate endDate, boolean gzip) {
+        return startDate.toString().equals(manifest.getProperty("start"))
+                && endDate.toString().equals(manifest.getProperty("end"))
+                && datasetNames(datasets).equals(manifest.getProperty("datasets"))
+                && String.valueOf(gzip).equals(manifest.getProperty("gzip"));
+    }
+
+    private static String datasetNames(Collection<Dataset> datasets) {
+        List<String> names = new ArrayList<>();
+        for (Dataset dataset : Dataset.values()) {
+            if (datasets.contains(dataset)) {
+                names.add(dataset.name());
+            }
+        }
+        return String.join(",", names);
+    }
+
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+
+    private static Properties readManifest(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            manifest.load(in);
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(Path file, Properties manifest) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            manifest.store(out, "SewaBaju CSV export in progress");
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void stream(Chunk chunk, CsvWriter csv, ExportService.ProgressListener listener)
+            throws DatabaseException {
+        switch (chunk.dataset) {
+            case PENYEWAAN:
+                penyewaanDAO.streamByDateRange(chunk.start, chunk.end, row(csv, listener, rs -> csv
+                        .field(rs.getInt("sewa_id"))
+                        .field(rs.getInt("user_id"))
+                        .field(rs.getString("nama"))
+                        .field(toLocalDate(rs.getDate("tgl_sewa")))
+                        .field(toLocalDate(rs.getDate("tgl_kembali")))
+                        .field(toLocalDate(rs.getDate("tgl_kembali_aktual")))
+                        .money(rs.getDouble("total_harga"))
+                        .field(rs.getString("status"))));
+                break;
+            case PEMBAYARAN:
+                pembayaranDAO.streamByDateRange(chunk.start, chunk.end, row(csv, listener, rs -> csv
+                        .field(rs.getInt("pembayaran_id"))
+                        .field(rs.getInt("sewa_id"))
+                        .field(rs.getString("metode_pembayaran"))
+                        .money(rs.getDouble("jumlah"))
+                        .field(rs.getString("status"))
+                        .field(toLocalDateTime(rs.getTimestamp("tanggal_bayar")))
+                        .field(toLocalDateTime(rs.getTimestamp("verified_at")))));
+                break;
+            case DENDA:
+                dendaDAO.streamByDateRange(chunk.start, chunk.end, row(csv, listener, rs -> csv
+                        .field(rs.getInt("denda_id"))
+                        .field(rs.getInt("sewa_id"))
+                        .field(rs.getString("jenis_denda"))
+                        .money(rs.getDouble("jumlah"))
+                        .field(rs.getString("keterangan"))
+                        .field(rs.getString("status_bayar"))
+                        .field(toLocalDateTime(rs.getTimestamp("created_at")))));
+                break;
+            case POIN:
+                penyewaanDAO.streamPoinByDateRange(chunk.start, chunk.end, row(csv, listener, rs -> csv
+                        .field(rs.getInt("sewa_id"))
+                        .field(rs.getInt("user_id"))
+                        .field(rs.getString("nama"))
+                        .field(toLocalDate(rs.getDate("tgl_kembali_aktual")))
+                        .money(rs.getDouble("total_harga"))
+                        .field(rs.getLong("poin"))));
+                break;
+            default:
+                throw new IllegalArgumentException("Dataset tidak dikenal: " + chunk.dataset);
+        }
+    }
+
+    /**
+     * Bungkus pengisi field menjadi handler satu baris: akhiri baris dan cek pembatalan berkala.
+     */
+    private static RowHandler row(CsvWriter csv, ExportService.ProgressListener listener, RowHandler fields) {
+        return rs -> {
+            fields.handle(rs);
+            try {
+                csv.endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (listener != null && csv.getRows() % CANCEL_CHECK_ROWS == 0 && listener.isCancelled()) {
+                throw new CancellationException("Export dibatalkan");
+            }
+        };
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DailyStatsDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DailyStats;
+import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class DailyStatsService {
+
+    private static final Logger LOGGER = Logger.getLogger(DailyStatsService.class.getName());
+
+    private final DailyStatsDAO dailyStatsDAO;
+    private final PenyewaanDAO penyewaanDAO;
+    private static DailyStatsService instance;
+
+    private DailyStatsService() {
+        this.dailyStatsDAO = new DailyStatsDAO();
+        this.penyewaanDAO = new PenyewaanDAO();
+    }
+
+    public static DailyStatsService getInstance() {
+        if (instance == null) {
+            synchronized (DailyStatsService.class) {
+                if (instance == null) {
+                    instance = new DailyStatsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void recordPenyewaanCreated(Penyewaan penyewaan) {
+        if (penyewaan == null || penyewaan.getTglSewa() == null) {
+            return;
+        }
+        applyDelta(penyewaan.getTglSewa(), 1, 0, 0, 0, 0);
+    }
+
+    public void recordStatusChange(Penyewaan penyewaan, StatusPenyewaan newStatus) {
+        if (penyewaan == null || penyewaan.getTglSewa() == null || newStatus == null) {
+            return;
+        }
+
+        if (newStatus == StatusPenyewaan.DIBATALKAN) {
+            applyDelta(penyewaan.getTglSewa(), 0, 1, 0, 0, 0);
+        } else if (newStatus == StatusPenyewaan.DIKEMBALIKAN) {
+            applyDelta(penyewaan.getTglSewa(), 0, 0, penyewaan.getTotalHarga(), 0, 0);
+        }
+    }
+
+    public void recordPenyewaanDibatalkan(LocalDate tglSewa, int jumlah) {
+        if (tglSewa == null || jumlah == 0) {
+            return;
+        }
+        applyDelta(tglSewa, 0, jumlah, 0, 0, 0);
+    }
+
+    public void recordPembayaranMasuk(LocalDateTime tanggal, double jumlah) {
+        if (jumlah == 0) {
+            return;
+        }
+        LocalDate tgl = tanggal != null ? tanggal.toLocalDate() : LocalDate.now();
+        applyDelta(tgl, 0, 0, 0, jumlah, 0);
+    }
+
+    public void recordDenda(LocalDateTime createdAt, double deltaJumlah) {
+        if (deltaJumlah == 0) {
+            return;
+        }
+        LocalDate tgl = createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+        applyDelta(tgl, 0, 0, 0, 0, deltaJumlah);
+    }
+
+    public DailyStats getSummary(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        try {
+            return dailyStatsDAO.sumByDateRange(startDate, endDate);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting daily stats summary", e);
+            throw new DatabaseException("Gagal get ringkasan statistik: " + e.getMessage(), e);
+        }
+    }
+
+    public List<DailyStats> getDailyStats(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        try {
+            return dailyStatsDAO.findByDateRange(startDate, endDate);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting daily stats", e);
+            throw new DatabaseException("Gagal get statistik harian: " + e.getMessage(), e);
+        }
+    }
+
+    public int rebuild(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            int rows = dailyStatsDAO.rebuild(startDate, endDate);
+
+            LOGGER.info("Daily stats rebuilt" +
+                       (startDate != null ? " for " + startDate + " - " + endDate : "") +
+                       " | Rows: " + rows +
+                       " | " + (System.currentTimeMillis() - start) + " ms");
+
+            return rows;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error rebuilding daily stats", e);
+            throw new DatabaseException("Gagal rebuild statistik harian: " + e.getMessage(), e);
+        }
+    }
+
+    public int rebuildAll() throws DatabaseException {
+        return rebuild(null, null);
+    }
+
+    public void ensureBackfilled() {
+        try {
+            if (dailyStatsDAO.count() == 0 && penyewaanDAO.count() > 0) {
+                LOGGER.info("Daily stats empty, running initial backfill");
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to backfill daily stats", e);
+        }
+    }
+
+    private void applyDelta(LocalDate tgl, int penyewaan, int dibatalkan,
+                            double pendapatan, double pembayaran, double denda) {
+        try {
+            dailyStatsDAO.addDelta(tgl, penyewaan, dibatalkan, pendapatan, pembayaran, denda);
+        } catch (Exception e) {
+            // Rollup boleh tertinggal, bisa diperbaiki dengan rebuild
+            LOGGER.log(Level.WARNING, "Failed to update daily stats for " + tgl, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DailyStatsDAO;
+import com.mycompany.sewabaju.dao.PembayaranDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PelangganRegistered;
+import com.mycompany.sewabaju.events.PembayaranChanged;
+import com.mycompany.sewabaju.events.PenyewaanCreated;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DashboardSnapshot;
+import com.mycompany.sewabaju.models.PembayaranRow;
+import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.enums.StatusPembayaran;
+import com.mycompany.sewabaju.utils.DateUtil;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class DashboardService {
+
+    private static final Logger LOGGER = Logger.getLogger(DashboardService.class.getName());
+
+    private static final int RECENT_LIMIT = 10;
+    private static final int PENDING_LIMIT = 5;
+    private static final long REFRESH_INTERVAL_SECONDS = 60;
+    private static final long DEBOUNCE_MILLIS = 1500;
+
+    private final DailyStatsDAO dailyStatsDAO;
+    private final PenyewaanDAO penyewaanDAO;
+    private final PembayaranDAO pembayaranDAO;
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    private volatile DashboardSnapshot snapshot;
+    private volatile Consumer<DashboardSnapshot> onUpdated;
+    private volatile boolean running;
+    private ScheduledFuture<?> periodicRefresh;
+    private static DashboardService instance;
+
+    private DashboardService() {
+        this.dailyStatsDAO = new DailyStatsDAO();
+        this.penyewaanDAO = new PenyewaanDAO();
+        this.pembayaranDAO = new PembayaranDAO();
+        
+        EventBus eventBus = EventBus.getInstance();
+        eventBus.subscribe(PenyewaanCreated.class, e -> requestRefresh());
+        eventBus.subscribe(PenyewaanStatusChanged.class, e -> requestRefresh());
+        eventBus.subscribe(PembayaranChanged.class, e -> requestRefresh());
+        eventBus.subscribe(PelangganRegistered.class, e -> requestRefresh());
+    }
+
+    public static DashboardService getInstance() {
+        if (instance == null) {
+            synchronized (DashboardService.class) {
+                if (instance == null) {
+                    instance = new DashboardService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (periodicRefresh != null) {
+            return;
+        }
+        running = true;
+        periodicRefresh = TaskScheduler.getInstance().scheduleWithFixedDelay("dashboard-refresh",
+                this::refreshQuietly, REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Setelah logout snapshot dibuang dan event tidak lagi memicu query sampai start() berikutnya.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (periodicRefresh != null) {
+            periodicRefresh.cancel(false);
+            periodicRefresh = null;
+        }
+        snapshot = null;
+        onUpdated = null;
+    }
+
+    public DashboardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setOnUpdated(Consumer<DashboardSnapshot> onUpdated) {
+        this.onUpdated = onUpdated;
+    }
+
+    public synchronized DashboardSnapshot refresh() throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            LocalDate today = LocalDate.now();
+
+            DashboardSnapshot counters = dailyStatsDAO.loadDashboardCounters(today,
+                    DateUtil.getStartOfMonth(today), DateUtil.getEndOfMonth(today));
+            List<Penyewaan> recent = penyewaanDAO.findRecentWithPelanggan(RECENT_LIMIT);
+
+            List<PembayaranRow> pending = pembayaranDAO.findRowsByStatus(
+                    StatusPembayaran.MENUNGGU_VERIFIKASI, PENDING_LIMIT);
+            
+            snapshot = counters.withRecentPenyewaan(recent).withPembayaranPendingRows(pending);
+
+            LOGGER.fine("Dashboard snapshot refreshed in " + (System.currentTimeMillis() - start) + " ms");
+
+            Consumer<DashboardSnapshot> listener = onUpdated;
+            if (listener != null) {
+                listener.accept(snapshot);
+            }
+
+            return snapshot;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error refreshing dashboard snapshot", e);
+            throw new DatabaseException("Gagal refresh dashboard: " + e.getMessage(), e);
+        }
+    }
+
+    public void requestRefresh() {
+        if (!running || snapshot == null) {
+            return;
+        }
+        // Gabungkan perubahan beruntun menjadi satu refresh
+        if (refreshPending.compareAndSet(false, true)) {
+            TaskScheduler.getInstance().schedule("dashboard-invalidate", () -> {
+                refreshPending.set(false);
+                if (running) {
+                    refreshQuietly();
+                }
+            }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.WARNING, "Scheduled dashboard refresh failed", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DendaDAO;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DendaSummary;
+import com.mycompany.sewabaju.models.enums.JenisDenda;
+import com.mycompany.sewabaju.models.enums.StatusBayarDenda;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saldo denda belum dibayar. Saldo satu pelanggan selalu dibaca dari database karena dipakai
+ * untuk keputusan verifikasi; agregat semua pelanggan di-cache dengan TTL supaya denda yang
+ * ditulis terminal lain tetap masuk walau change polling terlewat.
+ */
+public class DendaLedgerService {
+
+    private static final Logger LOGGER = Logger.getLogger(DendaLedgerService.class.getName());
+
+    private static final long CACHE_TTL_MILLIS = Long.getLong("sewabaju.denda.ledgerTtlMillis", 30_000);
+
+    private final DendaDAO dendaDAO;
+    private final Map<Integer, Double> outstandingPerUser = new HashMap<>();
+    private double outstandingTotal;
+    private boolean loaded;
+    private long loadedAt;
+    private static DendaLedgerService instance;
+
+    private DendaLedgerService() {
+        this.dendaDAO = new DendaDAO();
+    }
+
+    public static DendaLedgerService getInstance() {
+        if (instance == null) {
+            synchronized (DendaLedgerService.class) {
+                if (instance == null) {
+                    instance = new DendaLedgerService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized double getOutstandingTotal() throws DatabaseException {
+        ensureLoaded();
+        return outstandingTotal;
+    }
+
+    public double getOutstandingByUser(int userId) throws DatabaseException {
+        try {
+            return dendaDAO.sumUnpaidByUser(userId);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting outstanding denda", e);
+            throw new DatabaseException("Gagal get saldo denda: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized Map<Integer, Double> getOutstandingPerUser() throws DatabaseException {
+        ensureLoaded();
+        return Collections.unmodifiableMap(new HashMap<>(outstandingPerUser));
+    }
+
+    public DendaSummary getSummaryBySewaId(int sewaId) throws DatabaseException {
+        try {
+            return dendaDAO.getSummaryBySewaId(sewaId);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting denda summary", e);
+            throw new DatabaseException("Gagal get ringkasan denda: " + e.getMessage(), e);
+        }
+    }
+
+    public Map<StatusBayarDenda, Double> getTotalByStatus() throws DatabaseException {
+        try {
+            return dendaDAO.sumGroupByStatus();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting denda total by status", e);
+            throw new DatabaseException("Gagal get total denda per status: " + e.getMessage(), e);
+        }
+    }
+
+    public Map<JenisDenda, Double> getTotalByJenis(StatusBayarDenda status) throws DatabaseException {
+        try {
+            return dendaDAO.sumGroupByJenis(status);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting denda total by jenis", e);
+            throw new DatabaseException("Gagal get total denda per jenis: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized void recordOutstanding(int userId, double delta) {
+        // Belum dimuat: nilai akan diambil langsung dari database saat dibutuhkan
+        if (!loaded || delta == 0) {
+            return;
+        }
+
+        double saldo = outstandingPerUser.getOrDefault(userId, 0.0) + delta;
+        if (saldo > 0.005) {
+            outstandingPerUser.put(userId, saldo);
+        } else {
+            outstandingPerUser.remove(userId);
+        }
+        outstandingTotal = Math.max(0, outstandingTotal + delta);
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        outstandingPerUser.clear();
+        outstandingTotal = 0;
+    }
+
+    private void ensureLoaded() throws DatabaseException {
+        if (loaded && System.currentTimeMillis() - loadedAt < CACHE_TTL_MILLIS) {
+            return;
+        }
+
+        try {
+            Map<Integer, Double> perUser = dendaDAO.sumUnpaidGroupByUser();
+
+            outstandingPerUser.clear();
+            outstandingPerUser.putAll(perUser);
+            outstandingTotal = perUser.values().stream().mapToDouble(Double::doubleValue).sum();
+            loaded = true;
+            loadedAt = System.currentTimeMillis();
+
+            LOGGER.fine("Denda ledger loaded | Pelanggan: " + perUser.size() +
+                       " | Outstanding: Rp " + outstandingTotal);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading denda ledger", e);
+            throw new DatabaseException("Gagal memuat saldo denda: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -3,20 +3,28 @@ package com.mycompany.sewabaju.services;
 import com.mycompany.sewabaju.dao.DendaDAO;
 import com.mycompany.sewabaju.dao.DetailPenyewaanDAO;
 import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.events.DendaChanged;
+import com.mycompany.sewabaju.events.EventBus;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
 import com.mycompany.sewabaju.models.Denda;
+import com.mycompany.sewabaju.models.DendaSummary;
 import com.mycompany.sewabaju.models.DetailPenyewaan;
 import com.mycompany.sewabaju.models.Penyewaan;
 import com.mycompany.sewabaju.models.enums.JenisDenda;
 import com.mycompany.sewabaju.models.enums.StatusBayarDenda;
 import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import com.mycompany.sewabaju.utils.Session;
+import com.mycompany.sewabaju.utils.TaskScheduler;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -24,15 +32,24 @@ public class DendaService {
     
     private static final Logger LOGGER = Logger.getLogger(DendaService.class.getName());
     
+    private static final long SWEEP_INITIAL_DELAY_MINUTES = 1;
+    private static final long SWEEP_INTERVAL_HOURS = 6;
+    
     private final DendaDAO dendaDAO;
     private final PenyewaanDAO penyewaanDAO;
     private final DetailPenyewaanDAO detailPenyewaanDAO;
+    private final DailyStatsService dailyStatsService;
+    private final DendaLedgerService dendaLedgerService;
+    private ScheduledFuture<?> overdueSweep;
+    private volatile SweepResult lastSweepResult;
     private static DendaService instance;
     
     private DendaService() {
         this.dendaDAO = new DendaDAO();
         this.penyewaanDAO = new PenyewaanDAO();
         this.detailPenyewaanDAO = new DetailPenyewaanDAO();
+        this.dailyStatsService = DailyStatsService.getInstance();
+        this.dendaLedgerService = DendaLedgerService.getInstance();
     }
     
     public static DendaService getInstance() {
@@ -70,16 +87,37 @@ public class DendaService {
                 return null;
             }
             
-            List<Denda> existingDenda = dendaDAO.findBySewaId(sewaId);
-            boolean hasKeterlambatanDenda = existingDenda.stream()
-                .anyMatch(d -> d.getJenisDenda() == JenisDenda.KETERLAMBATAN);
+            Denda denda = Denda.createDendaKeterlambatan(sewaId, (int) hariTerlambat);
+            
+            Denda existing = dendaDAO.findByDetail(sewaId, JenisDenda.KETERLAMBATAN, 
+                                                   Denda.SELURUH_PENYEWAAN);
             
-            if (hasKeterlambatanDenda) {
-                LOGGER.warning("Denda keterlambatan already exists for sewa #" + sewaId);
-                throw new ValidationException("Denda keterlambatan sudah ada");
+            if (existing != null) {
+                if (existing.isPaid() || existing.getJumlah() == denda.getJumlah()) {
+                    LOGGER.warning("Denda keterlambatan already exists for sewa #" + sewaId);
+                    throw new ValidationException("Denda keterlambatan sudah ada");
+                }
+                
+                // Denda yang sudah berjalan dari sweep difinalkan sesuai tanggal kembali aktual
+                double selisih = denda.getJumlah() - existing.getJumlah();
+                existing.setJumlah(denda.getJumlah());
+                existing.setKeterangan(denda.getKeterangan());
+                
+                if (!dendaDAO.update(existing)) {
+                    throw new DatabaseException("Gagal update denda");
+                }
+                
+                dailyStatsService.recordDenda(existing.getCreatedAt(), selisih);
+                dendaLedgerService.recordOutstanding(penyewaan.getUserId(), selisih);
+                EventBus.getInstance().publish(new DendaChanged(
+                    existing.getDendaId(), sewaId, DendaChanged.Action.UPDATED));
+                LOGGER.info("Denda keterlambatan finalized: #" + existing.getDendaId() + 
+                           " | Hari: " + hariTerlambat + 
+                           " | Jumlah: Rp " + existing.getJumlah());
+                
+                return existing;
             }
             
-            Denda denda = Denda.createDendaKeterlambatan(sewaId, (int) hariTerlambat);
             int dendaId = dendaDAO.save(denda);
             
             if (dendaId <= 0) {
@@ -87,6 +125,9 @@ public class DendaService {
             }
             
             denda.setDendaId(dendaId);
+            dailyStatsService.recordDenda(denda.getCreatedAt(), denda.getJumlah());
+            dendaLedgerService.recordOutstanding(penyewaan.getUserId(), denda.getJumlah());
+            EventBus.getInstance().publish(new DendaChanged(dendaId, sewaId, DendaChanged.Action.CREATED));
             
             LOGGER.info("Denda keterlambatan created: #" + dendaId + 
                        " | Hari: " + hariTerlambat + 
@@ -110,7 +151,7 @@ public class DendaService {
                 throw new ValidationException("Hanya admin yang dapat menambah denda kerusakan");
             }
             
-            validateDendaInput(sewaId, jumlah, keterangan);
+            Penyewaan penyewaan = validateDendaInput(sewaId, jumlah, keterangan);
             Denda denda = Denda.createDendaKerusakan(sewaId, jumlah, keterangan);
             int dendaId = dendaDAO.save(denda);
             
@@ -119,6 +160,9 @@ public class DendaService {
             }
             
             denda.setDendaId(dendaId);
+            dailyStatsService.recordDenda(denda.getCreatedAt(), denda.getJumlah());
+            dendaLedgerService.recordOutstanding(penyewaan.getUserId(), denda.getJumlah());
+            EventBus.getInstance().publish(new DendaChanged(dendaId, sewaId, DendaChanged.Action.CREATED));
             
             LOGGER.info("Denda kerusakan created: #" + dendaId + 
                        " | Jumlah: Rp " + jumlah);
@@ -141,7 +185,7 @@ public class DendaService {
                 throw new ValidationException("Hanya admin yang dapat menambah denda kehilangan");
             }
             
-            validateDendaInput(sewaId, jumlah, keterangan);
+            Penyewaan penyewaan = validateDendaInput(sewaId, jumlah, keterangan);
             Denda denda = Denda.createDendaKehilangan(sewaId, jumlah, keterangan);
             int dendaId = dendaDAO.save(denda);
             
@@ -150,6 +194,9 @@ public class DendaService {
             }
             
             denda.setDendaId(dendaId);
+            dailyStatsService.recordDenda(denda.getCreatedAt(), denda.getJumlah());
+            dendaLedgerService.recordOutstanding(penyewaan.getUserId(), denda.getJumlah());
+            EventBus.getInstance().publish(new DendaChanged(dendaId, sewaId, DendaChanged.Action.CREATED));
             
             LOGGER.info("Denda kehilangan created: #" + dendaId + 
                        " | Jumlah: Rp " + jumlah);
@@ -179,53 +226,7 @@ public class DendaService {
                 LOGGER.info("Denda keterlambatan already exists for sewa #" + sewaId);
             }
             
-            List<DetailPenyewaan> details = detailPenyewaanDAO.findBySewaId(sewaId);
-            List<Denda> existingDenda = dendaDAO.findBySewaId(sewaId);
-            
-            for (DetailPenyewaan detail : details) {
-                if (detail.isDamaged()) {
-                    // ✅ Create unique identifier for this detail's denda
-                    String uniqueId = "DETAIL#" + detail.getDetailSewaId();
-                    
-                    // ✅ Check if denda for this detail already exists
-                    boolean alreadyExists = existingDenda.stream()
-                        .anyMatch(d -> d.getJenisDenda() == JenisDenda.KERUSAKAN &&
-                                       d.getKeterangan() != null &&
-                                       d.getKeterangan().contains(uniqueId));
-                    
-                    if (alreadyExists) {
-                        LOGGER.info("Denda kerusakan already exists for detail #" + 
-                                  detail.getDetailSewaId());
-                        continue;
-                    }
-                    
-                    try {
-                        double estimasiDenda = detail.getEstimasiDenda();
-                        String keterangan = uniqueId + " - Kerusakan: " + 
-                                          detail.getKondisiDisplay();
-                        
-                        if (detail.getKeteranganKerusakan() != null && 
-                            !detail.getKeteranganKerusakan().trim().isEmpty()) {
-                            keterangan += " | " + detail.getKeteranganKerusakan();
-                        }
-                        
-                        Denda dendaKerusakan = createDendaKerusakan(
-                            sewaId, 
-                            estimasiDenda, 
-                            keterangan
-                        );
-                        
-                        createdDenda.add(dendaKerusakan);
-                        LOGGER.info("Denda kerusakan created for detail #" + 
-                                  detail.getDetailSewaId());
-                        
-                    } catch (ValidationException e) {
-                        LOGGER.warning("Failed to create denda kerusakan for detail #" + 
-                                     detail.getDetailSewaId() + ": " + e.getMessage());
-                        // Continue with next detail
-                    }
-                }
-            }
+            createdDenda.addAll(createDendaKerusakanFromDetails(sewaId));
             
             LOGGER.info("Auto create denda completed. Total created: " + createdDenda.size());
             
@@ -240,6 +241,158 @@ public class DendaService {
         }
     }
     
+    private List<Denda> createDendaKerusakanFromDetails(int sewaId) 
+            throws DatabaseException {
+        
+        List<DetailPenyewaan> details = detailPenyewaanDAO.findBySewaId(sewaId);
+        List<Denda> candidates = new ArrayList<>();
+        
+        for (DetailPenyewaan detail : details) {
+            if (!detail.isDamaged()) {
+                continue;
+            }
+            
+            double estimasiDenda = detail.getEstimasiDenda();
+            if (estimasiDenda <= 0) {
+                continue;
+            }
+            
+            String keterangan = "Kerusakan item #" + detail.getDetailSewaId() + ": " + 
+                              detail.getKondisiDisplay();
+            
+            if (detail.getKeteranganKerusakan() != null && 
+                !detail.getKeteranganKerusakan().trim().isEmpty()) {
+                keterangan += " | " + detail.getKeteranganKerusakan();
+            }
+            
+            candidates.add(Denda.createDendaKerusakan(
+                sewaId, detail.getDetailSewaId(), estimasiDenda, keterangan));
+        }
+        
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        if (!Session.getInstance().isAdmin()) {
+            LOGGER.warning("Skipping denda kerusakan for sewa #" + sewaId + ": not admin");
+            return new ArrayList<>();
+        }
+        
+        Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
+        if (penyewaan == null || penyewaan.getStatus() != StatusPenyewaan.DIKEMBALIKAN) {
+            LOGGER.warning("Skipping denda kerusakan for sewa #" + sewaId + ": belum dikembalikan");
+            return new ArrayList<>();
+        }
+        
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        candidates.forEach(d -> d.setCreatedAt(createdAt));
+        
+        // Unique index (sewa_id, jenis_denda, detail_sewa_id) menolak duplikat,
+        // termasuk yang disimpan bersamaan oleh terminal lain
+        List<Denda> created = dendaDAO.insertAllIgnoringDuplicates(candidates);
+        
+        if (created.isEmpty()) {
+            LOGGER.info("Denda kerusakan already exists for all details of sewa #" + sewaId);
+            return created;
+        }
+        
+        double total = 0;
+        for (Denda denda : created) {
+            total += denda.getJumlah();
+        }
+        
+        dailyStatsService.recordDenda(createdAt, total);
+        dendaLedgerService.recordOutstanding(penyewaan.getUserId(), total);
+        for (Denda denda : created) {
+            EventBus.getInstance().publish(new DendaChanged(
+                denda.getDendaId(), sewaId, DendaChanged.Action.CREATED));
+        }
+        
+        LOGGER.info("Denda kerusakan created for sewa #" + sewaId + ": " + created.size() + " item");
+        
+        return created;
+    }
+    
+    public synchronized void startOverdueSweep() {
+        if (overdueSweep != null) {
+            return;
+        }
+        overdueSweep = TaskScheduler.getInstance().scheduleWithFixedDelay("overdue-sweep", () -> {
+            try {
+                sweepOverdue(LocalDate.now());
+            } catch (DatabaseException e) {
+                LOGGER.log(Level.WARNING, "Overdue sweep failed", e);
+            }
+        }, TimeUnit.MINUTES.toSeconds(SWEEP_INITIAL_DELAY_MINUTES),
+           TimeUnit.HOURS.toSeconds(SWEEP_INTERVAL_HOURS), TimeUnit.SECONDS);
+    }
+    
+    public synchronized void stopOverdueSweep() {
+        if (overdueSweep != null) {
+            overdueSweep.cancel(false);
+            overdueSweep = null;
+        }
+    }
+    
+    public SweepResult getLastSweepResult() {
+        return lastSweepResult;
+    }
+    
+    public synchronized SweepResult sweepOverdue(LocalDate today) throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            
+            List<Denda> rows = dendaDAO.findOverdueKeterlambatan(today);
+            List<Denda> changes = new ArrayList<>();
+            int unchanged = 0;
+            double totalAccrued = 0;
+            
+            for (Denda row : rows) {
+                Penyewaan penyewaan = row.getPenyewaan();
+                int hariTerlambat = (int) ChronoUnit.DAYS.between(penyewaan.getTglKembali(), today);
+                Denda accrued = Denda.createDendaKeterlambatan(penyewaan.getSewaId(), hariTerlambat);
+                totalAccrued += accrued.getJumlah();
+                
+                if (row.getDendaId() <= 0 || (!row.isPaid() && row.getJumlah() != accrued.getJumlah())) {
+                    changes.add(accrued);
+                } else {
+                    unchanged++;
+                }
+            }
+            
+            // Selisih per tanggal diambil dari baris yang benar-benar ditulis DAO
+            DendaDAO.KeterlambatanUpsert upsert = dendaDAO.upsertKeterlambatanBatch(changes);
+            unchanged += changes.size() - upsert.getInserted() - upsert.getUpdated();
+            
+            // Saldo tertunggak dimuat ulang dengan satu query agregat saat dibutuhkan
+            dendaLedgerService.invalidate();
+            
+            for (Map.Entry<LocalDate, Double> entry : upsert.getDeltaPerTanggal().entrySet()) {
+                dailyStatsService.recordDenda(entry.getKey().atStartOfDay(), entry.getValue());
+            }
+            
+            if (upsert.getInserted() > 0 || upsert.getUpdated() > 0) {
+                // Sweep menyentuh banyak penyewaan sekaligus; subscriber cukup memuat ulang
+                EventBus.getInstance().publish(new DendaChanged(0, 0, DendaChanged.Action.UPDATED));
+            }
+            
+            SweepResult result = new SweepResult(today, rows.size(), upsert.getInserted(), upsert.getUpdated(), 
+                                                 unchanged, totalAccrued,
+                                                 System.currentTimeMillis() - start);
+            lastSweepResult = result;
+            
+            LOGGER.info("Overdue sweep: " + result);
+            
+            return result;
+            
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error sweeping overdue penyewaan", e);
+            throw new DatabaseException("Gagal sweep denda keterlambatan: " + e.getMessage(), e);
+        }
+    }
+    
     public Denda getDendaById(int dendaId) throws DatabaseException {
         try {
             return dendaDAO.findById(dendaId);
@@ -285,6 +438,14 @@ public class DendaService {
         }
     }
     
+    public DendaSummary getDendaSummary(int sewaId) throws DatabaseException {
+        return dendaLedgerService.getSummaryBySewaId(sewaId);
+    }
+    
+    public double getTotalUnpaidDendaByUser(int userId) throws DatabaseException {
+        return dendaLedgerService.getOutstandingByUser(userId);
+    }
+    
     public double getTotalUnpaidDenda(int sewaId) throws DatabaseException {
         try {
             return dendaDAO.getTotalUnpaidBySewaId(sewaId);
@@ -318,6 +479,9 @@ public class DendaService {
                 throw new DatabaseException("Gagal update status denda");
             }
             
+            recordOutstanding(denda.getSewaId(), -denda.getJumlah());
+            EventBus.getInstance().publish(new DendaChanged(dendaId, denda.getSewaId(), DendaChanged.Action.PAID));
+            
             LOGGER.info("Denda marked as paid: #" + dendaId);
             
             return true;
@@ -342,12 +506,24 @@ public class DendaService {
                 throw new ValidationException("Jumlah denda harus lebih dari 0");
             }
             
+            Denda existing = dendaDAO.findById(denda.getDendaId());
+            
+            if (existing == null) {
+                throw new DatabaseException("Denda tidak ditemukan");
+            }
+            
             boolean updated = dendaDAO.update(denda);
             
             if (!updated) {
                 throw new DatabaseException("Gagal update denda");
             }
             
+            dailyStatsService.recordDenda(existing.getCreatedAt(), 
+                                          denda.getJumlah() - existing.getJumlah());
+            recordOutstanding(existing.getSewaId(), unpaidAmount(denda) - unpaidAmount(existing));
+            EventBus.getInstance().publish(new DendaChanged(
+                denda.getDendaId(), existing.getSewaId(), DendaChanged.Action.UPDATED));
+            
             LOGGER.info("Denda updated: #" + denda.getDendaId());
             
             return true;
@@ -368,12 +544,20 @@ public class DendaService {
                 throw new ValidationException("Hanya admin yang dapat hapus denda");
             }
             
+            Denda existing = dendaDAO.findById(dendaId);
             boolean deleted = dendaDAO.delete(dendaId);
             
             if (!deleted) {
                 throw new DatabaseException("Gagal hapus denda");
             }
             
+            if (existing != null) {
+                dailyStatsService.recordDenda(existing.getCreatedAt(), -existing.getJumlah());
+                recordOutstanding(existing.getSewaId(), -unpaidAmount(existing));
+            }
+            EventBus.getInstance().publish(new DendaChanged(
+                dendaId, existing != null ? existing.getSewaId() : 0, DendaChanged.Action.DELETED));
+            
             LOGGER.info("Denda deleted: #" + dendaId);
             
             return true;
@@ -417,7 +601,11 @@ public class DendaService {
                         penyewaan.getTglKembali(), 
                         LocalDate.now()
                     );
-                    totalDenda += dendaKeterlambatan;
+                    // Sebagian mungkin sudah tercatat oleh sweep, hitung sisanya saja
+                    Denda tercatat = dendaDAO.findByDetail(sewaId, JenisDenda.KETERLAMBATAN, 
+                                                           Denda.SELURUH_PENYEWAAN);
+                    double sudahTercatat = tercatat != null ? tercatat.getJumlah() : 0;
+                    totalDenda += Math.max(0, dendaKeterlambatan - sudahTercatat);
                 }
             }
             
@@ -440,17 +628,34 @@ public class DendaService {
     
     public double getTotalAmountUnpaidDenda() throws DatabaseException {
         try {
-            List<Denda> unpaidDenda = dendaDAO.findUnpaid();
-            return unpaidDenda.stream()
-                .mapToDouble(Denda::getJumlah)
-                .sum();
+            return dendaLedgerService.getOutstandingTotal();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting total amount unpaid denda", e);
             throw new DatabaseException("Gagal get total amount unpaid denda: " + e.getMessage(), e);
         }
     }
     
-    private void validateDendaInput(int sewaId, double jumlah, String keterangan) 
+    private void recordOutstanding(int sewaId, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        try {
+            Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
+            if (penyewaan != null) {
+                dendaLedgerService.recordOutstanding(penyewaan.getUserId(), delta);
+            }
+        } catch (Exception e) {
+            // Saldo cache tidak bisa dipercaya lagi, muat ulang dari database
+            LOGGER.log(Level.WARNING, "Failed to update denda ledger for sewa #" + sewaId, e);
+            dendaLedgerService.invalidate();
+        }
+    }
+    
+    private static double unpaidAmount(Denda denda) {
+        return denda.isPaid() ? 0 : denda.getJumlah();
+    }
+    
+    private Penyewaan validateDendaInput(int sewaId, double jumlah, String keterangan) 
             throws ValidationException, DatabaseException {
         
         if (sewaId <= 0) {
@@ -473,5 +678,73 @@ public class DendaService {
         if (keterangan == null || keterangan.trim().isEmpty()) {
             throw new ValidationException("Keterangan tidak boleh kosong");
         }
+        
+        return penyewaan;
+    }
+    
+    public static class SweepResult {
+        private final LocalDate tanggal;
+        private final int jumlahOverdue;
+        private final int inserted;
+        private final int updated;
+        private final int unchanged;
+        private final double totalAccrued;
+        private final long durationMs;
+        private final LocalDateTime finishedAt;
+        
+        public SweepResult(LocalDate tanggal, int jumlahOverdue, int inserted, int updated,
+                           int unchanged, double totalAccrued, long durationMs) {
+            this.tanggal = tanggal;
+            this.jumlahOverdue = jumlahOverdue;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+            this.totalAccrued = totalAccrued;
+            this.durationMs = durationMs;
+            this.finishedAt = LocalDateTime.now();
+        }
+        
+        public LocalDate getTanggal() {
+            return tanggal;
+        }
+        
+        public int getJumlahOverdue() {
+            return jumlahOverdue;
+        }
+        
+        public int getInserted() {
+            return inserted;
+        }
+        
+        public int getUpdated() {
+            return updated;
+        }
+        
+        public int getUnchanged() {
+            return unchanged;
+        }
+        
+        public double getTotalAccrued() {
+            return totalAccrued;
+        }
+        
+        public long getDurationMs() {
+            return durationMs;
+        }
+        
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+        
+        @Override
+        public String toString() {
+            return "tanggal=" + tanggal +
+                   " | overdue=" + jumlahOverdue +
+                   " | inserted=" + inserted +
+                   " | updated=" + (updated >= 0 ? String.valueOf(updated) : "?") +
+                   " | unchanged=" + unchanged +
+                   " | accrued=Rp " + totalAccrued +
+                   " | " + durationMs + " ms";
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DeviceTokenDAO;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.exceptions.ValidationException;
+import com.mycompany.sewabaju.models.DeviceToken;
+import com.mycompany.sewabaju.utils.LoginThrottle;
+import com.mycompany.sewabaju.utils.Session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class DeviceTokenService {
+    
+    private static final Logger LOGGER = Logger.getLogger(DeviceTokenService.class.getName());
+    
+    private static final int TOKEN_VALIDITY_DAYS = 30;
+    private static final int SELECTOR_BYTES = 12;
+    private static final int VALIDATOR_BYTES = 32;
+    private static final Path TOKEN_FILE = Paths.get(System.getProperty("user.home"), 
+                                                     ".sewabaju", "device.token");
+    
+    private final DeviceTokenDAO deviceTokenDAO;
+    private final SecureRandom random = new SecureRandom();
+    private static DeviceTokenService instance;
+    
+    private DeviceTokenService() {
+        this.deviceTokenDAO = new DeviceTokenDAO();
+    }
+    
+    public static DeviceTokenService getInstance() {
+        if (instance == null) {
+            synchronized (DeviceTokenService.class) {
+                if (instance == null) {
+                    instance = new DeviceTokenService();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    public void rememberThisTerminal(int userId) throws DatabaseException {
+        try {
+            // Token lama di terminal ini tidak dipakai lagi
+            forgetThisTerminal();
+            
+            String selector = randomToken(SELECTOR_BYTES);
+            String validator = randomToken(VALIDATOR_BYTES);
+            
+            DeviceToken token = new DeviceToken(userId, selector, sha256(validator), 
+                                                LoginThrottle.LOCAL_SOURCE,
+                                                LocalDateTime.now().plusDays(TOKEN_VALIDITY_DAYS));
+            int tokenId = deviceTokenDAO.save(token);
+            
+            if (tokenId <= 0) {
+                throw new DatabaseException("Gagal menyimpan token terminal");
+            }
+            
+            writeTokenFile(selector + ":" + validator);
+            LOGGER.info("Terminal remembered for user " + userId + " | Token #" + tokenId);
+            
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error remembering terminal", e);
+            throw new DatabaseException("Gagal mengingat terminal: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Validasi token yang tersimpan di terminal ini.
+     * @return user_id pemilik token, atau -1 jika tidak ada token yang valid
+     */
+    public int validateThisTerminal() {
+        try {
+            if (!Files.exists(TOKEN_FILE)) {
+                return -1;
+            }
+            
+            String content = Files.readString(TOKEN_FILE, StandardCharsets.US_ASCII).trim();
+            int separator = content.indexOf(':');
+            if (separator <= 0) {
+                deleteTokenFile();
+                return -1;
+            }
+            
+            String selector = content.substring(0, separator);
+            String validator = content.substring(separator + 1);
+            
+            DeviceToken token = deviceTokenDAO.findActiveBySelector(selector);
+            
+            if (token == null || !MessageDigest.isEqual(
+                    sha256(validator).getBytes(StandardCharsets.US_ASCII),
+                    token.getValidatorHash().getBytes(StandardCharsets.US_ASCII))) {
+                LOGGER.info("Device token invalid, expired or revoked");
+                deleteTokenFile();
+                return -1;
+            }
+            
+            deviceTokenDAO.touch(token.getTokenId());
+            return token.getUserId();
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error validating device token", e);
+            return -1;
+        }
+    }
+    
+    public void forgetThisTerminal() {
+        try {
+            if (Files.exists(TOKEN_FILE)) {
+                String content = Files.readString(TOKEN_FILE, StandardCharsets.US_ASCII).trim();
+                int separator = content.indexOf(':');
+                if (separator > 0) {
+                    deviceTokenDAO.revokeBySelector(content.substring(0, separator));
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error revoking device token", e);
+        } finally {
+            deleteTokenFile();
+        }
+    }
+    
+    public List<DeviceToken> getActiveTokens() throws ValidationException, DatabaseException {
+        requireAdmin();
+        try {
+            return deviceTokenDAO.findAllActive();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting device tokens", e);
+            throw new DatabaseException("Gagal get token terminal: " + e.getMessage(), e);
+        }
+    }
+    
+    public boolean revokeToken(int tokenId) throws ValidationException, DatabaseException {
+        requireAdmin();
+        try {
+            boolean revoked = deviceTokenDAO.revoke(tokenId);
+            LOGGER.info("Device token revoked: #" + tokenId);
+            return revoked;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error revoking device token", e);
+            throw new DatabaseException("Gagal mencabut token terminal: " + e.getMessage(), e);
+        }
+    }
+    
+    public int revokeAllForUser(int userId) throws DatabaseException {
+        try {
+            int revoked = deviceTokenDAO.revokeByUserId(userId);
+            if (revoked > 0) {
+                LOGGER.info("Device tokens revoked for user " + userId + ": " + revoked);
+            }
+            return revoked;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error revoking device tokens", e);
+            throw new DatabaseException("Gagal mencabut token terminal: " + e.getMessage(), e);
+        }
+    }
+    
+    public int purgeExpired() {
+        try {
+            return deviceTokenDAO.deleteExpired(LocalDateTime.now().minusDays(TOKEN_VALIDITY_DAYS));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error purging device tokens", e);
+            return 0;
+        }
+    }
+    
+    private void requireAdmin() throws ValidationException {
+        if (!Session.getInstance().isAdmin()) {
+            throw new ValidationException("Hanya admin yang dapat mengelola token terminal");
+        }
+    }
+    
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        random.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+    
+    private static String sha256(String value) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+    
+    private static void writeTokenFile(String content) throws IOException {
+        Files.createDirectories(TOKEN_FILE.getParent());
+        Files.writeString(TOKEN_FILE, content, StandardCharsets.US_ASCII);
+        
+        try {
+            Files.setPosixFilePermissions(TOKEN_FILE, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Windows: cukup bergantung pada folder profil user
+        }
+    }
+    
+    private static void deleteTokenFile() {
+        try {
+            Files.deleteIfExists(TOKEN_FILE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error deleting device token file", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,515 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DendaDAO;
+import com.mycompany.sewabaju.dao.PembayaranDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.DailyStats;
+import com.mycompany.sewabaju.utils.DateUtil;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(ExportService.class.getName());
+
+    // Rows kept in memory per sheet; older rows are flushed to a temp file
+    private static final int ROW_WINDOW = 200;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    // Rows buffered in a PdfPTable before it is written out to the document
+    private static final int PDF_FLUSH_ROWS = 200;
+    private static final String PDF_CACHE_DIR = "reports/cache/";
+    private static final int PDF_CACHE_MAX_FILES = 36;
+    private static final DateTimeFormatter CACHE_WATERMARK_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private static final com.itextpdf.text.Font PDF_TITLE_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final com.itextpdf.text.Font PDF_HEADER_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+    private static final com.itextpdf.text.Font PDF_CELL_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    private static final String[] HEADER_PENYEWAAN = {
+        "ID Sewa", "Pelanggan", "Tgl Sewa", "Tgl Kembali", "Tgl Kembali Aktual", "Total Harga", "Status"
+    };
+    private static final String[] HEADER_PEMBAYARAN = {
+        "ID Pembayaran", "ID Sewa", "Metode", "Jumlah", "Status", "Tanggal Bayar", "Diverifikasi"
+    };
+    private static final String[] HEADER_DENDA = {
+        "ID Denda", "ID Sewa", "Jenis", "Jumlah", "Keterangan", "Status", "Tanggal"
+    };
+
+    private final PenyewaanDAO penyewaanDAO;
+    private final PembayaranDAO pembayaranDAO;
+    private final DendaDAO dendaDAO;
+    private final DailyStatsService dailyStatsService;
+    private static ExportService instance;
+
+    private ExportService() {
+        this.penyewaanDAO = new PenyewaanDAO();
+        this.pembayaranDAO = new PembayaranDAO();
+        this.dendaDAO = new DendaDAO();
+        this.dailyStatsService = DailyStatsService.getInstance();
+    }
+
+    public static ExportService getInstance() {
+        if (instance == null) {
+            synchronized (ExportService.class) {
+                if (instance == null) {
+                    instance = new ExportService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public interface ProgressListener {
+        void onProgress(long done, long total);
+
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    public long exportLaporanExcel(LocalDate startDate, LocalDate endDate, File target,
+                                   ProgressListener listener) throws DatabaseException, IOException {
+        long start = System.currentTimeMillis();
+
+        long total = (long) penyewaanDAO.countByDateRange(startDate, endDate)
+                   + pembayaranDAO.countByDateRange(startDate, endDate)
+                   + dendaDAO.countByDateRange(startDate, endDate);
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle moneyStyle = workbook.createCellStyle();
+            moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+
+            ProgressCounter counter = new ProgressCounter(total, listener);
+
+            SheetWriter penyewaanSheet = new SheetWriter(workbook, "Penyewaan", HEADER_PENYEWAAN, headerStyle);
+            penyewaanDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, p -> {
+                Row row = penyewaanSheet.nextRow();
+                row.createCell(0).setCellValue(p.getSewaId());
+                row.createCell(1).setCellValue(p.getNamaPelanggan());
+                row.createCell(2).setCellValue(DateUtil.formatDate(p.getTglSewa()));
+                row.createCell(3).setCellValue(DateUtil.formatDate(p.getTglKembali()));
+                row.createCell(4).setCellValue(DateUtil.formatDate(p.getTglKembaliAktual()));
+                moneyCell(row, 5, p.getTotalHarga(), moneyStyle);
+                row.createCell(6).setCellValue(p.getStatus() != null ? p.getStatus().getDisplayName() : "");
+                counter.increment();
+            });
+
+            SheetWriter pembayaranSheet = new SheetWriter(workbook, "Pembayaran", HEADER_PEMBAYARAN, headerStyle);
+            pembayaranDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, p -> {
+                Row row = pembayaranSheet.nextRow();
+                row.createCell(0).setCellValue(p.getPembayaranId());
+                row.createCell(1).setCellValue(p.getSewaId());
+                row.createCell(2).setCellValue(p.getMetodePembayaran() != null ?
+                        p.getMetodePembayaran().getDisplayName() : "");
+                moneyCell(row, 3, p.getJumlah(), moneyStyle);
+                row.createCell(4).setCellValue(p.getStatus() != null ? p.getStatus().getDisplayName() : "");
+                row.createCell(5).setCellValue(DateUtil.formatDateTime(p.getTanggalBayar()));
+                row.createCell(6).setCellValue(DateUtil.formatDateTime(p.getVerifiedAt()));
+                counter.increment();
+            });
+
+            SheetWriter dendaSheet = new SheetWriter(workbook, "Denda", HEADER_DENDA, headerStyle);
+            dendaDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, d -> {
+                Row row = dendaSheet.nextRow();
+                row.createCell(0).setCellValue(d.getDendaId());
+                row.createCell(1).setCellValue(d.getSewaId());
+                row.createCell(2).setCellValue(d.getJenisDendaDisplay());
+                moneyCell(row, 3, d.getJumlah(), moneyStyle);
+                row.createCell(4).setCellValue(d.getKeterangan() != null ? d.getKeterangan() : "");
+                row.createCell(5).setCellValue(d.getStatusBayarDisplay());
+                row.createCell(6).setCellValue(DateUtil.formatDateTime(d.getCreatedAt()));
+                counter.increment();
+            });
+
+            workbook.write(out);
+            counter.finish();
+
+            LOGGER.info("Excel export completed: " + target.getName() +
+                       " | Rows: " + counter.done +
+                       " | " + (System.currentTimeMillis() - start) + " ms");
+
+            return counter.done;
+
+        } catch (CancellationException e) {
+            LOGGER.info("Excel export cancelled: " + target.getName());
+            deletePartialFile(target);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error exporting excel", e);
+            deletePartialFile(target);
+            throw e;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    public void exportLaporanPdf(LocalDate startDate, LocalDate endDate, File target,
+                                    ProgressListener listener) throws DatabaseException, IOException {
+        long start = System.currentTimeMillis();
+
+        DailyStats summary = dailyStatsService.getSummary(startDate, endDate);
+        int jumlahPenyewaan = penyewaanDAO.countByDateRange(startDate, endDate);
+        int jumlahPembayaran = pembayaranDAO.countByDateRange(startDate, endDate);
+        int jumlahDenda = dendaDAO.countByDateRange(startDate, endDate);
+
+        // Only closed periods are cached. Any update bumps updated_at and any delete changes
+        // a count, so the key changes whenever a source row of the period does
+        boolean cacheable = endDate.isBefore(LocalDate.now());
+        LocalDateTime watermark = latest(
+                penyewaanDAO.findLastUpdatedByDateRange(startDate, endDate),
+                pembayaranDAO.findLastUpdatedByDateRange(startDate, endDate),
+                dendaDAO.findLastUpdatedByDateRange(startDate, endDate));
+        String version = (watermark != null ? watermark.format(CACHE_WATERMARK_FORMAT) : "0") + "_" +
+                         jumlahPenyewaan + "-" + jumlahPembayaran + "-" + jumlahDenda;
+        String rangePrefix = "laporan_" + startDate + "_" + endDate + "_";
+        Path cached = Paths.get(PDF_CACHE_DIR, rangePrefix + version + ".pdf");
+
+        if (cacheable && Files.exists(cached)) {
+            Files.copy(cached, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (listener != null) {
+                listener.onProgress(1, 1);
+            }
+            LOGGER.info("PDF report served from cache: " + cached.getFileName());
+            return;
+        }
+
+        long total = (long) jumlahPenyewaan + jumlahPembayaran + jumlahDenda;
+        ProgressCounter counter = new ProgressCounter(total, listener);
+        Document document = new Document(PageSize.A4.rotate(), 24, 24, 24, 24);
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            document.add(new Paragraph("Laporan SewaBaju", PDF_TITLE_FONT));
+            document.add(new Paragraph("Periode: " + DateUtil.formatDateDisplay(startDate) +
+                                       " - " + DateUtil.formatDateDisplay(endDate), PDF_CELL_FONT));
+            document.add(new Paragraph(" "));
+            document.add(createSummaryTable(summary));
+
+            PdfTableWriter penyewaanTable = new PdfTableWriter(document, "Penyewaan", HEADER_PENYEWAAN);
+            penyewaanDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, p -> {
+                penyewaanTable.addRow(
+                    String.valueOf(p.getSewaId()),
+                    p.getNamaPelanggan(),
+                    DateUtil.formatDate(p.getTglSewa()),
+                    DateUtil.formatDate(p.getTglKembali()),
+                    DateUtil.formatDate(p.getTglKembaliAktual()),
+                    formatRupiah(p.getTotalHarga()),
+                    p.getStatus() != null ? p.getStatus().getDisplayName() : ""
+                );
+                counter.increment();
+            });
+            penyewaanTable.finish();
+
+            PdfTableWriter pembayaranTable = new PdfTableWriter(document, "Pembayaran", HEADER_PEMBAYARAN);
+            pembayaranDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, p -> {
+                pembayaranTable.addRow(
+                    String.valueOf(p.getPembayaranId()),
+                    String.valueOf(p.getSewaId()),
+                    p.getMetodePembayaran() != null ? p.getMetodePembayaran().getDisplayName() : "",
+                    formatRupiah(p.getJumlah()),
+                    p.getStatus() != null ? p.getStatus().getDisplayName() : "",
+                    DateUtil.formatDateTime(p.getTanggalBayar()),
+                    DateUtil.formatDateTime(p.getVerifiedAt())
+                );
+                counter.increment();
+            });
+            pembayaranTable.finish();
+
+            PdfTableWriter dendaTable = new PdfTableWriter(document, "Denda", HEADER_DENDA);
+            dendaDAO.forEachByDateRange(startDate, endDate, CHUNK_SIZE, d -> {
+                dendaTable.addRow(
+                    String.valueOf(d.getDendaId()),
+                    String.valueOf(d.getSewaId()),
+                    d.getJenisDendaDisplay(),
+                    formatRupiah(d.getJumlah()),
+                    d.getKeterangan() != null ? d.getKeterangan() : "",
+                    d.getStatusBayarDisplay(),
+                    DateUtil.formatDateTime(d.getCreatedAt())
+                );
+                counter.increment();
+            });
+            dendaTable.finish();
+
+            document.close();
+            counter.finish();
+
+        } catch (CancellationException e) {
+            closeQuietly(document);
+            LOGGER.info("PDF export cancelled: " + target.getName());
+            deletePartialFile(target);
+            throw e;
+        } catch (DocumentException e) {
+            closeQuietly(document);
+            LOGGER.log(Level.SEVERE, "Error writing pdf", e);
+            deletePartialFile(target);
+            throw new IOException("Gagal membuat PDF: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(document);
+            LOGGER.log(Level.SEVERE, "Error exporting pdf", e);
+            deletePartialFile(target);
+            throw e;
+        }
+
+        if (cacheable) {
+            storeInPdfCache(target.toPath(), cached, rangePrefix);
+        }
+
+        LOGGER.info("PDF export completed: " + target.getName() +
+                   " | Rows: " + counter.done +
+                   " | " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private PdfPTable createSummaryTable(DailyStats summary) {
+        PdfPTable table = new PdfPTable(2);
+        table.setWidthPercentage(50);
+        table.setHorizontalAlignment(Element.ALIGN_LEFT);
+
+        addSummaryRow(table, "Total Penyewaan", String.valueOf(summary.getJumlahPenyewaan()));
+        addSummaryRow(table, "Penyewaan Dibatalkan", String.valueOf(summary.getJumlahDibatalkan()));
+        addSummaryRow(table, "Pendapatan", formatRupiah(summary.getPendapatan()));
+        addSummaryRow(table, "Pembayaran Masuk", formatRupiah(summary.getPembayaranMasuk()));
+        addSummaryRow(table, "Total Denda", formatRupiah(summary.getTotalDenda()));
+
+        return table;
+    }
+
+    private static void addSummaryRow(PdfPTable table, String label, String value) {
+        table.addCell(new Phrase(label, PDF_HEADER_FONT));
+        table.addCell(new Phrase(value, PDF_CELL_FONT));
+    }
+
+    private static String formatRupiah(double value) {
+        return String.format("Rp %,.0f", value);
+    }
+
+    private static LocalDateTime latest(LocalDateTime... values) {
+        LocalDateTime result = null;
+        for (LocalDateTime value : values) {
+            if (value != null && (result == null || value.isAfter(result))) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    private static void storeInPdfCache(Path source, Path cached, String rangePrefix) {
+        try {
+            Files.createDirectories(cached.getParent());
+            Files.copy(source, cached, StandardCopyOption.REPLACE_EXISTING);
+
+            // Older versions of the same period can never be served again
+            String cachedName = cached.getFileName().toString();
+            File[] stale = cached.getParent().toFile().listFiles((dir, name) ->
+                    name.startsWith(rangePrefix) && name.endsWith(".pdf") && !name.equals(cachedName));
+            if (stale != null) {
+                for (File file : stale) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            }
+
+            File[] files = cached.getParent().toFile().listFiles((dir, name) -> name.endsWith(".pdf"));
+            if (files != null && files.length > PDF_CACHE_MAX_FILES) {
+                Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+                for (int i = 0; i < files.length - PDF_CACHE_MAX_FILES; i++) {
+                    Files.deleteIfExists(files[i].toPath());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to store pdf in cache", e);
+        }
+    }
+
+    private static void closeQuietly(Document document) {
+        try {
+            if (document.isOpen()) {
+                document.close();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Error closing pdf document", e);
+        }
+    }
+
+    private static CellStyle createHeaderStyle(SXSSFWorkbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        style.setFont(font);
+        return style;
+    }
+
+    private static void moneyCell(Row row, int column, double value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+
+    private static void deletePartialFile(File target) {
+        if (target.exists() && !target.delete()) {
+            LOGGER.warning("Failed to delete partial export: " + target.getAbsolutePath());
+        }
+    }
+
+    private static class SheetWriter {
+        private final SXSSFWorkbook workbook;
+        private final String baseName;
+        private final String[] header;
+        private final CellStyle headerStyle;
+        private Sheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+
+        SheetWriter(SXSSFWorkbook workbook, String baseName, String[] header, CellStyle headerStyle) {
+            this.workbook = workbook;
+            this.baseName = baseName;
+            this.header = header;
+            this.headerStyle = headerStyle;
+            newSheet();
+        }
+
+        Row nextRow() {
+            if (rowIndex > MAX_ROWS_PER_SHEET) {
+                newSheet();
+            }
+            return sheet.createRow(rowIndex++);
+        }
+
+        private void newSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? baseName : baseName + " (" + sheetCount + ")");
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(header[i]);
+                cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, 18 * 256);
+            }
+            rowIndex = 1;
+        }
+    }
+
+    private static class PdfTableWriter {
+        private final Document document;
+        private final PdfPTable table;
+        private int pendingRows;
+
+        PdfTableWriter(Document document, String title, String[] header) throws DocumentException {
+            this.document = document;
+
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph(title, PDF_TITLE_FONT));
+            document.add(new Paragraph(" "));
+
+            table = new PdfPTable(header.length);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            // Incomplete table: rows already added to the document are released from memory
+            table.setComplete(false);
+
+            for (String column : header) {
+                PdfPCell cell = new PdfPCell(new Phrase(column, PDF_HEADER_FONT));
+                cell.setBackgroundColor(BaseColor.LIGHT_GRAY);
+                table.addCell(cell);
+            }
+        }
+
+        void addRow(String... values) {
+            for (String value : values) {
+                table.addCell(new Phrase(value, PDF_CELL_FONT));
+            }
+
+            if (++pendingRows >= PDF_FLUSH_ROWS) {
+                flush();
+            }
+        }
+
+        void finish() throws DocumentException {
+            table.setComplete(true);
+            document.add(table);
+        }
+
+        private void flush() {
+            try {
+                document.add(table);
+                pendingRows = 0;
+            } catch (DocumentException e) {
+                throw new IllegalStateException("Gagal menulis tabel PDF: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static class ProgressCounter {
+        private static final int REPORT_EVERY = 500;
+
+        private final long total;
+        private final ProgressListener listener;
+        private long done;
+
+        ProgressCounter(long total, ProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+
+        void increment() {
+            done++;
+            if (listener != null && done % REPORT_EVERY == 0) {
+                if (listener.isCancelled()) {
+                    throw new CancellationException("Export dibatalkan");
+                }
+                listener.onProgress(done, total);
+            }
+        }
+
+        void finish() {
+            if (listener != null) {
+                listener.onProgress(done, Math.max(done, total));
+            }
+        }
+    }
+}
\ No newline at end of file
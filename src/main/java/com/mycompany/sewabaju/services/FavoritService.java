@@ -3,6 +3,8 @@ package com.mycompany.sewabaju.services;
 import com.mycompany.sewabaju.dao.BajuDAO;
 import com.mycompany.sewabaju.dao.FavoritDAO;
 import com.mycompany.sewabaju.dao.PelangganDAO;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.FavoritChanged;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
 import com.mycompany.sewabaju.models.Baju;
@@ -36,7 +38,9 @@ public class FavoritService {
         }
         
         try {
-            return favoritDAO.toggle(pelangganId, bajuId);
+            boolean added = favoritDAO.toggle(pelangganId, bajuId);
+            EventBus.getInstance().publish(new FavoritChanged(pelangganId, bajuId, added));
+            return added;
         } catch (DatabaseException e) {
             throw new DatabaseException("Gagal toggle favorit: " + e.getMessage(), e);
         }
@@ -61,6 +65,7 @@ public class FavoritService {
         try {
             Favorit favorit = new Favorit(pelangganId, bajuId);
             favoritDAO.save(favorit);
+            EventBus.getInstance().publish(new FavoritChanged(pelangganId, bajuId, true));
         } catch (DatabaseException e) {
             throw new DatabaseException("Gagal menambahkan favorit: " + e.getMessage(), e);
         }
@@ -78,6 +83,7 @@ public class FavoritService {
             Favorit favorit = favoritDAO.findByPelangganIdAndBajuId(pelangganId, bajuId);
             if (favorit != null) {
                 favoritDAO.delete(favorit.getFavoritId());
+                EventBus.getInstance().publish(new FavoritChanged(pelangganId, bajuId, false));
             }
         } catch (DatabaseException e) {
             throw new DatabaseException("Gagal menghapus favorit: " + e.getMessage(), e);
@@ -0,0 +1,227 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.DetailPenyewaanDAO;
+import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.database.ConnectionPool;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.LaporanRingkasan;
+import com.mycompany.sewabaju.models.PivotRow;
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.utils.HyperLogLog;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Laporan periode panjang: rentang tanggal dibagi menjadi partisi, setiap partisi di-query
+ * di fork/join pool terbatas dengan koneksi pool sendiri, lalu hasil parsialnya digabung.
+ * Pelanggan unik dihitung lewat sketch HyperLogLog supaya partisi bisa digabung.
+ */
+public class LaporanService {
+
+    private static final Logger LOGGER = Logger.getLogger(LaporanService.class.getName());
+
+    private static final int PARTITION_DAYS = Integer.getInteger("sewabaju.laporan.partitionDays", 31);
+    private static final int PARALLELISM = Integer.getInteger("sewabaju.laporan.parallelism",
+            Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    /**
+     * Agregat satu partisi. Semua field bisa digabung: hitungan dan total dijumlah,
+     * map baju digabung per kunci, sketch pelanggan di-merge.
+     */
+    private static final class Partial {
+        private final long[] jumlahPerStatus = new long[StatusPenyewaan.values().length];
+        private final double[] totalPerStatus = new double[StatusPenyewaan.values().length];
+        private final Map<Integer, PivotRow> perBaju = new HashMap<>();
+        private final HyperLogLog pelanggan = new HyperLogLog();
+        private int partisi = 1;
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < jumlahPerStatus.length; i++) {
+                jumlahPerStatus[i] += other.jumlahPerStatus[i];
+                totalPerStatus[i] += other.totalPerStatus[i];
+            }
+            for (PivotRow row : other.perBaju.values()) {
+                perBaju.merge(row.getKunci(), row, (a, b) -> new PivotRow(a.getKunci(), a.getLabel(),
+                        a.getJumlahBaris() + b.getJumlahBaris(), a.getJumlahItem() + b.getJumlahItem(),
+                        a.getTotalPendapatan() + b.getTotalPendapatan()));
+            }
+            pelanggan.merge(other.pelanggan);
+            partisi += other.partisi;
+            return this;
+        }
+    }
+
+    private final class PartitionTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate start;
+        private final LocalDate end;
+
+        PartitionTask(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Partial compute() {
+            long days = ChronoUnit.DAYS.between(start, end) + 1;
+            if (days <= PARTITION_DAYS) {
+                try {
+                    return DatabaseConnection.getInstance().withPooledConnection(() -> loadPartition(start, end));
+                } catch (Exception e) {
+                    throw new PartitionFailure(start, end, e);
+                }
+            }
+
+            LocalDate mid = start.plusDays(days / 2 - 1);
+            PartitionTask left = new PartitionTask(start, mid);
+            PartitionTask right = new PartitionTask(mid.plusDays(1), end);
+            left.fork();
+            Partial result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+
+    private static final class PartitionFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PartitionFailure(LocalDate start, LocalDate end, Exception cause) {
+            super("Partisi " + start + " - " + end + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private final PenyewaanDAO penyewaanDAO;
+    private final DetailPenyewaanDAO detailPenyewaanDAO;
+    private ForkJoinPool forkJoinPool;
+
+    private static LaporanService instance;
+
+    private LaporanService() {
+        this.penyewaanDAO = new PenyewaanDAO();
+        this.detailPenyewaanDAO = new DetailPenyewaanDAO();
+    }
+
+    public static LaporanService getInstance() {
+        if (instance == null) {
+            synchronized (LaporanService.class) {
+                if (instance == null) {
+                    instance = new LaporanService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LaporanRingkasan generate(LocalDate startDate, LocalDate endDate, int topN) throws DatabaseException {
+        long start = System.currentTimeMillis();
+        PartitionTask task = new PartitionTask(startDate, endDate);
+
+        Partial result;
+        try {
+            if (ChronoUnit.DAYS.between(startDate, endDate) + 1 <= PARTITION_DAYS) {
+                result = task.compute();
+            } else {
+                result = getPool().invoke(task);
+            }
+        } catch (PartitionFailure e) {
+            LOGGER.log(Level.SEVERE, "Error generating laporan", e);
+            throw new DatabaseException("Gagal generate laporan: " + e.getMessage(), e.getCause());
+        }
+
+        LaporanRingkasan ringkasan = toRingkasan(startDate, endDate, result, topN,
+                System.currentTimeMillis() - start);
+        LOGGER.info("Laporan generated " + startDate + " - " + endDate +
+                   " | Partitions: " + ringkasan.getJumlahPartisi() +
+                   " | " + ringkasan.getDurasiMillis() + " ms");
+        return ringkasan;
+    }
+
+    public synchronized void shutdown() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+            forkJoinPool = null;
+        }
+    }
+
+    private Partial loadPartition(LocalDate start, LocalDate end) throws DatabaseException {
+        Partial partial = new Partial();
+
+        for (PivotRow row : penyewaanDAO.summarizeByStatus(start, end)) {
+            partial.jumlahPerStatus[row.getKunci()] += row.getJumlahBaris();
+            partial.totalPerStatus[row.getKunci()] += row.getTotalPendapatan();
+        }
+        for (PivotRow row : detailPenyewaanDAO.summarizeByBaju(start, end)) {
+            partial.perBaju.put(row.getKunci(), row);
+        }
+        for (Integer userId : penyewaanDAO.findDistinctUserIds(start, end)) {
+            partial.pelanggan.add(userId);
+        }
+        return partial;
+    }
+
+    /**
+     * Pool fork/join dibatasi juga oleh ukuran connection pool, karena setiap partisi
+     * yang berjalan memegang satu koneksi.
+     */
+    private synchronized ForkJoinPool getPool() {
+        if (forkJoinPool == null) {
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            db.enablePool();
+            ConnectionPool pool = db.getPool();
+
+            int parallelism = Math.max(1, Math.min(PARALLELISM, pool.getMaxActive() / 2));
+            forkJoinPool = new ForkJoinPool(parallelism);
+            LOGGER.info("Laporan fork/join pool started (parallelism " + parallelism + ")");
+        }
+        return forkJoinPool;
+    }
+
+    private static LaporanRingkasan toRingkasan(LocalDate startDate, LocalDate endDate, Partial result,
+                                                int topN, long durasiMillis) {
+        long jumlahPenyewaan = 0;
+        double totalNilai = 0;
+        for (StatusPenyewaan status : StatusPenyewaan.values()) {
+            jumlahPenyewaan += result.jumlahPerStatus[status.ordinal()];
+            if (status != StatusPenyewaan.DIBATALKAN) {
+                totalNilai += result.totalPerStatus[status.ordinal()];
+            }
+        }
+
+        long jumlahItem = 0;
+        for (PivotRow row : result.perBaju.values()) {
+            jumlahItem += row.getJumlahItem();
+        }
+
+        List<PivotRow> topBaju = new ArrayList<>(result.perBaju.values());
+        topBaju.sort(Comparator.comparingLong(PivotRow::getJumlahItem).reversed()
+                .thenComparing(Comparator.comparingDouble(PivotRow::getTotalPendapatan).reversed()));
+        if (topBaju.size() > topN) {
+            topBaju = new ArrayList<>(topBaju.subList(0, topN));
+        }
+
+        return new LaporanRingkasan(
+                startDate,
+                endDate,
+                jumlahPenyewaan,
+                result.jumlahPerStatus[StatusPenyewaan.DIBATALKAN.ordinal()],
+                totalNilai,
+                result.totalPerStatus[StatusPenyewaan.DIKEMBALIKAN.ordinal()],
+                jumlahItem,
+                result.pelanggan.estimate(),
+                topBaju,
+                result.partisi,
+                durasiMillis
+        );
+    }
+}
\ No newline at end of file
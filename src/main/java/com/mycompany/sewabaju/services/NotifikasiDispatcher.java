@@ -0,0 +1,174 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.NotifikasiOutboxDAO;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.Notifikasi;
+import com.mycompany.sewabaju.models.enums.StatusNotifikasi;
+import com.mycompany.sewabaju.notifikasi.FileNotifikasiChannel;
+import com.mycompany.sewabaju.notifikasi.LogNotifikasiChannel;
+import com.mycompany.sewabaju.notifikasi.NotifikasiChannel;
+import com.mycompany.sewabaju.utils.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Kirim isi outbox notifikasi di background. Baris outbox ditulis dalam transaksi yang sama
+ * dengan perubahan status, jadi jalur approve tidak pernah menunggu pengiriman. Gagal kirim
+ * dicoba lagi dengan exponential backoff sampai batas percobaan, lalu ditandai GAGAL.
+ */
+public class NotifikasiDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(NotifikasiDispatcher.class.getName());
+
+    private static final long INTERVAL_SECONDS = Long.getLong("sewabaju.notifikasi.intervalSeconds", 10);
+    private static final int BATCH_SIZE = Integer.getInteger("sewabaju.notifikasi.batchSize", 50);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("sewabaju.notifikasi.maxAttempts", 8);
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final long BASE_BACKOFF_SECONDS = 10;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    // Cukup lama untuk satu batch; kunci yang lewat batas bisa diambil terminal lain
+    private static final int LOCK_SECONDS = 300;
+    private static final int KEEP_SENT_DAYS = 30;
+
+    private final NotifikasiOutboxDAO outboxDAO;
+    private final String workerId;
+    private volatile NotifikasiChannel channel;
+    private ScheduledFuture<?> dispatchTask;
+
+    private static NotifikasiDispatcher instance;
+
+    private NotifikasiDispatcher() {
+        this.outboxDAO = new NotifikasiOutboxDAO();
+        this.workerId = "terminal-" + UUID.randomUUID().toString().substring(0, 8);
+        this.channel = "file".equalsIgnoreCase(System.getProperty("sewabaju.notifikasi.channel"))
+                ? new FileNotifikasiChannel()
+                : new LogNotifikasiChannel();
+    }
+
+    public static NotifikasiDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (NotifikasiDispatcher.class) {
+                if (instance == null) {
+                    instance = new NotifikasiDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void setChannel(NotifikasiChannel channel) {
+        this.channel = channel;
+    }
+
+    public NotifikasiChannel getChannel() {
+        return channel;
+    }
+
+    public synchronized void start() {
+        if (dispatchTask != null) {
+            return;
+        }
+
+        purgeSent();
+        dispatchTask = TaskScheduler.getInstance().scheduleWithFixedDelay("notifikasi-dispatch", this::dispatchQuietly,
+                INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        LOGGER.info("Notifikasi dispatcher started (" + channel.getName() + ", worker " + workerId + ")");
+    }
+
+    public synchronized void stop() {
+        if (dispatchTask != null) {
+            dispatchTask.cancel(false);
+            dispatchTask = null;
+        }
+    }
+
+    /**
+     * Minta pengiriman segera setelah transaksi yang menulis outbox di-commit,
+     * tanpa menunggu jadwal berikutnya.
+     */
+    public void wake() {
+        TaskScheduler.getInstance().schedule("notifikasi-dispatch", this::dispatchQuietly, 0, TimeUnit.SECONDS);
+    }
+
+    public synchronized int dispatch() throws Exception {
+        return DatabaseConnection.getInstance().withPooledConnection(() -> {
+            int terkirim = 0;
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                List<Notifikasi> batch = outboxDAO.claimDue(workerId, BATCH_SIZE, LOCK_SECONDS);
+                for (Notifikasi notifikasi : batch) {
+                    if (deliver(notifikasi)) {
+                        terkirim++;
+                    }
+                }
+                if (batch.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+            return terkirim;
+        });
+    }
+
+    public int countPending() throws DatabaseException {
+        return outboxDAO.countByStatus(StatusNotifikasi.MENUNGGU);
+    }
+
+    public int countGagal() throws DatabaseException {
+        return outboxDAO.countByStatus(StatusNotifikasi.GAGAL);
+    }
+
+    private boolean deliver(Notifikasi notifikasi) throws DatabaseException {
+        try {
+            channel.send(notifikasi);
+        } catch (Exception e) {
+            int attempts = notifikasi.getAttempts() + 1;
+            boolean menyerah = attempts >= MAX_ATTEMPTS;
+            long delay = backoffSeconds(attempts);
+
+            outboxDAO.markFailed(notifikasi.getOutboxId(), e.getMessage(), delay, menyerah);
+            LOGGER.log(menyerah ? Level.SEVERE : Level.WARNING,
+                    "Notifikasi " + notifikasi.getIdempotencyKey() + " gagal (percobaan " + attempts + ")" +
+                    (menyerah ? ", tidak dicoba lagi" : ", dicoba lagi dalam " + delay + " detik"), e);
+            return false;
+        }
+
+        outboxDAO.markSent(notifikasi.getOutboxId());
+        return true;
+    }
+
+    // 10s, 20s, 40s, ... maksimal 1 jam, plus jitter agar terminal tidak serentak
+    private static long backoffSeconds(int attempts) {
+        long delay = BASE_BACKOFF_SECONDS << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, MAX_BACKOFF_SECONDS);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+    }
+
+    private void dispatchQuietly() {
+        try {
+            int terkirim = dispatch();
+            if (terkirim > 0) {
+                LOGGER.fine("Dispatched " + terkirim + " notifikasi");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to dispatch notifikasi", e);
+        }
+    }
+
+    private void purgeSent() {
+        try {
+            int deleted = outboxDAO.deleteSentBefore(LocalDateTime.now().minusDays(KEEP_SENT_DAYS));
+            if (deleted > 0) {
+                LOGGER.info("Purged " + deleted + " sent notifikasi");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to purge sent notifikasi", e);
+        }
+    }
+}
\ No newline at end of file
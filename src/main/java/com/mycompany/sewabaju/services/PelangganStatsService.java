@@ -0,0 +1,89 @@
+package com.mycompany.sewabaju.services;
+
+import com.mycompany.sewabaju.dao.PelangganDAO;
+import com.mycompany.sewabaju.events.DendaChanged;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PembayaranChanged;
+import com.mycompany.sewabaju.events.PenyewaanCreated;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
+import com.mycompany.sewabaju.exceptions.DatabaseException;
+import com.mycompany.sewabaju.models.PelangganSummary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache ringkasan per pelanggan. Event penyewaan membawa userId sehingga hanya entri
+ * pelanggan itu yang dibuang; event pembayaran dan denda hanya membawa sewaId,
+ * jadi seluruh cache dibuang (isinya kecil dan dimuat ulang saat dibutuhkan).
+ * Event diproses langsung di thread yang mem-publish, jadi cache sudah dibuang sebelum
+ * write path kembali. Versi dinaikkan setiap invalidasi; ringkasan yang dimuat sebelum
+ * invalidasi tidak disimpan.
+ */
+public class PelangganStatsService {
+
+    private static final Logger LOGGER = Logger.getLogger(PelangganStatsService.class.getName());
+
+    private final PelangganDAO pelangganDAO;
+    private final Map<Integer, PelangganSummary> cache = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private static PelangganStatsService instance;
+
+    private PelangganStatsService() {
+        this.pelangganDAO = new PelangganDAO();
+
+        EventBus bus = EventBus.getInstance();
+        // Handler hanya membuang entri map, aman dijalankan di thread publisher
+        bus.subscribe(PenyewaanCreated.class, event -> invalidate(event.getUserId()), Runnable::run);
+        bus.subscribe(PenyewaanStatusChanged.class, event -> invalidate(event.getUserId()), Runnable::run);
+        bus.subscribe(PembayaranChanged.class, event -> invalidateAll(), Runnable::run);
+        bus.subscribe(DendaChanged.class, event -> invalidateAll(), Runnable::run);
+    }
+
+    public static PelangganStatsService getInstance() {
+        if (instance == null) {
+            synchronized (PelangganStatsService.class) {
+                if (instance == null) {
+                    instance = new PelangganStatsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public PelangganSummary getSummary(int userId) throws DatabaseException {
+        PelangganSummary cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            long loadedVersion = version.get();
+            PelangganSummary summary = pelangganDAO.loadSummary(userId);
+            if (version.get() == loadedVersion) {
+                cache.put(userId, summary);
+                // Invalidasi di sela cek dan put: buang lagi agar tidak tertinggal
+                if (version.get() != loadedVersion) {
+                    cache.remove(userId, summary);
+                }
+            }
+            return summary;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading pelanggan summary", e);
+            throw new DatabaseException("Gagal get ringkasan pelanggan: " + e.getMessage(), e);
+        }
+    }
+
+    public void invalidate(int userId) {
+        version.incrementAndGet();
+        cache.remove(userId);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.clear();
+    }
+}
\ No newline at end of file
@@ -1,12 +1,20 @@
 package com.mycompany.sewabaju.services;
 
 import com.mycompany.sewabaju.dao.PembayaranDAO;
+import com.mycompany.sewabaju.dao.NotifikasiOutboxDAO;
 import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.database.DatabaseConnection;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PembayaranChanged;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.PembayaranException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
+import com.mycompany.sewabaju.models.Notifikasi;
 import com.mycompany.sewabaju.models.Pembayaran;
+import com.mycompany.sewabaju.models.PembayaranRow;
 import com.mycompany.sewabaju.models.Penyewaan;
+import com.mycompany.sewabaju.models.VerifikasiResult;
 import com.mycompany.sewabaju.models.enums.MetodePembayaran;
 import com.mycompany.sewabaju.models.enums.StatusPembayaran;
 import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
@@ -15,7 +23,11 @@ import com.mycompany.sewabaju.utils.Session;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -23,15 +35,22 @@ public class PembayaranService {
     
     private static final Logger LOGGER = Logger.getLogger(PembayaranService.class.getName());
     
+    private static final int CLAIM_BATCH_SIZE = Integer.getInteger("sewabaju.verifikasi.batchSize", 20);
+    private static final int CLAIM_LEASE_SECONDS = Integer.getInteger("sewabaju.verifikasi.leaseSeconds", 300);
+    
     private final PembayaranDAO pembayaranDAO;
     private final PenyewaanDAO penyewaanDAO;
+    private final NotifikasiOutboxDAO outboxDAO;
     private final PenyewaanService penyewaanService;
+    private final DailyStatsService dailyStatsService;
     private static PembayaranService instance;
     
     private PembayaranService() {
         this.pembayaranDAO = new PembayaranDAO();
         this.penyewaanDAO = new PenyewaanDAO();
+        this.outboxDAO = new NotifikasiOutboxDAO();
         this.penyewaanService = PenyewaanService.getInstance();
+        this.dailyStatsService = DailyStatsService.getInstance();
     }
     
     public static PembayaranService getInstance() {
@@ -75,7 +94,21 @@ public class PembayaranService {
                 pembayaran.setStatus(StatusPembayaran.MENUNGGU_VERIFIKASI);
             }
             
-            int pembayaranId = pembayaranDAO.save(pembayaran);
+            // CASH langsung mengonfirmasi penyewaan di transaksi yang sama dengan pembayarannya
+            List<PenyewaanStatusChanged> confirmed = new ArrayList<>(1);
+            int pembayaranId = DatabaseConnection.getInstance().inTransaction(() -> {
+                int id = pembayaranDAO.save(pembayaran);
+                if (id <= 0) {
+                    return id;
+                }
+                if (pembayaran.getStatus() == StatusPembayaran.MENUNGGU_VERIFIKASI) {
+                    outboxDAO.enqueue(notifikasiBuktiBaru(id, pembayaran.getBuktiPembayaran()));
+                } else {
+                    confirmed.add(penyewaanService.confirmPenyewaanInTransaction(sewaId));
+                    dailyStatsService.recordPembayaranMasuk(pembayaran.getTanggalBayar(), jumlah);
+                }
+                return id;
+            });
             
             if (pembayaranId <= 0) {
                 if (buktiFilename != null) {
@@ -86,9 +119,10 @@ public class PembayaranService {
             
             pembayaran.setPembayaranId(pembayaranId);
             
-            if (metode == MetodePembayaran.CASH) {
-                penyewaanService.confirmPenyewaan(sewaId);
-            }
+            EventBus eventBus = EventBus.getInstance();
+            confirmed.forEach(eventBus::publish);
+            eventBus.publish(new PembayaranChanged(pembayaranId, sewaId, pembayaran.getStatus()));
+            NotifikasiDispatcher.getInstance().wake();
             
             LOGGER.info("Pembayaran created: #" + pembayaranId + 
                        " | Metode: " + metode + 
@@ -146,15 +180,23 @@ public class PembayaranService {
             
             String newFilename = FileUtil.uploadBuktiPembayaran(newBuktiFile);
             
-            boolean updated = pembayaranDAO.updateBuktiPembayaran(pembayaranId, newFilename);
+            boolean updated = DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!pembayaranDAO.updateBuktiPembayaran(pembayaranId, newFilename)) {
+                    return false;
+                }
+                outboxDAO.enqueue(notifikasiBuktiBaru(pembayaranId, newFilename));
+                return true;
+            });
             
             if (!updated) {
                 FileUtil.deleteBuktiPembayaran(newFilename);
                 throw new DatabaseException("Gagal update bukti pembayaran");
             }
             
+            EventBus.getInstance().publish(new PembayaranChanged(
+                pembayaranId, pembayaran.getSewaId(), StatusPembayaran.MENUNGGU_VERIFIKASI));
             LOGGER.info("Bukti re-uploaded: Pembayaran #" + pembayaranId);
-            notifyAdminNewBukti(pembayaranId);
+            NotifikasiDispatcher.getInstance().wake();
             
             return true;
             
@@ -196,6 +238,24 @@ public class PembayaranService {
         }
     }
     
+    public List<PembayaranRow> getPembayaranRows(StatusPembayaran status) throws DatabaseException {
+        try {
+            return pembayaranDAO.findRowsByStatus(status, 0);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting pembayaran rows", e);
+            throw new DatabaseException("Gagal get pembayaran: " + e.getMessage(), e);
+        }
+    }
+    
+    public PembayaranRow getPembayaranRowById(int pembayaranId) throws DatabaseException {
+        try {
+            return pembayaranDAO.findRowById(pembayaranId);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting pembayaran row", e);
+            throw new DatabaseException("Gagal get pembayaran: " + e.getMessage(), e);
+        }
+    }
+    
     public List<Pembayaran> getPembayaranPending() throws DatabaseException {
         try {
             return pembayaranDAO.findPending();
@@ -232,16 +292,34 @@ public class PembayaranService {
                 throw new ValidationException("Hanya bisa approve pembayaran yang pending");
             }
             
-            boolean approved = pembayaranDAO.approve(pembayaranId, adminId);
+            Penyewaan penyewaan = penyewaanDAO.findById(pembayaran.getSewaId());
             
-            if (!approved) {
-                throw new DatabaseException("Gagal approve pembayaran");
+            if (penyewaan == null) {
+                throw new DatabaseException("Penyewaan tidak ditemukan");
             }
             
-            penyewaanService.confirmPenyewaan(pembayaran.getSewaId());
+            // Pembayaran dan penyewaan berubah bersama, seperti jalur bulk
+            PenyewaanStatusChanged confirmed = DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!pembayaranDAO.approve(pembayaranId, adminId)) {
+                    return null;
+                }
+                PenyewaanStatusChanged event = penyewaanService.confirmPenyewaanInTransaction(pembayaran.getSewaId());
+                dailyStatsService.recordPembayaranMasuk(LocalDateTime.now(), pembayaran.getJumlah());
+                outboxDAO.enqueue(notifikasiVerifikasi(pembayaranId, penyewaan.getSewaId(), penyewaan.getUserId(),
+                        pembayaran.getBuktiPembayaran(), StatusPembayaran.BERHASIL));
+                return event;
+            });
+            
+            if (confirmed == null) {
+                throw new ValidationException("Pembayaran sudah diproses atau sedang diverifikasi admin lain");
+            }
+            
+            EventBus.getInstance().publish(confirmed);
+            EventBus.getInstance().publish(new PembayaranChanged(
+                pembayaranId, pembayaran.getSewaId(), StatusPembayaran.BERHASIL));
             
             LOGGER.info("Pembayaran approved: #" + pembayaranId + " by admin " + adminId);
-            notifyPelangganApproved(pembayaran.getSewaId());
+            NotifikasiDispatcher.getInstance().wake();
             return true;
             
         } catch (ValidationException | DatabaseException e) {
@@ -270,14 +348,30 @@ public class PembayaranService {
                 throw new ValidationException("Hanya bisa reject pembayaran yang pending");
             }
             
-            boolean rejected = pembayaranDAO.reject(pembayaranId, adminId);
+            Penyewaan penyewaan = penyewaanDAO.findById(pembayaran.getSewaId());
+            
+            if (penyewaan == null) {
+                throw new DatabaseException("Penyewaan tidak ditemukan");
+            }
+            
+            boolean rejected = DatabaseConnection.getInstance().inTransaction(() -> {
+                if (!pembayaranDAO.reject(pembayaranId, adminId)) {
+                    return false;
+                }
+                outboxDAO.enqueue(notifikasiVerifikasi(pembayaranId, penyewaan.getSewaId(), penyewaan.getUserId(),
+                        pembayaran.getBuktiPembayaran(), StatusPembayaran.DITOLAK));
+                return true;
+            });
             
             if (!rejected) {
-                throw new DatabaseException("Gagal reject pembayaran");
+                throw new ValidationException("Pembayaran sudah diproses atau sedang diverifikasi admin lain");
             }
             
+            EventBus.getInstance().publish(new PembayaranChanged(
+                pembayaranId, pembayaran.getSewaId(), StatusPembayaran.DITOLAK));
+            
             LOGGER.info("Pembayaran rejected: #" + pembayaranId + " by admin " + adminId);
-            notifyPelangganRejected(pembayaran.getSewaId());
+            NotifikasiDispatcher.getInstance().wake();
             return true;
             
         } catch (ValidationException | DatabaseException e) {
@@ -288,69 +382,165 @@ public class PembayaranService {
         }
     }
     
-    public String getBuktiFilePath(String filename) {
-        return FileUtil.getBuktiPembayaranPath(filename);
-    }
-    
-    public boolean buktiFileExists(String filename) {
-        if (filename == null) return false;
-        String path = FileUtil.getBuktiPembayaranPath(filename);
-        return FileUtil.fileExists(path);
+    public List<VerifikasiResult> approvePembayaranBulk(List<Integer> pembayaranIds, int adminId) 
+            throws ValidationException, DatabaseException {
+        return verifyBulk(pembayaranIds, adminId, StatusPembayaran.BERHASIL);
     }
     
-    public String getPaymentInstructions(MetodePembayaran metode) {
-        return metode != null ? metode.getInstructions() : "";
+    public List<VerifikasiResult> rejectPembayaranBulk(List<Integer> pembayaranIds, int adminId) 
+            throws ValidationException, DatabaseException {
+        return verifyBulk(pembayaranIds, adminId, StatusPembayaran.DITOLAK);
     }
     
-    private void notifyPelangganApproved(int sewaId) {
+    private List<VerifikasiResult> verifyBulk(List<Integer> pembayaranIds, int adminId, 
+                                              StatusPembayaran newStatus) 
+            throws ValidationException, DatabaseException {
+        
         try {
-            Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
-            if (penyewaan != null && penyewaan.getUser() != null) {
-                String message = "Pembayaran Anda telah diverifikasi untuk Penyewaan #" + sewaId + 
-                               ". Baju siap diambil!";
-                
-                LOGGER.info("NOTIFICATION: To User #" + penyewaan.getUserId() + " - " + message);
+            if (!Session.getInstance().isAdmin()) {
+                throw new ValidationException("Hanya admin yang dapat verifikasi pembayaran");
+            }
+            
+            if (pembayaranIds == null || pembayaranIds.isEmpty()) {
+                throw new ValidationException("Pilih minimal satu pembayaran");
+            }
+            
+            long start = System.currentTimeMillis();
+            List<VerifikasiResult> results = pembayaranDAO.verifyBulk(
+                new ArrayList<>(new LinkedHashSet<>(pembayaranIds)), adminId, newStatus,
+                result -> notifikasiVerifikasi(result.getPembayaranId(), result.getSewaId(), 
+                        result.getUserId(), result.getBuktiPembayaran(), newStatus));
+            
+            List<VerifikasiResult> berhasil = new ArrayList<>();
+            double totalMasuk = 0;
+            for (VerifikasiResult result : results) {
+                if (!result.isBerhasil()) {
+                    continue;
+                }
+                berhasil.add(result);
+                totalMasuk += result.getJumlah();
                 
-                // TODO: Implement actual notification
-                // - Send email using JavaMail
-                // - Send SMS using Twilio/Nexmo
-                // - Create in-app notification in database
-                // - Push notification to mobile app
+                EventBus.getInstance().publish(new PembayaranChanged(
+                    result.getPembayaranId(), result.getSewaId(), newStatus));
+                if (newStatus == StatusPembayaran.BERHASIL) {
+                    EventBus.getInstance().publish(new PenyewaanStatusChanged(
+                        result.getSewaId(), result.getUserId(), 
+                        StatusPenyewaan.MENUNGGU_PEMBAYARAN, StatusPenyewaan.DIKONFIRMASI));
+                }
+            }
+            
+            if (newStatus == StatusPembayaran.BERHASIL) {
+                dailyStatsService.recordPembayaranMasuk(LocalDateTime.now(), totalMasuk);
             }
+            
+            LOGGER.info("Bulk " + newStatus + " by admin " + adminId + ": " + berhasil.size() + 
+                       "/" + results.size() + " | " + (System.currentTimeMillis() - start) + " ms");
+            
+            if (!berhasil.isEmpty()) {
+                NotifikasiDispatcher.getInstance().wake();
+            }
+            
+            return results;
+            
+        } catch (ValidationException e) {
+            throw e;
         } catch (Exception e) {
-            // Don't throw exception, just log
-            LOGGER.log(Level.WARNING, "Failed to send notification", e);
+            LOGGER.log(Level.SEVERE, "Error verifying pembayaran in bulk", e);
+            throw new DatabaseException("Gagal verifikasi pembayaran: " + e.getMessage(), e);
         }
     }
     
-    private void notifyPelangganRejected(int sewaId) {
+    /**
+     * Ambil batch pembayaran pending untuk diverifikasi admin ini. Baris yang sudah diklaim
+     * admin lain tidak ikut selama lease-nya masih berlaku.
+     */
+    public List<PembayaranRow> claimPembayaran(int adminId) throws ValidationException, DatabaseException {
         try {
-            Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
-            if (penyewaan != null && penyewaan.getUser() != null) {
-                String message = "Pembayaran Anda ditolak untuk Penyewaan #" + sewaId + 
-                               ". Silakan upload ulang bukti pembayaran yang valid.";
-                
-                LOGGER.info("NOTIFICATION: To User #" + penyewaan.getUserId() + " - " + message);
-                
-                // TODO: Implement actual notification
+            if (!Session.getInstance().isAdmin()) {
+                throw new ValidationException("Hanya admin yang dapat verifikasi pembayaran");
             }
+            
+            int claimed = pembayaranDAO.claimPending(adminId, CLAIM_BATCH_SIZE, CLAIM_LEASE_SECONDS);
+            LOGGER.fine("Admin " + adminId + " claimed " + claimed + " pembayaran");
+            
+            return pembayaranDAO.findClaimedRows(adminId);
+            
+        } catch (ValidationException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to send notification", e);
+            LOGGER.log(Level.SEVERE, "Error claiming pembayaran", e);
+            throw new DatabaseException("Gagal klaim pembayaran: " + e.getMessage(), e);
         }
     }
     
-    private void notifyAdminNewBukti(int pembayaranId) {
+    public PembayaranRow getClaimedRowById(int pembayaranId, int adminId) throws DatabaseException {
         try {
-            String message = "Bukti pembayaran baru telah diupload untuk Pembayaran #" + 
-                           pembayaranId + ". Silakan verifikasi.";
-            
-            LOGGER.info("NOTIFICATION: To Admin - " + message);
-            
+            return pembayaranDAO.findClaimedRowById(pembayaranId, adminId);
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to send notification", e);
+            LOGGER.log(Level.SEVERE, "Error getting claimed pembayaran row", e);
+            throw new DatabaseException("Gagal get pembayaran: " + e.getMessage(), e);
         }
     }
     
+    public void renewClaims(int adminId) throws DatabaseException {
+        try {
+            pembayaranDAO.renewClaims(adminId, CLAIM_LEASE_SECONDS);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error renewing pembayaran claims", e);
+            throw new DatabaseException("Gagal perpanjang klaim: " + e.getMessage(), e);
+        }
+    }
+    
+    public void releaseClaims(int adminId) {
+        try {
+            int released = pembayaranDAO.releaseClaims(adminId);
+            if (released > 0) {
+                LOGGER.info("Released " + released + " pembayaran claims of admin " + adminId);
+            }
+        } catch (Exception e) {
+            // Tidak fatal, lease tetap habis sendiri
+            LOGGER.log(Level.WARNING, "Error releasing pembayaran claims", e);
+        }
+    }
+    
+    public int getClaimLeaseSeconds() {
+        return CLAIM_LEASE_SECONDS;
+    }
+    
+    public String getBuktiFilePath(String filename) {
+        return FileUtil.getBuktiPembayaranPath(filename);
+    }
+    
+    public boolean buktiFileExists(String filename) {
+        if (filename == null) return false;
+        String path = FileUtil.getBuktiPembayaranPath(filename);
+        return FileUtil.fileExists(path);
+    }
+    
+    public String getPaymentInstructions(MetodePembayaran metode) {
+        return metode != null ? metode.getInstructions() : "";
+    }
+    
+    // Key memuat nama file bukti: keputusan atas bukti yang sama tidak pernah dikirim dua kali,
+    // tapi penolakan ulang setelah upload baru tetap terkirim
+    private static Notifikasi notifikasiVerifikasi(int pembayaranId, int sewaId, int userId, 
+                                                   String bukti, StatusPembayaran status) {
+        String key = "pembayaran-" + pembayaranId + "-" + status.name() + "-" + Objects.toString(bukti, "-");
+        
+        if (status == StatusPembayaran.BERHASIL) {
+            return new Notifikasi(key, userId, "PEMBAYARAN_DITERIMA", 
+                "Pembayaran Anda telah diverifikasi untuk Penyewaan #" + sewaId + ". Baju siap diambil!");
+        }
+        return new Notifikasi(key, userId, "PEMBAYARAN_DITOLAK", 
+            "Pembayaran Anda ditolak untuk Penyewaan #" + sewaId + 
+            ". Silakan upload ulang bukti pembayaran yang valid.");
+    }
+    
+    private static Notifikasi notifikasiBuktiBaru(int pembayaranId, String bukti) {
+        return new Notifikasi("bukti-" + pembayaranId + "-" + bukti, null, "BUKTI_BARU",
+            "Bukti pembayaran baru telah diupload untuk Pembayaran #" + pembayaranId + ". Silakan verifikasi.");
+    }
+    
     private void validatePembayaranInput(int sewaId, MetodePembayaran metode, 
                                          double jumlah, File buktiFile) 
             throws ValidationException, DatabaseException {
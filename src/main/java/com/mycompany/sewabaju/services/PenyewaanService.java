@@ -4,6 +4,10 @@ import com.mycompany.sewabaju.dao.DetailBajuDAO;
 import com.mycompany.sewabaju.dao.DetailPenyewaanDAO;
 import com.mycompany.sewabaju.dao.PelangganDAO;
 import com.mycompany.sewabaju.dao.PenyewaanDAO;
+import com.mycompany.sewabaju.events.EventBus;
+import com.mycompany.sewabaju.events.PenyewaanCreated;
+import com.mycompany.sewabaju.events.PenyewaanStatusChanged;
+import com.mycompany.sewabaju.events.StokChanged;
 import com.mycompany.sewabaju.exceptions.DatabaseException;
 import com.mycompany.sewabaju.exceptions.StokTidakCukupException;
 import com.mycompany.sewabaju.exceptions.ValidationException;
@@ -11,18 +15,31 @@ import com.mycompany.sewabaju.models.*;
 import com.mycompany.sewabaju.models.enums.Kondisi;
 import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
 import com.mycompany.sewabaju.utils.Session;
+import com.mycompany.sewabaju.utils.TaskScheduler;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class PenyewaanService {
     
+    // Batas waktu pembayaran sebelum penyewaan dibatalkan otomatis
+    private static final int PAYMENT_DEADLINE_HOURS = Integer.getInteger("sewabaju.payment.deadlineHours", 24);
+    private static final int EXPIRY_BATCH_SIZE = 200;
+    private static final long EXPIRY_INTERVAL_MINUTES = 15;
+    
     private final PenyewaanDAO penyewaanDAO;
     private final DetailPenyewaanDAO detailPenyewaanDAO;
     private final DetailBajuDAO detailBajuDAO;
     private final PelangganDAO pelangganDAO;
+    private final DailyStatsService dailyStatsService;
+    private ScheduledFuture<?> paymentExpiryTask;
     
     private static PenyewaanService instance;
     
@@ -31,6 +48,7 @@ public class PenyewaanService {
         this.detailPenyewaanDAO = new DetailPenyewaanDAO();
         this.detailBajuDAO = new DetailBajuDAO();
         this.pelangganDAO = new PelangganDAO();
+        this.dailyStatsService = DailyStatsService.getInstance();
     }
     
     public static PenyewaanService getInstance() {
@@ -47,10 +65,28 @@ public class PenyewaanService {
     public Penyewaan createPenyewaan(int userId, List<CartItem> cartItems, 
                                      LocalDate tglSewa, LocalDate tglKembali) 
             throws ValidationException, StokTidakCukupException, DatabaseException {
+        return createPenyewaan(userId, cartItems, tglSewa, tglKembali, false);
+    }
+    
+    /**
+     * Buat penyewaan dari stok yang sudah ditahan keranjang (CartService),
+     * stok tidak dicek maupun dikurangi lagi.
+     */
+    public Penyewaan createPenyewaanFromHold(int userId, List<CartItem> cartItems, 
+                                             LocalDate tglSewa, LocalDate tglKembali) 
+            throws ValidationException, DatabaseException {
+        return createPenyewaan(userId, cartItems, tglSewa, tglKembali, true);
+    }
+    
+    private Penyewaan createPenyewaan(int userId, List<CartItem> cartItems, 
+                                      LocalDate tglSewa, LocalDate tglKembali, boolean stokDitahan) 
+            throws ValidationException, StokTidakCukupException, DatabaseException {
         
         try {
             validatePenyewaanInput(cartItems, tglSewa, tglKembali);
-            checkStokAvailability(cartItems);
+            if (!stokDitahan) {
+                checkStokAvailability(cartItems);
+            }
             long jumlahHari = ChronoUnit.DAYS.between(tglSewa, tglKembali);
             double totalHarga = hitungTotalHarga(cartItems, (int) jumlahHari);
             Penyewaan penyewaan = new Penyewaan();
@@ -88,6 +124,10 @@ public class PenyewaanService {
                 detail.setDetailBaju(item.getDetailBaju());
                 detailList.add(detail);
                 
+                if (stokDitahan) {
+                    continue;
+                }
+                
                 boolean stokReduced = detailBajuDAO.kurangiStok(
                     item.getDetailBaju().getDetailBajuId(), 
                     item.getJumlah()
@@ -105,6 +145,17 @@ public class PenyewaanService {
             }
             
             penyewaan.setDetailPenyewaanList(detailList);
+            dailyStatsService.recordPenyewaanCreated(penyewaan);
+            
+            EventBus eventBus = EventBus.getInstance();
+            eventBus.publish(new PenyewaanCreated(sewaId, penyewaan.getUserId(), totalHarga));
+            if (!stokDitahan) {
+                List<Integer> detailBajuIds = new ArrayList<>();
+                for (DetailPenyewaan detail : detailList) {
+                    detailBajuIds.add(detail.getDetailBajuId());
+                }
+                eventBus.publish(new StokChanged(detailBajuIds));
+            }
             
             System.out.println("Penyewaan created: #" + sewaId + 
                              " | Items: " + detailList.size() + 
@@ -184,6 +235,34 @@ public class PenyewaanService {
         }
     }
     
+    public List<PenyewaanRow> getRiwayatPage(int userId, StatusPenyewaan status, int beforeSewaId, 
+                                             int pageSize) throws DatabaseException {
+        try {
+            return penyewaanDAO.findRowsByUserId(userId, status, beforeSewaId, pageSize);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal get riwayat sewa: " + e.getMessage(), e);
+        }
+    }
+    
+    public List<PenyewaanRow> getPenyewaanAktifRows(int userId) throws DatabaseException {
+        try {
+            return penyewaanDAO.findRowsByUserIdAndStatuses(userId,
+                    StatusPenyewaan.SEDANG_DISEWA,
+                    StatusPenyewaan.DIKONFIRMASI,
+                    StatusPenyewaan.MENUNGGU_PEMBAYARAN);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal get penyewaan aktif: " + e.getMessage(), e);
+        }
+    }
+    
+    public List<DetailPenyewaan> getItemsBySewaId(int sewaId) throws DatabaseException {
+        try {
+            return detailPenyewaanDAO.findItemsBySewaId(sewaId);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal get detail penyewaan: " + e.getMessage(), e);
+        }
+    }
+    
     public List<Penyewaan> getAllPenyewaan() throws DatabaseException {
         try {
             List<Penyewaan> penyewaanList = penyewaanDAO.findAll();
@@ -224,6 +303,14 @@ public class PenyewaanService {
         }
     }
     
+    public List<PenyewaanRow> getPenyewaanRows(LocalDate startDate, LocalDate endDate) throws DatabaseException {
+        try {
+            return penyewaanDAO.findRowsByTglSewa(startDate, endDate);
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal get laporan penyewaan: " + e.getMessage(), e);
+        }
+    }
+    
     public List<Penyewaan> getRecentPenyewaan(int limit) throws DatabaseException {
         try {
             return penyewaanDAO.findRecent(limit);
@@ -236,27 +323,7 @@ public class PenyewaanService {
             throws ValidationException, DatabaseException {
         
         try {
-            Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
-            
-            if (penyewaan == null) {
-                throw new DatabaseException("Penyewaan tidak ditemukan");
-            }
-            
-            if (!penyewaan.getStatus().canTransitionTo(newStatus)) {
-                throw new ValidationException(
-                    "Tidak bisa ubah status dari " + penyewaan.getStatus() + 
-                    " ke " + newStatus
-                );
-            }
-            
-            boolean updated = penyewaanDAO.updateStatus(sewaId, newStatus);
-            
-            if (!updated) {
-                throw new DatabaseException("Gagal update status");
-            }
-            
-            System.out.println("Status updated: Sewa #" + sewaId + " -> " + newStatus);
-            
+            EventBus.getInstance().publish(applyStatus(sewaId, newStatus));
             return true;
             
         } catch (ValidationException | DatabaseException e) {
@@ -274,6 +341,42 @@ public class PenyewaanService {
         }
     }
     
+    /**
+     * Konfirmasi penyewaan di dalam transaksi pemanggil. Event dikembalikan, bukan di-publish,
+     * supaya pemanggil baru mengirimnya setelah commit.
+     */
+    public PenyewaanStatusChanged confirmPenyewaanInTransaction(int sewaId) 
+            throws ValidationException, DatabaseException {
+        return applyStatus(sewaId, StatusPenyewaan.DIKONFIRMASI);
+    }
+    
+    private PenyewaanStatusChanged applyStatus(int sewaId, StatusPenyewaan newStatus) 
+            throws ValidationException, DatabaseException {
+        Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
+        
+        if (penyewaan == null) {
+            throw new DatabaseException("Penyewaan tidak ditemukan");
+        }
+        
+        if (!penyewaan.getStatus().canTransitionTo(newStatus)) {
+            throw new ValidationException(
+                "Tidak bisa ubah status dari " + penyewaan.getStatus() + 
+                " ke " + newStatus
+            );
+        }
+        
+        boolean updated = penyewaanDAO.updateStatus(sewaId, newStatus);
+        
+        if (!updated) {
+            throw new DatabaseException("Gagal update status");
+        }
+        
+        dailyStatsService.recordStatusChange(penyewaan, newStatus);
+        System.out.println("Status updated: Sewa #" + sewaId + " -> " + newStatus);
+        
+        return new PenyewaanStatusChanged(sewaId, penyewaan.getUserId(), penyewaan.getStatus(), newStatus);
+    }
+    
     public boolean startRental(int sewaId) throws DatabaseException {
         try {
             return updateStatus(sewaId, StatusPenyewaan.SEDANG_DISEWA);
@@ -284,7 +387,7 @@ public class PenyewaanService {
     
     public boolean cancelPenyewaan(int sewaId) throws DatabaseException {
         try {
-            Penyewaan penyewaan = getPenyewaanById(sewaId);
+            Penyewaan penyewaan = penyewaanDAO.findById(sewaId);
             
             if (penyewaan == null) {
                 throw new DatabaseException("Penyewaan tidak ditemukan");
@@ -294,15 +397,25 @@ public class PenyewaanService {
                 throw new ValidationException("Hanya bisa cancel penyewaan yang belum dibayar");
             }
             
-            for (DetailPenyewaan detail : penyewaan.getDetailPenyewaanList()) {
-                detailBajuDAO.tambahStok(detail.getDetailBajuId(), detail.getJumlah());
+            // Status dicek ulang di dalam transaksi, stok dikembalikan sekaligus
+            if (penyewaanDAO.cancelUnpaid(sewaId) == null) {
+                throw new ValidationException("Status penyewaan sudah berubah, tidak bisa dibatalkan");
             }
             
-            boolean updated = updateStatus(sewaId, StatusPenyewaan.DIBATALKAN);
+            dailyStatsService.recordStatusChange(penyewaan, StatusPenyewaan.DIBATALKAN);
+            
+            List<Integer> detailBajuIds = new ArrayList<>();
+            for (DetailPenyewaan detail : detailPenyewaanDAO.findBySewaId(sewaId)) {
+                detailBajuIds.add(detail.getDetailBajuId());
+            }
+            EventBus eventBus = EventBus.getInstance();
+            eventBus.publish(new PenyewaanStatusChanged(
+                sewaId, penyewaan.getUserId(), StatusPenyewaan.MENUNGGU_PEMBAYARAN, StatusPenyewaan.DIBATALKAN));
+            eventBus.publish(new StokChanged(detailBajuIds));
             
             System.out.println("Penyewaan cancelled: #" + sewaId);
             
-            return updated;
+            return true;
             
         } catch (ValidationException | DatabaseException e) {
             throw e;
@@ -311,6 +424,70 @@ public class PenyewaanService {
         }
     }
     
+    public synchronized void startPaymentExpiry() {
+        if (paymentExpiryTask == null) {
+            paymentExpiryTask = TaskScheduler.getInstance().scheduleWithFixedDelay(
+                "penyewaan-payment-expiry", () -> expireUnpaidPenyewaan(LocalDateTime.now()),
+                2, EXPIRY_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+    
+    public synchronized void stopPaymentExpiry() {
+        if (paymentExpiryTask != null) {
+            paymentExpiryTask.cancel(false);
+            paymentExpiryTask = null;
+        }
+    }
+    
+    public int getPaymentDeadlineHours() {
+        return PAYMENT_DEADLINE_HOURS;
+    }
+    
+    /**
+     * Batalkan penyewaan yang tidak dibayar melewati batas waktu dan kembalikan stoknya.
+     * Diproses per batch, masing-masing satu transaksi.
+     */
+    public synchronized int expireUnpaidPenyewaan(LocalDateTime now) throws DatabaseException {
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime cutoff = now.minusHours(PAYMENT_DEADLINE_HOURS);
+            Map<LocalDate, Integer> dibatalkanPerTanggal = new TreeMap<>();
+            int total = 0;
+            
+            while (true) {
+                List<Penyewaan> expired = penyewaanDAO.expireUnpaid(cutoff, EXPIRY_BATCH_SIZE);
+                
+                for (Penyewaan penyewaan : expired) {
+                    dibatalkanPerTanggal.merge(penyewaan.getTglSewa(), 1, Integer::sum);
+                    EventBus.getInstance().publish(new PenyewaanStatusChanged(
+                        penyewaan.getSewaId(), penyewaan.getUserId(),
+                        StatusPenyewaan.MENUNGGU_PEMBAYARAN, StatusPenyewaan.DIBATALKAN));
+                }
+                total += expired.size();
+                
+                if (expired.size() < EXPIRY_BATCH_SIZE) {
+                    break;
+                }
+            }
+            
+            if (total > 0) {
+                dibatalkanPerTanggal.forEach(dailyStatsService::recordPenyewaanDibatalkan);
+                EventBus.getInstance().publish(StokChanged.semua());
+                
+                System.out.println("Expired unpaid penyewaan: " + total + 
+                                 " (deadline " + PAYMENT_DEADLINE_HOURS + " jam) | " +
+                                 (System.currentTimeMillis() - start) + " ms");
+            }
+            
+            return total;
+            
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Gagal expire penyewaan: " + e.getMessage(), e);
+        }
+    }
+    
     public boolean processReturn(int sewaId, LocalDate tglKembaliAktual, 
                                  List<KondisiReturn> kondisiItems) 
             throws ValidationException, DatabaseException {
@@ -354,6 +531,12 @@ public class PenyewaanService {
                 }
             }
             
+            List<Integer> detailBajuIds = new ArrayList<>();
+            for (DetailPenyewaan detail : penyewaan.getDetailPenyewaanList()) {
+                detailBajuIds.add(detail.getDetailBajuId());
+            }
+            EventBus.getInstance().publish(new StokChanged(detailBajuIds));
+            
             updateStatus(sewaId, StatusPenyewaan.DIKEMBALIKAN);
             
             updatePoinLoyalitas(penyewaan.getUserId(), penyewaan.getTotalHarga());
@@ -370,8 +553,7 @@ public class PenyewaanService {
     
     public int getTotalPenyewaan(LocalDate startDate, LocalDate endDate) throws DatabaseException {
         try {
-            List<Penyewaan> list = penyewaanDAO.findByDateRange(startDate, endDate);
-            return list.size();
+            return dailyStatsService.getSummary(startDate, endDate).getJumlahPenyewaan();
         } catch (Exception e) {
             throw new DatabaseException("Gagal get total penyewaan: " + e.getMessage(), e);
         }
@@ -379,7 +561,7 @@ public class PenyewaanService {
     
     public double getTotalPendapatan(LocalDate startDate, LocalDate endDate) throws DatabaseException {
         try {
-            return penyewaanDAO.getTotalPendapatan(startDate, endDate);
+            return dailyStatsService.getSummary(startDate, endDate).getPendapatan();
         } catch (Exception e) {
             throw new DatabaseException("Gagal get total pendapatan: " + e.getMessage(), e);
         }
@@ -452,6 +634,8 @@ public class PenyewaanService {
             if (pelanggan != null) {
                 int poin = Pelanggan.hitungPoinFromBelanja(totalBelanja);
                 pelangganDAO.tambahPoin(pelanggan.getPelangganId(), poin);
+                // Poin ditambah setelah event status terkirim, buang ringkasan lagi
+                PelangganStatsService.getInstance().invalidate(userId);
                 
                 System.out.println("Poin added: " + poin + " for user " + userId);
             }
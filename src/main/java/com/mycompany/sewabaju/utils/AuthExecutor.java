@@ -0,0 +1,126 @@
+package com.mycompany.sewabaju.utils;
+
+import com.mycompany.sewabaju.database.DatabaseConnection;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AuthExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(AuthExecutor.class.getName());
+
+    // Target waktu satu verifikasi password di mesin ini
+    private static final long TARGET_HASH_MILLIS = Long.getLong("sewabaju.bcrypt.targetMillis", 250);
+    private static final int QUEUE_CAPACITY = 32;
+
+    private static AuthExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    private AuthExecutor() {
+        // BCrypt murni CPU-bound, sisakan core untuk UI dan database
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "sewabaju-auth-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static AuthExecutor getInstance() {
+        if (instance == null) {
+            synchronized (AuthExecutor.class) {
+                if (instance == null) {
+                    instance = new AuthExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                queueWaitNanos.add(System.nanoTime() - queuedAt);
+                try {
+                    // Login dan rehash menulis ke database dari thread auth
+                    future.complete(DatabaseConnection.getInstance().withPooledConnection(task::call));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    public void calibrateInBackground() {
+        submit(() -> {
+            long start = System.currentTimeMillis();
+            int rounds = PasswordUtil.calibrate(TARGET_HASH_MILLIS);
+            LOGGER.info("BCrypt cost calibrated: " + rounds + " (target " + TARGET_HASH_MILLIS +
+                       " ms, max " + PasswordUtil.getMaxBcryptRounds() +
+                       ", took " + (System.currentTimeMillis() - start) + " ms)");
+            return rounds;
+        }).exceptionally(t -> {
+            LOGGER.log(Level.WARNING, "BCrypt calibration failed, keeping cost " +
+                       PasswordUtil.getBcryptRounds(), t);
+            return PasswordUtil.getBcryptRounds();
+        });
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long count = completed.sum();
+        return count > 0 ? queueWaitNanos.sum() / 1_000_000.0 / count : 0;
+    }
+
+    public String getMetricsSummary() {
+        return String.format("cost=%d | verify=%d (avg %.1f ms, max %.1f ms) | hash=%d (avg %.1f ms) | " +
+                             "active=%d | queued=%d | rejected=%d | wait avg %.1f ms",
+                PasswordUtil.getBcryptRounds(),
+                PasswordUtil.getVerifyCount(), PasswordUtil.getAverageVerifyMillis(),
+                PasswordUtil.getMaxVerifyMillis(),
+                PasswordUtil.getHashCount(), PasswordUtil.getAverageHashMillis(),
+                getActiveCount(), getQueuedCount(), getRejectedCount(),
+                getAverageQueueWaitMillis());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.mycompany.sewabaju.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Penulis CSV (RFC 4180, UTF-8, baris CRLF) langsung ke FileChannel, opsional gzip.
+ * Satu baris dirakit di StringBuilder yang dipakai ulang lalu di-encode ke buffer byte,
+ * jadi tidak ada String per baris maupun per angka/tanggal.
+ */
+public class CsvWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final FileChannel file;
+    private final GZIPOutputStream gzip;
+    private final WritableByteChannel channel;
+    private final StringBuilder line = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private char[] chars = new char[256];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private boolean firstField = true;
+    private long rows;
+
+    private CsvWriter(FileChannel file, GZIPOutputStream gzip) {
+        this.file = file;
+        this.gzip = gzip;
+        this.channel = gzip != null ? Channels.newChannel(gzip) : file;
+    }
+
+    public static CsvWriter open(Path target, boolean compress) throws IOException {
+        FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (!compress) {
+            return new CsvWriter(file, null);
+        }
+        return new CsvWriter(file, new GZIPOutputStream(Channels.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    public void header(String... columns) throws IOException {
+        for (String column : columns) {
+            field(column);
+        }
+        writeLine();
+    }
+
+    public CsvWriter field(CharSequence value) {
+        separator();
+        if (value == null) {
+            return this;
+        }
+
+        if (!needsQuote(value)) {
+            line.append(value);
+            return this;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+        return this;
+    }
+
+    public CsvWriter field(long value) {
+        separator();
+        line.append(value);
+        return this;
+    }
+
+    /**
+     * Nominal dengan dua desimal dan titik, tanpa pemisah ribuan.
+     */
+    public CsvWriter money(double value) {
+        separator();
+        long sen = Math.round(value * 100);
+        if (sen < 0) {
+            line.append('-');
+            sen = -sen;
+        }
+        line.append(sen / 100).append('.');
+        pad2(sen % 100);
+        return this;
+    }
+
+    /**
+     * Tanggal ISO yyyy-MM-dd.
+     */
+    public CsvWriter field(LocalDate value) {
+        separator();
+        if (value != null) {
+            appendDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        }
+        return this;
+    }
+
+    /**
+     * Waktu yyyy-MM-dd HH:mm:ss.
+     */
+    public CsvWriter field(LocalDateTime value) {
+        separator();
+        if (value != null) {
+            appendDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            line.append(' ');
+            pad2(value.getHour());
+            line.append(':');
+            pad2(value.getMinute());
+            line.append(':');
+            pad2(value.getSecond());
+        }
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        writeLine();
+        rows++;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    private void writeLine() throws IOException {
+        line.append('\r').append('\n');
+
+        int length = line.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        line.getChars(0, length, chars, 0);
+        charBuffer.clear().limit(length);
+
+        while (true) {
+            CoderResult result = encoder.encode(charBuffer, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+
+        line.setLength(0);
+        firstField = true;
+    }
+
+    /**
+     * Tulis sisa buffer, tutup stream gzip, lalu sinkronkan ke disk supaya file yang
+     * sudah ditutup aman dianggap lengkap.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            charBuffer.clear().limit(0);
+            encoder.encode(charBuffer, buffer, true);
+            encoder.flush(buffer);
+            drain();
+
+            if (gzip != null) {
+                gzip.finish();
+                gzip.flush();
+            }
+            file.force(false);
+        } finally {
+            channel.close();
+            file.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void separator() {
+        if (firstField) {
+            firstField = false;
+        } else {
+            line.append(',');
+        }
+    }
+
+    private void appendDate(int year, int month, int day) {
+        line.append(year).append('-');
+        pad2(month);
+        line.append('-');
+        pad2(day);
+    }
+
+    private void pad2(long value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        line.append(value);
+    }
+
+    private static boolean needsQuote(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
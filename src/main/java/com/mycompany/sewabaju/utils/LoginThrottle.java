@@ -0,0 +1,242 @@
+package com.mycompany.sewabaju.utils;
+
+import java.net.InetAddress;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class LoginThrottle {
+
+    // Per akun: 5 percobaan beruntun, isi ulang 1 token tiap 30 detik
+    private static final int EMAIL_CAPACITY = 5;
+    private static final long EMAIL_REFILL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int EMAIL_BACKOFF_AFTER = 3;
+
+    // Per terminal: lebih longgar karena dipakai banyak petugas
+    private static final int SOURCE_CAPACITY = 20;
+    private static final long SOURCE_REFILL_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final int SOURCE_BACKOFF_AFTER = 10;
+
+    // Backoff eksponensial setelah sejumlah kegagalan beruntun
+    private static final long BACKOFF_BASE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long BACKOFF_MAX_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long IDLE_EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    public static final String LOCAL_SOURCE = resolveLocalSource();
+
+    private static LoginThrottle instance;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongSupplier clock;
+
+    private LoginThrottle() {
+        this(System::nanoTime);
+        TaskScheduler.getInstance().scheduleWithFixedDelay("login-throttle-cleanup",
+                this::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    // Untuk pengujian: jam bisa diatur, tanpa job pembersihan terjadwal
+    LoginThrottle(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static LoginThrottle getInstance() {
+        if (instance == null) {
+            synchronized (LoginThrottle.class) {
+                if (instance == null) {
+                    instance = new LoginThrottle();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Ambil satu token dari bucket akun dan terminal.
+     * @return 0 jika boleh lanjut, selain itu sisa waktu tunggu dalam detik
+     */
+    public long tryAcquire(String email, String source) {
+        long now = clock.getAsLong();
+        Bucket emailBucket = emailBucket(email, now);
+        Bucket sourceBucket = sourceBucket(source, now);
+
+        long wait = Math.max(emailBucket.waitNanos(now), sourceBucket.waitNanos(now));
+        if (wait == 0 && emailBucket.tryConsume(now)) {
+            if (sourceBucket.tryConsume(now)) {
+                return 0;
+            }
+            emailBucket.refund();
+            wait = sourceBucket.waitNanos(now);
+        } else if (wait == 0) {
+            wait = emailBucket.waitNanos(now);
+        }
+
+        rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+    }
+
+    public void recordFailure(String email, String source) {
+        long now = clock.getAsLong();
+        emailBucket(email, now).fail(now);
+        sourceBucket(source, now).fail(now);
+    }
+
+    public void recordSuccess(String email, String source) {
+        buckets.remove(emailKey(email));
+        Bucket sourceBucket = buckets.get(sourceKey(source));
+        if (sourceBucket != null) {
+            sourceBucket.resetFailures();
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket emailBucket(String email, long now) {
+        return bucket(emailKey(email), EMAIL_CAPACITY, EMAIL_REFILL_NANOS, EMAIL_BACKOFF_AFTER, now);
+    }
+
+    private Bucket sourceBucket(String source, long now) {
+        return bucket(sourceKey(source), SOURCE_CAPACITY, SOURCE_REFILL_NANOS, SOURCE_BACKOFF_AFTER, now);
+    }
+
+    private Bucket bucket(String key, int capacity, long refillNanos, int backoffAfter, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_ENTRIES) {
+            evictExpired();
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillNanos, backoffAfter, now));
+    }
+
+    void evictExpired() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+
+        // Masih penuh (serangan banyak email acak): buang entri yang tidak sedang diblokir
+        if (buckets.size() >= MAX_ENTRIES) {
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (buckets.size() >= MAX_ENTRIES * 3 / 4 && it.hasNext()) {
+                if (it.next().waitNanos(now) == 0) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + (email != null ? email.trim().toLowerCase() : "");
+    }
+
+    private static String sourceKey(String source) {
+        return "s:" + (source != null ? source : LOCAL_SOURCE);
+    }
+
+    private static String resolveLocalSource() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "localhost";
+        }
+    }
+
+    private static final class State {
+        final double tokens;
+        final long refilledAt;
+        final int failures;
+        final long blockedUntil;
+        final long lastSeen;
+
+        State(double tokens, long refilledAt, int failures, long blockedUntil, long lastSeen) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+            this.failures = failures;
+            this.blockedUntil = blockedUntil;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    private static final class Bucket {
+        private final int capacity;
+        private final long refillNanos;
+        private final int backoffAfter;
+        private final AtomicReference<State> state;
+
+        Bucket(int capacity, long refillNanos, int backoffAfter, long now) {
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.backoffAfter = backoffAfter;
+            this.state = new AtomicReference<>(new State(capacity, now, 0, now, now));
+        }
+
+        private double refilled(State s, long now) {
+            return Math.min(capacity, s.tokens + (double) (now - s.refilledAt) / refillNanos);
+        }
+
+        long waitNanos(long now) {
+            State s = state.get();
+            long blocked = Math.max(0, s.blockedUntil - now);
+            double tokens = refilled(s, now);
+            long refill = tokens >= 1 ? 0 : (long) ((1 - tokens) * refillNanos);
+            return Math.max(blocked, refill);
+        }
+
+        boolean tryConsume(long now) {
+            while (true) {
+                State s = state.get();
+                if (s.blockedUntil - now > 0) {
+                    return false;
+                }
+                double tokens = refilled(s, now);
+                if (tokens < 1) {
+                    return false;
+                }
+                State next = new State(tokens - 1, now, s.failures, s.blockedUntil, now);
+                if (state.compareAndSet(s, next)) {
+                    return true;
+                }
+            }
+        }
+
+        void refund() {
+            state.updateAndGet(s -> new State(Math.min(capacity, s.tokens + 1), s.refilledAt,
+                    s.failures, s.blockedUntil, s.lastSeen));
+        }
+
+        void fail(long now) {
+            state.updateAndGet(s -> {
+                int failures = s.failures + 1;
+                long blockedUntil = s.blockedUntil;
+                if (failures >= backoffAfter) {
+                    int shift = Math.min(failures - backoffAfter, 20);
+                    long backoff = Math.min(BACKOFF_MAX_NANOS, BACKOFF_BASE_NANOS << shift);
+                    blockedUntil = now + backoff;
+                }
+                return new State(s.tokens, s.refilledAt, failures, blockedUntil, now);
+            });
+        }
+
+        void resetFailures() {
+            state.updateAndGet(s -> new State(s.tokens, s.refilledAt, 0, s.blockedUntil, s.lastSeen));
+        }
+
+        boolean isIdle(long now) {
+            State s = state.get();
+            return now - s.lastSeen > IDLE_EXPIRY_NANOS && s.blockedUntil - now <= 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.mycompany.sewabaju.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Muat data di background sebelum dibutuhkan. Hasil disimpan per key sampai dibuang
+ * lewat retainOnly/invalidate; load yang gagal diulang pada get berikutnya.
+ */
+public class LookAheadLoader<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private final Loader<K, V> loader;
+    private final ExecutorService executor;
+    private final Map<K, CompletableFuture<V>> entries = new ConcurrentHashMap<>();
+
+    public LookAheadLoader(String name, int threads, Loader<K, V> loader) {
+        this.loader = loader;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<V> get(K key) {
+        CompletableFuture<V> future = entries.computeIfAbsent(key, this::submit);
+
+        if (future.isCompletedExceptionally()) {
+            entries.remove(key, future);
+            future = entries.computeIfAbsent(key, this::submit);
+        }
+        return future;
+    }
+
+    public void prefetch(Collection<K> keys) {
+        for (K key : keys) {
+            get(key);
+        }
+    }
+
+    /**
+     * Buang semua entry di luar keys; load yang belum jalan dibatalkan.
+     */
+    public void retainOnly(Collection<K> keys) {
+        Set<K> keep = new HashSet<>(keys);
+        entries.entrySet().removeIf(entry -> {
+            if (keep.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().cancel(false);
+            return true;
+        });
+    }
+
+    public void invalidate(K key) {
+        CompletableFuture<V> future = entries.remove(key);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void shutdown() {
+        entries.values().forEach(future -> future.cancel(false));
+        entries.clear();
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<V> submit(K key) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loader.load(key);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
\ No newline at end of file
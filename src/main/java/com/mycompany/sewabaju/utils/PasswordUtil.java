@@ -2,15 +2,38 @@ package com.mycompany.sewabaju.utils;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 public class PasswordUtil {
-    private static final int BCRYPT_ROUNDS = 12;
+    private static final int DEFAULT_BCRYPT_ROUNDS = 12;
+    private static final int MIN_BCRYPT_ROUNDS = 10;
+    private static final int MAX_BCRYPT_ROUNDS = 15;
+    
+    // Hash disimpan di database bersama, jadi batas atas cost ditentukan untuk semua terminal:
+    // kalibrasi di mesin cepat tidak boleh membuat login di mesin kasir yang lambat ikut berat
+    private static final int CONFIGURED_MAX_ROUNDS = Math.max(MIN_BCRYPT_ROUNDS,
+            Math.min(MAX_BCRYPT_ROUNDS, Integer.getInteger("sewabaju.bcrypt.maxRounds", DEFAULT_BCRYPT_ROUNDS)));
+    
+    private static volatile int bcryptRounds = Math.min(DEFAULT_BCRYPT_ROUNDS, CONFIGURED_MAX_ROUNDS);
+    
+    private static final LongAdder hashCount = new LongAdder();
+    private static final LongAdder hashNanos = new LongAdder();
+    private static final LongAdder verifyCount = new LongAdder();
+    private static final LongAdder verifyNanos = new LongAdder();
+    private static final AtomicLong maxVerifyNanos = new AtomicLong();
     
     public static String hashPassword(String plainPassword) {
         if (plainPassword == null || plainPassword.isEmpty()) {
             throw new IllegalArgumentException("Password tidak boleh kosong");
         }
         
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_ROUNDS));
+        long start = System.nanoTime();
+        String hashed = BCrypt.hashpw(plainPassword, BCrypt.gensalt(bcryptRounds));
+        hashCount.increment();
+        hashNanos.add(System.nanoTime() - start);
+        
+        return hashed;
     }
     
     public static boolean verifyPassword(String plainPassword, String hashedPassword) {
@@ -18,12 +41,97 @@ public class PasswordUtil {
             return false;
         }
         
+        long start = System.nanoTime();
         try {
             return BCrypt.checkpw(plainPassword, hashedPassword);
         } catch (Exception e) {
             // Invalid hash format
             return false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            verifyCount.increment();
+            verifyNanos.add(elapsed);
+            maxVerifyNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+    
+    /**
+     * Pilih cost BCrypt tertinggi yang masih di bawah target waktu di mesin ini.
+     * Cost tidak pernah turun di bawah MIN_BCRYPT_ROUNDS dan tidak pernah melewati
+     * sewabaju.bcrypt.maxRounds.
+     */
+    public static int calibrate(long targetMillis) {
+        String sample = "kalibrasi-" + System.nanoTime();
+        
+        // Pemanasan JIT agar pengukuran pertama tidak menyesatkan
+        BCrypt.hashpw(sample, BCrypt.gensalt(4));
+        
+        long start = System.nanoTime();
+        BCrypt.hashpw(sample, BCrypt.gensalt(MIN_BCRYPT_ROUNDS));
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        
+        // Setiap kenaikan cost menggandakan waktu hash
+        int rounds = MIN_BCRYPT_ROUNDS;
+        while (rounds < CONFIGURED_MAX_ROUNDS && millis * 2 <= targetMillis) {
+            rounds++;
+            millis *= 2;
+        }
+        
+        bcryptRounds = rounds;
+        return rounds;
+    }
+    
+    public static int getBcryptRounds() {
+        return bcryptRounds;
+    }
+    
+    public static int getMaxBcryptRounds() {
+        return CONFIGURED_MAX_ROUNDS;
+    }
+    
+    /**
+     * Rehash bila cost hash di bawah cost mesin ini, atau di atas batas yang dikonfigurasi
+     * (sisa kalibrasi lama) supaya diturunkan kembali.
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        int rounds = getRounds(hashedPassword);
+        return rounds > 0 && (rounds < bcryptRounds || rounds > CONFIGURED_MAX_ROUNDS);
+    }
+    
+    public static int getRounds(String hashedPassword) {
+        // Format: $2a$12$<salt+hash>
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
         }
+        
+        try {
+            int end = hashedPassword.indexOf('$', 4);
+            return Integer.parseInt(hashedPassword.substring(4, end));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+    
+    public static long getHashCount() {
+        return hashCount.sum();
+    }
+    
+    public static double getAverageHashMillis() {
+        long count = hashCount.sum();
+        return count > 0 ? hashNanos.sum() / 1_000_000.0 / count : 0;
+    }
+    
+    public static long getVerifyCount() {
+        return verifyCount.sum();
+    }
+    
+    public static double getAverageVerifyMillis() {
+        long count = verifyCount.sum();
+        return count > 0 ? verifyNanos.sum() / 1_000_000.0 / count : 0;
+    }
+    
+    public static double getMaxVerifyMillis() {
+        return maxVerifyNanos.get() / 1_000_000.0;
     }
     
     public static boolean isStrongPassword(String password) {
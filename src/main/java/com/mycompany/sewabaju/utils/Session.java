@@ -9,6 +9,9 @@ public class Session {
     
     private static Session instance;
     
+    // Session per request untuk mode server, menggantikan session global selama request berjalan
+    private static final ThreadLocal<Session> SCOPED = new ThreadLocal<>();
+    
     private User currentUser;
     private Admin currentAdmin;
     private Pelanggan currentPelanggan;
@@ -17,6 +20,11 @@ public class Session {
     }
     
     public static Session getInstance() {
+        Session scoped = SCOPED.get();
+        if (scoped != null) {
+            return scoped;
+        }
+        
         if (instance == null) {
             synchronized (Session.class) {
                 if (instance == null) {
@@ -27,6 +35,19 @@ public class Session {
         return instance;
     }
     
+    public static Session openScoped(User user) {
+        Session session = new Session();
+        if (user != null) {
+            session.setCurrentUser(user);
+        }
+        SCOPED.set(session);
+        return session;
+    }
+    
+    public static void closeScoped() {
+        SCOPED.remove();
+    }
+    
     public void setCurrentUser(User user) {
         this.currentUser = user;
         
@@ -0,0 +1,74 @@
+package com.mycompany.sewabaju.utils;
+
+import com.mycompany.sewabaju.database.DatabaseConnection;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TaskScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskScheduler.class.getName());
+    private static final int POOL_SIZE = 2;
+
+    private static TaskScheduler instance;
+
+    private final ScheduledExecutorService executor;
+
+    private TaskScheduler() {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "sewabaju-scheduler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static TaskScheduler getInstance() {
+        if (instance == null) {
+            synchronized (TaskScheduler.class) {
+                if (instance == null) {
+                    instance = new TaskScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Jeda dihitung dari selesainya run sebelumnya, jadi job yang lambat tidak pernah tumpang tindih.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable task,
+                                                     long initialDelay, long delay, TimeUnit unit) {
+        return executor.scheduleWithFixedDelay(wrap(name, task), initialDelay, delay, unit);
+    }
+
+    public ScheduledFuture<?> schedule(String name, Runnable task, long delay, TimeUnit unit) {
+        return executor.schedule(wrap(name, task), delay, unit);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Runnable wrap(String name, Runnable task) {
+        return () -> {
+            try {
+                // Setiap job memakai connection pool sendiri, bukan connection bersama FX thread
+                DatabaseConnection.getInstance().runPooled(task);
+            } catch (Throwable t) {
+                // Exception yang lolos akan menghentikan jadwal berikutnya
+                LOGGER.log(Level.WARNING, "Scheduled task '" + name + "' failed", t);
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ module com.mycompany.sewabaju {
     requires javafx.graphics;
 
     requires java.sql;
+    
+    requires jdk.httpserver;
 
     requires mysql.connector.j;
     
@@ -13,6 +15,8 @@ module com.mycompany.sewabaju {
     
     requires org.apache.poi.ooxml;
     
+    requires itextpdf;
+    
     opens com.mycompany.sewabaju to javafx.fxml;
     opens com.mycompany.sewabaju.controllers to javafx.fxml;
     opens com.mycompany.sewabaju.controllers.admin to javafx.fxml;
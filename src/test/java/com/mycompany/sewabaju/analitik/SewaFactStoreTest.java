@@ -0,0 +1,177 @@
+package com.mycompany.sewabaju.analitik;
+
+import com.mycompany.sewabaju.models.enums.StatusPenyewaan;
+import com.mycompany.sewabaju.models.enums.Ukuran;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SewaFactStoreTest {
+
+    private static final LocalDate HARI_1 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate HARI_2 = LocalDate.of(2024, 2, 5);
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2024, 2, 5, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void applyThenAggregateWithFilter() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts());
+            assertEquals(4, store.getRowCount());
+
+            Map<Integer, long[]> perStatus = store.aggregate(new FactFilter(null, null), Dimensi.STATUS);
+            assertArrayEquals(new long[] {3, 4, 45000_00}, perStatus.get(SewaFactStore.encode(StatusPenyewaan.DIKEMBALIKAN)));
+            assertArrayEquals(new long[] {1, 1, 20000_00}, perStatus.get(SewaFactStore.encode(StatusPenyewaan.DIBATALKAN)));
+
+            // Batas tanggal inklusif
+            FactFilter januari = new FactFilter(HARI_1, HARI_1);
+            assertEquals(2, store.aggregate(januari, Dimensi.BAJU).values().stream().mapToLong(a -> a[0]).sum());
+
+            FactFilter filter = new FactFilter(null, null)
+                    .setKategoriId(1)
+                    .setUkuran(Ukuran.M)
+                    .setStatus(EnumSet.of(StatusPenyewaan.DIKEMBALIKAN));
+            Map<Integer, long[]> perBaju = store.aggregate(filter, Dimensi.BAJU);
+            assertEquals(1, perBaju.size());
+            assertArrayEquals(new long[] {2, 3, 30000_00}, perBaju.get(100));
+
+            Map<Integer, long[]> perPelanggan = store.aggregate(new FactFilter(null, null).setUserId(8), Dimensi.PELANGGAN);
+            assertArrayEquals(new long[] {1, 1, 20000_00}, perPelanggan.get(8));
+        }
+    }
+
+    @Test
+    void applyOverwritesByDetailSewaId() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts());
+            store.apply(List.of(fact(1, 10, 7, HARI_1, 1, 100, Ukuran.M, StatusPenyewaan.DIBATALKAN, 2, 20000)));
+
+            assertEquals(4, store.getRowCount());
+            Map<Integer, long[]> perStatus = store.aggregate(new FactFilter(null, null), Dimensi.STATUS);
+            assertArrayEquals(new long[] {2, 3, 40000_00},
+                    perStatus.get(SewaFactStore.encode(StatusPenyewaan.DIBATALKAN)));
+        }
+    }
+
+    @Test
+    void committedRowsSurviveReopen() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts());
+            store.commit(WATERMARK);
+        }
+
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            assertEquals(4, store.getRowCount());
+            assertEquals(WATERMARK, store.getWatermark());
+
+            Map<Integer, long[]> perBulan = store.aggregate(new FactFilter(null, null), Dimensi.BULAN);
+            assertEquals(2, perBulan.size());
+            assertArrayEquals(new long[] {2, 3, 35000_00}, perBulan.get(2024 * 12));
+            assertEquals(HARI_2.withDayOfMonth(1), SewaFactStore.decodeBulan(2024 * 12 + 1));
+
+            // Indeks detail_sewa_id dibangun ulang: baris lama ditimpa, bukan ditambah
+            store.apply(List.of(fact(4, 12, 9, HARI_2, 2, 200, Ukuran.L, StatusPenyewaan.DIKEMBALIKAN, 1, 5000)));
+            assertEquals(4, store.getRowCount());
+        }
+    }
+
+    @Test
+    void uncommittedRowsAreDroppedOnReopen() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts().subList(0, 2));
+            store.commit(WATERMARK);
+            store.apply(sampleFacts().subList(2, 4));
+        }
+
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            assertEquals(2, store.getRowCount());
+            assertEquals(WATERMARK, store.getWatermark());
+        }
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() throws IOException {
+        List<SewaFact> facts = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            facts.add(fact(i, i, i % 50 + 1, HARI_1.plusDays(i % 30), i % 3 + 1, i % 7 + 1,
+                    Ukuran.S, StatusPenyewaan.DIKEMBALIKAN, 1, 1000));
+        }
+
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(facts);
+            store.commit(WATERMARK);
+        }
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            Map<Integer, long[]> perKategori = store.aggregate(new FactFilter(null, null), Dimensi.KATEGORI);
+            assertEquals(10_000, perKategori.values().stream().mapToLong(a -> a[0]).sum());
+            assertEquals(10_000L * 1000_00, perKategori.values().stream().mapToLong(a -> a[2]).sum());
+        }
+    }
+
+    @Test
+    void resetStartsNewEmptyGeneration() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts());
+            store.commit(WATERMARK);
+
+            store.reset();
+            assertEquals(0, store.getRowCount());
+            assertNull(store.getWatermark());
+            assertTrue(store.aggregate(new FactFilter(null, null), Dimensi.STATUS).isEmpty());
+
+            store.apply(sampleFacts().subList(0, 1));
+            store.commit(WATERMARK);
+        }
+
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            assertEquals(1, store.getRowCount());
+        }
+        try (Stream<Path> entries = Files.list(dir)) {
+            assertEquals(1, entries.filter(p -> p.getFileName().toString().startsWith("gen-")).count());
+        }
+    }
+
+    @Test
+    void corruptMetadataStartsEmpty() throws IOException {
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            store.apply(sampleFacts());
+            store.commit(WATERMARK);
+        }
+        Files.writeString(dir.resolve("fakta.meta"), "version=2\ngeneration=bukan-angka\n");
+
+        try (SewaFactStore store = SewaFactStore.open(dir)) {
+            assertEquals(0, store.getRowCount());
+            assertNull(store.getWatermark());
+        }
+    }
+
+    private static List<SewaFact> sampleFacts() {
+        return List.of(
+                fact(1, 10, 7, HARI_1, 1, 100, Ukuran.M, StatusPenyewaan.DIKEMBALIKAN, 2, 20000),
+                fact(2, 10, 7, HARI_1, 2, 200, Ukuran.L, StatusPenyewaan.DIKEMBALIKAN, 1, 15000),
+                fact(3, 11, 7, HARI_2, 1, 100, Ukuran.M, StatusPenyewaan.DIKEMBALIKAN, 1, 10000),
+                fact(4, 12, 8, HARI_2, 1, 100, Ukuran.M, StatusPenyewaan.DIBATALKAN, 1, 20000));
+    }
+
+    private static SewaFact fact(int detailSewaId, int sewaId, int userId, LocalDate tgl, int kategoriId,
+                                 int bajuId, Ukuran ukuran, StatusPenyewaan status, int jumlah, double subtotal) {
+        return new SewaFact(detailSewaId, sewaId, userId, tgl, kategoriId, bajuId, ukuran, status, jumlah, subtotal);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.mycompany.sewabaju.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        Path file = dir.resolve("quote.csv");
+        try (CsvWriter csv = CsvWriter.open(file, false)) {
+            csv.field("biasa")
+               .field("a,b")
+               .field("kata \"dia\"")
+               .field("baris1\nbaris2")
+               .field("cr\rsaja")
+               .field((CharSequence) null)
+               .field("");
+            csv.endRow();
+        }
+
+        assertEquals("biasa,\"a,b\",\"kata \"\"dia\"\"\",\"baris1\nbaris2\",\"cr\rsaja\",,\r\n",
+                     read(file));
+    }
+
+    @Test
+    void rowsEndWithCrlfAndHeaderIsNotCounted() throws IOException {
+        Path file = dir.resolve("rows.csv");
+        long rows;
+        try (CsvWriter csv = CsvWriter.open(file, false)) {
+            csv.header("id", "nama", "total");
+            csv.field(1).field("Kebaya").money(150000);
+            csv.endRow();
+            csv.field(2).field("Beskap").money(-1234.5);
+            csv.endRow();
+            rows = csv.getRows();
+        }
+
+        assertEquals(2, rows);
+        assertEquals("id,nama,total\r\n" +
+                     "1,Kebaya,150000.00\r\n" +
+                     "2,Beskap,-1234.50\r\n", read(file));
+    }
+
+    @Test
+    void formatsMoneyAndDates() throws IOException {
+        Path file = dir.resolve("format.csv");
+        try (CsvWriter csv = CsvWriter.open(file, false)) {
+            csv.money(0.05).money(99.999).money(-0.5)
+               .field(LocalDate.of(2024, 3, 7))
+               .field(LocalDateTime.of(2024, 12, 31, 9, 5, 3))
+               .field((LocalDate) null)
+               .field((LocalDateTime) null);
+            csv.endRow();
+        }
+
+        assertEquals("0.05,100.00,-0.50,2024-03-07,2024-12-31 09:05:03,,\r\n", read(file));
+    }
+
+    @Test
+    void gzipRoundTripMatchesPlainOutput() throws IOException {
+        Path plain = dir.resolve("plain.csv");
+        Path gzip = dir.resolve("data.csv.gz");
+
+        // Cukup banyak baris supaya buffer 256 KB terisi beberapa kali, dengan karakter multi-byte
+        try (CsvWriter a = CsvWriter.open(plain, false); CsvWriter b = CsvWriter.open(gzip, true)) {
+            for (CsvWriter csv : new CsvWriter[] {a, b}) {
+                csv.header("id", "keterangan", "tanggal");
+            }
+            for (int i = 0; i < 50_000; i++) {
+                for (CsvWriter csv : new CsvWriter[] {a, b}) {
+                    csv.field(i).field("Kebaya brokat – ukuran \"L\", no. " + i)
+                       .field(LocalDate.of(2024, 1, 1).plusDays(i % 366));
+                    csv.endRow();
+                }
+            }
+        }
+
+        String expected = read(plain);
+        String actual;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            actual = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertTrue(Files.size(plain) > 256 * 1024);
+        assertEquals(expected, actual);
+        assertTrue(actual.endsWith("\"Kebaya brokat – ukuran \"\"L\"\", no. 49999\",2024-08-11\r\n"));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
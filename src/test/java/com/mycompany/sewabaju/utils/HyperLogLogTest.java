@@ -0,0 +1,86 @@
+package com.mycompany.sewabaju.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    // Presisi 12: galat standar 1.04 / sqrt(4096) = 1.6%, batas uji sekitar 3 sigma
+    private static final double MAX_ERROR = 0.05;
+
+    @Test
+    void estimateIsWithinErrorBound() {
+        for (int n : new int[] {1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long i = 0; i < n; i++) {
+                sketch.add(i);
+            }
+            assertWithinError(n, sketch.estimate());
+        }
+    }
+
+    @Test
+    void smallCardinalityUsesLinearCounting() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+
+        for (long i = 1; i <= 100; i++) {
+            sketch.add(i * 7919);
+        }
+        assertTrue(Math.abs(sketch.estimate() - 100) <= 3, "estimate " + sketch.estimate());
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog once = new HyperLogLog();
+        HyperLogLog twice = new HyperLogLog();
+        for (long i = 0; i < 50_000; i++) {
+            once.add(i);
+            twice.add(i);
+            twice.add(i);
+        }
+        assertEquals(once.estimate(), twice.estimate());
+    }
+
+    @Test
+    void mergeOfOverlappingPartitionsEstimatesUnion() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (long i = 0; i < 60_000; i++) {
+            a.add(i);
+            union.add(i);
+        }
+        for (long i = 40_000; i < 100_000; i++) {
+            b.add(i);
+            union.add(i);
+        }
+
+        a.merge(b);
+
+        // Merge mengambil register maksimum, jadi hasilnya sama persis dengan sketch gabungan
+        assertEquals(union.estimate(), a.estimate());
+        assertWithinError(100_000, a.estimate());
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecision() {
+        HyperLogLog a = new HyperLogLog(12);
+        HyperLogLog b = new HyperLogLog(10);
+        assertThrows(IllegalArgumentException.class, () -> a.merge(b));
+    }
+
+    @Test
+    void rejectsPrecisionOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= MAX_ERROR, "expected ~" + expected + " but was " + actual);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.mycompany.sewabaju.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final String EMAIL = "admin@sewabaju.com";
+    private static final String SOURCE = "10.0.0.5";
+
+    private long now;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        // Mulai dari nilai besar supaya selisih nanoTime tidak pernah negatif
+        now = TimeUnit.DAYS.toNanos(1);
+        throttle = new LoginThrottle(() -> now);
+    }
+
+    @Test
+    void allowsBurstThenWaitsForRefill() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+        }
+
+        // Token habis, satu token kembali dalam 30 detik
+        assertEquals(31, throttle.tryAcquire(EMAIL, SOURCE));
+        assertEquals(1, throttle.getRejectedCount());
+
+        advanceSeconds(30);
+        assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+    }
+
+    @Test
+    void backoffDoublesAfterRepeatedFailures() {
+        fail(EMAIL, 2);
+        assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+
+        // Kegagalan ketiga: blokir 2 detik
+        fail(EMAIL, 1);
+        assertEquals(3, throttle.tryAcquire(EMAIL, SOURCE));
+        advanceSeconds(2);
+        assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+
+        // Kegagalan keempat: blokir 4 detik
+        fail(EMAIL, 1);
+        advanceSeconds(3);
+        assertTrue(throttle.tryAcquire(EMAIL, SOURCE) > 0);
+        advanceSeconds(1);
+        assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+    }
+
+    @Test
+    void backoffIsCappedAtFifteenMinutes() {
+        fail(EMAIL, 40);
+        assertEquals(TimeUnit.MINUTES.toSeconds(15) + 1, throttle.tryAcquire(EMAIL, SOURCE));
+    }
+
+    @Test
+    void successClearsAccountBackoff() {
+        fail(EMAIL, 3);
+        assertTrue(throttle.tryAcquire(EMAIL, SOURCE) > 0);
+
+        throttle.recordSuccess(EMAIL, SOURCE);
+        assertEquals(0, throttle.tryAcquire(EMAIL, SOURCE));
+    }
+
+    @Test
+    void emailKeyIgnoresCaseAndWhitespace() {
+        fail(" Admin@SewaBaju.com ", 3);
+        assertTrue(throttle.tryAcquire(EMAIL, SOURCE) > 0);
+    }
+
+    @Test
+    void sourceLimitAppliesAcrossAccounts() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i + "@sewabaju.com", SOURCE));
+        }
+        assertTrue(throttle.tryAcquire("lain@sewabaju.com", SOURCE) > 0);
+        assertEquals(0, throttle.tryAcquire("lain@sewabaju.com", "10.0.0.6"));
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        for (int i = 0; i < 100; i++) {
+            throttle.tryAcquire("user" + i + "@sewabaju.com", SOURCE);
+        }
+        assertEquals(101, throttle.size());
+
+        advanceSeconds(TimeUnit.MINUTES.toSeconds(29));
+        throttle.evictExpired();
+        assertEquals(101, throttle.size());
+
+        advanceSeconds(TimeUnit.MINUTES.toSeconds(2));
+        throttle.evictExpired();
+        assertEquals(0, throttle.size());
+    }
+
+    @Test
+    void fullTableDropsUnblockedBucketsButKeepsBlockedOnes() {
+        fail(EMAIL, 3);
+
+        // MAX_ENTRIES = 10.000; entri baru berikutnya memicu pembersihan
+        for (int i = 0; throttle.size() < 10_000; i++) {
+            throttle.tryAcquire("acak" + i + "@example.com", "terminal-" + i);
+        }
+        throttle.tryAcquire("terakhir@example.com", SOURCE);
+
+        assertTrue(throttle.size() <= 7_500 + 2, "size " + throttle.size());
+        assertTrue(throttle.tryAcquire(EMAIL, SOURCE) > 0);
+    }
+
+    private void fail(String email, int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure(email, SOURCE);
+        }
+    }
+
+    private void advanceSeconds(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
\ No newline at end of file